@@ -0,0 +1,35 @@
+package com.example.gnss;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+// Roda todos os benchmarks do app com o profiler de GC (taxa de alocação por operação em
+// gc.alloc.rate.norm) e grava o resultado em JSON, no formato de src/jmh/baseline.json.
+// Uso: BenchmarkRunner [arquivo de saída] [regex dos benchmarks]
+public final class BenchmarkRunner {
+
+    private BenchmarkRunner() {
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        String output = args.length > 0 ? args[0] : "build/jmh/results.json";
+        String include = args.length > 1 ? args[1] : BenchmarkRunner.class.getPackage().getName() + ".*Benchmark";
+        Options options = new OptionsBuilder()
+                .include(include)
+                .addProfiler(GCProfiler.class)
+                .forks(1)
+                .warmupIterations(3)
+                .warmupTime(TimeValue.seconds(1))
+                .measurementIterations(5)
+                .measurementTime(TimeValue.seconds(1))
+                .resultFormat(ResultFormatType.JSON)
+                .result(output)
+                .build();
+        new Runner(options).run();
+    }
+}
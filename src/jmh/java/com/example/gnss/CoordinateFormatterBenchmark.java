@@ -0,0 +1,49 @@
+package com.example.gnss;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+// Compara a formatação original do GNSSActivity (String.format por coordenada e concatenação)
+// com o CoordinateFormatter escrevendo num StringBuilder reutilizado.
+@State(Scope.Thread)
+public class CoordinateFormatterBenchmark {
+
+    @Param({"DEGREES", "DEGREES_MINUTES", "DEGREES_MINUTES_SECONDS"})
+    public CoordinateFormat format;
+
+    private final double latitude = -23.5505199;
+    private final double longitude = -46.6333094;
+    private final StringBuilder text = new StringBuilder(64);
+
+    @Benchmark
+    public String legacyStringFormat() {
+        return "Lat: " + legacyFormat(latitude) + ", Lon: " + legacyFormat(longitude);
+    }
+
+    @Benchmark
+    public StringBuilder reusableBuilder() {
+        text.setLength(0);
+        return CoordinateFormatter.appendLatLon(text, latitude, longitude, format);
+    }
+
+    private String legacyFormat(double coordinate) {
+        switch (format) {
+            case DEGREES_MINUTES: {
+                int degrees = (int) coordinate;
+                double minutes = (coordinate - degrees) * 60;
+                return String.format("%d:%.5f", degrees, minutes);
+            }
+            case DEGREES_MINUTES_SECONDS: {
+                int degrees = (int) coordinate;
+                double minutes = (coordinate - degrees) * 60;
+                int intMinutes = (int) minutes;
+                double seconds = (minutes - intMinutes) * 60;
+                return String.format("%d:%02d:%.5f", degrees, intMinutes, seconds);
+            }
+            default:
+                return String.format("%.5f", coordinate);
+        }
+    }
+}
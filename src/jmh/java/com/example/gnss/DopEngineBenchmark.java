@@ -0,0 +1,55 @@
+package com.example.gnss;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+// DOP por snapshot com poucos satélites mudando entre épocas: atualização incremental pelo
+// SnapshotDiff contra a reconstrução completa da matriz normal a cada snapshot.
+@State(Scope.Thread)
+public class DopEngineBenchmark {
+
+    private static final int EPOCHS = 64;
+    private static final int MOVING = 4;
+
+    @Param({"40", "100", "200"})
+    public int satellites;
+
+    private SatelliteSnapshot[] epochs;
+    private DopEngine engine;
+    private DopResult result;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        SyntheticConstellation sky = SyntheticConstellation.generate(satellites, 7);
+        epochs = new SatelliteSnapshot[EPOCHS];
+        for (int epoch = 0; epoch < EPOCHS; epoch++) {
+            SatelliteSnapshot snapshot = sky.toSnapshot();
+            snapshot.clear();
+            for (int i = 0; i < sky.count; i++) {
+                float azimuth = sky.azimuthDegrees[i] + (i < MOVING ? epoch * 0.05f : 0);
+                snapshot.add(sky.svids[i], sky.constellationTypes[i], sky.cn0DbHz[i], azimuth,
+                        sky.elevationDegrees[i], sky.usedInFix[i]);
+            }
+            epochs[epoch] = snapshot;
+        }
+        engine = new DopEngine();
+        result = new DopResult();
+    }
+
+    @Benchmark
+    public DopResult incremental() {
+        engine.process(epochs[next++ & (EPOCHS - 1)]);
+        return engine.readResult(result);
+    }
+
+    @Benchmark
+    public DopResult fullRecompute() {
+        engine.reset();
+        engine.process(epochs[next++ & (EPOCHS - 1)]);
+        return engine.readResult(result);
+    }
+}
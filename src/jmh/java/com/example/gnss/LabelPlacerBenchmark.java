@@ -0,0 +1,55 @@
+package com.example.gnss;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+// Rótulos da Esfera Celeste num raio de 500 px: layout completo a cada quadro (pontos andando
+// além do limiar) contra o quadro que só reaproveita o layout anterior.
+@State(Scope.Thread)
+public class LabelPlacerBenchmark {
+
+    @Param({"40", "200"})
+    public int satellites;
+
+    private SyntheticConstellation sky;
+    private float[] positions;
+    private float[] widths;
+    private LabelPlacer placer;
+    private int frame;
+
+    @Setup
+    public void setUp() {
+        sky = SyntheticConstellation.generate(satellites, 7);
+        SkyProjection projection = new SkyProjection();
+        projection.setRadius(500);
+        positions = new float[sky.count * 2];
+        widths = new float[sky.count];
+        for (int i = 0; i < sky.count; i++) {
+            projection.project(sky.azimuthDegrees[i], sky.elevationDegrees[i], positions, i * 2);
+            widths[i] = sky.svids[i] < 10 ? 14 : 28; // Um ou dois dígitos em 24 px
+        }
+        placer = new LabelPlacer(SatelliteSnapshot.DEFAULT_CAPACITY, 10, 2, 2);
+    }
+
+    @Benchmark
+    public int fullLayout() {
+        return frame((frame++ & 1) * 3f);
+    }
+
+    @Benchmark
+    public int cachedLayout() {
+        return frame((frame++ & 1) * 0.5f);
+    }
+
+    private int frame(float shift) {
+        placer.begin(28);
+        for (int i = 0; i < sky.count; i++) {
+            placer.add(SignalKey.of(sky.constellationTypes[i], sky.svids[i], SignalKey.UNKNOWN),
+                    positions[i * 2] + shift, positions[i * 2 + 1], widths[i], sky.cn0DbHz[i]);
+        }
+        return placer.layout();
+    }
+}
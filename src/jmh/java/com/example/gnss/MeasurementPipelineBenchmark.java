@@ -0,0 +1,49 @@
+package com.example.gnss;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+// Custo de uma época de medições brutas: cópia para o MeasurementStore e derivação do delta de
+// C/N0, do resíduo Doppler e dos cycle slips, com a fase avançando coerente com o Doppler.
+@State(Scope.Thread)
+public class MeasurementPipelineBenchmark {
+
+    private static final long SECOND = 1_000_000_000L;
+    private static final float L1 = 1_575.42e6f;
+
+    @Param({"40", "100", "200"})
+    public int satellites;
+
+    private SyntheticConstellation sky;
+    private MeasurementPipeline pipeline;
+    private float[] pseudorangeRates;
+    private long epoch;
+
+    @Setup
+    public void setUp() {
+        sky = SyntheticConstellation.generate(satellites, 7);
+        pipeline = new MeasurementPipeline();
+        pipeline.process(sky.toSnapshot());
+        pseudorangeRates = new float[satellites];
+        for (int i = 0; i < satellites; i++) {
+            pseudorangeRates[i] = (sky.azimuthDegrees[i] - 180f) * 4f;
+        }
+    }
+
+    @Benchmark
+    public MeasurementStore ingestEpoch() {
+        long current = epoch++;
+        MeasurementStore store = pipeline.beginEpoch();
+        store.setClockNanos(current * SECOND);
+        for (int i = 0; i < sky.count; i++) {
+            float prr = pseudorangeRates[i];
+            store.add(sky.svids[i], sky.constellationTypes[i], sky.cn0DbHz[i], prr, 0.05f, (double) prr * current,
+                    MeasurementStore.ADR_STATE_VALID, MeasurementStore.MULTIPATH_UNKNOWN, Float.NaN, L1);
+        }
+        pipeline.commitEpoch();
+        return pipeline.acquireLatest();
+    }
+}
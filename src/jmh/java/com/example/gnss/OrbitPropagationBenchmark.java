@@ -0,0 +1,66 @@
+package com.example.gnss;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Random;
+
+// Propagação de almanaque: uma época de todos os satélites (posição ECEF + azimute/elevação) e a
+// previsão de 24 h em passos de 5 min, sequencial e com os passos em paralelo. Satélites × épocas
+// por segundo = score × satellites (× 288 nas previsões).
+@State(Scope.Thread)
+public class OrbitPropagationBenchmark {
+
+    private static final int FORECAST_STEPS = 288;
+
+    @Param({"32", "64"})
+    public int satellites;
+
+    private OrbitElements elements;
+    private TopocentricFrame observer;
+    private double[] ecef;
+    private float[] azimuths;
+    private float[] elevations;
+    private double start;
+    private double time;
+
+    @Setup
+    public void setUp() {
+        // Constelação no estilo GPS: seis planos orbitais, satélites espalhados em cada um
+        Random random = new Random(7);
+        elements = new OrbitElements(satellites);
+        for (int i = 0; i < satellites; i++) {
+            int plane = i % 6;
+            elements.add(ConstellationRegistry.GPS, i + 1, 2361, 405_504, 5153.6 + random.nextDouble() * 0.1,
+                    random.nextDouble() * 0.02, Math.toRadians(55), plane * Math.PI / 3, -8e-9,
+                    random.nextDouble() * 2 * Math.PI, (i / 6) * 2 * Math.PI / Math.max(1, satellites / 6));
+        }
+        observer = new TopocentricFrame(-22.9, -43.2, 10);
+        ecef = new double[satellites * 3];
+        azimuths = new float[satellites];
+        elevations = new float[satellites];
+        start = GpsTime.fromWeek(2361, 400_000);
+        time = start;
+    }
+
+    @Benchmark
+    public float propagateEpoch() {
+        time += 30;
+        elements.positionsAt(time, ecef);
+        observer.toAzimuthElevation(ecef, satellites, azimuths, elevations, 0);
+        return elevations[0];
+    }
+
+    @Benchmark
+    public SkyForecast forecastSequential() {
+        return SkyForecast.computeSequential(elements, observer, start, 300, FORECAST_STEPS);
+    }
+
+    @Benchmark
+    public SkyForecast forecastParallel() {
+        return SkyForecast.compute(elements, observer, start, 300, FORECAST_STEPS);
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.gnss;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+
+// Vazão da análise offline: 16 sessões de 30 minutos a 1 Hz com 40 satélites (28 800 épocas,
+// cerca de 37 MB), sequencial × paralela. Os arquivos ficam no cache de páginas após a primeira
+// iteração, então a medida é de decodificação e agregação, não de disco.
+@State(Scope.Benchmark)
+public class SessionAnalyticsBenchmark {
+
+    private static final int SESSIONS = 16;
+    private static final int EPOCHS = 1800;
+    private static final int SATELLITES = 40;
+
+    private File directory;
+    private File[] sessions;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("sessions").toFile();
+        SyntheticConstellation sky = SyntheticConstellation.generate(SATELLITES, 5);
+        SatelliteSnapshot snapshot = sky.toSnapshot();
+        for (int session = 0; session < SESSIONS; session++) {
+            File file = new File(directory, "sessao-" + session + SessionFormat.FILE_EXTENSION);
+            try (SessionWriter writer = SessionWriter.create(file, session)) {
+                for (int epoch = 0; epoch < EPOCHS; epoch++) {
+                    snapshot.setTimestampNanos(epoch * 1_000_000_000L);
+                    writer.writeSnapshot(snapshot);
+                }
+            }
+        }
+        sessions = SessionAnalytics.listSessions(directory);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        for (File file : sessions) {
+            file.delete();
+        }
+        directory.delete();
+    }
+
+    @Benchmark
+    public SessionSummary sequential() {
+        return SessionAnalytics.analyzeSequential(sessions);
+    }
+
+    @Benchmark
+    public SessionSummary parallel() {
+        return SessionAnalytics.analyze(sessions);
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.gnss;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.HashMap;
+import java.util.Map;
+
+// Custo de um callback GNSS: o HashMap<Integer, Float> SVID -> C/N0 montado a cada
+// GnssStatus na versão original contra o snapshot reutilizado publicado pelo GnssPipeline.
+@State(Scope.Thread)
+public class SignalAggregationBenchmark {
+
+    @Param({"10", "40", "100", "200"})
+    public int satellites;
+
+    private SyntheticConstellation sky;
+    private GnssPipeline pipeline;
+
+    @Setup
+    public void setUp() {
+        sky = SyntheticConstellation.generate(satellites, 7);
+        pipeline = new GnssPipeline();
+    }
+
+    @Benchmark
+    public Map<Integer, Float> legacyHashMap() {
+        Map<Integer, Float> signalData = new HashMap<>();
+        for (int i = 0; i < sky.count; i++) {
+            float snr = sky.cn0DbHz[i];
+            if (snr > 0) {
+                signalData.put(sky.svids[i], snr); // SVIDs iguais de constelações diferentes colidem
+            }
+        }
+        return signalData;
+    }
+
+    @Benchmark
+    public SatelliteSnapshot pipelineSnapshot() {
+        sky.fill(pipeline.beginUpdate());
+        pipeline.commitUpdate();
+        return pipeline.acquireLatest();
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.gnss;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+// Layout das barras do SignalQualityChartView e do SignalQualityView para um quadro.
+// A versão inline reproduz as contas que ficavam no onDraw do gráfico (todas as barras, sem
+// limite de largura), gravando num array para que o JIT não as elimine; a virtualizada ordena
+// por C/N0 e calcula só o intervalo visível numa view de 1080 px.
+@State(Scope.Thread)
+public class SignalBarLayoutBenchmark {
+
+    private static final float VIEW_WIDTH = 1080f;
+    private static final float VIEW_HEIGHT = 600f;
+
+    @Param({"10", "40", "100", "200"})
+    public int satellites;
+
+    private SatelliteSnapshot snapshot;
+    private float[] cn0;
+    private float[] rects;
+    private final SignalBarLayout layout = new SignalBarLayout();
+    private final SignalChartLayout chartLayout = new SignalChartLayout();
+
+    @Setup
+    public void setUp() {
+        SyntheticConstellation sky = SyntheticConstellation.generate(satellites, 11);
+        snapshot = sky.toSnapshot();
+        cn0 = sky.cn0DbHz;
+        rects = new float[satellites * 4];
+        chartLayout.configure(VIEW_WIDTH, 50, 48, 100, 20, 40);
+    }
+
+    @Benchmark
+    public float[] inlineChartLayout() {
+        float startX = 50;
+        int bars = 0;
+        for (int i = 0; i < snapshot.getSatelliteCount(); i++) {
+            float snr = snapshot.getCn0DbHz(i);
+            if (snr <= 0) {
+                continue;
+            }
+            float barHeight = (snr / 50) * 300;
+            int o = bars++ * 4;
+            rects[o] = startX;
+            rects[o + 1] = 200 - barHeight;
+            rects[o + 2] = startX + 100;
+            rects[o + 3] = 200;
+            startX += 100 + 20;
+        }
+        return rects;
+    }
+
+    @Benchmark
+    public int virtualizedChartLayout() {
+        chartLayout.update(snapshot);
+        return chartLayout.getLastVisible() - chartLayout.getFirstVisible();
+    }
+
+    @Benchmark
+    public int signalQualityViewLayout() {
+        int barWidth = (int) VIEW_WIDTH / satellites;
+        layout.configure(0, barWidth - 10, 10, VIEW_HEIGHT, VIEW_HEIGHT - 50, 100);
+        return layout.layout(cn0, satellites);
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.gnss;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+// Compara a projeção polar original do EsferaCelesteView.onDraw (Math.sin/Math.toRadians
+// por satélite) com o SkyProjection baseado em tabelas, para o custo de um quadro.
+@State(Scope.Thread)
+public class SkyProjectionBenchmark {
+
+    private static final float RADIUS = 540f;
+
+    @Param({"10", "40", "100", "200"})
+    public int satellites;
+
+    private float[] azimuths;
+    private float[] elevations;
+    private float[] out;
+    private SkyProjection projection;
+    private SatelliteSnapshot snapshot;
+
+    @Setup
+    public void setUp() {
+        SyntheticConstellation sky = SyntheticConstellation.generate(satellites, 42);
+        azimuths = sky.azimuthDegrees;
+        elevations = sky.elevationDegrees;
+        snapshot = sky.toSnapshot();
+        out = new float[satellites * 2];
+        projection = new SkyProjection(RADIUS);
+    }
+
+    @Benchmark
+    public float[] legacyMathProjection() {
+        for (int i = 0; i < satellites; i++) {
+            float adjustedRadius = (float) (RADIUS * (90.0 - elevations[i]) / 90.0);
+            out[i * 2] = (float) (adjustedRadius * Math.sin(Math.toRadians(azimuths[i])));
+            out[i * 2 + 1] = (float) -(adjustedRadius * Math.cos(Math.toRadians(azimuths[i])));
+        }
+        return out;
+    }
+
+    @Benchmark
+    public float[] tableProjection() {
+        for (int i = 0; i < satellites; i++) {
+            projection.project(azimuths[i], elevations[i], out, i * 2);
+        }
+        return out;
+    }
+
+    // Caminho usado pelo onDraw: projeta direto do snapshot publicado
+    @Benchmark
+    public int snapshotProjection() {
+        return projection.projectAll(snapshot, out);
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.gnss;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+// Custo do início a frio: restaurar o último céu salvo (leitura do arquivo e decodificação) antes
+// do primeiro quadro, e gravar o estado no onPause.
+@State(Scope.Thread)
+public class SkyStateCacheBenchmark {
+
+    @Param({"40", "200"})
+    public int satellites;
+
+    private SkyStateCache state;
+    private SkyStateCache decoded;
+    private ByteBuffer buffer;
+    private File file;
+
+    @Setup
+    public void setUp() throws IOException {
+        state = new SkyStateCache(satellites);
+        state.snapshot.copyFrom(SyntheticConstellation.generate(satellites, 7).toSnapshot());
+        state.savedAtMillis = System.currentTimeMillis();
+        state.setLocation(-23.5505, -46.6333);
+        decoded = new SkyStateCache(satellites);
+        buffer = state.encode(ByteBuffer.allocate(state.encodedSize()));
+        file = File.createTempFile("sky-state", ".bin");
+        state.writeTo(file);
+    }
+
+    @TearDown
+    public void tearDown() {
+        file.delete();
+    }
+
+    @Benchmark
+    public SkyStateCache decode() throws IOException {
+        buffer.position(0);
+        decoded.decode(buffer);
+        return decoded;
+    }
+
+    @Benchmark
+    public ByteBuffer encode() {
+        buffer.clear();
+        return state.encode(buffer);
+    }
+
+    @Benchmark
+    public SkyStateCache readFile() throws IOException {
+        return SkyStateCache.readFrom(file);
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.gnss;
+
+import java.util.Random;
+
+// Constelação sintética e determinística para os benchmarks: satélites distribuídos entre
+// GPS, GLONASS, Galileo, BeiDou, QZSS e SBAS como num receptor multi-GNSS, com azimute,
+// elevação e C/N0 aleatórios e cerca de 10% dos satélites sem sinal medido.
+final class SyntheticConstellation {
+
+    // Tipos de constelação do GnssStatus e quantos SVIDs cada uma oferece antes de repetir
+    private static final int[] CONSTELLATIONS = {1, 3, 6, 5, 4, 2};
+    private static final int[] SVID_COUNTS = {32, 24, 36, 63, 10, 39};
+
+    final int count;
+    final int[] svids;
+    final int[] constellationTypes;
+    final float[] cn0DbHz;
+    final float[] azimuthDegrees;
+    final float[] elevationDegrees;
+    final boolean[] usedInFix;
+
+    private SyntheticConstellation(int count) {
+        this.count = count;
+        svids = new int[count];
+        constellationTypes = new int[count];
+        cn0DbHz = new float[count];
+        azimuthDegrees = new float[count];
+        elevationDegrees = new float[count];
+        usedInFix = new boolean[count];
+    }
+
+    static SyntheticConstellation generate(int count, long seed) {
+        SyntheticConstellation sky = new SyntheticConstellation(count);
+        Random random = new Random(seed);
+        int[] nextSvid = new int[CONSTELLATIONS.length];
+        for (int i = 0; i < count; i++) {
+            int c = i % CONSTELLATIONS.length;
+            sky.constellationTypes[i] = CONSTELLATIONS[c];
+            sky.svids[i] = 1 + nextSvid[c]++ % SVID_COUNTS[c];
+            sky.azimuthDegrees[i] = random.nextFloat() * 360f;
+            sky.elevationDegrees[i] = random.nextFloat() * 90f;
+            sky.cn0DbHz[i] = random.nextInt(10) == 0 ? 0f : 15f + random.nextFloat() * 35f;
+            sky.usedInFix[i] = sky.cn0DbHz[i] > 25f;
+        }
+        return sky;
+    }
+
+    // Copia os satélites para o snapshot, como o gnssStatusCallback faz com o GnssStatus
+    void fill(SatelliteSnapshot snapshot) {
+        for (int i = 0; i < count; i++) {
+            snapshot.add(svids[i], constellationTypes[i], cn0DbHz[i], azimuthDegrees[i], elevationDegrees[i], usedInFix[i]);
+        }
+    }
+
+    SatelliteSnapshot toSnapshot() {
+        SatelliteSnapshot snapshot = new SatelliteSnapshot(Math.max(count, 1));
+        fill(snapshot);
+        snapshot.computeStatistics();
+        return snapshot;
+    }
+}
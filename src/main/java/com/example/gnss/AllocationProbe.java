@@ -0,0 +1,9 @@
+package com.example.gnss;
+
+// Fonte dos bytes alocados pela thread atual, usada pelo GnssMetrics para medir alocações por
+// atualização. Cada plataforma tem a sua: Debug no Android, ThreadMXBean na JVM.
+public interface AllocationProbe {
+
+    // Total de bytes alocados até agora pela thread que chama, ou -1 se indisponível
+    long currentThreadAllocatedBytes();
+}
@@ -0,0 +1,277 @@
+package com.example.gnss;
+
+import java.util.Arrays;
+
+// Histórico de C/N0 por sinal em buffers circulares primitivos, com orçamento de memória fixo.
+// Cada sinal (constelação, SVID e banda, ver SignalKey) ocupa um slot com as últimas windowSize amostras e estatísticas
+// móveis incrementais: média e desvio padrão por somas acumuladas, mínimo e máximo por filas
+// monotônicas. Inserir uma amostra é O(1) amortizado e não aloca. Quando todos os slots estão em
+// uso, o satélite atualizado há mais tempo cede o lugar.
+// A escrita acontece na thread do pipeline e a leitura na de UI: ambas sincronizam na instância,
+// e quem lê amostras deve segurar o lock enquanto percorre um slot.
+public final class Cn0HistoryStore implements GnssPipeline.Stage {
+
+    private static final int EMPTY = -1;
+    private static final long EMPTY_KEY = -1L; // Chaves do SignalKey nunca são negativas
+
+    private final int maxSatellites;
+    private final int windowSize;
+
+    // Amostras: slot s ocupa samples[s * windowSize, (s + 1) * windowSize)
+    private final float[] samples;
+    private final int[] appended;   // Total de amostras já inseridas por slot
+    private final long[] slotKeys;  // Chave do sinal em cada slot, ou EMPTY_KEY
+    private final long[] lastUpdate;
+    private long updateClock;
+    private int slotsInUse;
+
+    // Somas móveis da janela
+    private final double[] sums;
+    private final double[] sumsOfSquares;
+
+    // Filas monotônicas (índices absolutos das amostras) para mínimo e máximo da janela
+    private final int[] minQueue;
+    private final int[] minHead;
+    private final int[] minSize;
+    private final int[] maxQueue;
+    private final int[] maxHead;
+    private final int[] maxSize;
+
+    // Tabela hash de endereçamento aberto: chave -> slot
+    private final long[] tableKeys;
+    private final int[] tableSlots;
+    private final int tableMask;
+
+    public Cn0HistoryStore(int maxSatellites, int windowSize) {
+        if (maxSatellites <= 0 || windowSize <= 0) {
+            throw new IllegalArgumentException("Dimensões inválidas: " + maxSatellites + "x" + windowSize);
+        }
+        this.maxSatellites = maxSatellites;
+        this.windowSize = windowSize;
+        samples = new float[maxSatellites * windowSize];
+        appended = new int[maxSatellites];
+        slotKeys = new long[maxSatellites];
+        lastUpdate = new long[maxSatellites];
+        sums = new double[maxSatellites];
+        sumsOfSquares = new double[maxSatellites];
+        minQueue = new int[maxSatellites * windowSize];
+        minHead = new int[maxSatellites];
+        minSize = new int[maxSatellites];
+        maxQueue = new int[maxSatellites * windowSize];
+        maxHead = new int[maxSatellites];
+        maxSize = new int[maxSatellites];
+
+        int tableSize = Integer.highestOneBit(maxSatellites * 2 - 1) << 1;
+        tableKeys = new long[tableSize];
+        tableSlots = new int[tableSize];
+        tableMask = tableSize - 1;
+        Arrays.fill(tableKeys, EMPTY_KEY);
+        Arrays.fill(slotKeys, EMPTY_KEY);
+    }
+
+    // Histórico que cobre windowSeconds segundos a uma taxa de atualização em Hz
+    public static Cn0HistoryStore forDuration(int maxSatellites, int windowSeconds, int rateHz) {
+        return new Cn0HistoryStore(maxSatellites, windowSeconds * rateHz);
+    }
+
+    @Override
+    public synchronized void process(SatelliteSnapshot snapshot) {
+        for (int i = 0; i < snapshot.getSatelliteCount(); i++) {
+            float cn0 = snapshot.getCn0DbHz(i);
+            if (cn0 > 0) {
+                append(snapshot.getSignalKey(i), cn0);
+            }
+        }
+    }
+
+    // Amostra de um satélite sem portadora conhecida
+    public synchronized void append(int constellationType, int svid, float cn0) {
+        append(SignalKey.of(constellationType, svid, SignalKey.UNKNOWN), cn0);
+    }
+
+    public synchronized void append(long signalKey, float cn0) {
+        long key = signalKey;
+        int slot = lookup(key);
+        if (slot == EMPTY) {
+            slot = allocateSlot(key);
+        }
+        lastUpdate[slot] = ++updateClock;
+
+        int base = slot * windowSize;
+        int index = appended[slot];
+        int position = base + index % windowSize;
+
+        // Remove da janela a amostra que será sobrescrita
+        if (index >= windowSize) {
+            float evicted = samples[position];
+            sums[slot] -= evicted;
+            sumsOfSquares[slot] -= (double) evicted * evicted;
+            int oldest = index - windowSize;
+            if (minSize[slot] > 0 && minQueue[base + minHead[slot]] == oldest) {
+                minHead[slot] = (minHead[slot] + 1) % windowSize;
+                minSize[slot]--;
+            }
+            if (maxSize[slot] > 0 && maxQueue[base + maxHead[slot]] == oldest) {
+                maxHead[slot] = (maxHead[slot] + 1) % windowSize;
+                maxSize[slot]--;
+            }
+        }
+
+        samples[position] = cn0;
+        sums[slot] += cn0;
+        sumsOfSquares[slot] += (double) cn0 * cn0;
+        appended[slot] = index + 1;
+
+        // Descarta do fim das filas as amostras que nunca mais serão mínimo/máximo
+        while (minSize[slot] > 0 && sampleAtAbsolute(slot, minQueue[base + (minHead[slot] + minSize[slot] - 1) % windowSize]) >= cn0) {
+            minSize[slot]--;
+        }
+        minQueue[base + (minHead[slot] + minSize[slot]) % windowSize] = index;
+        minSize[slot]++;
+        while (maxSize[slot] > 0 && sampleAtAbsolute(slot, maxQueue[base + (maxHead[slot] + maxSize[slot] - 1) % windowSize]) <= cn0) {
+            maxSize[slot]--;
+        }
+        maxQueue[base + (maxHead[slot] + maxSize[slot]) % windowSize] = index;
+        maxSize[slot]++;
+    }
+
+    // Slot do satélite sem portadora conhecida, ou -1 se ele não tem histórico
+    public synchronized int findSlot(int constellationType, int svid) {
+        return lookup(SignalKey.of(constellationType, svid, SignalKey.UNKNOWN));
+    }
+
+    // Slot do sinal, ou -1 se ele não tem histórico
+    public synchronized int findSlot(long signalKey) {
+        return lookup(signalKey);
+    }
+
+    public synchronized int getSampleCount(int slot) {
+        return Math.min(appended[slot], windowSize);
+    }
+
+    // Amostra i da janela do slot, sendo 0 a mais antiga; leitura direta, sem cópia
+    public synchronized float getSample(int slot, int i) {
+        int first = Math.max(0, appended[slot] - windowSize);
+        return sampleAtAbsolute(slot, first + i);
+    }
+
+    public synchronized float getMin(int slot) {
+        return minSize[slot] == 0 ? Float.NaN : sampleAtAbsolute(slot, minQueue[slot * windowSize + minHead[slot]]);
+    }
+
+    public synchronized float getMax(int slot) {
+        return maxSize[slot] == 0 ? Float.NaN : sampleAtAbsolute(slot, maxQueue[slot * windowSize + maxHead[slot]]);
+    }
+
+    public synchronized float getMean(int slot) {
+        int count = getSampleCount(slot);
+        return count == 0 ? Float.NaN : (float) (sums[slot] / count);
+    }
+
+    // Desvio padrão populacional da janela
+    public synchronized float getStdDev(int slot) {
+        int count = getSampleCount(slot);
+        if (count == 0) {
+            return Float.NaN;
+        }
+        double mean = sums[slot] / count;
+        return (float) Math.sqrt(Math.max(0, sumsOfSquares[slot] / count - mean * mean));
+    }
+
+    public int getWindowSize() {
+        return windowSize;
+    }
+
+    public int getMaxSatellites() {
+        return maxSatellites;
+    }
+
+    public synchronized int getSatelliteCount() {
+        return slotsInUse;
+    }
+
+    // Memória ocupada pelos arrays do histórico, fixa desde a construção
+    public long getMemoryBytes() {
+        long perSample = 4L * 3; // Amostra + duas filas monotônicas
+        long perSlot = 4L * 5 + 8L * 4;
+        long table = (8L + 4L) * tableKeys.length;
+        return perSample * samples.length + perSlot * maxSatellites + table;
+    }
+
+    private float sampleAtAbsolute(int slot, int index) {
+        return samples[slot * windowSize + index % windowSize];
+    }
+
+    private int allocateSlot(long key) {
+        int slot;
+        if (slotsInUse < maxSatellites) {
+            slot = slotsInUse++;
+        } else {
+            // Reaproveita o slot do satélite atualizado há mais tempo
+            slot = 0;
+            for (int s = 1; s < maxSatellites; s++) {
+                if (lastUpdate[s] < lastUpdate[slot]) {
+                    slot = s;
+                }
+            }
+            remove(slotKeys[slot]);
+        }
+        slotKeys[slot] = key;
+        appended[slot] = 0;
+        sums[slot] = 0;
+        sumsOfSquares[slot] = 0;
+        minHead[slot] = 0;
+        minSize[slot] = 0;
+        maxHead[slot] = 0;
+        maxSize[slot] = 0;
+        insert(key, slot);
+        return slot;
+    }
+
+    private int lookup(long key) {
+        int i = LongFloatMap.hash(key) & tableMask;
+        while (tableKeys[i] != EMPTY_KEY) {
+            if (tableKeys[i] == key) {
+                return tableSlots[i];
+            }
+            i = (i + 1) & tableMask;
+        }
+        return EMPTY;
+    }
+
+    private void insert(long key, int slot) {
+        int i = LongFloatMap.hash(key) & tableMask;
+        while (tableKeys[i] != EMPTY_KEY) {
+            i = (i + 1) & tableMask;
+        }
+        tableKeys[i] = key;
+        tableSlots[i] = slot;
+    }
+
+    // Remoção com deslocamento para trás, mantendo as sequências de sondagem sem lápides
+    private void remove(long key) {
+        int i = LongFloatMap.hash(key) & tableMask;
+        while (tableKeys[i] != key) {
+            if (tableKeys[i] == EMPTY_KEY) {
+                return;
+            }
+            i = (i + 1) & tableMask;
+        }
+        int hole = i;
+        int j = i;
+        while (true) {
+            j = (j + 1) & tableMask;
+            if (tableKeys[j] == EMPTY_KEY) {
+                break;
+            }
+            int home = LongFloatMap.hash(tableKeys[j]) & tableMask;
+            // Move a entrada j para o buraco se a posição de origem dela não estiver entre hole e j
+            if (((j - home) & tableMask) >= ((j - hole) & tableMask)) {
+                tableKeys[hole] = tableKeys[j];
+                tableSlots[hole] = tableSlots[j];
+                hole = j;
+            }
+        }
+        tableKeys[hole] = EMPTY_KEY;
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.gnss;
+
+// Registro único das constelações GNSS: índice de exibição, cor, rótulo e bit de filtro de cada
+// tipo de constelação do GnssStatus, consultados em O(1) por array em vez de switches espalhados.
+// Os tipos repetem os valores de GnssStatus.CONSTELLATION_* para a classe continuar Java pura;
+// qualquer tipo fora da tabela (inclusive versões futuras do Android) cai em "Desconhecida".
+public final class ConstellationRegistry {
+
+    // Tipos de constelação, iguais aos de GnssStatus
+    public static final int UNKNOWN = 0;
+    public static final int GPS = 1;
+    public static final int SBAS = 2;
+    public static final int GLONASS = 3;
+    public static final int QZSS = 4;
+    public static final int BEIDOU = 5;
+    public static final int GALILEO = 6;
+    public static final int IRNSS = 7;
+
+    // Ordem de exibição nos diálogos e gráficos; a posição no array é o índice da constelação
+    private static final int[] TYPES = {GPS, GLONASS, GALILEO, BEIDOU, QZSS, SBAS, IRNSS, UNKNOWN};
+    private static final String[] LABELS = {"GPS", "GLONASS", "Galileo", "BeiDou", "QZSS", "SBAS", "NavIC", "Desconhecida"};
+    // Cores ARGB (as mesmas de android.graphics.Color para as quatro constelações originais)
+    private static final int[] COLORS = {
+            0xFF00FF00, // Verde
+            0xFFFF0000, // Vermelho
+            0xFF0000FF, // Azul
+            0xFFFFFF00, // Amarelo
+            0xFF00FFFF, // Ciano
+            0xFFFF00FF, // Magenta
+            0xFFFF8800, // Laranja
+            0xFF888888  // Cinza
+    };
+
+    public static final int COUNT = TYPES.length;
+    private static final int UNKNOWN_INDEX = COUNT - 1;
+    // Máscara de filtro com todas as constelações visíveis
+    public static final int ALL = (1 << COUNT) - 1;
+
+    private static final int[] INDEX_BY_TYPE = new int[IRNSS + 1];
+
+    static {
+        for (int index = 0; index < COUNT; index++) {
+            INDEX_BY_TYPE[TYPES[index]] = index;
+        }
+    }
+
+    private ConstellationRegistry() {
+    }
+
+    // Índice de exibição de um tipo de constelação do GnssStatus
+    public static int indexOf(int constellationType) {
+        return constellationType >= 0 && constellationType < INDEX_BY_TYPE.length
+                ? INDEX_BY_TYPE[constellationType] : UNKNOWN_INDEX;
+    }
+
+    public static int typeAt(int index) {
+        return TYPES[index];
+    }
+
+    public static int colorAt(int index) {
+        return COLORS[index];
+    }
+
+    public static String labelAt(int index) {
+        return LABELS[index];
+    }
+
+    public static int colorOf(int constellationType) {
+        return COLORS[indexOf(constellationType)];
+    }
+
+    public static String labelOf(int constellationType) {
+        return LABELS[indexOf(constellationType)];
+    }
+
+    // Bit da constelação na máscara de filtro
+    public static int bitOf(int constellationType) {
+        return 1 << indexOf(constellationType);
+    }
+
+    public static boolean isVisible(int filterMask, int constellationType) {
+        return (filterMask & bitOf(constellationType)) != 0;
+    }
+
+    // Rótulos na ordem dos índices, para os diálogos
+    public static String[] labels() {
+        return LABELS.clone();
+    }
+
+    // Estado de cada constelação na máscara, no formato de setMultiChoiceItems
+    public static boolean[] toChecked(int filterMask) {
+        boolean[] checked = new boolean[COUNT];
+        for (int index = 0; index < COUNT; index++) {
+            checked[index] = (filterMask & (1 << index)) != 0;
+        }
+        return checked;
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.gnss;
+
+// Formatos de exibição das coordenadas oferecidos no diálogo do GNSSActivity
+public enum CoordinateFormat {
+    DEGREES("Graus [+/-DDD.DDDDD]"),
+    DEGREES_MINUTES("Graus-Minutos [+/-DDD:MM.MMMMM]"),
+    DEGREES_MINUTES_SECONDS("Graus-Minutos-Segundos [+/-DDD:MM:SS.SSSSS]");
+
+    private final String label;
+
+    CoordinateFormat(String label) {
+        this.label = label;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    // Rótulos na ordem das constantes, para montar o diálogo
+    public static String[] labels() {
+        CoordinateFormat[] formats = values();
+        String[] labels = new String[formats.length];
+        for (int i = 0; i < formats.length; i++) {
+            labels[i] = formats[i].label;
+        }
+        return labels;
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.gnss;
+
+// Formata coordenadas em graus, graus-minutos ou graus-minutos-segundos direto num StringBuilder
+// reutilizável, sem String.format. A conversão é feita em inteiros (unidades de 1e-5 da menor
+// parte), o que evita o "60.00000" por arredondamento, e o sinal vale para a coordenada inteira:
+// -23.5° vira "-23:30.00000", e não "-23:-30.00000".
+public final class CoordinateFormatter {
+
+    private static final int DECIMALS = 5;
+    private static final long SCALE = 100_000L; // 10^DECIMALS
+
+    private CoordinateFormatter() {
+    }
+
+    public static StringBuilder append(StringBuilder out, double coordinate, CoordinateFormat format) {
+        if (Double.isNaN(coordinate) || Double.isInfinite(coordinate)) {
+            return out.append(coordinate);
+        }
+        double magnitude = Math.abs(coordinate);
+        switch (format) {
+            case DEGREES_MINUTES: {
+                long units = Math.round(magnitude * 60 * SCALE);
+                appendSign(out, coordinate, units);
+                out.append(units / (60 * SCALE)).append(':');
+                appendFixed(out, units % (60 * SCALE));
+                break;
+            }
+            case DEGREES_MINUTES_SECONDS: {
+                long units = Math.round(magnitude * 3600 * SCALE);
+                appendSign(out, coordinate, units);
+                out.append(units / (3600 * SCALE)).append(':');
+                long remainder = units % (3600 * SCALE);
+                appendTwoDigits(out, remainder / (60 * SCALE));
+                out.append(':');
+                appendFixed(out, remainder % (60 * SCALE));
+                break;
+            }
+            case DEGREES:
+            default: {
+                long units = Math.round(magnitude * SCALE);
+                appendSign(out, coordinate, units);
+                out.append(units / SCALE).append('.');
+                appendFraction(out, units % SCALE);
+                break;
+            }
+        }
+        return out;
+    }
+
+    // Texto "Lat: ..., Lon: ..." exibido no GNSSActivity
+    public static StringBuilder appendLatLon(StringBuilder out, double latitude, double longitude, CoordinateFormat format) {
+        out.append("Lat: ");
+        append(out, latitude, format);
+        out.append(", Lon: ");
+        return append(out, longitude, format);
+    }
+
+    private static void appendSign(StringBuilder out, double coordinate, long units) {
+        if (coordinate < 0 && units != 0) {
+            out.append('-'); // Valores que arredondam para zero não recebem sinal
+        }
+    }
+
+    // Minutos ou segundos com dois dígitos inteiros e DECIMALS casas: "MM.MMMMM"
+    private static void appendFixed(StringBuilder out, long units) {
+        appendTwoDigits(out, units / SCALE);
+        out.append('.');
+        appendFraction(out, units % SCALE);
+    }
+
+    private static void appendTwoDigits(StringBuilder out, long value) {
+        if (value < 10) {
+            out.append('0');
+        }
+        out.append(value);
+    }
+
+    private static void appendFraction(StringBuilder out, long fraction) {
+        for (long divisor = SCALE / 10; divisor > 0; divisor /= 10) {
+            out.append((char) ('0' + (fraction / divisor) % 10));
+        }
+    }
+}
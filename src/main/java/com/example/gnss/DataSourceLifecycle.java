@@ -0,0 +1,139 @@
+package com.example.gnss;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Liga e desliga as fontes de dados (sensor de rotação, status GNSS, localização) conforme o
+// ciclo de vida da tela. O estado é derivado de quatro fatos: a tela está em primeiro plano,
+// a permissão de localização foi concedida, a gravação em segundo plano está ligada e a tela
+// foi destruída. No estado BACKGROUND quem chama deve manter um serviço em primeiro plano do tipo
+// location (SessionLoggingService); sem ele o Android limita ou corta as fontes da tela pausada. A cada evento o estado é recalculado e as fontes só são paradas ou
+// reiniciadas quando a taxa desejada muda. Sem dependências do Android, para testar na JVM.
+public final class DataSourceLifecycle {
+
+    public enum State {
+        CREATED,             // Ainda não entrou em primeiro plano
+        AWAITING_PERMISSION, // Em primeiro plano, sem permissão de localização
+        RUNNING,             // Em primeiro plano, fontes na taxa normal
+        BACKGROUND,          // Em segundo plano gravando a sessão, fontes em taxa reduzida e serviço em primeiro plano
+        PAUSED,              // Em segundo plano, fontes paradas
+        DESTROYED            // Definitivo: eventos posteriores são ignorados
+    }
+
+    public enum Rate {
+        FOREGROUND,
+        BACKGROUND
+    }
+
+    // Uma fonte de dados; start só é chamado com a fonte parada
+    public interface Source {
+        void start(Rate rate);
+
+        void stop();
+    }
+
+    public interface Listener {
+        void onStateChanged(State state);
+    }
+
+    private final List<Source> sources = new ArrayList<>();
+    private Listener listener;
+    private State state = State.CREATED;
+    private Rate activeRate; // null com as fontes paradas
+
+    private boolean started;
+    private boolean resumed;
+    private boolean permissionGranted;
+    private boolean backgroundLogging;
+    private boolean destroyed;
+
+    public void addSource(Source source) {
+        sources.add(source);
+        if (activeRate != null) {
+            source.start(activeRate);
+        }
+    }
+
+    public void setListener(Listener listener) {
+        this.listener = listener;
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    // Taxa atual das fontes, ou null se estão paradas
+    public Rate getActiveRate() {
+        return activeRate;
+    }
+
+    public void onResume() {
+        started = true;
+        resumed = true;
+        update();
+    }
+
+    public void onPause() {
+        resumed = false;
+        update();
+    }
+
+    // Resultado da verificação inicial ou do pedido de permissão; pode chegar com a tela pausada
+    // (o diálogo de permissão pausa a atividade) e só vale quando ela volta
+    public void setPermissionGranted(boolean granted) {
+        permissionGranted = granted;
+        update();
+    }
+
+    // Mantém as fontes em taxa reduzida enquanto a tela está em segundo plano
+    public void setBackgroundLogging(boolean enabled) {
+        backgroundLogging = enabled;
+        update();
+    }
+
+    public void onDestroy() {
+        destroyed = true;
+        update();
+    }
+
+    private void update() {
+        if (state == State.DESTROYED) {
+            return;
+        }
+        State next = targetState();
+        Rate rate = next == State.RUNNING ? Rate.FOREGROUND : next == State.BACKGROUND ? Rate.BACKGROUND : null;
+        if (rate != activeRate) {
+            if (activeRate != null) {
+                // Ordem inversa à de início, como num desligamento em camadas
+                for (int i = sources.size() - 1; i >= 0; i--) {
+                    sources.get(i).stop();
+                }
+            }
+            activeRate = rate;
+            if (rate != null) {
+                for (int i = 0; i < sources.size(); i++) {
+                    sources.get(i).start(rate);
+                }
+            }
+        }
+        if (next != state) {
+            state = next;
+            if (listener != null) {
+                listener.onStateChanged(next);
+            }
+        }
+    }
+
+    private State targetState() {
+        if (destroyed) {
+            return State.DESTROYED;
+        }
+        if (!started) {
+            return State.CREATED;
+        }
+        if (resumed) {
+            return permissionGranted ? State.RUNNING : State.AWAITING_PERMISSION;
+        }
+        return permissionGranted && backgroundLogging ? State.BACKGROUND : State.PAUSED;
+    }
+}
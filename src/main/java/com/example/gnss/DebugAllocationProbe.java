@@ -0,0 +1,22 @@
+package com.example.gnss;
+
+import android.os.Debug;
+
+// Bytes alocados pela thread atual segundo o contador de alocações do runtime. A contagem tem
+// custo, então só é ligada enquanto o overlay de métricas está visível.
+@SuppressWarnings("deprecation")
+final class DebugAllocationProbe implements AllocationProbe {
+
+    DebugAllocationProbe() {
+        Debug.startAllocCounting();
+    }
+
+    @Override
+    public long currentThreadAllocatedBytes() {
+        return Debug.getThreadAllocSize();
+    }
+
+    void stop() {
+        Debug.stopAllocCounting();
+    }
+}
@@ -0,0 +1,234 @@
+package com.example.gnss;
+
+import java.util.Arrays;
+
+// Diluição de precisão (GDOP, PDOP, HDOP, VDOP e TDOP) dos satélites usados no fix, por
+// constelação e combinada. Cada satélite contribui com h·hᵀ para a matriz normal 4x4 (linha de
+// visada leste/norte/cima e o termo do relógio); a matriz é simétrica, então bastam 10 somas por
+// constelação. Entre snapshots só os satélites que entraram, saíram ou se moveram (SnapshotDiff)
+// atualizam as somas, e os demais reaproveitam a linha já calculada, sem trigonometria.
+// O snapshot tem uma linha por sinal; um satélite de dupla frequência (L1 e L5) entra uma vez só,
+// pela primeira linha usada no fix, e a linha da outra banda passa a contar se a primeira sair.
+// A diagonal da inversa sai em forma fechada dos cofatores, sem biblioteca de matrizes.
+// Na combinação todas as constelações compartilham um único relógio, aproximação comum para
+// avaliar a geometria. Executa na thread do pipeline; a leitura (readResult) sincroniza na instância.
+public final class DopEngine implements GnssPipeline.Stage {
+
+    // Somas da matriz normal: ee, en, eu, e, nn, nu, n, uu, u, contagem
+    private static final int TERMS = 10;
+    // Refaz as somas do zero periodicamente para não acumular erro de arredondamento
+    private static final int REBUILD_INTERVAL = 600;
+    private static final int NOT_USED = -1;
+
+    private final int capacity;
+    private final SnapshotDiff diff;
+    private final LongFloatMap primaryRows; // Satélite (SignalKey.satelliteOf) → primeira linha usada no fix
+    private final double[] sums = new double[ConstellationRegistry.COUNT * TERMS];
+    private final double[] combined = new double[TERMS];
+
+    // Linha de visada e grupo (índice do registro, ou NOT_USED) por satélite do snapshot atual e do anterior
+    private double[] east, north, up;
+    private int[] groups;
+    private double[] previousEast, previousNorth, previousUp;
+    private int[] previousGroups;
+    private boolean hasPrevious;
+    private int updatesSinceRebuild;
+
+    private final DopResult working = new DopResult();
+    private final DopResult published = new DopResult(); // Protegido por this
+
+    public DopEngine() {
+        this(SatelliteSnapshot.DEFAULT_CAPACITY);
+    }
+
+    public DopEngine(int capacity) {
+        this.capacity = capacity;
+        diff = new SnapshotDiff(capacity);
+        primaryRows = new LongFloatMap(capacity);
+        east = new double[capacity];
+        north = new double[capacity];
+        up = new double[capacity];
+        groups = new int[capacity];
+        previousEast = new double[capacity];
+        previousNorth = new double[capacity];
+        previousUp = new double[capacity];
+        previousGroups = new int[capacity];
+    }
+
+    @Override
+    public void process(SatelliteSnapshot snapshot) {
+        diff.update(snapshot);
+        int count = Math.min(snapshot.getSatelliteCount(), capacity);
+        primaryRows.clear();
+        for (int i = 0; i < count; i++) {
+            long satellite = SignalKey.satelliteOf(snapshot.getSignalKey(i));
+            if (snapshot.usedInFix(i) && !primaryRows.containsKey(satellite)) {
+                primaryRows.put(satellite, i);
+            }
+        }
+
+        if (!hasPrevious || ++updatesSinceRebuild >= REBUILD_INTERVAL) {
+            Arrays.fill(sums, 0);
+            for (int i = 0; i < count; i++) {
+                computeRow(snapshot, i);
+                accumulate(groups[i], east[i], north[i], up[i], 1);
+            }
+            updatesSinceRebuild = 0;
+            hasPrevious = true;
+        } else {
+            for (int n = 0; n < diff.getRemovedCount(); n++) {
+                int p = diff.getRemoved(n);
+                accumulate(previousGroups[p], previousEast[p], previousNorth[p], previousUp[p], -1);
+            }
+            int nextChanged = 0;
+            for (int i = 0; i < count; i++) {
+                int p = diff.getPreviousIndex(i);
+                boolean changed = nextChanged < diff.getChangedCount() && diff.getChanged(nextChanged) == i;
+                if (changed) {
+                    nextChanged++;
+                }
+                // A outra banda do satélite entrou ou saiu: a linha passa a contar ou deixa de contar
+                if (p >= 0 && !changed && isPrimary(snapshot, i) != (previousGroups[p] != NOT_USED)) {
+                    changed = true;
+                }
+                if (p >= 0 && !changed) {
+                    // Satélite igual ao anterior: só muda de posição no array
+                    east[i] = previousEast[p];
+                    north[i] = previousNorth[p];
+                    up[i] = previousUp[p];
+                    groups[i] = previousGroups[p];
+                    continue;
+                }
+                if (p >= 0) {
+                    accumulate(previousGroups[p], previousEast[p], previousNorth[p], previousUp[p], -1);
+                }
+                computeRow(snapshot, i);
+                accumulate(groups[i], east[i], north[i], up[i], 1);
+            }
+        }
+        swapRows();
+
+        working.sequence = snapshot.getSequence();
+        Arrays.fill(combined, 0);
+        for (int group = 0; group < ConstellationRegistry.COUNT; group++) {
+            int base = group * TERMS;
+            for (int t = 0; t < TERMS; t++) {
+                combined[t] += sums[base + t];
+            }
+            solve(sums, base, working, group);
+        }
+        solve(combined, 0, working, DopResult.COMBINED);
+        synchronized (this) {
+            published.copyFrom(working);
+        }
+    }
+
+    // Resultado do último snapshot processado
+    public synchronized DopResult readResult(DopResult out) {
+        out.copyFrom(published);
+        return out;
+    }
+
+    public void reset() {
+        diff.reset();
+        hasPrevious = false;
+    }
+
+    private boolean isPrimary(SatelliteSnapshot snapshot, int i) {
+        return (int) primaryRows.get(SignalKey.satelliteOf(snapshot.getSignalKey(i)), -1f) == i;
+    }
+
+    private void computeRow(SatelliteSnapshot snapshot, int i) {
+        if (!isPrimary(snapshot, i)) {
+            groups[i] = NOT_USED;
+            return;
+        }
+        double azimuth = Math.toRadians(snapshot.getAzimuthDegrees(i));
+        double elevation = Math.toRadians(snapshot.getElevationDegrees(i));
+        double cosElevation = Math.cos(elevation);
+        east[i] = cosElevation * Math.sin(azimuth);
+        north[i] = cosElevation * Math.cos(azimuth);
+        up[i] = Math.sin(elevation);
+        groups[i] = ConstellationRegistry.indexOf(snapshot.getConstellationType(i));
+    }
+
+    private void accumulate(int group, double e, double n, double u, int sign) {
+        if (group == NOT_USED) {
+            return;
+        }
+        int base = group * TERMS;
+        sums[base] += sign * e * e;
+        sums[base + 1] += sign * e * n;
+        sums[base + 2] += sign * e * u;
+        sums[base + 3] += sign * e;
+        sums[base + 4] += sign * n * n;
+        sums[base + 5] += sign * n * u;
+        sums[base + 6] += sign * n;
+        sums[base + 7] += sign * u * u;
+        sums[base + 8] += sign * u;
+        sums[base + 9] += sign;
+    }
+
+    // As linhas atuais viram as anteriores do próximo snapshot, sem copiar
+    private void swapRows() {
+        double[] swap = previousEast;
+        previousEast = east;
+        east = swap;
+        swap = previousNorth;
+        previousNorth = north;
+        north = swap;
+        swap = previousUp;
+        previousUp = up;
+        up = swap;
+        int[] swapGroups = previousGroups;
+        previousGroups = groups;
+        groups = swapGroups;
+    }
+
+    // Diagonal da inversa da matriz normal em forma fechada: cada elemento é o cofator da diagonal
+    // sobre o determinante, ambos montados a partir dos menores 2x2 das duas metades da matriz
+    static void solve(double[] s, int base, DopResult out, int index) {
+        int satellites = (int) Math.round(s[base + 9]);
+        out.satellites[index] = satellites;
+        out.gdop[index] = out.pdop[index] = out.hdop[index] = out.vdop[index] = out.tdop[index] = Double.NaN;
+        if (satellites < 4) {
+            return;
+        }
+        double m00 = s[base], m01 = s[base + 1], m02 = s[base + 2], m03 = s[base + 3];
+        double m11 = s[base + 4], m12 = s[base + 5], m13 = s[base + 6];
+        double m22 = s[base + 7], m23 = s[base + 8];
+        double m33 = s[base + 9];
+
+        // Menores 2x2 das linhas 0-1 (s) e 2-3 (c); a matriz é simétrica, mij = mji
+        double s0 = m00 * m11 - m01 * m01;
+        double s1 = m00 * m12 - m01 * m02;
+        double s2 = m00 * m13 - m01 * m03;
+        double s3 = m01 * m12 - m11 * m02;
+        double s4 = m01 * m13 - m11 * m03;
+        double s5 = m02 * m13 - m12 * m03;
+        double c0 = m02 * m13 - m03 * m12;
+        double c1 = m02 * m23 - m03 * m22;
+        double c2 = m02 * m33 - m03 * m23;
+        double c3 = m12 * m23 - m13 * m22;
+        double c4 = m12 * m33 - m13 * m23;
+        double c5 = m22 * m33 - m23 * m23;
+
+        double determinant = s0 * c5 - s1 * c4 + s2 * c3 + s3 * c2 - s4 * c1 + s5 * c0;
+        // Geometria degenerada (satélites quase coplanares): relativo à escala da matriz
+        if (!(Math.abs(determinant) > 1e-9 * m33 * m33 * m33 * m33)) {
+            return;
+        }
+        double q00 = (m11 * c5 - m12 * c4 + m13 * c3) / determinant;
+        double q11 = (m00 * c5 - m02 * c2 + m03 * c1) / determinant;
+        double q22 = (m03 * s4 - m13 * s2 + m33 * s0) / determinant;
+        double q33 = (m02 * s3 - m12 * s1 + m22 * s0) / determinant;
+        if (q00 < 0 || q11 < 0 || q22 < 0 || q33 < 0) {
+            return;
+        }
+        out.hdop[index] = Math.sqrt(q00 + q11);
+        out.vdop[index] = Math.sqrt(q22);
+        out.pdop[index] = Math.sqrt(q00 + q11 + q22);
+        out.tdop[index] = Math.sqrt(q33);
+        out.gdop[index] = Math.sqrt(q00 + q11 + q22 + q33);
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.gnss;
+
+import java.util.Arrays;
+
+// Diluições de precisão de um snapshot, por constelação (índices do ConstellationRegistry) e
+// combinadas no índice COMBINED. NaN quando há menos de quatro satélites ou a geometria é
+// degenerada. Reaproveitável como o MetricsSnapshot: a UI preenche sempre a mesma instância.
+public final class DopResult {
+
+    public static final int COMBINED = ConstellationRegistry.COUNT;
+    public static final int SIZE = COMBINED + 1;
+
+    public long sequence; // Snapshot que originou os valores
+    public final int[] satellites = new int[SIZE];
+    public final double[] gdop = new double[SIZE];
+    public final double[] pdop = new double[SIZE];
+    public final double[] hdop = new double[SIZE];
+    public final double[] vdop = new double[SIZE];
+    public final double[] tdop = new double[SIZE];
+
+    public DopResult() {
+        clear();
+    }
+
+    public void clear() {
+        sequence = 0;
+        Arrays.fill(satellites, 0);
+        Arrays.fill(gdop, Double.NaN);
+        Arrays.fill(pdop, Double.NaN);
+        Arrays.fill(hdop, Double.NaN);
+        Arrays.fill(vdop, Double.NaN);
+        Arrays.fill(tdop, Double.NaN);
+    }
+
+    public void copyFrom(DopResult other) {
+        sequence = other.sequence;
+        System.arraycopy(other.satellites, 0, satellites, 0, SIZE);
+        System.arraycopy(other.gdop, 0, gdop, 0, SIZE);
+        System.arraycopy(other.pdop, 0, pdop, 0, SIZE);
+        System.arraycopy(other.hdop, 0, hdop, 0, SIZE);
+        System.arraycopy(other.vdop, 0, vdop, 0, SIZE);
+        System.arraycopy(other.tdop, 0, tdop, 0, SIZE);
+    }
+
+    public boolean isValid(int index) {
+        return !Double.isNaN(gdop[index]);
+    }
+
+    // Linha curta com os valores combinados, exibida junto às coordenadas
+    public StringBuilder appendTo(StringBuilder out) {
+        if (!isValid(COMBINED)) {
+            return out.append("DOP: n/d (").append(satellites[COMBINED]).append(" sat. no fix)");
+        }
+        out.append("GDOP ");
+        NumberFormatter.appendFixed(out, gdop[COMBINED], 1).append("  PDOP ");
+        NumberFormatter.appendFixed(out, pdop[COMBINED], 1).append("  HDOP ");
+        NumberFormatter.appendFixed(out, hdop[COMBINED], 1).append("  VDOP ");
+        NumberFormatter.appendFixed(out, vdop[COMBINED], 1).append("  TDOP ");
+        NumberFormatter.appendFixed(out, tdop[COMBINED], 1);
+        return out.append(" (").append(satellites[COMBINED]).append(" sat.)");
+    }
+}
@@ -2,37 +2,99 @@ package com.example.gnss;
 
 import android.app.AlertDialog;
 import android.content.Context;
+import android.graphics.Bitmap;
 import android.graphics.Canvas;
 import android.graphics.Color;
 import android.graphics.Paint;
-import android.location.GnssStatus;
+import android.graphics.Path;
+import android.graphics.PorterDuff;
+import android.graphics.PorterDuffXfermode;
+import android.graphics.RectF;
 import android.util.AttributeSet;
 import android.view.View;
 import android.os.Handler;
-import android.util.Log;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 
 public class EsferaCelesteView extends View {
-    private GnssStatus gnssStatus;
+    private SnapshotSource snapshotSource; // Pipeline que publica os snapshots de satélites
     private Paint paint;
     private int radius;
     private int viewWidth, viewHeight;
     private float currentRotation = 0; // Ângulo de rotação do celular
+    private static final int CIRCLE_COUNT = 4; // Quantidade de círculos concêntricos
+
+    // Camada estática (círculos, cruz e rótulos) renderizada uma vez por mudança de tamanho
+    private Bitmap staticLayer;
+    private final Paint bitmapPaint = new Paint(Paint.FILTER_BITMAP_FLAG);
+
+    // Mapa de C/N0 acumulado na sessão, desenhado por baixo dos pontos. O bitmap guarda as células
+    // já pintadas e a cada quadro só as alteradas desde o anterior são refeitas; um tamanho novo
+    // refaz todas. Vermelho é sinal fraco (obstrução), verde é céu limpo
+    private SkyHeatmap heatmap;
+    private Bitmap heatmapLayer;
+    private Canvas heatmapCanvas;
+    private boolean heatmapStale = true;
+    private int[] heatmapCells = new int[0];
+    private float[] heatmapMeans = new float[0];
+    private final Paint heatmapPaint = new Paint();
+    private final Path heatmapPath = new Path();
+    private final RectF outerOval = new RectF();
+    private final RectF innerOval = new RectF();
+    private static final float HEAT_MIN_DB_HZ = 15;
+    private static final float HEAT_MAX_DB_HZ = 45;
+    private final int[] heatColors = new int[32];
+
+    // Posições dos satélites na tela: a cada snapshot novo o diff liga cada satélite à sua posição
+    // anterior e o interpolador o leva suavemente até a nova, quadro a quadro
+    private final SkyProjection projection = new SkyProjection();
+    private final SnapshotDiff snapshotDiff = new SnapshotDiff();
+    private final SkyInterpolator interpolator = new SkyInterpolator();
+    private final float[] projectedPositions = new float[SatelliteSnapshot.DEFAULT_CAPACITY * 2];
+    private static final float DOT_MARGIN = 60; // Ponto e rótulo em volta de cada posição, em px
+    private int projectedCount;
+    private boolean projectionDirty = true;
+    private long projectedSequence = -1;
+
+    // Rótulos com o SVID posicionados sem sobreposição; na disputa fica o de maior C/N0. O layout
+    // só é refeito quando algum ponto se move mais de 2 px desde o último
+    private static final float DOT_RADIUS = 10;
+    private final LabelPlacer labelPlacer = new LabelPlacer(SatelliteSnapshot.DEFAULT_CAPACITY, DOT_RADIUS, 2, 2);
+    private final int[] labelSatellites = new int[SatelliteSnapshot.DEFAULT_CAPACITY];
+    // Linha mais forte de cada satélite (SignalKey.satelliteOf -> índice): L1 e L5 viram um ponto só
+    private final LongFloatMap strongestRows = new LongFloatMap(SatelliteSnapshot.DEFAULT_CAPACITY);
+    private final SvidLabelCache svidLabels = new SvidLabelCache("");
+    private final float[] svidLabelWidths = new float[256]; // Largura de cada rótulo, medida uma vez
+    private final Paint labelPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+
+    // Agrupamento dos pedidos de redesenho vindos do sensor e do GNSS
+    private final FrameCoalescer frameCoalescer = new FrameCoalescer();
     private final Handler handler = new Handler(); // Para a animação de rotação
+    private GnssMetrics metrics; // Opcional: duração do desenho e latência dos snapshots
+
+    // Previsão do almanaque: posições de um passo da SkyForecast, desenhadas como círculos vazados
+    private SkyForecast forecast;
+    private int forecastStep;
+    private final float[] forecastPosition = new float[2];
+    private final Paint forecastPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
 
-    // Filtros de satélites
-    private boolean[] satelliteFilters;
+    // Filtro de satélites: um bit por constelação do ConstellationRegistry
+    private int constellationFilter = ConstellationRegistry.ALL;
 
     public EsferaCelesteView(Context context, @Nullable AttributeSet attrs) {
         super(context, attrs);
         paint = new Paint();
         paint.setAntiAlias(true);
-        satelliteFilters = new boolean[4]; // Supondo que temos 4 constelações
-
-        // Configura os filtros padrão (todos visíveis)
-        for (int i = 0; i < satelliteFilters.length; i++) {
-            satelliteFilters[i] = true;
+        forecastPaint.setStyle(Paint.Style.STROKE);
+        forecastPaint.setStrokeWidth(3);
+        labelPaint.setColor(Color.WHITE);
+        labelPaint.setTextSize(24);
+        // Cada célula substitui o que havia no bitmap, inclusive por transparente quando fica vazia
+        heatmapPaint.setXfermode(new PorterDuffXfermode(PorterDuff.Mode.SRC));
+        float[] hsv = {0, 0.9f, 0.9f};
+        for (int level = 0; level < heatColors.length; level++) {
+            hsv[0] = 120f * level / (heatColors.length - 1);
+            heatColors[level] = Color.HSVToColor(140, hsv);
         }
 
         // Configura o listener de clique para filtro de satélites
@@ -44,81 +106,353 @@ public class EsferaCelesteView extends View {
     }
 
     @Override
-    protected void onDraw(@NonNull Canvas canvas) {
-        super.onDraw(canvas);
+    protected void onSizeChanged(int w, int h, int oldw, int oldh) {
+        super.onSizeChanged(w, h, oldw, oldh);
 
         // Dimensões da view
-        viewWidth = getMeasuredWidth();
-        viewHeight = getMeasuredHeight();
+        viewWidth = w;
+        viewHeight = h;
         radius = Math.min(viewWidth, viewHeight) / 2;
+        projection.setRadius(radius);
+        projectionDirty = true;
 
-        // Mover o canvas para o centro da view
-        canvas.translate(viewWidth / 2, viewHeight / 2);
+        // A grade estática só é redesenhada quando o tamanho muda
+        if (staticLayer != null) {
+            staticLayer.recycle();
+            staticLayer = null;
+        }
+        if (w > 0 && h > 0) {
+            staticLayer = Bitmap.createBitmap(w, h, Bitmap.Config.ARGB_8888);
+            drawStaticLayer(new Canvas(staticLayer));
+        }
+        if (heatmapLayer != null) {
+            heatmapLayer.recycle();
+            heatmapLayer = null;
+        }
+    }
 
-        // Rotacionar a esfera de acordo com a rotação do celular
-        canvas.rotate((float) Math.toDegrees(currentRotation));
+    // Desenha círculos de elevação, linhas cruzadas e rótulos centrados no bitmap
+    private void drawStaticLayer(Canvas canvas) {
+        canvas.translate(viewWidth / 2f, viewHeight / 2f);
 
         // Desenhar círculos concêntricos para representar a Esfera Celeste
         paint.setStyle(Paint.Style.STROKE);
         paint.setStrokeWidth(2);
         paint.setColor(Color.BLUE);
-        int circleCount = 4; // Quantidade de círculos concêntricos
-        for (int i = 1; i <= circleCount; i++) {
-            canvas.drawCircle(0, 0, (radius * i) / circleCount, paint);
+        for (int i = 1; i <= CIRCLE_COUNT; i++) {
+            canvas.drawCircle(0, 0, (radius * i) / CIRCLE_COUNT, paint);
         }
 
         // Desenhar linhas cruzadas (horizontal e vertical)
         canvas.drawLine(0, -radius, 0, radius, paint); // Linha vertical
         canvas.drawLine(-radius, 0, radius, 0, paint); // Linha horizontal
 
-        // Desenhar os satélites
-        if (gnssStatus != null) {
-            Log.d("EsferaCeleste", "Satélites: " + gnssStatus.getSatelliteCount());
-            paint.setStyle(Paint.Style.FILL);
+        // Rótulos de elevação de cada círculo e pontos cardeais
+        paint.setStyle(Paint.Style.FILL);
+        paint.setColor(Color.LTGRAY);
+        paint.setTextSize(20);
+        for (int i = 1; i <= CIRCLE_COUNT; i++) {
+            int elevation = Math.round(90f * (CIRCLE_COUNT - i) / CIRCLE_COUNT);
+            canvas.drawText(elevation + "°", 4, -(radius * i) / CIRCLE_COUNT + 20, paint);
+        }
+        canvas.drawText("N", 4, -radius + 40, paint);
+        canvas.drawText("L", radius - 20, -4, paint);
+        canvas.drawText("S", 4, radius - 4, paint);
+        canvas.drawText("O", -radius + 4, -4, paint);
+    }
 
-            for (int i = 0; i < gnssStatus.getSatelliteCount(); i++) {
-                float azimuth = gnssStatus.getAzimuthDegrees(i);
-                float elevation = gnssStatus.getElevationDegrees(i);
-                int constellationType = getConstellationType(gnssStatus, i);
+    @Override
+    protected void onDraw(@NonNull Canvas canvas) {
+        super.onDraw(canvas);
+        frameCoalescer.onFrameDrawn();
+        long frameStart = metrics != null ? System.nanoTime() : 0;
+        long drawnSequence = -1;
 
-                // Verifica se o satélite deve ser exibido com base no filtro
-                if (constellationType != -1 && satelliteFilters[constellationType]) {
-                    // Definir a cor baseada no tipo de constelação
-                    paint.setColor(getColorForConstellation(constellationType));
+        // Mover o canvas para o centro da view
+        canvas.translate(viewWidth / 2f, viewHeight / 2f);
 
-                    // Converter azimute e elevação para coordenadas x, y no canvas
-                    float adjustedRadius = (float) (radius * (90.0 - elevation) / 90.0); // Ajuste do raio com base na elevação
-                    float x = (float) (adjustedRadius * Math.sin(Math.toRadians(azimuth)));
-                    float y = (float) (adjustedRadius * Math.cos(Math.toRadians(azimuth)));
+        // Rotacionar a esfera de acordo com a rotação do celular
+        canvas.rotate((float) Math.toDegrees(currentRotation));
+
+        // A grade estática é um único blit do bitmap em cache
+        if (staticLayer != null) {
+            canvas.drawBitmap(staticLayer, -viewWidth / 2f, -viewHeight / 2f, bitmapPaint);
+        }
+
+        if (heatmap != null) {
+            drawHeatmap(canvas);
+        }
+
+        if (forecast != null) {
+            drawForecast(canvas);
+        }
+
+        // Desenhar os satélites, sempre a partir do snapshot mais recente
+        SatelliteSnapshot snapshot = snapshotSource != null ? snapshotSource.acquireLatest() : null;
+        if (snapshot != null) {
+            drawnSequence = snapshot.getSequence();
+
+            // A projeção só é recalculada quando chega um snapshot novo ou o tamanho muda;
+            // os quadros seguintes só interpolam e os de rotação reaproveitam as posições
+            long now = System.nanoTime();
+            if (projectionDirty) {
+                snapshotDiff.reset();
+                snapshotDiff.update(snapshot);
+                interpolator.snapTo(snapshot, projection);
+                projectedSequence = snapshot.getSequence();
+                projectionDirty = false;
+            } else if (snapshot.getSequence() != projectedSequence) {
+                snapshotDiff.update(snapshot);
+                interpolator.update(snapshot, snapshotDiff, projection, now);
+                projectedSequence = snapshot.getSequence();
+            }
+            boolean animating = interpolator.positionsAt(now, projectedPositions);
+            projectedCount = interpolator.getCount();
+            if (animating) {
+                invalidateMovingSatellites();
+            }
+
+            // Snapshot da sessão anterior (warm start): pontos e rótulos esmaecidos até o GNSS responder
+            boolean stale = snapshotSource.isStale();
+            labelPaint.setAlpha(stale ? 110 : 255);
+            paint.setStyle(Paint.Style.FILL);
+            float ascent = labelPaint.ascent();
+            labelPlacer.begin(labelPaint.descent() - ascent);
+            selectStrongestRows(snapshot);
+            for (int i = 0; i < projectedCount; i++) {
+                int constellationType = snapshot.getConstellationType(i);
+                long satellite = SignalKey.satelliteOf(snapshot.getSignalKey(i));
+
+                // Verifica se o satélite deve ser exibido com base no filtro; das linhas de um
+                // satélite em várias bandas só a mais forte é desenhada
+                if (ConstellationRegistry.isVisible(constellationFilter, constellationType)
+                        && (int) strongestRows.get(satellite, -1f) == i) {
+                    float x = projectedPositions[i * 2];
+                    float y = projectedPositions[i * 2 + 1];
 
                     // Desenhar o satélite como um círculo colorido
-                    canvas.drawCircle(x, -y, 10, paint); // O y é invertido para a orientação correta
+                    paint.setColor(ConstellationRegistry.colorOf(constellationType));
+                    if (stale) {
+                        paint.setAlpha(90);
+                    }
+                    canvas.drawCircle(x, y, DOT_RADIUS, paint);
 
-                    // Numerar o satélite ao lado do ponto
-                    paint.setColor(Color.WHITE);
-                    paint.setTextSize(24);
-                    canvas.drawText(String.valueOf(i + 1), x + 12, -y, paint);
+                    int svid = snapshot.getSvid(i);
+                    int label = labelPlacer.add(satellite, x, y, labelWidth(svid), snapshot.getCn0DbHz(i));
+                    if (label >= 0) {
+                        labelSatellites[label] = i;
+                    }
+                }
+            }
 
-                    Log.d("EsferaCeleste", "Satélite " + (i + 1) + ": Azimute = " + azimuth + ", Elevação = " + elevation);
+            // Rótulos por cima de todos os pontos, só os que couberam
+            labelPlacer.layout();
+            for (int label = 0; label < labelPlacer.getCount(); label++) {
+                if (labelPlacer.isPlaced(label)) {
+                    canvas.drawText(svidLabels.get(snapshot.getSvid(labelSatellites[label])),
+                            labelPlacer.getLabelLeft(label), labelPlacer.getLabelTop(label) - ascent, labelPaint);
                 }
             }
+            if (stale) {
+                paint.setColor(Color.LTGRAY);
+                paint.setTextSize(32);
+                canvas.drawText("Última sessão, aguardando GNSS…", -radius + 10, -radius + 80, paint);
+            }
         } else {
             // Desenhar mensagem se não houver dados GNSS
             paint.setColor(Color.WHITE);
             paint.setTextSize(48);
             canvas.drawText("Nenhum satélite encontrado", -radius, 0, paint);
-            Log.d("EsferaCeleste", "Nenhum dado GNSS disponível");
+        }
+
+        if (metrics != null) {
+            metrics.onFrameDrawn(GnssMetrics.VIEW_SKY, drawnSequence, frameStart, System.nanoTime());
+        }
+    }
+
+    // Guarda, para cada satélite, a linha de maior C/N0 entre as suas bandas
+    private void selectStrongestRows(SatelliteSnapshot snapshot) {
+        strongestRows.clear();
+        for (int i = 0; i < projectedCount; i++) {
+            long satellite = SignalKey.satelliteOf(snapshot.getSignalKey(i));
+            int strongest = (int) strongestRows.get(satellite, -1f);
+            if (strongest < 0 || snapshot.getCn0DbHz(i) > snapshot.getCn0DbHz(strongest)) {
+                strongestRows.put(satellite, i);
+            }
         }
     }
 
-    public void setGnssStatus(GnssStatus status) {
-        this.gnssStatus = status;
-        invalidate(); // Solicita a atualização da view quando novos dados chegam
+    private float labelWidth(int svid) {
+        if (svid < 0 || svid >= svidLabelWidths.length) {
+            return labelPaint.measureText(svidLabels.get(svid));
+        }
+        if (svidLabelWidths[svid] == 0) {
+            svidLabelWidths[svid] = labelPaint.measureText(svidLabels.get(svid));
+        }
+        return svidLabelWidths[svid];
+    }
+
+    // Atualiza no bitmap as células alteradas e desenha a camada inteira
+    private void drawHeatmap(Canvas canvas) {
+        if (heatmapLayer == null) {
+            if (viewWidth <= 0 || viewHeight <= 0) {
+                return;
+            }
+            heatmapLayer = Bitmap.createBitmap(viewWidth, viewHeight, Bitmap.Config.ARGB_8888);
+            heatmapCanvas = new Canvas(heatmapLayer);
+            heatmapCanvas.translate(viewWidth / 2f, viewHeight / 2f);
+            heatmapStale = true;
+        }
+
+        // As médias são copiadas sob o lock e pintadas fora dele, sem segurar o pipeline
+        int count;
+        synchronized (heatmap) {
+            count = heatmap.drainDirty(heatmapCells);
+            if (heatmapStale) {
+                count = heatmap.getCellCount();
+                for (int cell = 0; cell < count; cell++) {
+                    heatmapCells[cell] = cell;
+                }
+                heatmapStale = false;
+            }
+            for (int k = 0; k < count; k++) {
+                heatmapMeans[k] = heatmap.getMean(heatmapCells[k]);
+            }
+        }
+        for (int k = 0; k < count; k++) {
+            rasterizeHeatmapCell(heatmapCells[k], heatmapMeans[k]);
+        }
+        canvas.drawBitmap(heatmapLayer, -viewWidth / 2f, -viewHeight / 2f, bitmapPaint);
+    }
+
+    // Setor de anel entre as elevações da célula; ângulo 0 do canvas é o leste, azimute 0 o norte
+    private void rasterizeHeatmapCell(int cell, float mean) {
+        float size = heatmap.getCellDegrees();
+        float startAngle = heatmap.getCellAzimuth(cell) - 90;
+        float elevation = heatmap.getCellElevation(cell);
+        float outer = projection.radiusForElevation(elevation);
+        float inner = projection.radiusForElevation(elevation + size);
+        outerOval.set(-outer, -outer, outer, outer);
+        innerOval.set(-inner, -inner, inner, inner);
+        heatmapPath.reset();
+        heatmapPath.arcTo(outerOval, startAngle, size, true);
+        heatmapPath.arcTo(innerOval, startAngle + size, -size, false);
+        heatmapPath.close();
+        heatmapPaint.setColor(heatColorOf(mean));
+        heatmapCanvas.drawPath(heatmapPath, heatmapPaint);
+    }
+
+    private int heatColorOf(float mean) {
+        if (Float.isNaN(mean)) {
+            return Color.TRANSPARENT;
+        }
+        float fraction = (mean - HEAT_MIN_DB_HZ) / (HEAT_MAX_DB_HZ - HEAT_MIN_DB_HZ);
+        int level = Math.round(Math.max(0, Math.min(1, fraction)) * (heatColors.length - 1));
+        return heatColors[level];
+    }
+
+    // Mostra o mapa de C/N0 acumulado por baixo dos satélites; null remove a camada
+    public void setHeatmap(SkyHeatmap heatmap) {
+        this.heatmap = heatmap;
+        if (heatmap != null && heatmapCells.length < heatmap.getCellCount()) {
+            heatmapCells = new int[heatmap.getCellCount()];
+            heatmapMeans = new float[heatmap.getCellCount()];
+        }
+        heatmapStale = true;
+        requestFrame();
+    }
+
+    // Satélites previstos acima do horizonte no passo escolhido
+    private void drawForecast(Canvas canvas) {
+        for (int i = 0; i < forecast.getSatelliteCount(); i++) {
+            int constellationType = forecast.getConstellationType(i);
+            float elevation = forecast.getElevationDegrees(forecastStep, i);
+            if (elevation >= 0 && ConstellationRegistry.isVisible(constellationFilter, constellationType)) {
+                projection.project(forecast.getAzimuthDegrees(forecastStep, i), elevation, forecastPosition, 0);
+                forecastPaint.setColor(ConstellationRegistry.colorOf(constellationType));
+                canvas.drawCircle(forecastPosition[0], forecastPosition[1], 10, forecastPaint);
+            }
+        }
+    }
+
+    // Mostra a previsão no passo indicado; null remove a camada
+    public void setForecast(SkyForecast forecast, int step) {
+        this.forecast = forecast;
+        this.forecastStep = forecast != null ? Math.max(0, Math.min(step, forecast.getStepCount() - 1)) : 0;
+        requestFrame();
+    }
+
+    public void setMetrics(GnssMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    // Pede o próximo quadro da animação só para a região onde há satélites em movimento.
+    // A região é calculada no sistema da esfera, então é girada junto com o canvas. Com
+    // aceleração por hardware o Android redesenha a view inteira mesmo assim, mas o pedido
+    // continua limitado aos quadros em que algo de fato se move.
+    private void invalidateMovingSatellites() {
+        if (!interpolator.hasDirtyRegion()) {
+            postInvalidateOnAnimation();
+            return;
+        }
+        float left = interpolator.getDirtyLeft() - DOT_MARGIN;
+        float top = interpolator.getDirtyTop() - DOT_MARGIN;
+        float right = interpolator.getDirtyRight() + DOT_MARGIN;
+        float bottom = interpolator.getDirtyBottom() + DOT_MARGIN;
+
+        float cos = (float) Math.cos(currentRotation);
+        float sin = (float) Math.sin(currentRotation);
+        float minX = Float.MAX_VALUE;
+        float minY = Float.MAX_VALUE;
+        float maxX = -Float.MAX_VALUE;
+        float maxY = -Float.MAX_VALUE;
+        for (int corner = 0; corner < 4; corner++) {
+            float x = (corner & 1) == 0 ? left : right;
+            float y = (corner & 2) == 0 ? top : bottom;
+            float rotatedX = x * cos - y * sin;
+            float rotatedY = x * sin + y * cos;
+            minX = Math.min(minX, rotatedX);
+            maxX = Math.max(maxX, rotatedX);
+            minY = Math.min(minY, rotatedY);
+            maxY = Math.max(maxY, rotatedY);
+        }
+        float centerX = viewWidth / 2f;
+        float centerY = viewHeight / 2f;
+        postInvalidateOnAnimation((int) Math.floor(centerX + minX), (int) Math.floor(centerY + minY),
+                (int) Math.ceil(centerX + maxX), (int) Math.ceil(centerY + maxY));
+    }
+
+    public void setSnapshotSource(SnapshotSource source) {
+        this.snapshotSource = source;
+        projectionDirty = true;
+        requestFrame();
+    }
+
+    // Pode ser chamado de qualquer thread quando um snapshot novo é publicado
+    public void notifySnapshotChanged() {
+        requestFrame(); // Solicita a atualização da view quando novos dados chegam
     }
 
     public void setRotation(float rotation) {
         this.currentRotation = rotation;
-        invalidate(); // Atualiza a rotação da view
+        requestFrame(); // Atualiza a rotação da view
+    }
+
+    // Agenda no máximo um redesenho por vsync, por mais eventos que cheguem no intervalo;
+    // postInvalidateOnAnimation é seguro fora da thread de UI
+    private void requestFrame() {
+        boolean scheduled = frameCoalescer.request();
+        if (scheduled) {
+            postInvalidateOnAnimation();
+        }
+        GnssMetrics target = metrics;
+        if (target != null) {
+            target.onFrameRequested(GnssMetrics.VIEW_SKY, scheduled);
+        }
+    }
+
+    public FrameCoalescer getFrameCoalescer() {
+        return frameCoalescer;
     }
 
     private boolean detectClickInCenter() {
@@ -127,46 +461,35 @@ public class EsferaCelesteView extends View {
     }
 
     private void showSatelliteFilterDialog() {
-        String[] satelliteTypes = {"GPS", "GLONASS", "Galileo", "BeiDou"};
+        boolean[] checked = ConstellationRegistry.toChecked(constellationFilter);
 
         new AlertDialog.Builder(getContext())
                 .setTitle("Filtrar Satélites")
-                .setMultiChoiceItems(satelliteTypes, satelliteFilters, (dialog, which, isChecked) -> {
+                .setMultiChoiceItems(ConstellationRegistry.labels(), checked, (dialog, which, isChecked) -> {
                     // Atualiza o filtro de satélites com base nas opções selecionadas
-                    satelliteFilters[which] = isChecked;
+                    checked[which] = isChecked;
+                })
+                .setPositiveButton("OK", (dialog, which) -> {
+                    // Aplica os filtros marcados e atualiza a view
+                    int filter = 0;
+                    for (int index = 0; index < checked.length; index++) {
+                        if (checked[index]) {
+                            filter |= 1 << index;
+                        }
+                    }
+                    setConstellationFilter(filter);
                 })
-                .setPositiveButton("OK", (dialog, which) -> invalidate()) // Atualiza a view quando os filtros são aplicados
                 .setNegativeButton("Cancelar", null)
                 .show();
     }
 
-    private int getConstellationType(GnssStatus status, int index) {
-        switch (status.getConstellationType(index)) {
-            case GnssStatus.CONSTELLATION_GPS:
-                return 0;
-            case GnssStatus.CONSTELLATION_GLONASS:
-                return 1;
-            case GnssStatus.CONSTELLATION_GALILEO:
-                return 2;
-            case GnssStatus.CONSTELLATION_BEIDOU:
-                return 3;
-            default:
-                return -1; // Constelação desconhecida ou não suportada
-        }
-    }
-
-    private int getColorForConstellation(int constellationType) {
-        switch (constellationType) {
-            case 0: // GPS
-                return Color.GREEN;
-            case 1: // GLONASS
-                return Color.RED;
-            case 2: // Galileo
-                return Color.BLUE;
-            case 3: // BeiDou
-                return Color.YELLOW;
-            default:
-                return Color.GRAY; // Caso algum satélite não pertença a constelações conhecidas
-        }
+    // Máscara de bits do ConstellationRegistry com as constelações visíveis
+    public void setConstellationFilter(int filter) {
+        constellationFilter = filter;
+        requestFrame();
+    }
+
+    public int getConstellationFilter() {
+        return constellationFilter;
     }
 }
@@ -0,0 +1,84 @@
+package com.example.gnss;
+
+// Filtro passa-baixa exponencial (complementar) para ângulos, com tratamento da
+// descontinuidade em +/-PI e uma zona morta que suprime mudanças imperceptíveis.
+// O peso de cada amostra depende do intervalo entre eventos: alpha = dt / (tau + dt).
+public final class ExponentialAngleFilter implements OrientationFilter {
+
+    private static final float TWO_PI = (float) (2 * Math.PI);
+    private static final float PI = (float) Math.PI;
+
+    private final float timeConstantSeconds;
+    private final float deadBandRadians;
+
+    private float state;       // Ângulo filtrado interno
+    private float emitted;     // Último ângulo entregue à view
+    private long lastTimestampNanos;
+    private boolean initialized;
+
+    private long samplesReceived;
+    private long changesEmitted;
+
+    public ExponentialAngleFilter(float timeConstantSeconds, float deadBandRadians) {
+        if (timeConstantSeconds < 0 || deadBandRadians < 0) {
+            throw new IllegalArgumentException("Parâmetros do filtro devem ser não negativos");
+        }
+        this.timeConstantSeconds = timeConstantSeconds;
+        this.deadBandRadians = deadBandRadians;
+    }
+
+    @Override
+    public boolean update(float azimuthRadians, long timestampNanos) {
+        samplesReceived++;
+        float input = wrap(azimuthRadians);
+        if (!initialized) {
+            state = input;
+            emitted = input;
+            lastTimestampNanos = timestampNanos;
+            initialized = true;
+            changesEmitted++;
+            return true;
+        }
+
+        float dt = Math.max(0f, (timestampNanos - lastTimestampNanos) / 1e9f);
+        lastTimestampNanos = timestampNanos;
+        float alpha = timeConstantSeconds == 0f ? 1f : dt / (timeConstantSeconds + dt);
+
+        // Soma a menor diferença angular, evitando o salto de 2*PI na virada do sul
+        state = wrap(state + alpha * wrap(input - state));
+
+        if (Math.abs(wrap(state - emitted)) < deadBandRadians) {
+            return false;
+        }
+        emitted = state;
+        changesEmitted++;
+        return true;
+    }
+
+    @Override
+    public float getAngle() {
+        return emitted;
+    }
+
+    @Override
+    public void reset() {
+        initialized = false;
+    }
+
+    public long getSamplesReceived() {
+        return samplesReceived;
+    }
+
+    public long getChangesEmitted() {
+        return changesEmitted;
+    }
+
+    // Normaliza um ângulo para [-PI, PI)
+    static float wrap(float radians) {
+        float wrapped = (radians + PI) % TWO_PI;
+        if (wrapped < 0) {
+            wrapped += TWO_PI;
+        }
+        return wrapped - PI;
+    }
+}
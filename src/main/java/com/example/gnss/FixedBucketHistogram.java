@@ -0,0 +1,115 @@
+package com.example.gnss;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Histograma de valores não negativos (latências em ns, bytes alocados) com baldes fixos:
+// quatro baldes por potência de 2, o que limita o erro relativo dos percentis a 25%.
+// Registrar um valor é lock-free e não aloca; pode ser feito por várias threads ao mesmo tempo.
+// A leitura (readStats) é feita sem parar os escritores e pode ver uma amostra a mais ou a menos.
+public final class FixedBucketHistogram {
+
+    private static final int SUB_BUCKET_BITS = 2;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    static final int BUCKET_COUNT = (63 - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_COUNT);
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong sum = new AtomicLong();
+    private final AtomicLong max = new AtomicLong();
+
+    // Resumo de um histograma, reaproveitável entre leituras
+    public static final class Stats {
+        public long count;
+        public double mean;
+        public long p50;
+        public long p90;
+        public long p99;
+        public long max;
+    }
+
+    public void record(long value) {
+        if (value < 0) {
+            value = 0;
+        }
+        buckets.incrementAndGet(bucketIndex(value));
+        count.incrementAndGet();
+        sum.addAndGet(value);
+        long current = max.get();
+        while (value > current && !max.compareAndSet(current, value)) {
+            current = max.get();
+        }
+    }
+
+    public long getCount() {
+        return count.get();
+    }
+
+    public long getMax() {
+        return max.get();
+    }
+
+    public Stats readStats(Stats out) {
+        long total = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            total += buckets.get(i);
+        }
+        out.count = total;
+        out.max = max.get();
+        out.mean = total > 0 ? (double) sum.get() / total : 0;
+        out.p50 = percentile(0.50, total, out.max);
+        out.p90 = percentile(0.90, total, out.max);
+        out.p99 = percentile(0.99, total, out.max);
+        return out;
+    }
+
+    public long percentile(double quantile) {
+        long total = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            total += buckets.get(i);
+        }
+        return percentile(quantile, total, max.get());
+    }
+
+    // Limite superior do balde que contém o percentil, sem passar do máximo observado
+    private long percentile(double quantile, long total, long observedMax) {
+        if (total == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(quantile * total));
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += buckets.get(i);
+            if (seen >= rank) {
+                return Math.min(bucketUpperBound(i), observedMax);
+            }
+        }
+        return observedMax;
+    }
+
+    static int bucketIndex(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    static long bucketLowerBound(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        int exponent = index / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+        long subBucket = index % SUB_BUCKETS;
+        return (SUB_BUCKETS + subBucket) << (exponent - SUB_BUCKET_BITS);
+    }
+
+    static long bucketUpperBound(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        int exponent = index / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+        return bucketLowerBound(index) + (1L << (exponent - SUB_BUCKET_BITS)) - 1;
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.gnss;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Agrupa pedidos de redesenho: só o primeiro pedido desde o último quadro agenda um novo
+// quadro, os demais são absorvidos por ele (no máximo um redesenho por vsync).
+// Também contabiliza pedidos recebidos, quadros desenhados e pedidos agrupados.
+// Pedidos podem vir de qualquer thread (sensor na UI, pipeline GNSS em segundo plano).
+public final class FrameCoalescer {
+
+    private final AtomicBoolean framePending = new AtomicBoolean();
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong framesDrawn = new AtomicLong();
+
+    // Registra um pedido; retorna true se o chamador deve agendar um quadro
+    public boolean request() {
+        requests.incrementAndGet();
+        return framePending.compareAndSet(false, true);
+    }
+
+    // Deve ser chamado no início do desenho do quadro
+    public void onFrameDrawn() {
+        framePending.set(false);
+        framesDrawn.incrementAndGet();
+    }
+
+    public long getRequests() {
+        return requests.get();
+    }
+
+    public long getFramesDrawn() {
+        return framesDrawn.get();
+    }
+
+    public long getCoalescedRequests() {
+        return Math.max(0, requests.get() - framesDrawn.get());
+    }
+}
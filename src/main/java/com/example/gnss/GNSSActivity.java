@@ -1,90 +1,428 @@
 package com.example.gnss;
 
 import android.Manifest;
+import android.annotation.SuppressLint;
 import android.app.AlertDialog;
+import android.content.Context;
 import android.content.pm.PackageManager;
 import android.hardware.Sensor;
 import android.hardware.SensorEvent;
 import android.hardware.SensorEventListener;
 import android.hardware.SensorManager;
+import android.location.GnssMeasurement;
+import android.location.GnssMeasurementsEvent;
 import android.location.GnssStatus;
 import android.location.Location;
 import android.location.LocationManager;
 import android.os.Bundle;
+import android.os.Handler;
+import android.os.HandlerThread;
+import android.os.SystemClock;
+import android.util.Log;
+import android.view.View;
+import android.view.ViewTreeObserver;
+import android.widget.SeekBar;
 import android.widget.TextView;
+import android.widget.Toast;
 import androidx.annotation.NonNull;
 import androidx.appcompat.app.AppCompatActivity;
 import androidx.core.app.ActivityCompat;
 import com.google.android.gms.location.FusedLocationProviderClient;
+import com.google.android.gms.location.LocationCallback;
+import com.google.android.gms.location.LocationResult;
 import com.google.android.gms.location.LocationServices;
-import com.google.android.gms.tasks.OnSuccessListener;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.util.List;
 
 public class GNSSActivity extends AppCompatActivity implements SensorEventListener {
 
     private EsferaCelesteView esferaCelesteView;
     private TextView locationTextView;
     private SignalQualityChartView signalQualityChartView;  // Componente para gráfico de qualidade do sinal
+    private final GnssPipeline gnssPipeline = new GnssPipeline(); // Processamento dos satélites fora da thread de UI
+    // Até o primeiro GnssStatus as views mostram o céu salvo na sessão anterior, esmaecido
+    private final WarmStartSource warmStartSource = new WarmStartSource(gnssPipeline);
+    private SkyStateCache restoredState; // Estado lido do cache, na thread de UI
+    private boolean locationStale;       // A localização exibida veio do cache
+    // Últimos 10 minutos de C/N0 de até 160 satélites, na taxa de 1 Hz do GnssStatus
+    private final Cn0HistoryStore cn0History = Cn0HistoryStore.forDuration(160, 10 * 60, 1);
+    // C/N0 acumulado por direção do céu durante a sessão: mostra obstruções e o padrão da antena
+    private final SkyHeatmap skyHeatmap = new SkyHeatmap();
+    // Medições brutas (pseudorange rate, fase, multicaminho, AGC) em épocas colunares
+    private final MeasurementPipeline measurementPipeline = new MeasurementPipeline();
+    // Geometria dos satélites usados no fix, exibida junto às coordenadas
+    private final DopEngine dopEngine = new DopEngine();
+    private final DopResult dopResult = new DopResult();
+    // Queda simultânea de C/N0 em muitos satélites: provável interferência de RF
+    private final JammingDetector jammingDetector = new JammingDetector();
+    private final JammingResult jammingResult = new JammingResult();
+    private final StringBuilder dopLine = new StringBuilder(64);
+    private TextView dopTextView;
+    private final Runnable updateDop = this::updateDopDisplay;
+    private HandlerThread pipelineThread; // Thread única onde o callback GNSS e o pipeline executam
+
+    // Sensor, status GNSS e localização ligados em primeiro plano e, se pedido, em taxa reduzida
+    // em segundo plano enquanto a sessão é gravada, com o SessionLoggingService em primeiro plano
+    public static final String EXTRA_BACKGROUND_LOGGING = "com.example.gnss.BACKGROUND_LOGGING";
+    private final DataSourceLifecycle dataSources = new DataSourceLifecycle();
+    private boolean loggingServiceStarted;
 
-    private SensorManager sensorManager;
-    private Sensor rotationSensor;
     private float[] rotationMatrix = new float[9];
     private float[] orientationAngles = new float[3];
+    // Suaviza o azimute (constante de tempo de 150 ms) e ignora variações menores que 0,5°
+    private final ExponentialAngleFilter orientationFilter = new ExponentialAngleFilter(0.15f, (float) Math.toRadians(0.5));
 
     private FusedLocationProviderClient fusedLocationClient; // Adicionado para obter a localização
-    private String selectedCoordinateFormat = "Graus [+/-DDD.DDDDD]"; // Formato padrão
+    private CoordinateFormat selectedCoordinateFormat = CoordinateFormat.DEGREES; // Formato padrão
     private static final int REQUEST_LOCATION_PERMISSION = 1;
 
+    // Última localização exibida e o texto formatado, reaproveitados entre atualizações
+    private boolean hasLocation;
+    private double lastLatitude;
+    private double lastLongitude;
+    private final StringBuilder coordinateText = new StringBuilder(64);
+    private char[] coordinateChars = new char[64];
+    private int coordinateTextLength;
+
+    // Gravação da sessão atual e reprodução de sessões gravadas
+    public static final String EXTRA_REPLAY_FILE = "com.example.gnss.REPLAY_FILE";
+    public static final String EXTRA_REPLAY_SPEED = "com.example.gnss.REPLAY_SPEED";
+    static final String SESSIONS_DIR = "sessions";
+    private static final long REPLAY_STOP_TIMEOUT_MILLIS = 500;
+    private SessionWriter sessionWriter;
+    private SessionReader sessionReader;
+    private SessionReplayer sessionReplayer;
+    private Thread replayThread;
+    private File sessionFile;
+
+    // Exportação ao vivo por TCP na interface de loopback (NMEA ou binário), ligada pelo intent
+    public static final String EXTRA_EXPORT_PORT = "com.example.gnss.EXPORT_PORT";
+    public static final String EXTRA_EXPORT_BINARY = "com.example.gnss.EXPORT_BINARY";
+    private LiveExportServer liveExportServer;
+
+    // Métricas do caminho quente, exibidas no overlay e exportadas junto com a sessão
+    public static final String EXTRA_SHOW_METRICS = "com.example.gnss.SHOW_METRICS";
+    private final GnssMetrics metrics = new GnssMetrics();
+    private MetricsOverlayView metricsOverlay;
+    private DebugAllocationProbe allocationProbe;
+
+    // Previsão do céu para as próximas 12 h, a partir de um almanaque YUMA salvo em files/almanac.alm
+    static final String ALMANAC_FILE = "almanac.alm";
+    private static final double FORECAST_STEP_SECONDS = 5 * 60;
+    private static final int FORECAST_STEPS = 12 * 12 + 1;
+    private View forecastPanel;
+    private TextView forecastLabel;
+    private SeekBar forecastSeekBar;
+    private boolean forecastRequested;
+
+    // Início a frio: instantes (System.nanoTime) usados para medir o tempo até cada etapa
+    private long createdNanos;
+    private volatile boolean firstStatusLogged;
+
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
+        createdNanos = System.nanoTime();
         setContentView(R.layout.activity_gnss);
 
         // Inicializar a Esfera Celeste, coordenadas e gráfico de qualidade de sinal
         esferaCelesteView = findViewById(R.id.esferaCelesteView);
         locationTextView = findViewById(R.id.coordinatesText);
+        dopTextView = findViewById(R.id.dopText);
         signalQualityChartView = findViewById(R.id.signalQualityChartView);
+        metricsOverlay = findViewById(R.id.metricsOverlay);
+        forecastPanel = findViewById(R.id.forecastPanel);
+        forecastLabel = findViewById(R.id.forecastLabel);
+        forecastSeekBar = findViewById(R.id.forecastSeekBar);
+
+        // As views leem o snapshot mais recente do pipeline a cada quadro
+        esferaCelesteView.setSnapshotSource(warmStartSource);
+        signalQualityChartView.setSnapshotSource(warmStartSource);
+        signalQualityChartView.setHistory(cn0History);
+        esferaCelesteView.setHeatmap(skyHeatmap);
+        gnssPipeline.addStage(cn0History);
+        gnssPipeline.addStage(skyHeatmap);
+        gnssPipeline.addStage(jammingDetector);
+        gnssPipeline.addStage(measurementPipeline); // C/N0 do status como referência das medições
+        gnssPipeline.addStage(dopEngine);
+        gnssPipeline.setMetrics(metrics);
+        measurementPipeline.setMetrics(metrics);
+        esferaCelesteView.setMetrics(metrics);
+        signalQualityChartView.setMetrics(metrics);
+        metricsOverlay.setMetrics(metrics);
+        gnssPipeline.setListener(() -> {
+            if (!firstStatusLogged) {
+                firstStatusLogged = true;
+                logColdStart("primeiro snapshot ao vivo");
+            }
+            esferaCelesteView.notifySnapshotChanged();
+            signalQualityChartView.notifySnapshotChanged();
+            dopTextView.post(updateDop);
+        });
+        jammingDetector.setListener(active -> {
+            if (active) {
+                dopTextView.post(() -> Toast.makeText(this, "Possível interferência: queda de sinal em vários satélites", Toast.LENGTH_LONG).show());
+            }
+        });
+        pipelineThread = new HandlerThread("gnss-pipeline");
+        pipelineThread.start();
 
         // Definir comportamento ao clicar no campo de coordenadas
         locationTextView.setOnClickListener(v -> showCoordinateFormatDialog());
+        // Toque longo mostra ou esconde o overlay de métricas
+        locationTextView.setOnLongClickListener(v -> {
+            setMetricsOverlayVisible(metricsOverlay.getVisibility() != View.VISIBLE);
+            return true;
+        });
+        if (getIntent().getBooleanExtra(EXTRA_SHOW_METRICS, false)) {
+            setMetricsOverlayVisible(true);
+        }
+
+        runAfterFirstDraw(() -> logColdStart("primeiro quadro"));
+        startLiveExport();
 
-        // Gerenciamento de sensores
-        sensorManager = (SensorManager) getSystemService(SENSOR_SERVICE);
-        rotationSensor = sensorManager.getDefaultSensor(Sensor.TYPE_ROTATION_VECTOR);
-        sensorManager.registerListener(this, rotationSensor, SensorManager.SENSOR_DELAY_UI);
+        // Modo de reprodução: os dados vêm do arquivo, não dos sensores
+        String replayPath = getIntent().getStringExtra(EXTRA_REPLAY_FILE);
+        if (replayPath != null) {
+            startReplay(new File(replayPath), getIntent().getDoubleExtra(EXTRA_REPLAY_SPEED, 1.0));
+            return;
+        }
+        restoreSkyState();
+        startRecording();
 
-        // Inicializar FusedLocationProviderClient
+        // Cliente de localização e registro dos sensores ficam para depois do primeiro quadro
+        runAfterFirstDraw(this::startDataSources);
+    }
+
+    // Registra as fontes de dados; com a atividade já retomada, o DataSourceLifecycle as liga na hora
+    private void startDataSources() {
+        if (isFinishing() || isDestroyed()) {
+            return;
+        }
         fusedLocationClient = LocationServices.getFusedLocationProviderClient(this);
 
-        // Registrar GNSS Status Callback para obter dados de satélite
-        LocationManager locationManager = (LocationManager) getSystemService(LOCATION_SERVICE);
-        if (ActivityCompat.checkSelfPermission(this, Manifest.permission.ACCESS_FINE_LOCATION) != PackageManager.PERMISSION_GRANTED) {
+        // As fontes só começam com a atividade em primeiro plano e a permissão concedida
+        dataSources.addSource(new RotationSensorSource((SensorManager) getSystemService(SENSOR_SERVICE), this));
+        dataSources.addSource(new GnssStatusSource((LocationManager) getSystemService(LOCATION_SERVICE),
+                gnssStatusCallback, gnssMeasurementsCallback, new Handler(pipelineThread.getLooper())));
+        dataSources.addSource(new LocationUpdatesSource(fusedLocationClient, locationCallback));
+        dataSources.setBackgroundLogging(sessionWriter != null && getIntent().getBooleanExtra(EXTRA_BACKGROUND_LOGGING, false));
+        dataSources.setListener(this::onDataSourcesChanged);
+        boolean granted = ActivityCompat.checkSelfPermission(this, Manifest.permission.ACCESS_FINE_LOCATION) == PackageManager.PERMISSION_GRANTED;
+        dataSources.setPermissionGranted(granted);
+        if (granted) {
+            showLastKnownLocation();
+        } else {
             // Solicitar permissões, se necessário
             ActivityCompat.requestPermissions(this, new String[]{Manifest.permission.ACCESS_FINE_LOCATION}, REQUEST_LOCATION_PERMISSION);
+        }
+    }
+
+    // O serviço em primeiro plano acompanha o estado BACKGROUND: sem ele o sistema corta a
+    // localização e os callbacks GNSS da atividade pausada
+    private void onDataSourcesChanged(DataSourceLifecycle.State state) {
+        Log.i("GNSSActivity", "Fontes de dados: " + state);
+        boolean background = state == DataSourceLifecycle.State.BACKGROUND;
+        if (background && !loggingServiceStarted) {
+            SessionLoggingService.start(this);
+            loggingServiceStarted = true;
+        } else if (!background && loggingServiceStarted) {
+            SessionLoggingService.stop(this);
+            loggingServiceStarted = false;
+        }
+    }
+
+    @Override
+    protected void onResume() {
+        super.onResume();
+        dataSources.onResume();
+    }
+
+    @Override
+    protected void onPause() {
+        super.onPause();
+        dataSources.onPause();
+        if (getIntent().getStringExtra(EXTRA_REPLAY_FILE) == null) {
+            saveSkyState(); // Uma sessão reproduzida não substitui o céu salvo
+        }
+    }
+
+    // Executa a ação logo depois que a tela desenha o primeiro quadro
+    private void runAfterFirstDraw(Runnable action) {
+        View content = findViewById(android.R.id.content);
+        content.getViewTreeObserver().addOnDrawListener(new ViewTreeObserver.OnDrawListener() {
+            private boolean done;
+
+            @Override
+            public void onDraw() {
+                if (done) {
+                    return;
+                }
+                done = true;
+                // O listener não pode ser removido de dentro do onDraw
+                content.post(() -> {
+                    content.getViewTreeObserver().removeOnDrawListener(this);
+                    action.run();
+                });
+            }
+        });
+    }
+
+    private void logColdStart(String stage) {
+        Log.i("GNSSActivity", "Início a frio: " + stage + " em " + (System.nanoTime() - createdNanos) / 1_000_000 + " ms");
+    }
+
+    // Lê o cache do céu fora da thread de UI e aplica o estado assim que ele chega
+    private void restoreSkyState() {
+        File file = new File(getFilesDir(), SkyStateCache.FILE_NAME);
+        new Handler(pipelineThread.getLooper()).post(() -> {
+            SkyStateCache state;
+            try {
+                state = SkyStateCache.readFrom(file);
+            } catch (IOException e) {
+                Log.w("GNSSActivity", "Cache do céu ignorado", e);
+                return;
+            }
+            if (state != null) {
+                runOnUiThread(() -> applySkyState(state));
+            }
+        });
+    }
+
+    private void applySkyState(SkyStateCache state) {
+        if (isFinishing() || isDestroyed()) {
             return;
         }
-        locationManager.registerGnssStatusCallback(gnssStatusCallback);
+        restoredState = state;
+        esferaCelesteView.setConstellationFilter(state.constellationFilter);
+        selectedCoordinateFormat = state.coordinateFormat;
+        if (state.hasLocation && !hasLocation) {
+            lastLatitude = state.latitude;
+            lastLongitude = state.longitude;
+            hasLocation = true;
+            locationStale = true;
+        }
+        updateCoordinateDisplay();
+        warmStartSource.setCached(state.snapshot);
+        esferaCelesteView.notifySnapshotChanged();
+        signalQualityChartView.notifySnapshotChanged();
+        logColdStart("cache do céu restaurado (" + state.snapshot.getSatelliteCount() + " satélites)");
     }
 
-    // Callback para GNSS status, atualizando dados do gráfico de sinal e da esfera celeste
+    // Salva o céu atual, a localização e as preferências da tela; a gravação vai para a thread do pipeline
+    private void saveSkyState() {
+        SkyStateCache state = new SkyStateCache();
+        SatelliteSnapshot latest = gnssPipeline.acquireLatest();
+        if (latest != null) {
+            state.snapshot.copyFrom(latest);
+        } else if (restoredState != null) {
+            state.snapshot.copyFrom(restoredState.snapshot); // Nada novo nesta sessão
+        }
+        state.savedAtMillis = System.currentTimeMillis();
+        state.constellationFilter = esferaCelesteView.getConstellationFilter();
+        state.coordinateFormat = selectedCoordinateFormat;
+        if (hasLocation) {
+            state.setLocation(lastLatitude, lastLongitude);
+        }
+        File file = new File(getFilesDir(), SkyStateCache.FILE_NAME);
+        new Handler(pipelineThread.getLooper()).post(() -> {
+            try {
+                state.writeTo(file);
+            } catch (IOException e) {
+                Log.w("GNSSActivity", "Não foi possível salvar o cache do céu", e);
+            }
+        });
+    }
+
+    // Callback para GNSS status, executado na thread do pipeline; as views são avisadas pelo listener
     private GnssStatus.Callback gnssStatusCallback = new GnssStatus.Callback() {
         @Override
         public void onSatelliteStatusChanged(GnssStatus status) {
-            // Atualiza os dados na Esfera Celeste
-            esferaCelesteView.setGnssStatus(status); // Passa o status dos satélites para a Esfera Celeste
-
-            // Atualiza os dados de qualidade de sinal no gráfico
-            Map<Integer, Float> signalData = new HashMap<>();
-            for (int i = 0; i < status.getSatelliteCount(); i++) {
-                int svid = status.getSvid(i);
-                float snr = status.getCn0DbHz(i);
-                if (snr > 0) {
-                    signalData.put(svid, snr);
+            // Copia o status para o snapshot livre e publica, sem alocar por callback
+            fillSnapshot(status, gnssPipeline.beginUpdate());
+            gnssPipeline.commitUpdate();
+        }
+    };
+
+    // Preenche o snapshot com os dados de todos os satélites do status
+    private static void fillSnapshot(GnssStatus status, SatelliteSnapshot snapshot) {
+        int count = status.getSatelliteCount();
+        for (int i = 0; i < count; i++) {
+            // Uma linha por sinal: em dupla frequência o mesmo satélite vem em L1 e L5
+            float carrier = status.hasCarrierFrequencyHz(i) ? status.getCarrierFrequencyHz(i) : Float.NaN;
+            if (!snapshot.add(status.getSvid(i), status.getConstellationType(i), status.getCn0DbHz(i),
+                    status.getAzimuthDegrees(i), status.getElevationDegrees(i), status.usedInFix(i), carrier)) {
+                break; // Capacidade esgotada, ignora o restante
+            }
+        }
+        snapshot.setTimestampNanos(SystemClock.elapsedRealtimeNanos());
+    }
+
+    // Callback das medições brutas, na mesma thread do pipeline que recebe o status
+    private final GnssMeasurementsEvent.Callback gnssMeasurementsCallback = new GnssMeasurementsEvent.Callback() {
+        @Override
+        public void onGnssMeasurementsReceived(GnssMeasurementsEvent event) {
+            // Copia a época inteira para o store livre; as derivadas são calculadas ao publicar
+            fillMeasurements(event, measurementPipeline.beginEpoch());
+            measurementPipeline.commitEpoch();
+        }
+    };
+
+    // O AGC por medição foi substituído pelo do evento no Android 13, mas continua preenchido
+    @SuppressWarnings("deprecation")
+    private static void fillMeasurements(GnssMeasurementsEvent event, MeasurementStore store) {
+        for (GnssMeasurement measurement : event.getMeasurements()) {
+            float agc = measurement.hasAutomaticGainControlLevelDb()
+                    ? (float) measurement.getAutomaticGainControlLevelDb() : Float.NaN;
+            float carrier = measurement.hasCarrierFrequencyHz() ? measurement.getCarrierFrequencyHz() : Float.NaN;
+            if (!store.add(measurement.getSvid(), measurement.getConstellationType(), (float) measurement.getCn0DbHz(),
+                    (float) measurement.getPseudorangeRateMetersPerSecond(),
+                    (float) measurement.getPseudorangeRateUncertaintyMetersPerSecond(),
+                    measurement.getAccumulatedDeltaRangeMeters(), measurement.getAccumulatedDeltaRangeState(),
+                    measurement.getMultipathIndicator(), agc, carrier)) {
+                break; // Capacidade esgotada, ignora o restante
+            }
+        }
+        store.setClockNanos(event.getClock().getTimeNanos());
+        store.setTimestampNanos(SystemClock.elapsedRealtimeNanos());
+    }
+
+    // Atualizações contínuas do provedor fundido; com maxUpdateDelay elas podem chegar em lote
+    private final LocationCallback locationCallback = new LocationCallback() {
+        @Override
+        public void onLocationResult(@NonNull LocationResult result) {
+            // Todas as localizações do lote vão para a sessão, só a mais recente para a tela
+            if (sessionWriter != null) {
+                List<Location> locations = result.getLocations();
+                for (int i = 0; i < locations.size(); i++) {
+                    Location location = locations.get(i);
+                    sessionWriter.writeLocation(location.getElapsedRealtimeNanos(),
+                            location.getLatitude(), location.getLongitude(), location.getAccuracy());
+                }
+            }
+            if (liveExportServer != null) {
+                List<Location> locations = result.getLocations();
+                for (int i = 0; i < locations.size(); i++) {
+                    Location location = locations.get(i);
+                    liveExportServer.publishLocation(location.getTime(), location.getElapsedRealtimeNanos(),
+                            location.getLatitude(), location.getLongitude(),
+                            location.hasAltitude() ? location.getAltitude() : Double.NaN,
+                            location.getAccuracy(), dopResult.hdop[DopResult.COMBINED]);
                 }
             }
-            signalQualityChartView.updateSignalData(signalData); // Passa os dados de sinal para o gráfico
+            Location last = result.getLastLocation();
+            if (last != null) {
+                displayLocation(last.getLatitude(), last.getLongitude());
+            }
         }
     };
 
@@ -92,7 +430,13 @@ public class GNSSActivity extends AppCompatActivity implements SensorEventListen
     public void onSensorChanged(SensorEvent event) {
         SensorManager.getRotationMatrixFromVector(rotationMatrix, event.values);
         SensorManager.getOrientation(rotationMatrix, orientationAngles);
-        esferaCelesteView.setRotation(orientationAngles[0]);
+        if (sessionWriter != null) {
+            sessionWriter.writeRotation(event.timestamp, orientationAngles[0], orientationAngles[1], orientationAngles[2]);
+        }
+        // Só repassa a rotação quando o ângulo filtrado sai da zona morta
+        if (orientationFilter.update(orientationAngles[0], event.timestamp)) {
+            esferaCelesteView.setRotation(orientationFilter.getAngle());
+        }
     }
 
     @Override
@@ -101,85 +445,279 @@ public class GNSSActivity extends AppCompatActivity implements SensorEventListen
     @Override
     protected void onDestroy() {
         super.onDestroy();
-        sensorManager.unregisterListener(this);
+        dataSources.onDestroy();
+        if (sessionReplayer != null) {
+            stopReplay();
+        }
+        pipelineThread.quitSafely();
+        closeQuietly(sessionWriter);
+        closeQuietly(sessionReader);
+        closeQuietly(liveExportServer);
+        setMetricsOverlayVisible(false);
+        exportMetrics();
+
+        FrameCoalescer frames = esferaCelesteView.getFrameCoalescer();
+        Log.i("GNSSActivity", "Rotação: " + orientationFilter.getSamplesReceived() + " eventos, "
+                + orientationFilter.getChangesEmitted() + " repassados, " + frames.getFramesDrawn() + " quadros desenhados");
+    }
+
+    // Grava a sessão em arquivos/sessions para análise posterior
+    private void startRecording() {
+        File directory = sessionsDirectory(this);
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            Log.w("GNSSActivity", "Diretório de sessões indisponível: " + directory);
+            return;
+        }
+        long now = System.currentTimeMillis();
+        try {
+            sessionFile = new File(directory, "sessao-" + now + SessionFormat.FILE_EXTENSION);
+            sessionWriter = SessionWriter.create(sessionFile, now);
+            sessionWriter.setFailureListener(failure ->
+                    Log.w("GNSSActivity", "Falha ao gravar a sessão " + sessionFile.getName() + "; gravação interrompida", failure));
+            gnssPipeline.addStage(sessionWriter);
+        } catch (IOException e) {
+            Log.w("GNSSActivity", "Não foi possível iniciar a gravação da sessão", e);
+        }
+    }
+
+    // Abre o servidor de exportação se o intent pedir uma porta; vale também na reprodução
+    private void startLiveExport() {
+        int port = getIntent().getIntExtra(EXTRA_EXPORT_PORT, 0);
+        if (port <= 0) {
+            return;
+        }
+        LiveExportServer.Format format = getIntent().getBooleanExtra(EXTRA_EXPORT_BINARY, false)
+                ? LiveExportServer.Format.BINARY : LiveExportServer.Format.NMEA;
+        try {
+            liveExportServer = LiveExportServer.open(port, format);
+            gnssPipeline.addStage(liveExportServer);
+            Log.i("GNSSActivity", "Exportação " + format + " em 127.0.0.1:" + liveExportServer.getLocalPort());
+        } catch (IOException e) {
+            Log.w("GNSSActivity", "Não foi possível abrir a exportação na porta " + port, e);
+        }
+    }
+
+    // Diretório das sessões gravadas: armazenamento externo do app, se disponível
+    static File sessionsDirectory(Context context) {
+        File directory = context.getExternalFilesDir(SESSIONS_DIR);
+        return directory != null ? directory : new File(context.getFilesDir(), SESSIONS_DIR);
+    }
+
+    // Reproduz uma sessão gravada numa thread própria, alimentando as mesmas views. Ela faz o papel do
+    // callback GNSS, que não é registrado na reprodução, e deixa a thread do pipeline livre para a
+    // previsão e o cache do céu
+    private void startReplay(File file, double speed) {
+        try {
+            sessionReader = SessionReader.open(file);
+        } catch (IOException e) {
+            Log.w("GNSSActivity", "Não foi possível abrir a sessão " + file, e);
+            locationTextView.setText("Sessão inválida: " + file.getName());
+            return;
+        }
+        sessionReplayer = new SessionReplayer(sessionReader, new SessionReader.Visitor() {
+            @Override
+            public void onSnapshot(SatelliteSnapshot snapshot) {
+                gnssPipeline.beginUpdate().copyFrom(snapshot);
+                gnssPipeline.commitUpdate();
+            }
+
+            @Override
+            public void onLocation(long timestampNanos, double latitude, double longitude, float accuracyMeters) {
+                if (liveExportServer != null) {
+                    liveExportServer.publishLocation(System.currentTimeMillis(), timestampNanos, latitude, longitude,
+                            Double.NaN, accuracyMeters, Double.NaN);
+                }
+                runOnUiThread(() -> displayLocation(latitude, longitude));
+            }
+
+            @Override
+            public void onRotation(long timestampNanos, float azimuth, float pitch, float roll) {
+                if (orientationFilter.update(azimuth, timestampNanos)) {
+                    float angle = orientationFilter.getAngle();
+                    esferaCelesteView.post(() -> esferaCelesteView.setRotation(angle));
+                }
+            }
+        }, speed);
+        replayThread = new Thread(sessionReplayer, "gnss-replay");
+        replayThread.start();
+    }
+
+    // Interrompe a espera entre registros e aguarda a thread sair antes de o leitor ser fechado
+    private void stopReplay() {
+        sessionReplayer.cancel();
+        replayThread.interrupt();
+        try {
+            replayThread.join(REPLAY_STOP_TIMEOUT_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // Mostra o overlay de métricas; a contagem de alocações por atualização só fica ligada enquanto ele está visível
+    private void setMetricsOverlayVisible(boolean visible) {
+        metricsOverlay.setVisibility(visible ? View.VISIBLE : View.GONE);
+        if (visible && allocationProbe == null) {
+            allocationProbe = new DebugAllocationProbe();
+            metrics.setAllocationProbe(allocationProbe);
+        } else if (!visible && allocationProbe != null) {
+            metrics.setAllocationProbe(null);
+            allocationProbe.stop();
+            allocationProbe = null;
+        }
+    }
+
+    // Registra as métricas da sessão no log e, se houve gravação, num arquivo ao lado dela
+    private void exportMetrics() {
+        String text = metrics.snapshot(new MetricsSnapshot(), System.nanoTime()).toString();
+        Log.i("GNSSActivity", "Métricas da sessão:\n" + text);
+        if (sessionFile == null) {
+            return;
+        }
+        File file = new File(sessionFile.getPath() + ".metricas.txt");
+        try (Writer writer = new OutputStreamWriter(new FileOutputStream(file), "UTF-8")) {
+            writer.write(text);
+        } catch (IOException e) {
+            Log.w("GNSSActivity", "Não foi possível exportar as métricas", e);
+        }
+    }
+
+    private static void closeQuietly(Closeable closeable) {
+        if (closeable == null) {
+            return;
+        }
+        try {
+            closeable.close();
+        } catch (IOException e) {
+            Log.w("GNSSActivity", "Falha ao fechar a sessão", e);
+        }
     }
 
     // Método para mostrar o diálogo de seleção de formato de coordenadas
     private void showCoordinateFormatDialog() {
-        String[] formats = {"Graus [+/-DDD.DDDDD]", "Graus-Minutos [+/-DDD:MM.MMMMM]", "Graus-Minutos-Segundos [+/-DDD:MM:SS.SSSSS]"};
         new AlertDialog.Builder(this)
                 .setTitle("Selecionar formato de coordenadas")
-                .setItems(formats, (dialog, which) -> {
-                    // Atualiza o formato de coordenadas com base na seleção
-                    switch (which) {
-                        case 0:
-                            selectedCoordinateFormat = "Graus [+/-DDD.DDDDD]";
-                            break;
-                        case 1:
-                            selectedCoordinateFormat = "Graus-Minutos [+/-DDD:MM.MMMMM]";
-                            break;
-                        case 2:
-                            selectedCoordinateFormat = "Graus-Minutos-Segundos [+/-DDD:MM:SS.SSSSS]";
-                            break;
-                    }
-                    // Atualiza a exibição das coordenadas
+                .setItems(CoordinateFormat.labels(), (dialog, which) -> {
+                    // Reformata a última localização no novo formato, sem consultar o provedor
+                    selectedCoordinateFormat = CoordinateFormat.values()[which];
                     updateCoordinateDisplay();
                 })
                 .show();
     }
 
-    // Método para atualizar a exibição das coordenadas
-    private void updateCoordinateDisplay() {
-        getLocation(); // Obter a localização atual e atualizar a exibição
-    }
-
-    // Método para obter a localização atual
-    private void getLocation() {
-        if (ActivityCompat.checkSelfPermission(this, Manifest.permission.ACCESS_FINE_LOCATION) == PackageManager.PERMISSION_GRANTED) {
-            fusedLocationClient.getLastLocation().addOnSuccessListener(this, location -> {
-                if (location != null) {
-                    double latitude = location.getLatitude();
-                    double longitude = location.getLongitude();
-                    // Formata as coordenadas
-                    String formattedLatitude = formatCoordinate(latitude, selectedCoordinateFormat);
-                    String formattedLongitude = formatCoordinate(longitude, selectedCoordinateFormat);
-                    // Atualiza a UI com as coordenadas formatadas
-                    locationTextView.setText("Lat: " + formattedLatitude + ", Lon: " + formattedLongitude);
-                } else {
-                    locationTextView.setText("Localização não disponível");
-                }
-            });
-        } else {
-            ActivityCompat.requestPermissions(this, new String[]{Manifest.permission.ACCESS_FINE_LOCATION}, REQUEST_LOCATION_PERMISSION);
+    // Mostra a última localização conhecida enquanto a primeira atualização não chega
+    @SuppressLint("MissingPermission")
+    private void showLastKnownLocation() {
+        fusedLocationClient.getLastLocation().addOnSuccessListener(this, location -> {
+            if (location != null && (!hasLocation || locationStale)) {
+                displayLocation(location.getLatitude(), location.getLongitude());
+            }
+        });
+    }
+
+    // Guarda a localização e atualiza a UI
+    private void displayLocation(double latitude, double longitude) {
+        lastLatitude = latitude;
+        lastLongitude = longitude;
+        hasLocation = true;
+        locationStale = false;
+        updateCoordinateDisplay();
+        if (!forecastRequested) {
+            forecastRequested = true;
+            startForecast(latitude, longitude);
         }
     }
 
-    // Método para formatar as coordenadas baseado no formato selecionado
-    private String formatCoordinate(double coordinate, String format) {
-        if (format.equals("Graus [+/-DDD.DDDDD]")) {
-            return String.format("%.5f", coordinate);
-        } else if (format.equals("Graus-Minutos [+/-DDD:MM.MMMMM]")) {
-            return convertToDegreesMinutes(coordinate);
-        } else if (format.equals("Graus-Minutos-Segundos [+/-DDD:MM:SS.SSSSS]")) {
-            return convertToDegreesMinutesSeconds(coordinate);
+    // Propaga o almanaque em cache para a posição atual fora da thread de UI
+    private void startForecast(double latitude, double longitude) {
+        File almanac = new File(getFilesDir(), ALMANAC_FILE);
+        if (!almanac.isFile()) {
+            return;
         }
-        return String.valueOf(coordinate); // Retorna o valor original se nada for correspondente
+        new Handler(pipelineThread.getLooper()).post(() -> {
+            try (Reader reader = new InputStreamReader(new FileInputStream(almanac), "US-ASCII")) {
+                double now = GpsTime.fromUnixMillis(System.currentTimeMillis());
+                OrbitElements elements = YumaAlmanacParser.parse(reader, GpsTime.weekOf(now));
+                SkyForecast forecast = SkyForecast.compute(elements, new TopocentricFrame(latitude, longitude, 0),
+                        now, FORECAST_STEP_SECONDS, FORECAST_STEPS);
+                runOnUiThread(() -> showForecast(forecast));
+            } catch (IOException e) {
+                Log.w("GNSSActivity", "Não foi possível ler o almanaque " + almanac, e);
+            }
+        });
     }
 
-    // Método para converter coordenadas em graus-minutos
-    private String convertToDegreesMinutes(double coordinate) {
-        int degrees = (int) coordinate;
-        double minutes = (coordinate - degrees) * 60;
-        return String.format("%d:%.5f", degrees, minutes);
+    // O seletor escolhe o instante da previsão desenhada sobre a Esfera Celeste
+    private void showForecast(SkyForecast forecast) {
+        if (isFinishing()) {
+            return;
+        }
+        forecastPanel.setVisibility(View.VISIBLE);
+        forecastSeekBar.setMax(forecast.getStepCount() - 1);
+        forecastSeekBar.setOnSeekBarChangeListener(new SeekBar.OnSeekBarChangeListener() {
+            @Override
+            public void onProgressChanged(SeekBar seekBar, int progress, boolean fromUser) {
+                esferaCelesteView.setForecast(forecast, progress);
+                int minutes = (int) Math.round(progress * forecast.getStepSeconds() / 60);
+                forecastLabel.setText("Previsão: +" + minutes / 60 + "h" + (minutes % 60 < 10 ? "0" : "") + minutes % 60
+                        + " (" + forecast.countVisible(progress, 0f) + " visíveis)");
+            }
+
+            @Override
+            public void onStartTrackingTouch(SeekBar seekBar) {}
+
+            @Override
+            public void onStopTrackingTouch(SeekBar seekBar) {}
+        });
+        forecastSeekBar.setProgress(0);
+        esferaCelesteView.setForecast(forecast, 0);
+        forecastLabel.setText("Previsão: agora (" + forecast.countVisible(0, 0f) + " visíveis)");
     }
 
-    // Método para converter coordenadas em graus-minutos-segundos
-    private String convertToDegreesMinutesSeconds(double coordinate) {
-        int degrees = (int) coordinate;
-        double minutes = (coordinate - degrees) * 60;
-        int intMinutes = (int) minutes;
-        double seconds = (minutes - intMinutes) * 60;
-        return String.format("%d:%02d:%.5f", degrees, intMinutes, seconds);
+    // Formata as coordenadas no buffer reutilizável; só refaz o texto quando algo mudou
+    private void updateCoordinateDisplay() {
+        if (!hasLocation) {
+            locationTextView.setText("Localização não disponível");
+            return;
+        }
+        coordinateText.setLength(0);
+        CoordinateFormatter.appendLatLon(coordinateText, lastLatitude, lastLongitude, selectedCoordinateFormat);
+        if (locationStale) {
+            coordinateText.append(" (última posição salva)");
+        }
+        int length = coordinateText.length();
+        if (contentEquals(coordinateChars, coordinateTextLength, coordinateText)) {
+            return;
+        }
+        if (coordinateChars.length < length) {
+            coordinateChars = new char[length * 2];
+        }
+        coordinateText.getChars(0, length, coordinateChars, 0);
+        coordinateTextLength = length;
+        locationTextView.setText(coordinateChars, 0, length);
+    }
+
+    // Mostra o DOP combinado do último snapshot e, durante um alerta, a interferência detectada
+    private void updateDopDisplay() {
+        dopEngine.readResult(dopResult);
+        jammingDetector.readResult(jammingResult);
+        dopLine.setLength(0);
+        dopResult.appendTo(dopLine);
+        if (jammingResult.active) {
+            jammingResult.appendTo(dopLine.append('\n'));
+        }
+        dopTextView.setText(dopLine);
+    }
+
+    private static boolean contentEquals(char[] chars, int length, StringBuilder text) {
+        if (length != text.length()) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (chars[i] != text.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
     }
 
     @Override
@@ -187,7 +725,9 @@ public class GNSSActivity extends AppCompatActivity implements SensorEventListen
         super.onRequestPermissionsResult(requestCode, permissions, grantResults);
         if (requestCode == REQUEST_LOCATION_PERMISSION) {
             if (grantResults.length > 0 && grantResults[0] == PackageManager.PERMISSION_GRANTED) {
-                getLocation(); // Obter a localização após a permissão ser concedida
+                // As fontes começam quando a tela volta do diálogo de permissão
+                dataSources.setPermissionGranted(true);
+                showLastKnownLocation();
             } else {
                 locationTextView.setText("Permissão de localização negada");
             }
@@ -0,0 +1,199 @@
+package com.example.gnss;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Métricas do caminho quente da tela GNSS, no lugar dos Log.d por satélite por quadro:
+// taxa de callbacks, duração e alocações de cada atualização do pipeline, snapshots descartados,
+// latência entre a publicação de um snapshot e o primeiro quadro que o desenha, duração do
+// desenho e pedidos de quadro agrupados por view. Das medições brutas vêm as métricas derivadas pelo
+// MeasurementPipeline: resíduo Doppler, diferença de C/N0 para o status e cycle slips.
+// Tudo é contado com atômicos e histogramas de baldes fixos: registrar não trava nem aloca e
+// pode acontecer em qualquer thread. Classe Java pura, sem dependências do Android.
+public final class GnssMetrics {
+
+    public static final int VIEW_SKY = 0;
+    public static final int VIEW_CHART = 1;
+    public static final int VIEW_COUNT = 2;
+    static final String[] VIEW_NAMES = {"esfera", "grafico"};
+
+    // Momento de publicação dos últimos snapshots, indexado pela sequência
+    private static final int PUBLISH_HISTORY = 64;
+    private static final int PUBLISH_MASK = PUBLISH_HISTORY - 1;
+
+    private final AtomicLong updates = new AtomicLong();
+    private final AtomicLong updatesDropped = new AtomicLong();
+    private final FixedBucketHistogram updateDurationNanos = new FixedBucketHistogram();
+    private final FixedBucketHistogram updateAllocatedBytes = new FixedBucketHistogram();
+    private final AtomicLongArray publishSequences = new AtomicLongArray(PUBLISH_HISTORY);
+    private final AtomicLongArray publishTimes = new AtomicLongArray(PUBLISH_HISTORY);
+
+    private final AtomicLongArray frameRequests = new AtomicLongArray(VIEW_COUNT);
+    private final AtomicLongArray framesCoalesced = new AtomicLongArray(VIEW_COUNT);
+    private final AtomicLongArray framesDrawn = new AtomicLongArray(VIEW_COUNT);
+    private final AtomicLongArray lastDrawnSequences = new AtomicLongArray(VIEW_COUNT);
+    private final FixedBucketHistogram[] frameLatencyNanos = new FixedBucketHistogram[VIEW_COUNT];
+    private final FixedBucketHistogram[] drawDurationNanos = new FixedBucketHistogram[VIEW_COUNT];
+
+    // Medições brutas; os histogramas guardam o módulo em mm/s e em centésimos de dB-Hz
+    private final AtomicLong measurementEpochs = new AtomicLong();
+    private final AtomicLong measurements = new AtomicLong();
+    private final AtomicLong cycleSlips = new AtomicLong();
+    private final FixedBucketHistogram dopplerResidualMmps = new FixedBucketHistogram();
+    private final FixedBucketHistogram cn0DeltaCentiDbHz = new FixedBucketHistogram();
+
+    private volatile AllocationProbe allocationProbe;
+
+    // Estado da última exportação, para a taxa de callbacks no intervalo
+    private long lastSnapshotNanos;
+    private long lastSnapshotUpdates;
+
+    public GnssMetrics() {
+        for (int view = 0; view < VIEW_COUNT; view++) {
+            frameLatencyNanos[view] = new FixedBucketHistogram();
+            drawDurationNanos[view] = new FixedBucketHistogram();
+        }
+        for (int i = 0; i < PUBLISH_HISTORY; i++) {
+            publishSequences.set(i, -1);
+        }
+    }
+
+    // Ativa a medição de alocações por atualização; null desativa
+    public void setAllocationProbe(AllocationProbe probe) {
+        allocationProbe = probe;
+    }
+
+    // Bytes alocados pela thread atual, ou -1 sem probe
+    public long currentThreadAllocatedBytes() {
+        AllocationProbe probe = allocationProbe;
+        return probe != null ? probe.currentThreadAllocatedBytes() : -1;
+    }
+
+    // Thread do pipeline: um snapshot foi publicado. allocatedBytes < 0 quando não medido;
+    // dropped indica que o snapshot anterior foi substituído sem ser lido
+    public void onUpdatePublished(long sequence, long nowNanos, long durationNanos, long allocatedBytes, boolean dropped) {
+        updates.incrementAndGet();
+        if (dropped) {
+            updatesDropped.incrementAndGet();
+        }
+        updateDurationNanos.record(durationNanos);
+        if (allocatedBytes >= 0) {
+            updateAllocatedBytes.record(allocatedBytes);
+        }
+        // Invalida a posição antes de trocar o horário, para o leitor nunca parear sequência e horário errados
+        int i = (int) (sequence & PUBLISH_MASK);
+        publishSequences.set(i, -1);
+        publishTimes.set(i, nowNanos);
+        publishSequences.set(i, sequence);
+    }
+
+    // Qualquer thread: pedido de quadro; scheduled é false quando foi absorvido por um quadro pendente
+    public void onFrameRequested(int view, boolean scheduled) {
+        frameRequests.incrementAndGet(view);
+        if (!scheduled) {
+            framesCoalesced.incrementAndGet(view);
+        }
+    }
+
+    // Thread de UI: quadro desenhado entre startNanos e endNanos mostrando o snapshot sequence
+    // (ou -1 sem snapshot); a latência é medida só no primeiro quadro de cada snapshot
+    public void onFrameDrawn(int view, long sequence, long startNanos, long endNanos) {
+        framesDrawn.incrementAndGet(view);
+        drawDurationNanos[view].record(endNanos - startNanos);
+        if (sequence <= lastDrawnSequences.get(view)) {
+            return;
+        }
+        lastDrawnSequences.set(view, sequence);
+        int i = (int) (sequence & PUBLISH_MASK);
+        if (publishSequences.get(i) != sequence) {
+            return;
+        }
+        long publishedAt = publishTimes.get(i);
+        if (publishSequences.get(i) == sequence) {
+            frameLatencyNanos[view].record(endNanos - publishedAt);
+        }
+    }
+
+    // Thread do pipeline: época de medições publicada, já com as métricas derivadas
+    public void onMeasurementEpoch(MeasurementStore store) {
+        int count = store.getMeasurementCount();
+        int slips = 0;
+        for (int i = 0; i < count; i++) {
+            float residual = store.getDopplerResidualMps(i);
+            if (!Float.isNaN(residual)) {
+                dopplerResidualMmps.record(Math.round(Math.abs(residual) * 1000f));
+            }
+            float cn0Delta = store.getCn0DeltaDbHz(i);
+            if (!Float.isNaN(cn0Delta)) {
+                cn0DeltaCentiDbHz.record(Math.round(Math.abs(cn0Delta) * 100f));
+            }
+            if (store.hasCycleSlip(i)) {
+                slips++;
+            }
+        }
+        measurementEpochs.incrementAndGet();
+        measurements.addAndGet(count);
+        cycleSlips.addAndGet(slips);
+    }
+
+    public long getUpdates() {
+        return updates.get();
+    }
+
+    public long getUpdatesDropped() {
+        return updatesDropped.get();
+    }
+
+    public long getFramesDrawn(int view) {
+        return framesDrawn.get(view);
+    }
+
+    public long getFramesCoalesced(int view) {
+        return framesCoalesced.get(view);
+    }
+
+    public FixedBucketHistogram getUpdateDuration() {
+        return updateDurationNanos;
+    }
+
+    public FixedBucketHistogram getUpdateAllocations() {
+        return updateAllocatedBytes;
+    }
+
+    public FixedBucketHistogram getFrameLatency(int view) {
+        return frameLatencyNanos[view];
+    }
+
+    public FixedBucketHistogram getDrawDuration(int view) {
+        return drawDurationNanos[view];
+    }
+
+    // Exporta os valores atuais em out; a taxa de callbacks cobre o intervalo desde a exportação anterior
+    public synchronized MetricsSnapshot snapshot(MetricsSnapshot out, long nowNanos) {
+        long currentUpdates = updates.get();
+        long elapsed = nowNanos - lastSnapshotNanos;
+        out.callbackRateHz = lastSnapshotNanos != 0 && elapsed > 0
+                ? (currentUpdates - lastSnapshotUpdates) * 1e9 / elapsed : 0;
+        lastSnapshotNanos = nowNanos;
+        lastSnapshotUpdates = currentUpdates;
+
+        out.timestampNanos = nowNanos;
+        out.updates = currentUpdates;
+        out.updatesDropped = updatesDropped.get();
+        updateDurationNanos.readStats(out.updateDurationNanos);
+        updateAllocatedBytes.readStats(out.updateAllocatedBytes);
+        for (int view = 0; view < VIEW_COUNT; view++) {
+            out.frameRequests[view] = frameRequests.get(view);
+            out.framesCoalesced[view] = framesCoalesced.get(view);
+            out.framesDrawn[view] = framesDrawn.get(view);
+            frameLatencyNanos[view].readStats(out.frameLatencyNanos[view]);
+            drawDurationNanos[view].readStats(out.drawDurationNanos[view]);
+        }
+        out.measurementEpochs = measurementEpochs.get();
+        out.measurements = measurements.get();
+        out.cycleSlips = cycleSlips.get();
+        dopplerResidualMmps.readStats(out.dopplerResidualMmps);
+        cn0DeltaCentiDbHz.readStats(out.cn0DeltaCentiDbHz);
+        return out;
+    }
+}
@@ -0,0 +1,111 @@
+package com.example.gnss;
+
+// Estágio de processamento dos dados de satélite fora da thread de UI.
+// Uma única thread de processamento preenche o snapshot (beginUpdate/commitUpdate), os estágios
+// registrados derivam estatísticas e o resultado é publicado num LatestValueSlot, de onde as
+// views leem sempre o valor mais recente. Não depende de classes do Android.
+public final class GnssPipeline implements SnapshotSource {
+
+    // Processamento adicional executado na thread do pipeline antes da publicação
+    public interface Stage {
+        void process(SatelliteSnapshot snapshot);
+    }
+
+    // Avisado na thread do pipeline sempre que um snapshot novo é publicado
+    public interface Listener {
+        void onSnapshotPublished();
+    }
+
+    private final LatestValueSlot<SatelliteSnapshot> slot;
+    private volatile Stage[] stages = new Stage[0];
+    private volatile Listener listener;
+    private volatile GnssMetrics metrics;
+
+    // Escritos somente pela thread do pipeline
+    private long sequence;
+    private volatile long updatesProcessed;
+    private volatile long updatesOverwritten;
+    private long updateStartNanos;
+    private long updateStartAllocatedBytes;
+
+    public GnssPipeline() {
+        this(SatelliteSnapshot.DEFAULT_CAPACITY);
+    }
+
+    public GnssPipeline(int capacity) {
+        slot = new LatestValueSlot<>(() -> new SatelliteSnapshot(capacity));
+    }
+
+    public void setListener(Listener listener) {
+        this.listener = listener;
+    }
+
+    // Métricas de duração, alocações e descarte de cada atualização; null desativa
+    public void setMetrics(GnssMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    public synchronized void addStage(Stage stage) {
+        Stage[] current = stages;
+        Stage[] updated = new Stage[current.length + 1];
+        System.arraycopy(current, 0, updated, 0, current.length);
+        updated[current.length] = stage;
+        stages = updated;
+    }
+
+    // Thread do pipeline: snapshot livre e limpo para ser preenchido
+    public SatelliteSnapshot beginUpdate() {
+        GnssMetrics target = metrics;
+        if (target != null) {
+            updateStartNanos = System.nanoTime();
+            updateStartAllocatedBytes = target.currentThreadAllocatedBytes();
+        }
+        SatelliteSnapshot snapshot = slot.writable();
+        snapshot.clear();
+        return snapshot;
+    }
+
+    // Thread do pipeline: deriva estatísticas, executa os estágios e publica
+    public void commitUpdate() {
+        SatelliteSnapshot snapshot = slot.writable();
+        snapshot.setSequence(++sequence);
+        snapshot.computeStatistics();
+        Stage[] current = stages;
+        for (Stage stage : current) {
+            stage.process(snapshot);
+        }
+        boolean overwritten = slot.publish();
+        if (overwritten) {
+            updatesOverwritten++;
+        }
+        updatesProcessed++;
+
+        GnssMetrics targetMetrics = metrics;
+        if (targetMetrics != null) {
+            long now = System.nanoTime();
+            long allocated = updateStartAllocatedBytes >= 0
+                    ? targetMetrics.currentThreadAllocatedBytes() - updateStartAllocatedBytes : -1;
+            targetMetrics.onUpdatePublished(sequence, now, now - updateStartNanos, allocated, overwritten);
+        }
+
+        Listener target = listener;
+        if (target != null) {
+            target.onSnapshotPublished();
+        }
+    }
+
+    // Thread de UI: snapshot mais recente, ou null antes da primeira publicação
+    @Override
+    public SatelliteSnapshot acquireLatest() {
+        return slot.acquire();
+    }
+
+    public long getUpdatesProcessed() {
+        return updatesProcessed;
+    }
+
+    // Snapshots publicados e substituídos antes de alguma view lê-los
+    public long getUpdatesOverwritten() {
+        return updatesOverwritten;
+    }
+}
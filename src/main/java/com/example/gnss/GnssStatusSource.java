@@ -0,0 +1,46 @@
+package com.example.gnss;
+
+import android.annotation.SuppressLint;
+import android.location.GnssMeasurementsEvent;
+import android.location.GnssStatus;
+import android.location.LocationManager;
+import android.os.Handler;
+
+// Status dos satélites e medições brutas como fonte do ciclo de vida, entregues na thread do
+// pipeline. Em segundo plano só o status continua: ele é o que a sessão grava, e as medições
+// só alimentam a tela.
+final class GnssStatusSource implements DataSourceLifecycle.Source {
+
+    private final LocationManager locationManager;
+    private final GnssStatus.Callback statusCallback;
+    private final GnssMeasurementsEvent.Callback measurementsCallback;
+    private final Handler handler;
+    private boolean measurementsRegistered;
+
+    GnssStatusSource(LocationManager locationManager, GnssStatus.Callback statusCallback,
+                     GnssMeasurementsEvent.Callback measurementsCallback, Handler handler) {
+        this.locationManager = locationManager;
+        this.statusCallback = statusCallback;
+        this.measurementsCallback = measurementsCallback;
+        this.handler = handler;
+    }
+
+    // O ciclo de vida só inicia as fontes com a permissão concedida
+    @SuppressLint("MissingPermission")
+    @Override
+    public void start(DataSourceLifecycle.Rate rate) {
+        locationManager.registerGnssStatusCallback(statusCallback, handler);
+        if (rate == DataSourceLifecycle.Rate.FOREGROUND) {
+            measurementsRegistered = locationManager.registerGnssMeasurementsCallback(measurementsCallback, handler);
+        }
+    }
+
+    @Override
+    public void stop() {
+        locationManager.unregisterGnssStatusCallback(statusCallback);
+        if (measurementsRegistered) {
+            locationManager.unregisterGnssMeasurementsCallback(measurementsCallback);
+            measurementsRegistered = false;
+        }
+    }
+}
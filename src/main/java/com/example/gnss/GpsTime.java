@@ -0,0 +1,40 @@
+package com.example.gnss;
+
+// Conversões entre o relógio do sistema (Unix) e o tempo GPS contínuo, em segundos desde a época
+// GPS (6/1/1980). O tempo de sistema do Galileo acompanha o GPS; só a numeração das semanas
+// começa 1024 semanas depois.
+public final class GpsTime {
+
+    public static final int SECONDS_PER_WEEK = 604_800;
+    public static final int GALILEO_WEEK_OFFSET = 1024;
+    private static final long GPS_EPOCH_UNIX_SECONDS = 315_964_800L;
+    private static final int LEAP_SECONDS = 18; // GPS - UTC desde 2017
+
+    private GpsTime() {
+    }
+
+    public static double fromUnixMillis(long unixMillis) {
+        return (unixMillis / 1000.0) - GPS_EPOCH_UNIX_SECONDS + LEAP_SECONDS;
+    }
+
+    public static long toUnixMillis(double gpsSeconds) {
+        return Math.round((gpsSeconds + GPS_EPOCH_UNIX_SECONDS - LEAP_SECONDS) * 1000.0);
+    }
+
+    public static double fromWeek(int week, double secondsOfWeek) {
+        return (double) week * SECONDS_PER_WEEK + secondsOfWeek;
+    }
+
+    public static int weekOf(double gpsSeconds) {
+        return (int) Math.floor(gpsSeconds / SECONDS_PER_WEEK);
+    }
+
+    // Resolve a semana truncada em módulo (1024 no YUMA) para a mais próxima de referenceWeek
+    public static int resolveWeek(int truncatedWeek, int modulus, int referenceWeek) {
+        int week = referenceWeek - Math.floorMod(referenceWeek - truncatedWeek, modulus);
+        if (referenceWeek - week > modulus / 2) {
+            week += modulus;
+        }
+        return week;
+    }
+}
@@ -0,0 +1,305 @@
+package com.example.gnss;
+
+// Detector de interferência (jamming) no fluxo de C/N0 do GnssStatus. Interferência de RF aparece
+// como uma queda simultânea de C/N0 em muitos satélites e constelações, enquanto obstruções
+// derrubam poucos sinais de cada vez.
+// Cada sinal (SignalKey) tem uma janela deslizante das últimas épocas, mantida também ordenada,
+// de onde saem mediana e MAD (desvio absoluto mediano) em O(janela) sem ordenar de novo. Um sinal
+// está em queda quando fica ao menos MIN_DROP_DB e Z_THRESHOLD desvios robustos abaixo da sua
+// mediana; perder o rastreio conta como queda. O escore da época é a fração dos sinais com
+// histórico que caíram juntos, e o alerta liga no mesmo snapshot em que o escore passa de
+// ALERT_SCORE com quedas em mais de uma constelação (quando há mais de uma), desligando com
+// histerese abaixo de CLEAR_SCORE. Durante o alerta as amostras em queda não entram na janela,
+// para a interferência não virar a nova referência, até o limite de uma janela inteira.
+// Executa na thread do pipeline e não aloca por snapshot; a leitura (readResult) sincroniza na
+// instância e o listener é avisado na thread do pipeline quando o alerta liga ou desliga.
+public final class JammingDetector implements GnssPipeline.Stage {
+
+    public interface Listener {
+        void onJammingChanged(boolean active);
+    }
+
+    public static final int DEFAULT_WINDOW = 30; // Épocas; 30 s na taxa de 1 Hz do GnssStatus
+    private static final int MIN_SAMPLES = 10;   // Amostras antes de o sinal entrar no escore
+    private static final float MIN_DROP_DB = 4f;
+    private static final float Z_THRESHOLD = 3f;
+    private static final float MIN_SIGMA_DB = 1f; // Piso do desvio, para sinais muito estáveis
+    private static final float MAD_TO_SIGMA = 1.4826f;
+    private static final int MIN_ELIGIBLE = 4;
+    private static final float ALERT_SCORE = 0.5f;
+    private static final float CLEAR_SCORE = 0.25f;
+
+    private final int capacity;
+    private final int window;
+
+    // Slots por sinal: janela circular em ring e a mesma janela ordenada em sorted, ambas em
+    // [slot * window, (slot + 1) * window)
+    private final LongFloatMap slotOfKey; // O índice do slot cabe exato no float
+    private final long[] slotKeys;
+    private final boolean[] inUse;
+    private final int[] freeSlots;
+    private int freeCount;
+    private final float[] ring;
+    private final float[] sorted;
+    private final int[] ringHeads;
+    private final int[] sampleCounts;
+    private final long[] lastSeen;
+    private final float[] deviations;
+
+    // Por índice do snapshot atual
+    private final int[] indexSlots;
+    private final boolean[] indexDropped;
+
+    private long epoch;
+    private boolean active;
+    private int activeEpochs;
+    private final JammingResult working = new JammingResult();
+    private final JammingResult published = new JammingResult(); // Protegido por this
+    private volatile Listener listener;
+
+    public JammingDetector() {
+        this(SatelliteSnapshot.DEFAULT_CAPACITY, DEFAULT_WINDOW);
+    }
+
+    public JammingDetector(int capacity, int window) {
+        if (capacity <= 0 || window < MIN_SAMPLES) {
+            throw new IllegalArgumentException("Dimensões inválidas: " + capacity + "x" + window);
+        }
+        this.capacity = capacity;
+        this.window = window;
+        slotOfKey = new LongFloatMap(capacity);
+        slotKeys = new long[capacity];
+        inUse = new boolean[capacity];
+        freeSlots = new int[capacity];
+        ring = new float[capacity * window];
+        sorted = new float[capacity * window];
+        ringHeads = new int[capacity];
+        sampleCounts = new int[capacity];
+        lastSeen = new long[capacity];
+        deviations = new float[window];
+        indexSlots = new int[capacity];
+        indexDropped = new boolean[capacity];
+        reset();
+    }
+
+    public void setListener(Listener listener) {
+        this.listener = listener;
+    }
+
+    @Override
+    public void process(SatelliteSnapshot snapshot) {
+        epoch++;
+        int count = Math.min(snapshot.getSatelliteCount(), capacity);
+        int eligible = 0;
+        int dropped = 0;
+        int eligibleMask = 0;   // Bits do ConstellationRegistry
+        int droppedMask = 0;
+        float dropSum = 0;
+
+        for (int i = 0; i < count; i++) {
+            indexSlots[i] = -1;
+            indexDropped[i] = false;
+            float cn0 = snapshot.getCn0DbHz(i);
+            long key = snapshot.getSignalKey(i);
+            int slot = (int) slotOfKey.get(key, -1f);
+            if (slot < 0) {
+                if (!(cn0 > 0) || (slot = allocate(key)) < 0) {
+                    continue;
+                }
+            }
+            indexSlots[i] = slot;
+            lastSeen[slot] = epoch;
+            if (sampleCounts[slot] < MIN_SAMPLES) {
+                continue;
+            }
+            int bit = 1 << ConstellationRegistry.indexOf(snapshot.getConstellationType(i));
+            eligible++;
+            eligibleMask |= bit;
+            float drop = dropOf(slot, cn0 > 0 ? cn0 : 0);
+            if (drop > 0) {
+                indexDropped[i] = true;
+                dropped++;
+                droppedMask |= bit;
+                dropSum += drop;
+            }
+        }
+
+        // Sinais que sumiram do status perderam o rastreio; depois de uma janela o slot é liberado
+        for (int slot = 0; slot < capacity; slot++) {
+            if (!inUse[slot] || lastSeen[slot] == epoch) {
+                continue;
+            }
+            if (epoch - lastSeen[slot] > window) {
+                release(slot);
+            } else if (sampleCounts[slot] >= MIN_SAMPLES) {
+                int bit = 1 << ConstellationRegistry.indexOf(SignalKey.constellationOf(slotKeys[slot]));
+                eligible++;
+                eligibleMask |= bit;
+                dropped++;
+                droppedMask |= bit;
+                dropSum += median(slot);
+            }
+        }
+
+        float score = eligible > 0 ? (float) dropped / eligible : 0;
+        int constellations = Integer.bitCount(droppedMask);
+        boolean spread = constellations >= Math.min(2, Integer.bitCount(eligibleMask));
+        boolean wasActive = active;
+        if (!active) {
+            active = eligible >= MIN_ELIGIBLE && score >= ALERT_SCORE && spread;
+        } else {
+            active = eligible >= MIN_ELIGIBLE && score >= CLEAR_SCORE;
+        }
+        activeEpochs = active ? activeEpochs + 1 : 0;
+
+        boolean freeze = active && activeEpochs <= window;
+        for (int i = 0; i < count; i++) {
+            int slot = indexSlots[i];
+            float cn0 = snapshot.getCn0DbHz(i);
+            if (slot >= 0 && cn0 > 0 && !(freeze && indexDropped[i])) {
+                push(slot, cn0);
+            }
+        }
+
+        working.sequence = snapshot.getSequence();
+        working.active = active;
+        working.score = score;
+        working.eligible = eligible;
+        working.dropped = dropped;
+        working.constellations = constellations;
+        working.meanDropDb = dropped > 0 ? dropSum / dropped : 0;
+        if (active && !wasActive) {
+            working.alerts++;
+        }
+        synchronized (this) {
+            published.copyFrom(working);
+        }
+        Listener target = listener;
+        if (target != null && active != wasActive) {
+            target.onJammingChanged(active);
+        }
+    }
+
+    // Resultado do último snapshot processado
+    public synchronized JammingResult readResult(JammingResult out) {
+        out.copyFrom(published);
+        return out;
+    }
+
+    public void reset() {
+        slotOfKey.clear();
+        freeCount = 0;
+        for (int slot = capacity - 1; slot >= 0; slot--) {
+            inUse[slot] = false;
+            freeSlots[freeCount++] = slot;
+        }
+        epoch = 0;
+        active = false;
+        activeEpochs = 0;
+        working.clear();
+        synchronized (this) {
+            published.clear();
+        }
+    }
+
+    public int getWindow() {
+        return window;
+    }
+
+    // Mediana da janela do sinal, ou NaN sem amostras (para testes)
+    float medianOf(long signalKey) {
+        int slot = (int) slotOfKey.get(signalKey, -1f);
+        return slot >= 0 && sampleCounts[slot] > 0 ? median(slot) : Float.NaN;
+    }
+
+    // MAD da janela do sinal, ou NaN sem amostras (para testes)
+    float madOf(long signalKey) {
+        int slot = (int) slotOfKey.get(signalKey, -1f);
+        return slot >= 0 && sampleCounts[slot] > 0 ? mad(slot) : Float.NaN;
+    }
+
+    // Queda em dB-Hz abaixo da mediana, ou 0 se não passa dos limiares
+    private float dropOf(int slot, float cn0) {
+        float median = median(slot);
+        float sigma = Math.max(mad(slot) * MAD_TO_SIGMA, MIN_SIGMA_DB);
+        float drop = median - cn0;
+        return drop >= MIN_DROP_DB && drop >= Z_THRESHOLD * sigma ? drop : 0;
+    }
+
+    private float median(int slot) {
+        int base = slot * window;
+        int n = sampleCounts[slot];
+        int half = n / 2;
+        return (n & 1) == 1 ? sorted[base + half] : (sorted[base + half - 1] + sorted[base + half]) / 2;
+    }
+
+    // Os desvios |x - mediana| já saem ordenados intercalando as duas metades da janela ordenada:
+    // de trás para frente abaixo da mediana e de frente para trás a partir dela
+    private float mad(int slot) {
+        int base = slot * window;
+        int n = sampleCounts[slot];
+        float median = median(slot);
+        int right = 0;
+        while (right < n && sorted[base + right] < median) {
+            right++;
+        }
+        int left = right - 1;
+        for (int k = 0; k < n; k++) {
+            float below = left >= 0 ? median - sorted[base + left] : Float.MAX_VALUE;
+            float above = right < n ? sorted[base + right] - median : Float.MAX_VALUE;
+            if (below <= above) {
+                deviations[k] = below;
+                left--;
+            } else {
+                deviations[k] = above;
+                right++;
+            }
+        }
+        int half = n / 2;
+        return (n & 1) == 1 ? deviations[half] : (deviations[half - 1] + deviations[half]) / 2;
+    }
+
+    // Entra uma amostra na janela: sai a mais antiga da ordenada e a nova é inserida no lugar
+    private void push(int slot, float cn0) {
+        int base = slot * window;
+        int n = sampleCounts[slot];
+        int head = ringHeads[slot];
+        if (n == window) {
+            float oldest = ring[base + head];
+            int j = 0;
+            while (sorted[base + j] != oldest) {
+                j++;
+            }
+            System.arraycopy(sorted, base + j + 1, sorted, base + j, n - j - 1);
+            n--;
+        }
+        ring[base + head] = cn0;
+        ringHeads[slot] = head + 1 == window ? 0 : head + 1;
+        int j = n;
+        while (j > 0 && sorted[base + j - 1] > cn0) {
+            sorted[base + j] = sorted[base + j - 1];
+            j--;
+        }
+        sorted[base + j] = cn0;
+        sampleCounts[slot] = n + 1;
+    }
+
+    private int allocate(long key) {
+        if (freeCount == 0) {
+            return -1;
+        }
+        int slot = freeSlots[--freeCount];
+        inUse[slot] = true;
+        slotKeys[slot] = key;
+        ringHeads[slot] = 0;
+        sampleCounts[slot] = 0;
+        slotOfKey.put(key, slot);
+        return slot;
+    }
+
+    private void release(int slot) {
+        slotOfKey.remove(slotKeys[slot]);
+        inUse[slot] = false;
+        freeSlots[freeCount++] = slot;
+    }
+}
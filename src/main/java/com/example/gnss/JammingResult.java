@@ -0,0 +1,44 @@
+package com.example.gnss;
+
+// Estado do detector de interferência no último snapshot. Reaproveitável como o DopResult: a UI
+// preenche sempre a mesma instância.
+public final class JammingResult {
+
+    public long sequence;       // Snapshot que originou os valores
+    public boolean active;      // Alerta de interferência ligado
+    public float score;         // Fração dos sinais com histórico que caíram juntos (0 a 1)
+    public int eligible;        // Sinais com histórico suficiente para avaliar a queda
+    public int dropped;         // Desses, quantos caíram (ou perderam o rastreio)
+    public int constellations;  // Constelações com pelo menos um sinal em queda
+    public float meanDropDb;    // Queda média dos sinais em queda, em dB-Hz
+    public long alerts;         // Alertas disparados desde o início
+
+    public void clear() {
+        sequence = 0;
+        active = false;
+        score = 0;
+        eligible = 0;
+        dropped = 0;
+        constellations = 0;
+        meanDropDb = 0;
+        alerts = 0;
+    }
+
+    public void copyFrom(JammingResult other) {
+        sequence = other.sequence;
+        active = other.active;
+        score = other.score;
+        eligible = other.eligible;
+        dropped = other.dropped;
+        constellations = other.constellations;
+        meanDropDb = other.meanDropDb;
+        alerts = other.alerts;
+    }
+
+    // Linha curta exibida junto ao DOP enquanto o alerta está ligado
+    public StringBuilder appendTo(StringBuilder out) {
+        out.append("Interferência: ").append(dropped).append('/').append(eligible).append(" sinais, -");
+        NumberFormatter.appendFixed(out, meanDropDb, 1).append(" dB-Hz em ");
+        return out.append(constellations).append(constellations == 1 ? " constelação" : " constelações");
+    }
+}
@@ -0,0 +1,297 @@
+package com.example.gnss;
+
+// Posiciona os rótulos dos satélites sem sobreposição. Cada ponto é um obstáculo; cada rótulo
+// tenta oito posições em volta do seu ponto, na ordem de prioridade (maior C/N0 primeiro), e
+// fica na primeira que não colide com nenhum ponto nem rótulo já posicionado. O que não cabe é
+// descartado. As caixas ficam numa grade uniforme com células do tamanho da maior caixa, em
+// tabela de espalhamento: cada consulta olha só as células vizinhas, o que dá custo esperado
+// linear no número de satélites.
+// Uso por quadro: begin(), add() para cada satélite, layout(). Se nenhum ponto se moveu mais que
+// o limiar desde o último layout completo, as posições escolhidas são reaproveitadas e só
+// acompanham os pontos. Sem dependências do Android; não aloca depois de construído.
+public final class LabelPlacer {
+
+    // Direções candidatas a partir do centro do ponto, com o rótulo encostado nele (raio + folga):
+    // direita, esquerda, acima, abaixo e as diagonais
+    private static final float[] CANDIDATE_X = {1, -1, 0, 0, 1, 1, -1, -1};
+    private static final float[] CANDIDATE_Y = {0, 0, -1, 1, -1, 1, -1, 1};
+    public static final int NOT_PLACED = -1;
+
+    private final int capacity;
+    private final float dotRadius;
+    private final float gap;
+    private final float moveThreshold;
+
+    // Entrada do quadro atual
+    private final long[] keys;
+    private final float[] anchorX;
+    private final float[] anchorY;
+    private final float[] widths;
+    private final float[] priorities;
+    private float labelHeight;
+    private int count;
+
+    // Último layout completo: entrada usada e candidato escolhido por rótulo
+    private final long[] layoutKeys;
+    private final float[] layoutX;
+    private final float[] layoutY;
+    private final float[] layoutWidths;
+    private float layoutHeight;
+    private int layoutCount = -1;
+    private final int[] candidate;
+    private int placedCount;
+    private int layoutsComputed;
+
+    // Ordem de prioridade: prioridade ordenável nos 32 bits altos, índice nos baixos
+    private final long[] order;
+
+    // Grade: caixas (pontos e rótulos) encadeadas por balde; um balde só vale no layout em que foi marcado
+    private final float[] boxLeft;
+    private final float[] boxTop;
+    private final float[] boxRight;
+    private final float[] boxBottom;
+    private final int[] boxNext;
+    private int boxCount;
+    private final int[] bucketHead;
+    private final int[] bucketStamp;
+    private final int bucketMask;
+    private int stamp;
+    private float cellSize;
+
+    public LabelPlacer(int capacity, float dotRadius, float gap, float moveThreshold) {
+        this.capacity = capacity;
+        this.dotRadius = dotRadius;
+        this.gap = gap;
+        this.moveThreshold = moveThreshold;
+        keys = new long[capacity];
+        anchorX = new float[capacity];
+        anchorY = new float[capacity];
+        widths = new float[capacity];
+        priorities = new float[capacity];
+        layoutKeys = new long[capacity];
+        layoutX = new float[capacity];
+        layoutY = new float[capacity];
+        layoutWidths = new float[capacity];
+        candidate = new int[capacity];
+        order = new long[capacity];
+        int boxes = capacity * 2;
+        boxLeft = new float[boxes];
+        boxTop = new float[boxes];
+        boxRight = new float[boxes];
+        boxBottom = new float[boxes];
+        boxNext = new int[boxes];
+        int buckets = Integer.highestOneBit(Math.max(boxes, 8) * 2 - 1) << 1;
+        bucketHead = new int[buckets];
+        bucketStamp = new int[buckets];
+        bucketMask = buckets - 1;
+    }
+
+    // Começa um quadro; labelHeight é a altura comum dos rótulos (ascendente + descendente)
+    public void begin(float labelHeight) {
+        this.labelHeight = labelHeight;
+        count = 0;
+    }
+
+    // Satélite com ponto em (x, y) e rótulo de largura width; key identifica o satélite entre
+    // quadros (SignalKey.satelliteOf). Retorna o índice do rótulo, ou -1 se a capacidade acabou
+    public int add(long key, float x, float y, float width, float priority) {
+        if (count == capacity) {
+            return -1;
+        }
+        keys[count] = key;
+        anchorX[count] = x;
+        anchorY[count] = y;
+        widths[count] = width;
+        priorities[count] = priority;
+        return count++;
+    }
+
+    // Posiciona os rótulos do quadro e retorna quantos couberam
+    public int layout() {
+        if (!canReuseLayout()) {
+            computeLayout();
+        }
+        return placedCount;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    // Quantas vezes o layout foi refeito (os demais quadros reaproveitaram o anterior)
+    public int getLayoutsComputed() {
+        return layoutsComputed;
+    }
+
+    public boolean isPlaced(int index) {
+        return candidate[index] != NOT_PLACED;
+    }
+
+    // Posição escolhida (0 a 7) ou NOT_PLACED
+    public int getCandidate(int index) {
+        return candidate[index];
+    }
+
+    // Canto superior esquerdo do rótulo, acompanhando a posição atual do ponto
+    public float getLabelLeft(int index) {
+        return labelLeft(anchorX[index], widths[index], candidate[index]);
+    }
+
+    public float getLabelTop(int index) {
+        return labelTop(anchorY[index], labelHeight, candidate[index]);
+    }
+
+    private boolean canReuseLayout() {
+        if (count != layoutCount || labelHeight != layoutHeight) {
+            return false;
+        }
+        for (int i = 0; i < count; i++) {
+            if (keys[i] != layoutKeys[i] || widths[i] != layoutWidths[i]
+                    || Math.abs(anchorX[i] - layoutX[i]) > moveThreshold
+                    || Math.abs(anchorY[i] - layoutY[i]) > moveThreshold) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void computeLayout() {
+        layoutsComputed++;
+        layoutCount = count;
+        layoutHeight = labelHeight;
+        System.arraycopy(keys, 0, layoutKeys, 0, count);
+        System.arraycopy(anchorX, 0, layoutX, 0, count);
+        System.arraycopy(anchorY, 0, layoutY, 0, count);
+        System.arraycopy(widths, 0, layoutWidths, 0, count);
+
+        // Células do tamanho da maior caixa: caixas que se tocam estão em células vizinhas
+        float largest = Math.max(labelHeight, dotRadius * 2);
+        for (int i = 0; i < count; i++) {
+            largest = Math.max(largest, widths[i]);
+        }
+        cellSize = Math.max(largest, 1f);
+        stamp++;
+        boxCount = 0;
+
+        for (int i = 0; i < count; i++) {
+            insert(anchorX[i] - dotRadius, anchorY[i] - dotRadius, anchorX[i] + dotRadius, anchorY[i] + dotRadius);
+        }
+
+        // Maior prioridade primeiro; empates pelo índice, para o resultado não depender da ordenação
+        for (int i = 0; i < count; i++) {
+            order[i] = ((long) ~sortableBits(priorities[i]) << 32) | i;
+        }
+        heapSort(order, count);
+
+        placedCount = 0;
+        for (int n = 0; n < count; n++) {
+            int i = (int) order[n];
+            candidate[i] = NOT_PLACED;
+            for (int c = 0; c < CANDIDATE_X.length; c++) {
+                float left = labelLeft(anchorX[i], widths[i], c);
+                float top = labelTop(anchorY[i], labelHeight, c);
+                float right = left + widths[i];
+                float bottom = top + labelHeight;
+                if (!collides(left, top, right, bottom)) {
+                    insert(left, top, right, bottom);
+                    candidate[i] = c;
+                    placedCount++;
+                    break;
+                }
+            }
+        }
+    }
+
+    private float labelLeft(float x, float width, int c) {
+        return x + CANDIDATE_X[c] * (dotRadius + gap + width / 2) - width / 2;
+    }
+
+    private float labelTop(float y, float height, int c) {
+        return y + CANDIDATE_Y[c] * (dotRadius + gap + height / 2) - height / 2;
+    }
+
+    private void insert(float left, float top, float right, float bottom) {
+        int box = boxCount++;
+        boxLeft[box] = left;
+        boxTop[box] = top;
+        boxRight[box] = right;
+        boxBottom[box] = bottom;
+        int bucket = bucketOf(cell((left + right) / 2), cell((top + bottom) / 2));
+        if (bucketStamp[bucket] != stamp) {
+            bucketStamp[bucket] = stamp;
+            bucketHead[bucket] = -1;
+        }
+        boxNext[box] = bucketHead[bucket];
+        bucketHead[bucket] = box;
+    }
+
+    // Uma caixa que colide tem o centro a menos de meia célula das bordas da candidata, o que
+    // limita a busca a 2x2 células na maioria dos casos (3x3 no máximo). Caixas de células
+    // diferentes podem dividir o balde; o teste de interseção descarta as falsas
+    private boolean collides(float left, float top, float right, float bottom) {
+        float half = cellSize / 2;
+        int firstX = cell(left - half);
+        int lastX = cell(right + half);
+        int firstY = cell(top - half);
+        int lastY = cell(bottom + half);
+        for (int cellY = firstY; cellY <= lastY; cellY++) {
+            for (int cellX = firstX; cellX <= lastX; cellX++) {
+                int bucket = bucketOf(cellX, cellY);
+                if (bucketStamp[bucket] != stamp) {
+                    continue;
+                }
+                for (int box = bucketHead[bucket]; box >= 0; box = boxNext[box]) {
+                    if (left < boxRight[box] && boxLeft[box] < right && top < boxBottom[box] && boxTop[box] < bottom) {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    private int cell(float coordinate) {
+        return (int) Math.floor(coordinate / cellSize);
+    }
+
+    private int bucketOf(int cellX, int cellY) {
+        int h = (cellX * 0x9E3779B9) ^ (cellY * 0x85EBCA6B);
+        h ^= h >>> 16;
+        return h & bucketMask;
+    }
+
+    // Ordenação no lugar: o Arrays.sort de long[] pode alocar buffers de trabalho
+    static void heapSort(long[] values, int count) {
+        for (int i = count / 2 - 1; i >= 0; i--) {
+            siftDown(values, i, count);
+        }
+        for (int end = count - 1; end > 0; end--) {
+            long swap = values[0];
+            values[0] = values[end];
+            values[end] = swap;
+            siftDown(values, 0, end);
+        }
+    }
+
+    private static void siftDown(long[] values, int root, int count) {
+        long value = values[root];
+        int child;
+        while ((child = root * 2 + 1) < count) {
+            if (child + 1 < count && values[child + 1] > values[child]) {
+                child++;
+            }
+            if (values[child] <= value) {
+                break;
+            }
+            values[root] = values[child];
+            root = child;
+        }
+        values[root] = value;
+    }
+
+    // Bits do float que preservam a ordem numérica como int com sinal
+    private static int sortableBits(float value) {
+        int bits = Float.floatToIntBits(value);
+        return bits ^ ((bits >> 31) & 0x7FFFFFFF);
+    }
+}
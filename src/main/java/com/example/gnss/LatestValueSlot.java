@@ -0,0 +1,55 @@
+package com.example.gnss;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+// Entrega lock-free do valor mais recente entre um produtor e um consumidor (triple buffering).
+// O produtor escreve sempre num buffer livre e publica trocando-o com o do meio; o consumidor
+// pega o do meio somente quando há algo novo. Se o consumidor atrasa, os valores não lidos são
+// sobrescritos (o último vence) e nada fica enfileirado. Nenhuma alocação após a construção.
+public final class LatestValueSlot<T> {
+
+    private static final int INDEX_MASK = 0b011;
+    private static final int DIRTY = 0b100; // O buffer do meio tem um valor ainda não lido
+
+    private final Object[] buffers = new Object[3];
+    private final AtomicInteger middle = new AtomicInteger(1);
+    private int back = 0;  // Somente o produtor acessa
+    private int front = 2; // Somente o consumidor acessa
+    private boolean hasValue;
+
+    public LatestValueSlot(Supplier<T> factory) {
+        for (int i = 0; i < buffers.length; i++) {
+            buffers[i] = factory.get();
+        }
+    }
+
+    // Buffer livre para o produtor escrever
+    @SuppressWarnings("unchecked")
+    public T writable() {
+        return (T) buffers[back];
+    }
+
+    // Publica o buffer escrito; retorna true se um valor anterior foi descartado sem ser lido
+    public boolean publish() {
+        int previous = middle.getAndSet(back | DIRTY);
+        back = previous & INDEX_MASK;
+        return (previous & DIRTY) != 0;
+    }
+
+    // Indica se há um valor publicado ainda não lido
+    public boolean hasUpdate() {
+        return (middle.get() & DIRTY) != 0;
+    }
+
+    // Valor mais recente para o consumidor, ou null se nada foi publicado ainda.
+    // A referência só é válida até a próxima chamada feita pelo consumidor.
+    @SuppressWarnings("unchecked")
+    public T acquire() {
+        if ((middle.get() & DIRTY) != 0) {
+            front = middle.getAndSet(front) & INDEX_MASK;
+            hasValue = true;
+        }
+        return hasValue ? (T) buffers[front] : null;
+    }
+}
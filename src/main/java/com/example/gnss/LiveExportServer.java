@@ -0,0 +1,421 @@
+package com.example.gnss;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Servidor TCP local que transmite os dados ao vivo para ferramentas no computador (com o celular
+// no carro, via "adb forward tcp:8765 tcp:8765"). Cada snapshot do pipeline e cada localização
+// viram um quadro: sentenças NMEA GSV/GGA (NmeaEncoder) ou registros binários do SessionFormat,
+// e nesse caso o fluxo começa com um HEADER e pode ser lido como uma sessão gravada.
+// Um seletor NIO numa thread própria aceita clientes e escreve sem bloquear. O quadro é
+// codificado uma vez na thread do pipeline e copiado para a fila de cada cliente: queueFrames
+// quadros pré-alocados mais o que está sendo enviado. Com a fila cheia (cliente lento) o quadro
+// mais antigo ainda não enviado é descartado, então quem publica nunca espera pela rede e o
+// cliente recebe sempre os dados mais novos, em quadros inteiros. Publicar não aloca.
+public final class LiveExportServer implements GnssPipeline.Stage, Closeable {
+
+    public enum Format {
+        NMEA,
+        BINARY
+    }
+
+    public static final int DEFAULT_PORT = 8765;
+    public static final int DEFAULT_QUEUE_FRAMES = 8;
+    public static final int DEFAULT_MAX_CLIENTS = 8;
+
+    private final Format format;
+    private final int queueFrames;
+    private final int maxClients;
+    private final int frameCapacity;
+    private final Selector selector;
+    private final ServerSocketChannel serverChannel;
+    private final Thread thread;
+    private volatile boolean running = true;
+    private volatile Client[] clients = new Client[0]; // Substituído inteiro pela thread do seletor
+
+    // Codificação, protegida por this (snapshots e localizações chegam de threads diferentes)
+    private final int capacity;
+    private final NmeaEncoder nmea;
+    private final byte[] frame;
+    private final ByteBuffer frameBuffer;
+    private int lastSatellitesUsed;
+
+    // Só na thread do seletor
+    private final byte[] headerFrame = new byte[SessionFormat.RECORD_SIZE];
+    private final ByteBuffer discard = ByteBuffer.allocateDirect(512);
+
+    private final AtomicLong framesPublished = new AtomicLong();
+    private final AtomicLong framesSent = new AtomicLong();
+    private final AtomicLong framesDropped = new AtomicLong();
+
+    // Fila de um cliente: slots de quadro fixos; queue e free são protegidos pela instância, o slot
+    // em envio pertence à thread do seletor
+    private static final class Client {
+        final SocketChannel channel;
+        final SelectionKey key;
+        final ByteBuffer[] slots;
+        final int[] queue;
+        final int[] free;
+        int queueHead;
+        int queueCount;
+        int freeCount;
+        int sending = -1;
+
+        Client(SocketChannel channel, SelectionKey key, int queueFrames, int frameCapacity) {
+            this.channel = channel;
+            this.key = key;
+            slots = new ByteBuffer[queueFrames + 1];
+            queue = new int[queueFrames];
+            free = new int[queueFrames + 1];
+            for (int i = 0; i < slots.length; i++) {
+                slots[i] = ByteBuffer.allocate(frameCapacity);
+                free[freeCount++] = i;
+            }
+        }
+
+        // Enfileira uma cópia do quadro; retorna false se um quadro antigo foi descartado
+        synchronized boolean offer(byte[] data, int length) {
+            int slot;
+            boolean dropped = queueCount == queue.length;
+            if (dropped) {
+                slot = queue[queueHead];
+                queueHead = (queueHead + 1) % queue.length;
+                queueCount--;
+            } else {
+                slot = free[--freeCount];
+            }
+            ByteBuffer buffer = slots[slot];
+            buffer.clear();
+            buffer.put(data, 0, length);
+            buffer.flip();
+            queue[(queueHead + queueCount) % queue.length] = slot;
+            queueCount++;
+            return !dropped;
+        }
+
+        synchronized int poll() {
+            if (queueCount == 0) {
+                return -1;
+            }
+            int slot = queue[queueHead];
+            queueHead = (queueHead + 1) % queue.length;
+            queueCount--;
+            return slot;
+        }
+
+        synchronized void release(int slot) {
+            free[freeCount++] = slot;
+        }
+    }
+
+    private LiveExportServer(Selector selector, ServerSocketChannel serverChannel, Format format,
+                             int capacity, int queueFrames, int maxClients) {
+        this.selector = selector;
+        this.serverChannel = serverChannel;
+        this.format = format;
+        this.capacity = capacity;
+        this.queueFrames = queueFrames;
+        this.maxClients = maxClients;
+        nmea = new NmeaEncoder(capacity);
+        frameCapacity = Math.max((capacity + 2) * SessionFormat.RECORD_SIZE, NmeaEncoder.maxGsvBytes(capacity));
+        frame = new byte[frameCapacity];
+        frameBuffer = ByteBuffer.wrap(frame).order(ByteOrder.LITTLE_ENDIAN);
+        thread = new Thread(this::run, "gnss-export");
+    }
+
+    // Servidor só na interface de loopback, alcançável pelo adb forward
+    public static LiveExportServer open(int port, Format format) throws IOException {
+        return open(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), format,
+                SatelliteSnapshot.DEFAULT_CAPACITY, DEFAULT_QUEUE_FRAMES, DEFAULT_MAX_CLIENTS);
+    }
+
+    public static LiveExportServer open(InetSocketAddress address, Format format, int capacity,
+                                        int queueFrames, int maxClients) throws IOException {
+        if (capacity <= 0 || queueFrames <= 0 || maxClients <= 0) {
+            throw new IllegalArgumentException("Dimensões inválidas: " + capacity + "/" + queueFrames + "/" + maxClients);
+        }
+        Selector selector = Selector.open();
+        ServerSocketChannel channel = ServerSocketChannel.open();
+        try {
+            channel.bind(address);
+            channel.configureBlocking(false);
+            channel.register(selector, SelectionKey.OP_ACCEPT);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            selector.close();
+            throw e;
+        }
+        LiveExportServer server = new LiveExportServer(selector, channel, format, capacity, queueFrames, maxClients);
+        server.thread.start();
+        return server;
+    }
+
+    public int getLocalPort() {
+        return serverChannel.socket().getLocalPort();
+    }
+
+    public Format getFormat() {
+        return format;
+    }
+
+    public int getClientCount() {
+        return clients.length;
+    }
+
+    // Quadros publicados (snapshots e localizações), independente de haver clientes
+    public long getFramesPublished() {
+        return framesPublished.get();
+    }
+
+    // Quadros entregues inteiros ao socket, somando todos os clientes
+    public long getFramesSent() {
+        return framesSent.get();
+    }
+
+    // Quadros descartados das filas de clientes lentos
+    public long getFramesDropped() {
+        return framesDropped.get();
+    }
+
+    // Estágio do pipeline: exporta cada snapshot publicado
+    @Override
+    public void process(SatelliteSnapshot snapshot) {
+        if (!running) {
+            return;
+        }
+        Client[] targets = clients;
+        synchronized (this) {
+            lastSatellitesUsed = nmea.countUsedSatellites(snapshot);
+            framesPublished.incrementAndGet();
+            if (targets.length == 0) {
+                return; // Ninguém conectado: nada a codificar
+            }
+            int length = format == Format.NMEA ? nmea.appendGsv(snapshot, frame, 0)
+                    : encodeEpoch(snapshot, Math.min(snapshot.getSatelliteCount(), capacity));
+            offerAll(targets, length);
+        }
+        selector.wakeup();
+    }
+
+    // Exporta uma localização; utcMillis vai na GGA e elapsedRealtimeNanos no registro binário.
+    // altitudeMeters e hdop podem ser NaN.
+    public void publishLocation(long utcMillis, long elapsedRealtimeNanos, double latitude, double longitude,
+                                double altitudeMeters, float accuracyMeters, double hdop) {
+        if (!running) {
+            return;
+        }
+        Client[] targets = clients;
+        synchronized (this) {
+            framesPublished.incrementAndGet();
+            if (targets.length == 0) {
+                return;
+            }
+            int length;
+            if (format == Format.NMEA) {
+                length = nmea.appendGga(utcMillis, latitude, longitude, altitudeMeters, lastSatellitesUsed, hdop, frame, 0);
+            } else {
+                clearRecords(1);
+                frameBuffer.put(SessionFormat.OFFSET_TYPE, SessionFormat.TYPE_LOCATION);
+                frameBuffer.putFloat(SessionFormat.OFFSET_INFO, accuracyMeters);
+                frameBuffer.putLong(SessionFormat.OFFSET_TIMESTAMP, elapsedRealtimeNanos);
+                frameBuffer.putDouble(SessionFormat.OFFSET_PAYLOAD, latitude);
+                frameBuffer.putDouble(SessionFormat.OFFSET_PAYLOAD + 8, longitude);
+                length = SessionFormat.RECORD_SIZE;
+            }
+            offerAll(targets, length);
+        }
+        selector.wakeup();
+    }
+
+    // Registros EPOCH e SATELLITE idênticos aos do SessionWriter
+    private int encodeEpoch(SatelliteSnapshot snapshot, int count) {
+        clearRecords(count + 1);
+        long timestamp = snapshot.getTimestampNanos();
+        frameBuffer.put(SessionFormat.OFFSET_TYPE, SessionFormat.TYPE_EPOCH);
+        frameBuffer.putInt(SessionFormat.OFFSET_INFO, count);
+        frameBuffer.putLong(SessionFormat.OFFSET_TIMESTAMP, timestamp);
+        for (int i = 0; i < count; i++) {
+            int start = (i + 1) * SessionFormat.RECORD_SIZE;
+            frameBuffer.put(start + SessionFormat.OFFSET_TYPE, SessionFormat.TYPE_SATELLITE);
+            frameBuffer.put(start + SessionFormat.OFFSET_CONSTELLATION, (byte) snapshot.getConstellationType(i));
+            frameBuffer.putShort(start + SessionFormat.OFFSET_SVID, (short) snapshot.getSvid(i));
+            frameBuffer.putInt(start + SessionFormat.OFFSET_INFO, snapshot.usedInFix(i) ? SessionFormat.FLAG_USED_IN_FIX : 0);
+            frameBuffer.putLong(start + SessionFormat.OFFSET_TIMESTAMP, timestamp);
+            frameBuffer.putFloat(start + SessionFormat.OFFSET_PAYLOAD, snapshot.getCn0DbHz(i));
+            frameBuffer.putFloat(start + SessionFormat.OFFSET_PAYLOAD + 4, snapshot.getAzimuthDegrees(i));
+            frameBuffer.putFloat(start + SessionFormat.OFFSET_PAYLOAD + 8, snapshot.getElevationDegrees(i));
+            float carrier = snapshot.getCarrierFrequencyHz(i);
+            frameBuffer.putFloat(start + SessionFormat.OFFSET_PAYLOAD + 12, Float.isNaN(carrier) ? 0f : carrier);
+        }
+        return (count + 1) * SessionFormat.RECORD_SIZE;
+    }
+
+    private void clearRecords(int records) {
+        Arrays.fill(frame, 0, records * SessionFormat.RECORD_SIZE, (byte) 0);
+    }
+
+    private void offerAll(Client[] targets, int length) {
+        for (Client client : targets) {
+            if (!client.offer(frame, length)) {
+                framesDropped.incrementAndGet();
+            }
+        }
+    }
+
+    // Thread do seletor: aceita, descarta o que os clientes enviam e esvazia as filas
+    private void run() {
+        try {
+            while (running) {
+                selector.select();
+                if (!running) {
+                    break;
+                }
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    if (!key.isValid()) {
+                        continue;
+                    }
+                    if (key.isAcceptable()) {
+                        accept();
+                    } else if (key.isReadable()) {
+                        read((Client) key.attachment());
+                    }
+                }
+                for (Client client : clients) {
+                    flush(client);
+                }
+            }
+        } catch (IOException e) {
+            // Seletor fechado ou falha irrecuperável: o servidor para
+        } finally {
+            for (Client client : clients) {
+                closeQuietly(client.channel);
+            }
+            clients = new Client[0];
+            closeQuietly(serverChannel);
+            closeQuietly(selector);
+        }
+    }
+
+    private void accept() throws IOException {
+        SocketChannel channel = serverChannel.accept();
+        if (channel == null) {
+            return;
+        }
+        if (clients.length >= maxClients) {
+            closeQuietly(channel);
+            return;
+        }
+        try {
+            channel.configureBlocking(false);
+            channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+            SelectionKey key = channel.register(selector, SelectionKey.OP_READ);
+            Client client = new Client(channel, key, queueFrames, frameCapacity);
+            key.attach(client);
+            if (format == Format.BINARY) {
+                ByteBuffer header = ByteBuffer.wrap(headerFrame).order(ByteOrder.LITTLE_ENDIAN);
+                header.put(SessionFormat.OFFSET_TYPE, SessionFormat.TYPE_HEADER);
+                header.putInt(SessionFormat.OFFSET_INFO, SessionFormat.VERSION);
+                header.putLong(SessionFormat.OFFSET_TIMESTAMP, System.currentTimeMillis());
+                header.putInt(SessionFormat.OFFSET_PAYLOAD, SessionFormat.MAGIC);
+                client.offer(headerFrame, headerFrame.length);
+            }
+            Client[] current = clients;
+            Client[] updated = Arrays.copyOf(current, current.length + 1);
+            updated[current.length] = client;
+            clients = updated;
+        } catch (IOException e) {
+            closeQuietly(channel);
+        }
+    }
+
+    private void read(Client client) {
+        try {
+            discard.clear();
+            if (client.channel.read(discard) < 0) {
+                disconnect(client);
+            }
+        } catch (IOException e) {
+            disconnect(client);
+        }
+    }
+
+    private void flush(Client client) {
+        if (!client.key.isValid()) {
+            return;
+        }
+        try {
+            while (true) {
+                if (client.sending < 0 && (client.sending = client.poll()) < 0) {
+                    break;
+                }
+                ByteBuffer buffer = client.slots[client.sending];
+                client.channel.write(buffer);
+                if (buffer.hasRemaining()) {
+                    break; // Socket cheio: continua quando ficar gravável
+                }
+                client.release(client.sending);
+                client.sending = -1;
+                framesSent.incrementAndGet();
+            }
+            int ops = client.sending >= 0 ? SelectionKey.OP_READ | SelectionKey.OP_WRITE : SelectionKey.OP_READ;
+            if (client.key.interestOps() != ops) {
+                client.key.interestOps(ops);
+            }
+        } catch (IOException e) {
+            disconnect(client);
+        }
+    }
+
+    private void disconnect(Client client) {
+        client.key.cancel();
+        closeQuietly(client.channel);
+        Client[] current = clients;
+        int index = -1;
+        for (int i = 0; i < current.length; i++) {
+            if (current[i] == client) {
+                index = i;
+            }
+        }
+        if (index < 0) {
+            return;
+        }
+        Client[] updated = new Client[current.length - 1];
+        System.arraycopy(current, 0, updated, 0, index);
+        System.arraycopy(current, index + 1, updated, index, current.length - index - 1);
+        clients = updated;
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        selector.wakeup();
+        try {
+            thread.join(2000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void closeQuietly(Closeable closeable) {
+        try {
+            closeable.close();
+        } catch (IOException ignored) {
+            // Nada a fazer ao encerrar
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.gnss;
+
+import android.annotation.SuppressLint;
+import android.os.Looper;
+import com.google.android.gms.location.FusedLocationProviderClient;
+import com.google.android.gms.location.LocationCallback;
+import com.google.android.gms.location.LocationRequest;
+import com.google.android.gms.location.Priority;
+
+// Localização contínua como fonte do ciclo de vida. Em primeiro plano a cada segundo, em lotes
+// de até 5 s; em segundo plano a cada 10 s, em lotes de até 1 min. A prioridade continua alta
+// porque é ela que mantém o receptor GNSS ligado e o status chegando.
+final class LocationUpdatesSource implements DataSourceLifecycle.Source {
+
+    private static final long FOREGROUND_INTERVAL_MS = 1000;
+    private static final long FOREGROUND_MAX_UPDATE_DELAY_MS = 5000;
+    private static final long BACKGROUND_INTERVAL_MS = 10_000;
+    private static final long BACKGROUND_MAX_UPDATE_DELAY_MS = 60_000;
+
+    private final FusedLocationProviderClient client;
+    private final LocationCallback callback;
+
+    LocationUpdatesSource(FusedLocationProviderClient client, LocationCallback callback) {
+        this.client = client;
+        this.callback = callback;
+    }
+
+    // O ciclo de vida só inicia as fontes com a permissão concedida
+    @SuppressLint("MissingPermission")
+    @Override
+    public void start(DataSourceLifecycle.Rate rate) {
+        boolean foreground = rate == DataSourceLifecycle.Rate.FOREGROUND;
+        long interval = foreground ? FOREGROUND_INTERVAL_MS : BACKGROUND_INTERVAL_MS;
+        LocationRequest request = new LocationRequest.Builder(Priority.PRIORITY_HIGH_ACCURACY, interval)
+                .setMinUpdateIntervalMillis(interval)
+                .setMaxUpdateDelayMillis(foreground ? FOREGROUND_MAX_UPDATE_DELAY_MS : BACKGROUND_MAX_UPDATE_DELAY_MS)
+                .build();
+        client.requestLocationUpdates(request, callback, Looper.getMainLooper());
+    }
+
+    @Override
+    public void stop() {
+        client.removeLocationUpdates(callback);
+    }
+}
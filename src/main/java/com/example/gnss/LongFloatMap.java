@@ -0,0 +1,127 @@
+package com.example.gnss;
+
+import java.util.Arrays;
+
+// Mapa long -> float de endereçamento aberto (sondagem linear) em arrays primitivos: nem a
+// chave nem o valor viram objeto, e nada é alocado depois da construção. Pensado para chaves
+// de SignalKey e para os poucos centenas de sinais de uma época. A capacidade é fixa; a
+// tabela tem pelo menos o dobro de posições, o que mantém as sondagens curtas.
+public final class LongFloatMap {
+
+    private static final long EMPTY = Long.MIN_VALUE; // Não pode ser usada como chave
+
+    private final int capacity;
+    private final long[] keys;
+    private final float[] values;
+    private final int mask;
+    private int size;
+
+    public LongFloatMap(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacidade inválida: " + capacity);
+        }
+        this.capacity = capacity;
+        int tableSize = Integer.highestOneBit(capacity * 2 - 1) << 1;
+        keys = new long[tableSize];
+        values = new float[tableSize];
+        mask = tableSize - 1;
+        Arrays.fill(keys, EMPTY);
+    }
+
+    // Grava o valor da chave; retorna false se a chave é nova e o mapa está cheio
+    public boolean put(long key, float value) {
+        int i = indexOf(key);
+        if (keys[i] == EMPTY) {
+            if (size == capacity) {
+                return false;
+            }
+            keys[i] = key;
+            size++;
+        }
+        values[i] = value;
+        return true;
+    }
+
+    public float get(long key, float missing) {
+        int i = indexOf(key);
+        return keys[i] == EMPTY ? missing : values[i];
+    }
+
+    public boolean containsKey(long key) {
+        return keys[indexOf(key)] != EMPTY;
+    }
+
+    // Remove a chave puxando para trás as que colidiram depois dela, sem marcas de remoção
+    public boolean remove(long key) {
+        int hole = indexOf(key);
+        if (keys[hole] == EMPTY) {
+            return false;
+        }
+        int j = hole;
+        while (true) {
+            j = (j + 1) & mask;
+            if (keys[j] == EMPTY) {
+                break;
+            }
+            int home = hash(keys[j]) & mask;
+            // A chave em j pode ir para o buraco se a sua posição de origem não está entre o buraco e j
+            if (((j - home) & mask) >= ((j - hole) & mask)) {
+                keys[hole] = keys[j];
+                values[hole] = values[j];
+                hole = j;
+            }
+        }
+        keys[hole] = EMPTY;
+        size--;
+        return true;
+    }
+
+    public void clear() {
+        if (size > 0) {
+            Arrays.fill(keys, EMPTY);
+            size = 0;
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    // Percurso sem iterador: posições de 0 a getTableSize() - 1, pulando as vazias
+    public int getTableSize() {
+        return keys.length;
+    }
+
+    public boolean isOccupied(int slot) {
+        return keys[slot] != EMPTY;
+    }
+
+    public long keyAt(int slot) {
+        return keys[slot];
+    }
+
+    public float valueAt(int slot) {
+        return values[slot];
+    }
+
+    // Posição da chave, ou a posição vazia onde ela entraria
+    private int indexOf(long key) {
+        if (key == EMPTY) {
+            throw new IllegalArgumentException("Chave reservada: " + key);
+        }
+        int i = hash(key) & mask;
+        while (keys[i] != EMPTY && keys[i] != key) {
+            i = (i + 1) & mask;
+        }
+        return i;
+    }
+
+    static int hash(long key) {
+        int h = (int) (key ^ (key >>> 32)) * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
@@ -10,6 +10,7 @@ public class MainActivity extends AppCompatActivity implements View.OnClickListe
 
     // Declaração do botão chamado linkGNSS
     private Button linkGNSS;
+    private Button linkSessions;
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -22,6 +23,10 @@ public class MainActivity extends AppCompatActivity implements View.OnClickListe
 
         // Define um listener de clique para o botão linkGNSS
         linkGNSS.setOnClickListener(this); // Registra o listener para o clique
+
+        // Botão do resumo das sessões gravadas
+        linkSessions = findViewById(R.id.sessions_link);
+        linkSessions.setOnClickListener(this);
     }
 
     // Método onClick é chamado quando um botão é clicado
@@ -33,6 +38,9 @@ public class MainActivity extends AppCompatActivity implements View.OnClickListe
             Intent intent = new Intent(MainActivity.this, GNSSActivity.class);
             // Inicia a nova atividade GNSSActivity
             startActivity(intent);
+        } else if (view.getId() == R.id.sessions_link) {
+            // Abre o resumo das sessões gravadas
+            startActivity(new Intent(MainActivity.this, SessionSummaryActivity.class));
         }
     }
 }
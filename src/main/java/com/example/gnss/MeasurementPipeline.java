@@ -0,0 +1,211 @@
+package com.example.gnss;
+
+import java.util.Arrays;
+
+// Ingestão das medições brutas (GnssMeasurementsEvent) em épocas colunares, ao lado do GnssPipeline.
+// Cada evento é copiado de uma vez para um MeasurementStore livre (beginEpoch/commitEpoch); ao fechar
+// a época são derivadas as métricas por satélite e o resultado é publicado num LatestValueSlot:
+//  - delta de C/N0 em relação ao último GnssStatus do mesmo satélite;
+//  - resíduo Doppler: pseudorange rate menos a taxa do ADR entre esta época e a anterior;
+//  - cycle slip: informado pelo receptor nos bits do ADR ou detectado por um salto no resíduo.
+// Como estágio do GnssPipeline recebe os snapshots de status; tudo, inclusive o callback de
+// medições, executa na thread do pipeline. Nenhuma alocação após a construção.
+public final class MeasurementPipeline implements GnssPipeline.Stage {
+
+    // Avisado na thread do pipeline sempre que uma época nova é publicada
+    public interface Listener {
+        void onMeasurementsPublished();
+    }
+
+    private static final double SPEED_OF_LIGHT = 299_792_458.0;
+    private static final double GPS_L1_WAVELENGTH = SPEED_OF_LIGHT / 1_575.42e6;
+    private static final double SLIP_SIGMAS = 5; // Incerteza do pseudorange rate tolerada no resíduo
+    private static final int ADR_STATE_SLIP = MeasurementStore.ADR_STATE_RESET | MeasurementStore.ADR_STATE_CYCLE_SLIP;
+    private static final int EMPTY = -1;
+
+    private final LatestValueSlot<MeasurementStore> slot;
+    private volatile Listener listener;
+    private volatile GnssMetrics metrics;
+    private long sequence;
+
+    // C/N0 do snapshot de status mais recente, por SignalKey
+    private final LongFloatMap statusCn0;
+
+    // ADR da época anterior por sinal (constelação, SVID e portadora), para a taxa de fase
+    private final long[] previousKeys;
+    private final int[] previousSlots;
+    private final int previousMask;
+    private final double[] previousAdr;
+    private final int[] previousAdrStates;
+    private long previousClockNanos;
+    private boolean hasPrevious;
+
+    private volatile long epochsProcessed;
+    private volatile long epochsOverwritten;
+
+    public MeasurementPipeline() {
+        this(MeasurementStore.DEFAULT_CAPACITY);
+    }
+
+    public MeasurementPipeline(int capacity) {
+        slot = new LatestValueSlot<>(() -> new MeasurementStore(capacity));
+        int tableSize = Integer.highestOneBit(capacity * 2 - 1) << 1;
+        statusCn0 = new LongFloatMap(capacity);
+        previousKeys = new long[tableSize];
+        previousSlots = new int[tableSize];
+        previousMask = tableSize - 1;
+        previousAdr = new double[capacity];
+        previousAdrStates = new int[capacity];
+        Arrays.fill(previousKeys, EMPTY);
+    }
+
+    public void setListener(Listener listener) {
+        this.listener = listener;
+    }
+
+    // Opcional: registra as métricas derivadas de cada época no overlay e na exportação da sessão
+    public void setMetrics(GnssMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    // Thread do pipeline: guarda o C/N0 de cada satélite do status como referência
+    @Override
+    public void process(SatelliteSnapshot snapshot) {
+        statusCn0.clear();
+        int count = Math.min(snapshot.getSatelliteCount(), previousAdr.length);
+        for (int i = 0; i < count; i++) {
+            statusCn0.put(snapshot.getSignalKey(i), snapshot.getCn0DbHz(i));
+        }
+    }
+
+    // Thread do pipeline: época livre e limpa para ser preenchida
+    public MeasurementStore beginEpoch() {
+        MeasurementStore store = slot.writable();
+        store.clear();
+        return store;
+    }
+
+    // Thread do pipeline: deriva as métricas por satélite e publica a época
+    public void commitEpoch() {
+        MeasurementStore store = slot.writable();
+        store.setSequence(++sequence);
+        derive(store);
+        rememberAdr(store);
+        if (slot.publish()) {
+            epochsOverwritten++;
+        }
+        epochsProcessed++;
+        GnssMetrics targetMetrics = metrics;
+        if (targetMetrics != null) {
+            targetMetrics.onMeasurementEpoch(store);
+        }
+
+        Listener target = listener;
+        if (target != null) {
+            target.onMeasurementsPublished();
+        }
+    }
+
+    // Descarta a época anterior, por exemplo depois de uma interrupção das medições
+    public void reset() {
+        hasPrevious = false;
+        Arrays.fill(previousKeys, EMPTY);
+    }
+
+    // Thread de UI: época mais recente, ou null antes da primeira publicação
+    public MeasurementStore acquireLatest() {
+        return slot.acquire();
+    }
+
+    public long getEpochsProcessed() {
+        return epochsProcessed;
+    }
+
+    // Épocas publicadas e substituídas antes de alguém lê-las
+    public long getEpochsOverwritten() {
+        return epochsOverwritten;
+    }
+
+    private void derive(MeasurementStore store) {
+        double dt = hasPrevious ? (store.getClockNanos() - previousClockNanos) * 1e-9 : 0;
+        for (int i = 0; i < store.getMeasurementCount(); i++) {
+            int constellationType = store.getConstellationType(i);
+            int svid = store.getSvid(i);
+
+            float cn0Delta = Float.NaN;
+            float carrier = store.getCarrierFrequencyHz(i);
+            float statusReference = statusCn0Of(constellationType, svid, carrier);
+            if (statusReference > 0 && store.getCn0DbHz(i) > 0) {
+                cn0Delta = store.getCn0DbHz(i) - statusReference;
+            }
+
+            int state = store.getAccumulatedDeltaRangeState(i);
+            boolean cycleSlip = (state & ADR_STATE_SLIP) != 0;
+            float residual = Float.NaN;
+            if (dt > 0 && !cycleSlip && (state & MeasurementStore.ADR_STATE_VALID) != 0) {
+                int previous = previousSlotOf(SignalKey.of(constellationType, svid, carrier));
+                if (previous != EMPTY && (previousAdrStates[previous] & MeasurementStore.ADR_STATE_VALID) != 0) {
+                    double adrRate = (store.getAccumulatedDeltaRangeMeters(i) - previousAdr[previous]) / dt;
+                    double difference = store.getPseudorangeRateMps(i) - adrRate;
+                    residual = (float) difference;
+
+                    // Um salto de fase maior que um comprimento de onda (e que o ruído do Doppler) é slip
+                    double wavelength = carrier > 0 ? SPEED_OF_LIGHT / carrier : GPS_L1_WAVELENGTH;
+                    double tolerance = Math.max(wavelength, SLIP_SIGMAS * store.getPseudorangeRateUncertaintyMps(i) * dt);
+                    cycleSlip = Math.abs(difference) * dt > tolerance;
+                }
+            }
+            store.setDerived(i, cn0Delta, residual, cycleSlip);
+        }
+    }
+
+    // Troca a tabela da época anterior pelos sinais desta
+    private void rememberAdr(MeasurementStore store) {
+        Arrays.fill(previousKeys, EMPTY);
+        for (int i = 0; i < store.getMeasurementCount(); i++) {
+            long key = SignalKey.of(store.getConstellationType(i), store.getSvid(i), store.getCarrierFrequencyHz(i));
+            int t = hash(key) & previousMask;
+            while (previousKeys[t] != EMPTY && previousKeys[t] != key) {
+                t = (t + 1) & previousMask;
+            }
+            if (previousKeys[t] == key) {
+                continue; // Sinal repetido na época: vale o primeiro
+            }
+            previousKeys[t] = key;
+            previousSlots[t] = i;
+            previousAdr[i] = store.getAccumulatedDeltaRangeMeters(i);
+            previousAdrStates[i] = store.getAccumulatedDeltaRangeState(i);
+        }
+        previousClockNanos = store.getClockNanos();
+        hasPrevious = true;
+    }
+
+    // C/N0 do status na mesma banda; sem ela, o do status que não informa a portadora
+    private float statusCn0Of(int constellationType, int svid, float carrier) {
+        float cn0 = statusCn0.get(SignalKey.of(constellationType, svid, carrier), Float.NaN);
+        if (Float.isNaN(cn0)) {
+            cn0 = statusCn0.get(SignalKey.of(constellationType, svid, SignalKey.UNKNOWN), Float.NaN);
+        }
+        return cn0;
+    }
+
+    private int previousSlotOf(long key) {
+        int t = hash(key) & previousMask;
+        while (previousKeys[t] != EMPTY) {
+            if (previousKeys[t] == key) {
+                return previousSlots[t];
+            }
+            t = (t + 1) & previousMask;
+        }
+        return EMPTY;
+    }
+
+    private static int hash(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    private static int hash(long key) {
+        return hash((int) (key ^ (key >>> 32)));
+    }
+}
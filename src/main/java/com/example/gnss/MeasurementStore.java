@@ -0,0 +1,195 @@
+package com.example.gnss;
+
+// Medições brutas de uma época (um GnssMeasurementsEvent) em arrays primitivos por coluna.
+// Além dos campos copiados da medição, guarda as métricas derivadas por satélite que o
+// MeasurementPipeline calcula ao fechar a época. Os arrays são alocados na construção e
+// reaproveitados a cada época, como no SatelliteSnapshot.
+public final class MeasurementStore {
+
+    public static final int DEFAULT_CAPACITY = 256;
+
+    // Bits de estado do ADR, mesmos valores de GnssMeasurement.ADR_STATE_*
+    public static final int ADR_STATE_VALID = 1;
+    public static final int ADR_STATE_RESET = 1 << 1;
+    public static final int ADR_STATE_CYCLE_SLIP = 1 << 2;
+
+    // Indicador de multicaminho, mesmos valores de GnssMeasurement.MULTIPATH_INDICATOR_*
+    public static final int MULTIPATH_UNKNOWN = 0;
+    public static final int MULTIPATH_DETECTED = 1;
+    public static final int MULTIPATH_NOT_DETECTED = 2;
+
+    private final int[] svids;
+    private final int[] constellationTypes;
+    private final float[] cn0DbHz;
+    private final float[] pseudorangeRateMps;
+    private final float[] pseudorangeRateUncertaintyMps;
+    private final double[] accumulatedDeltaRangeMeters;
+    private final int[] accumulatedDeltaRangeStates;
+    private final int[] multipathIndicators;
+    private final float[] agcDb;              // NaN quando o receptor não informa
+    private final float[] carrierFrequencyHz; // NaN quando o receptor não informa
+    private int measurementCount;
+    private long clockNanos;     // GnssClock.getTimeNanos() da época
+    private long timestampNanos; // elapsedRealtime em que a época foi recebida
+    private long sequence;
+
+    // Derivadas pelo MeasurementPipeline
+    private final float[] cn0DeltaDbHz;        // C/N0 da medição menos o do GnssStatus, ou NaN
+    private final float[] dopplerResidualMps;  // Pseudorange rate menos a taxa do ADR, ou NaN
+    private final boolean[] cycleSlips;
+
+    public MeasurementStore() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public MeasurementStore(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacidade inválida: " + capacity);
+        }
+        svids = new int[capacity];
+        constellationTypes = new int[capacity];
+        cn0DbHz = new float[capacity];
+        pseudorangeRateMps = new float[capacity];
+        pseudorangeRateUncertaintyMps = new float[capacity];
+        accumulatedDeltaRangeMeters = new double[capacity];
+        accumulatedDeltaRangeStates = new int[capacity];
+        multipathIndicators = new int[capacity];
+        agcDb = new float[capacity];
+        carrierFrequencyHz = new float[capacity];
+        cn0DeltaDbHz = new float[capacity];
+        dopplerResidualMps = new float[capacity];
+        cycleSlips = new boolean[capacity];
+    }
+
+    public void clear() {
+        measurementCount = 0;
+        clockNanos = 0;
+        timestampNanos = 0;
+        sequence = 0;
+    }
+
+    // Adiciona uma medição; retorna false se a capacidade foi atingida
+    public boolean add(int svid, int constellationType, float cn0, float pseudorangeRate, float pseudorangeRateUncertainty,
+                       double accumulatedDeltaRange, int accumulatedDeltaRangeState, int multipathIndicator,
+                       float agc, float carrierFrequency) {
+        int i = measurementCount;
+        if (i == svids.length) {
+            return false;
+        }
+        svids[i] = svid;
+        constellationTypes[i] = constellationType;
+        cn0DbHz[i] = cn0;
+        pseudorangeRateMps[i] = pseudorangeRate;
+        pseudorangeRateUncertaintyMps[i] = pseudorangeRateUncertainty;
+        accumulatedDeltaRangeMeters[i] = accumulatedDeltaRange;
+        accumulatedDeltaRangeStates[i] = accumulatedDeltaRangeState;
+        multipathIndicators[i] = multipathIndicator;
+        agcDb[i] = agc;
+        carrierFrequencyHz[i] = carrierFrequency;
+        cn0DeltaDbHz[i] = Float.NaN;
+        dopplerResidualMps[i] = Float.NaN;
+        cycleSlips[i] = false;
+        measurementCount = i + 1;
+        return true;
+    }
+
+    void setDerived(int index, float cn0Delta, float dopplerResidual, boolean cycleSlip) {
+        cn0DeltaDbHz[index] = cn0Delta;
+        dopplerResidualMps[index] = dopplerResidual;
+        cycleSlips[index] = cycleSlip;
+    }
+
+    public int getCapacity() {
+        return svids.length;
+    }
+
+    public int getMeasurementCount() {
+        return measurementCount;
+    }
+
+    public int getSvid(int index) {
+        return svids[index];
+    }
+
+    public int getConstellationType(int index) {
+        return constellationTypes[index];
+    }
+
+    public float getCn0DbHz(int index) {
+        return cn0DbHz[index];
+    }
+
+    public float getPseudorangeRateMps(int index) {
+        return pseudorangeRateMps[index];
+    }
+
+    public float getPseudorangeRateUncertaintyMps(int index) {
+        return pseudorangeRateUncertaintyMps[index];
+    }
+
+    public double getAccumulatedDeltaRangeMeters(int index) {
+        return accumulatedDeltaRangeMeters[index];
+    }
+
+    public int getAccumulatedDeltaRangeState(int index) {
+        return accumulatedDeltaRangeStates[index];
+    }
+
+    public boolean hasValidAccumulatedDeltaRange(int index) {
+        return (accumulatedDeltaRangeStates[index] & ADR_STATE_VALID) != 0;
+    }
+
+    public int getMultipathIndicator(int index) {
+        return multipathIndicators[index];
+    }
+
+    public float getAgcDb(int index) {
+        return agcDb[index];
+    }
+
+    public float getCarrierFrequencyHz(int index) {
+        return carrierFrequencyHz[index];
+    }
+
+    public float getCn0DeltaDbHz(int index) {
+        return cn0DeltaDbHz[index];
+    }
+
+    public float getDopplerResidualMps(int index) {
+        return dopplerResidualMps[index];
+    }
+
+    public boolean hasCycleSlip(int index) {
+        return cycleSlips[index];
+    }
+
+    public long getClockNanos() {
+        return clockNanos;
+    }
+
+    public void setClockNanos(long clockNanos) {
+        this.clockNanos = clockNanos;
+    }
+
+    public long getTimestampNanos() {
+        return timestampNanos;
+    }
+
+    public void setTimestampNanos(long timestampNanos) {
+        this.timestampNanos = timestampNanos;
+    }
+
+    public long getSequence() {
+        return sequence;
+    }
+
+    public void setSequence(long sequence) {
+        this.sequence = sequence;
+    }
+
+    // Memória ocupada pelas colunas, fixa desde a construção
+    public long getMemoryBytes() {
+        long perMeasurement = 4L * 4 + 4L * 7 + 8L + 1; // int, float, double e boolean
+        return perMeasurement * svids.length;
+    }
+}
@@ -0,0 +1,123 @@
+package com.example.gnss;
+
+import java.util.Arrays;
+
+// Histograma de bins lineares de largura fixa em [lower, upper), para resumir distribuições de
+// tamanho arbitrário em memória constante (C/N0, satélites por época, TTFF, lacunas).
+// Valores fora da faixa caem no primeiro ou no último bin; mínimo, máximo e soma são exatos.
+// Dois histogramas com a mesma grade se somam bin a bin (merge), então o resultado de um conjunto
+// de sessões não depende da ordem nem de como elas foram divididas entre threads. Os percentis
+// interpolam dentro do bin e erram no máximo a largura de um bin.
+// Não é thread-safe: cada thread acumula no seu e os resultados são mesclados no fim.
+public final class MergeableHistogram {
+
+    private final double lower;
+    private final double binWidth;
+    private final long[] bins;
+    private long count;
+    private double sum;
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+
+    public MergeableHistogram(double lower, double upper, double binWidth) {
+        if (!(upper > lower) || !(binWidth > 0)) {
+            throw new IllegalArgumentException("Faixa inválida: [" + lower + ", " + upper + ") passo " + binWidth);
+        }
+        this.lower = lower;
+        this.binWidth = binWidth;
+        bins = new long[(int) Math.ceil((upper - lower) / binWidth)];
+    }
+
+    public void add(double value) {
+        add(value, 1);
+    }
+
+    // Registra o valor repetido weight vezes; NaN é ignorado
+    public void add(double value, long weight) {
+        if (Double.isNaN(value) || weight <= 0) {
+            return;
+        }
+        int bin = (int) Math.floor((value - lower) / binWidth);
+        bins[Math.max(0, Math.min(bins.length - 1, bin))] += weight;
+        count += weight;
+        sum += value * weight;
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+    }
+
+    public void merge(MergeableHistogram other) {
+        if (other.bins.length != bins.length || other.lower != lower || other.binWidth != binWidth) {
+            throw new IllegalArgumentException("Histogramas com grades diferentes");
+        }
+        for (int i = 0; i < bins.length; i++) {
+            bins[i] += other.bins[i];
+        }
+        count += other.count;
+        sum += other.sum;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+    }
+
+    public void clear() {
+        Arrays.fill(bins, 0);
+        count = 0;
+        sum = 0;
+        min = Double.POSITIVE_INFINITY;
+        max = Double.NEGATIVE_INFINITY;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public double getSum() {
+        return sum;
+    }
+
+    public double getMean() {
+        return count > 0 ? sum / count : Double.NaN;
+    }
+
+    public double getMin() {
+        return count > 0 ? min : Double.NaN;
+    }
+
+    public double getMax() {
+        return count > 0 ? max : Double.NaN;
+    }
+
+    public int getBinCount() {
+        return bins.length;
+    }
+
+    public long getBin(int bin) {
+        return bins[bin];
+    }
+
+    public double getBinLowerBound(int bin) {
+        return lower + bin * binWidth;
+    }
+
+    // Percentil (0 a 1) interpolado dentro do bin, limitado ao mínimo e ao máximo observados;
+    // NaN sem amostras
+    public double quantile(double quantile) {
+        if (count == 0) {
+            return Double.NaN;
+        }
+        double rank = Math.max(0, Math.min(1, quantile)) * count;
+        long seen = 0;
+        for (int i = 0; i < bins.length; i++) {
+            long inBin = bins[i];
+            if (inBin > 0 && seen + inBin >= rank) {
+                double value = getBinLowerBound(i) + binWidth * (rank - seen) / inBin;
+                return Math.max(min, Math.min(max, value));
+            }
+            seen += inBin;
+        }
+        return max;
+    }
+
+    public long getMemoryBytes() {
+        return bins.length * 8L + 48;
+    }
+}
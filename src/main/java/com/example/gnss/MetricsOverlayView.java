@@ -0,0 +1,81 @@
+package com.example.gnss;
+
+import android.content.Context;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+import android.graphics.Typeface;
+import android.util.AttributeSet;
+import android.view.View;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+// Overlay opcional com as métricas do GnssMetrics, atualizado duas vezes por segundo enquanto visível
+public class MetricsOverlayView extends View {
+
+    private static final long REFRESH_INTERVAL_MS = 500;
+
+    private GnssMetrics metrics;
+    private final MetricsSnapshot snapshot = new MetricsSnapshot();
+    private final StringBuilder text = new StringBuilder(1024);
+    private final Paint textPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final Runnable refresh = new Runnable() {
+        @Override
+        public void run() {
+            invalidate();
+            postDelayed(this, REFRESH_INTERVAL_MS);
+        }
+    };
+
+    public MetricsOverlayView(Context context, @Nullable AttributeSet attrs) {
+        super(context, attrs);
+        textPaint.setColor(Color.WHITE);
+        textPaint.setTextSize(26);
+        textPaint.setTypeface(Typeface.MONOSPACE);
+        setBackgroundColor(0xB0000000); // Preto translúcido sobre as outras views
+    }
+
+    public void setMetrics(GnssMetrics metrics) {
+        this.metrics = metrics;
+        invalidate();
+    }
+
+    @Override
+    protected void onVisibilityChanged(@NonNull View changedView, int visibility) {
+        super.onVisibilityChanged(changedView, visibility);
+        removeCallbacks(refresh);
+        if (isShown()) {
+            post(refresh);
+        }
+    }
+
+    @Override
+    protected void onDetachedFromWindow() {
+        removeCallbacks(refresh);
+        super.onDetachedFromWindow();
+    }
+
+    @Override
+    protected void onDraw(@NonNull Canvas canvas) {
+        super.onDraw(canvas);
+        if (metrics == null) {
+            return;
+        }
+        text.setLength(0);
+        metrics.snapshot(snapshot, System.nanoTime()).appendTo(text);
+
+        // Uma linha por métrica, desenhada direto do StringBuilder
+        float lineHeight = textPaint.getTextSize() * 1.25f;
+        float y = lineHeight;
+        int start = 0;
+        for (int i = 0; i <= text.length(); i++) {
+            if (i == text.length() || text.charAt(i) == '\n') {
+                if (i > start) {
+                    canvas.drawText(text, start, i, 16, y, textPaint);
+                }
+                y += lineHeight;
+                start = i + 1;
+            }
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.gnss;
+
+// Valores exportados do GnssMetrics num instante. Reaproveitável: o overlay preenche sempre a
+// mesma instância; appendTo gera o texto usado no overlay e no arquivo exportado com a sessão.
+public final class MetricsSnapshot {
+
+    public long timestampNanos;
+    public long updates;
+    public double callbackRateHz;
+    public long updatesDropped;
+    public final FixedBucketHistogram.Stats updateDurationNanos = new FixedBucketHistogram.Stats();
+    public final FixedBucketHistogram.Stats updateAllocatedBytes = new FixedBucketHistogram.Stats();
+
+    public final long[] frameRequests = new long[GnssMetrics.VIEW_COUNT];
+    public final long[] framesCoalesced = new long[GnssMetrics.VIEW_COUNT];
+    public final long[] framesDrawn = new long[GnssMetrics.VIEW_COUNT];
+    public final FixedBucketHistogram.Stats[] frameLatencyNanos = newStats();
+    public final FixedBucketHistogram.Stats[] drawDurationNanos = newStats();
+
+    public long measurementEpochs;
+    public long measurements;
+    public long cycleSlips;
+    public final FixedBucketHistogram.Stats dopplerResidualMmps = new FixedBucketHistogram.Stats();
+    public final FixedBucketHistogram.Stats cn0DeltaCentiDbHz = new FixedBucketHistogram.Stats();
+
+    private static FixedBucketHistogram.Stats[] newStats() {
+        FixedBucketHistogram.Stats[] stats = new FixedBucketHistogram.Stats[GnssMetrics.VIEW_COUNT];
+        for (int view = 0; view < stats.length; view++) {
+            stats[view] = new FixedBucketHistogram.Stats();
+        }
+        return stats;
+    }
+
+    // Uma métrica por linha, no formato "nome: valores"; tempos em microssegundos
+    public StringBuilder appendTo(StringBuilder out) {
+        out.append("callbacks: ").append(updates).append(" (");
+        NumberFormatter.appendFixed(out, callbackRateHz, 1).append(" Hz), descartados ").append(updatesDropped).append('\n');
+        out.append("atualizacao_us: ");
+        appendMicros(out, updateDurationNanos).append('\n');
+        out.append("alocacao_bytes: ");
+        if (updateAllocatedBytes.count == 0) {
+            out.append("n/d");
+        } else {
+            out.append("p50 ").append(updateAllocatedBytes.p50)
+                    .append(" p99 ").append(updateAllocatedBytes.p99)
+                    .append(" max ").append(updateAllocatedBytes.max);
+        }
+        out.append('\n');
+        for (int view = 0; view < GnssMetrics.VIEW_COUNT; view++) {
+            String name = GnssMetrics.VIEW_NAMES[view];
+            out.append(name).append(".quadros: ").append(framesDrawn[view])
+                    .append(" de ").append(frameRequests[view]).append(" pedidos, agrupados ")
+                    .append(framesCoalesced[view]).append('\n');
+            out.append(name).append(".latencia_us: ");
+            appendMicros(out, frameLatencyNanos[view]).append('\n');
+            out.append(name).append(".desenho_us: ");
+            appendMicros(out, drawDurationNanos[view]).append('\n');
+        }
+        out.append("medicoes: ").append(measurementEpochs).append(" epocas, ").append(measurements)
+                .append(" sinais, cycle slips ").append(cycleSlips).append('\n');
+        out.append("doppler_residuo_mps: ");
+        appendScaled(out, dopplerResidualMmps, 1000.0, 3).append('\n');
+        out.append("cn0_delta_dbhz: ");
+        appendScaled(out, cn0DeltaCentiDbHz, 100.0, 2).append('\n');
+        return out;
+    }
+
+    @Override
+    public String toString() {
+        return appendTo(new StringBuilder(512)).toString();
+    }
+
+    private static StringBuilder appendMicros(StringBuilder out, FixedBucketHistogram.Stats stats) {
+        return appendScaled(out, stats, 1000.0, 1);
+    }
+
+    // Percentis de um histograma inteiro divididos por scale
+    private static StringBuilder appendScaled(StringBuilder out, FixedBucketHistogram.Stats stats, double scale, int decimals) {
+        if (stats.count == 0) {
+            return out.append("n/d");
+        }
+        out.append("p50 ");
+        NumberFormatter.appendFixed(out, stats.p50 / scale, decimals).append(" p90 ");
+        NumberFormatter.appendFixed(out, stats.p90 / scale, decimals).append(" p99 ");
+        NumberFormatter.appendFixed(out, stats.p99 / scale, decimals).append(" max ");
+        return NumberFormatter.appendFixed(out, stats.max / scale, decimals);
+    }
+}
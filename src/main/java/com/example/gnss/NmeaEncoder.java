@@ -0,0 +1,235 @@
+package com.example.gnss;
+
+// Gera sentenças NMEA 0183 em ASCII direto num byte[], sem String nem String.format, para a
+// exportação ao vivo (LiveExportServer):
+//   GSV  satélites visíveis, quatro por sentença, um grupo por talker (GP para GPS e SBAS, GL,
+//        GA, GB, GQ, GI). Satélites de dupla frequência aparecem uma vez, com o C/N0 da banda mais
+//        forte, porque ferramentas antigas não entendem o campo de sinal do NMEA 4.10.
+//   GGA  posição com horário UTC, satélites usados, HDOP e altitude (campos vazios quando NaN)
+// Cada sentença fica abaixo dos 82 caracteres do padrão, e appendGsv cabe em maxGsvBytes.
+// Reutilizável e sem alocação por chamada; não é thread-safe.
+public final class NmeaEncoder {
+
+    static final int MAX_SENTENCE = 82;
+    private static final int SATELLITES_PER_GSV = 4;
+    private static final String[] TALKERS = {"GP", "GL", "GA", "GB", "GQ", "GI"};
+    private static final byte[] HEX = {'0', '1', '2', '3', '4', '5', '6', '7', '8', '9', 'A', 'B', 'C', 'D', 'E', 'F'};
+
+    private final int capacity;
+    private final LongFloatMap strongest; // Satélite sem banda → índice do sinal mais forte
+    private final int[] members;
+
+    public NmeaEncoder() {
+        this(SatelliteSnapshot.DEFAULT_CAPACITY);
+    }
+
+    public NmeaEncoder(int capacity) {
+        this.capacity = capacity;
+        strongest = new LongFloatMap(capacity);
+        members = new int[capacity];
+    }
+
+    // Limite de bytes de appendGsv para snapshots de até capacity satélites
+    public static int maxGsvBytes(int capacity) {
+        return (capacity / SATELLITES_PER_GSV + TALKERS.length) * MAX_SENTENCE;
+    }
+
+    // Grupo de talker da constelação, ou -1 se não há talker NMEA para ela
+    static int talkerOf(int constellationType) {
+        switch (constellationType) {
+            case ConstellationRegistry.GPS:
+            case ConstellationRegistry.SBAS:
+                return 0;
+            case ConstellationRegistry.GLONASS:
+                return 1;
+            case ConstellationRegistry.GALILEO:
+                return 2;
+            case ConstellationRegistry.BEIDOU:
+                return 3;
+            case ConstellationRegistry.QZSS:
+                return 4;
+            case ConstellationRegistry.IRNSS:
+                return 5;
+            default:
+                return -1;
+        }
+    }
+
+    // Número do satélite no NMEA a partir do SVID do Android: SBAS 120-158 vira 33-71, GLONASS
+    // por número de slot vira 65-96 e QZSS 193-202 vira 1-10
+    static int prnOf(int constellationType, int svid) {
+        switch (constellationType) {
+            case ConstellationRegistry.SBAS:
+                return svid >= 120 ? svid - 87 : svid;
+            case ConstellationRegistry.GLONASS:
+                return svid >= 1 && svid <= 32 ? svid + 64 : svid;
+            case ConstellationRegistry.QZSS:
+                return svid >= 193 ? svid - 192 : svid;
+            default:
+                return svid;
+        }
+    }
+
+    // Sentenças GSV de todos os satélites do snapshot a partir de offset; retorna o novo offset
+    public int appendGsv(SatelliteSnapshot snapshot, byte[] out, int offset) {
+        int count = Math.min(snapshot.getSatelliteCount(), capacity);
+        strongest.clear();
+        for (int i = 0; i < count; i++) {
+            int constellation = snapshot.getConstellationType(i);
+            if (talkerOf(constellation) < 0) {
+                continue;
+            }
+            long key = SignalKey.of(constellation, snapshot.getSvid(i), SignalKey.UNKNOWN);
+            int best = (int) strongest.get(key, -1f);
+            if (best < 0 || snapshot.getCn0DbHz(i) > snapshot.getCn0DbHz(best)) {
+                strongest.put(key, i);
+            }
+        }
+
+        for (int talker = 0; talker < TALKERS.length; talker++) {
+            int n = 0;
+            for (int i = 0; i < count; i++) {
+                int constellation = snapshot.getConstellationType(i);
+                if (talkerOf(constellation) == talker
+                        && (int) strongest.get(SignalKey.of(constellation, snapshot.getSvid(i), SignalKey.UNKNOWN), -1f) == i) {
+                    members[n++] = i;
+                }
+            }
+            int sentences = (n + SATELLITES_PER_GSV - 1) / SATELLITES_PER_GSV;
+            for (int s = 0; s < sentences; s++) {
+                int start = offset;
+                offset = appendAscii(out, offset, "$");
+                offset = appendAscii(out, offset, TALKERS[talker]);
+                offset = appendAscii(out, offset, "GSV,");
+                offset = appendInt(out, offset, sentences, 1);
+                out[offset++] = ',';
+                offset = appendInt(out, offset, s + 1, 1);
+                out[offset++] = ',';
+                offset = appendInt(out, offset, n, 2);
+                int end = Math.min(n, (s + 1) * SATELLITES_PER_GSV);
+                for (int m = s * SATELLITES_PER_GSV; m < end; m++) {
+                    int i = members[m];
+                    out[offset++] = ',';
+                    offset = appendInt(out, offset, prnOf(snapshot.getConstellationType(i), snapshot.getSvid(i)), 2);
+                    out[offset++] = ',';
+                    offset = appendInt(out, offset, Math.max(0, Math.min(90, Math.round(snapshot.getElevationDegrees(i)))), 2);
+                    out[offset++] = ',';
+                    int azimuth = Math.round(snapshot.getAzimuthDegrees(i)) % 360;
+                    offset = appendInt(out, offset, azimuth < 0 ? azimuth + 360 : azimuth, 3);
+                    out[offset++] = ',';
+                    float cn0 = snapshot.getCn0DbHz(i);
+                    if (cn0 > 0) {
+                        offset = appendInt(out, offset, Math.min(99, Math.round(cn0)), 2);
+                    }
+                }
+                offset = finishSentence(out, start, offset);
+            }
+        }
+        return offset;
+    }
+
+    // Satélites usados no fix, contando uma vez os de dupla frequência (campo de satélites da GGA)
+    public int countUsedSatellites(SatelliteSnapshot snapshot) {
+        int count = Math.min(snapshot.getSatelliteCount(), capacity);
+        strongest.clear();
+        for (int i = 0; i < count; i++) {
+            if (snapshot.usedInFix(i)) {
+                strongest.put(SignalKey.of(snapshot.getConstellationType(i), snapshot.getSvid(i), SignalKey.UNKNOWN), i);
+            }
+        }
+        return strongest.size();
+    }
+
+    // Sentença GGA; utcMillis em ms desde a época Unix, altitude em metros sobre o elipsoide
+    public int appendGga(long utcMillis, double latitude, double longitude, double altitudeMeters,
+                         int satellitesUsed, double hdop, byte[] out, int offset) {
+        int start = offset;
+        offset = appendAscii(out, offset, "$GNGGA,");
+        long millisOfDay = Math.floorMod(utcMillis, 86_400_000L);
+        offset = appendInt(out, offset, (int) (millisOfDay / 3_600_000), 2);
+        offset = appendInt(out, offset, (int) (millisOfDay / 60_000 % 60), 2);
+        offset = appendInt(out, offset, (int) (millisOfDay / 1000 % 60), 2);
+        out[offset++] = '.';
+        offset = appendInt(out, offset, (int) (millisOfDay % 1000 / 10), 2);
+        out[offset++] = ',';
+        offset = appendDegreesMinutes(out, offset, latitude, 2);
+        offset = appendAscii(out, offset, latitude < 0 ? ",S," : ",N,");
+        offset = appendDegreesMinutes(out, offset, longitude, 3);
+        offset = appendAscii(out, offset, longitude < 0 ? ",W,1," : ",E,1,");
+        offset = appendInt(out, offset, Math.min(99, satellitesUsed), 2);
+        out[offset++] = ',';
+        if (!Double.isNaN(hdop)) {
+            offset = appendFixed(out, offset, Math.min(hdop, 99.9), 1);
+        }
+        out[offset++] = ',';
+        if (!Double.isNaN(altitudeMeters)) {
+            offset = appendFixed(out, offset, altitudeMeters, 1);
+        }
+        offset = appendAscii(out, offset, ",M,,M,,");
+        return finishSentence(out, start, offset);
+    }
+
+    // ddmm.mmmmm (ou dddmm.mmmmm) do valor absoluto em graus decimais
+    private static int appendDegreesMinutes(byte[] out, int offset, double degrees, int degreeDigits) {
+        double value = Math.abs(degrees);
+        int whole = (int) value;
+        long minutes = Math.round((value - whole) * 60 * 100_000);
+        if (minutes >= 60 * 100_000L) {
+            whole++;
+            minutes -= 60 * 100_000L;
+        }
+        offset = appendInt(out, offset, whole, degreeDigits);
+        offset = appendInt(out, offset, (int) (minutes / 100_000), 2);
+        out[offset++] = '.';
+        return appendInt(out, offset, (int) (minutes % 100_000), 5);
+    }
+
+    // Fecha a sentença com *checksum (XOR dos bytes entre $ e *) e CR LF
+    private static int finishSentence(byte[] out, int start, int offset) {
+        int checksum = 0;
+        for (int i = start + 1; i < offset; i++) {
+            checksum ^= out[i];
+        }
+        out[offset++] = '*';
+        out[offset++] = HEX[(checksum >> 4) & 0xF];
+        out[offset++] = HEX[checksum & 0xF];
+        out[offset++] = '\r';
+        out[offset++] = '\n';
+        return offset;
+    }
+
+    private static int appendAscii(byte[] out, int offset, String text) {
+        for (int i = 0; i < text.length(); i++) {
+            out[offset++] = (byte) text.charAt(i);
+        }
+        return offset;
+    }
+
+    // Inteiro não negativo com zeros à esquerda até minDigits
+    private static int appendInt(byte[] out, int offset, int value, int minDigits) {
+        int digits = 1;
+        for (int v = value / 10; v > 0; v /= 10) {
+            digits++;
+        }
+        digits = Math.max(digits, minDigits);
+        for (int i = digits - 1; i >= 0; i--) {
+            out[offset + i] = (byte) ('0' + value % 10);
+            value /= 10;
+        }
+        return offset + digits;
+    }
+
+    private static int appendFixed(byte[] out, int offset, double value, int decimals) {
+        long scale = 1;
+        for (int i = 0; i < decimals; i++) {
+            scale *= 10;
+        }
+        long scaled = Math.round(Math.abs(value) * scale);
+        if (value < 0 && scaled != 0) {
+            out[offset++] = '-';
+        }
+        offset = appendInt(out, offset, (int) (scaled / scale), 1);
+        out[offset++] = '.';
+        return appendInt(out, offset, (int) (scaled % scale), decimals);
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.gnss;
+
+// Número com casas decimais fixas num StringBuilder, sem String.format nem Double.toString:
+// usado nos textos de métricas, DOP, interferência e resumo de sessões, que são refeitos a
+// cada atualização sem alocar.
+final class NumberFormatter {
+
+    private NumberFormatter() {
+    }
+
+    // Arredonda para decimals casas; o sinal só aparece se o valor arredondado não for zero
+    static StringBuilder appendFixed(StringBuilder out, double value, int decimals) {
+        long scale = 1;
+        for (int i = 0; i < decimals; i++) {
+            scale *= 10;
+        }
+        long scaled = Math.round(Math.abs(value) * scale);
+        if (value < 0 && scaled != 0) {
+            out.append('-');
+        }
+        out.append(scaled / scale);
+        if (decimals > 0) {
+            out.append('.');
+            long fraction = scaled % scale;
+            for (long divisor = scale / 10; divisor > 0; divisor /= 10) {
+                out.append((char) ('0' + (fraction / divisor) % 10));
+            }
+        }
+        return out;
+    }
+}
@@ -0,0 +1,177 @@
+package com.example.gnss;
+
+// Elementos keplerianos de almanaque ou efemérides transmitidas, um satélite por posição dos arrays
+// (struct-of-arrays). Ao adicionar um satélite já ficam memorizados os termos que não dependem do
+// instante: semieixo maior, movimento médio corrigido, sqrt(1 - e²), o tempo de referência contínuo
+// e a longitude do nodo ascendente na referência. O positionsAt só faz o trabalho por instante.
+public final class OrbitElements {
+
+    // Parâmetros do WGS-84 usados pelo GPS (IS-GPS-200) e pelo Galileo (OS SIS ICD)
+    static final double GPS_MU = 3.986005e14;
+    static final double GALILEO_MU = 3.986004418e14;
+    static final double EARTH_ROTATION_RATE = 7.2921151467e-5;
+
+    private final int[] constellationTypes;
+    private final int[] svids;
+
+    // Elementos como transmitidos
+    private final double[] referenceSeconds; // toe/toa em tempo GPS contínuo
+    private final double[] eccentricities;
+    private final double[] inclinations;
+    private final double[] inclinationRates;
+    private final double[] argumentsOfPerigee;
+    private final double[] meanAnomalies;
+    private final double[] ascendingNodes;    // Omega0, na semana da referência
+    private final double[] ascendingNodeRates;
+    // Correções harmônicas das efemérides; zero para almanaque
+    private final double[] cuc, cus, crc, crs, cic, cis;
+
+    // Memorizados por satélite
+    private final double[] semiMajorAxes;
+    private final double[] meanMotions;
+    private final double[] sqrtOneMinusE2;
+    private final double[] nodesAtReference;  // Omega0 - OmegaE * toe
+    private final double[] nodeRates;         // OmegaDot - OmegaE
+
+    private int count;
+
+    public OrbitElements(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacidade inválida: " + capacity);
+        }
+        constellationTypes = new int[capacity];
+        svids = new int[capacity];
+        referenceSeconds = new double[capacity];
+        eccentricities = new double[capacity];
+        inclinations = new double[capacity];
+        inclinationRates = new double[capacity];
+        argumentsOfPerigee = new double[capacity];
+        meanAnomalies = new double[capacity];
+        ascendingNodes = new double[capacity];
+        ascendingNodeRates = new double[capacity];
+        cuc = new double[capacity];
+        cus = new double[capacity];
+        crc = new double[capacity];
+        crs = new double[capacity];
+        cic = new double[capacity];
+        cis = new double[capacity];
+        semiMajorAxes = new double[capacity];
+        meanMotions = new double[capacity];
+        sqrtOneMinusE2 = new double[capacity];
+        nodesAtReference = new double[capacity];
+        nodeRates = new double[capacity];
+    }
+
+    // Adiciona os elementos de almanaque (ou a parte kepleriana das efemérides) de um satélite.
+    // week é a semana GPS completa da referência e toe os segundos na semana; ângulos em radianos.
+    // Retorna o índice do satélite, ou -1 se a capacidade foi atingida.
+    public int add(int constellationType, int svid, int week, double toe, double sqrtA, double eccentricity,
+                   double inclination, double ascendingNode, double ascendingNodeRate,
+                   double argumentOfPerigee, double meanAnomaly) {
+        int i = count;
+        if (i == svids.length) {
+            return -1;
+        }
+        constellationTypes[i] = constellationType;
+        svids[i] = svid;
+        referenceSeconds[i] = GpsTime.fromWeek(week, toe);
+        eccentricities[i] = eccentricity;
+        inclinations[i] = inclination;
+        inclinationRates[i] = 0;
+        argumentsOfPerigee[i] = argumentOfPerigee;
+        meanAnomalies[i] = meanAnomaly;
+        ascendingNodes[i] = ascendingNode;
+        ascendingNodeRates[i] = ascendingNodeRate;
+        cuc[i] = cus[i] = crc[i] = crs[i] = cic[i] = cis[i] = 0;
+
+        double a = sqrtA * sqrtA;
+        double mu = constellationType == ConstellationRegistry.GALILEO ? GALILEO_MU : GPS_MU;
+        semiMajorAxes[i] = a;
+        meanMotions[i] = Math.sqrt(mu / (a * a * a));
+        sqrtOneMinusE2[i] = Math.sqrt(1 - eccentricity * eccentricity);
+        nodesAtReference[i] = ascendingNode - EARTH_ROTATION_RATE * toe;
+        nodeRates[i] = ascendingNodeRate - EARTH_ROTATION_RATE;
+        count = i + 1;
+        return i;
+    }
+
+    // Completa um satélite com os termos exclusivos das efemérides transmitidas
+    public void setCorrections(int index, double deltaN, double inclinationRate,
+                               double cuc, double cus, double crc, double crs, double cic, double cis) {
+        double mu = constellationTypes[index] == ConstellationRegistry.GALILEO ? GALILEO_MU : GPS_MU;
+        double a = semiMajorAxes[index];
+        meanMotions[index] = Math.sqrt(mu / (a * a * a)) + deltaN;
+        inclinationRates[index] = inclinationRate;
+        this.cuc[index] = cuc;
+        this.cus[index] = cus;
+        this.crc[index] = crc;
+        this.crs[index] = crs;
+        this.cic[index] = cic;
+        this.cis[index] = cis;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public int getCapacity() {
+        return svids.length;
+    }
+
+    public int getConstellationType(int index) {
+        return constellationTypes[index];
+    }
+
+    public int getSvid(int index) {
+        return svids[index];
+    }
+
+    public double getReferenceSeconds(int index) {
+        return referenceSeconds[index];
+    }
+
+    public double getSemiMajorAxis(int index) {
+        return semiMajorAxes[index];
+    }
+
+    public double getEccentricity(int index) {
+        return eccentricities[index];
+    }
+
+    // Posições ECEF (x, y, z em metros) de todos os satélites no instante gpsSeconds, escritas em
+    // out[3 * i ..]. Kepler é resolvido com um número fixo de iterações de Newton, que converge
+    // abaixo de 1e-12 rad para as excentricidades de GPS e Galileo (e < 0,03).
+    public void positionsAt(double gpsSeconds, double[] out) {
+        for (int i = 0; i < count; i++) {
+            double tk = gpsSeconds - referenceSeconds[i];
+            double e = eccentricities[i];
+            double m = meanAnomalies[i] + meanMotions[i] * tk;
+
+            double ek = m;
+            for (int iteration = 0; iteration < 4; iteration++) {
+                ek -= (ek - e * Math.sin(ek) - m) / (1 - e * Math.cos(ek));
+            }
+            double sinE = Math.sin(ek);
+            double cosE = Math.cos(ek);
+
+            double phi = Math.atan2(sqrtOneMinusE2[i] * sinE, cosE - e) + argumentsOfPerigee[i];
+            double sin2Phi = Math.sin(2 * phi);
+            double cos2Phi = Math.cos(2 * phi);
+            double u = phi + cus[i] * sin2Phi + cuc[i] * cos2Phi;
+            double r = semiMajorAxes[i] * (1 - e * cosE) + crs[i] * sin2Phi + crc[i] * cos2Phi;
+            double inclination = inclinations[i] + cis[i] * sin2Phi + cic[i] * cos2Phi + inclinationRates[i] * tk;
+
+            double xOrbit = r * Math.cos(u);
+            double yOrbit = r * Math.sin(u);
+            // Longitude do nodo: Omega0 + (OmegaDot - OmegaE) tk - OmegaE toe
+            double node = nodesAtReference[i] + nodeRates[i] * tk;
+            double cosNode = Math.cos(node);
+            double sinNode = Math.sin(node);
+            double cosI = Math.cos(inclination);
+
+            out[3 * i] = xOrbit * cosNode - yOrbit * cosI * sinNode;
+            out[3 * i + 1] = xOrbit * sinNode + yOrbit * cosI * cosNode;
+            out[3 * i + 2] = yOrbit * Math.sin(inclination);
+        }
+    }
+}
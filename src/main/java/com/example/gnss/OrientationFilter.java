@@ -0,0 +1,16 @@
+package com.example.gnss;
+
+// Estágio de suavização da orientação entre o sensor de rotação e a Esfera Celeste.
+// Implementações recebem o azimute bruto (radianos) e decidem se a saída mudou o
+// suficiente para justificar um redesenho.
+public interface OrientationFilter {
+
+    // Processa uma amostra; retorna true se o ângulo de saída mudou
+    boolean update(float azimuthRadians, long timestampNanos);
+
+    // Último ângulo emitido, em radianos no intervalo [-PI, PI)
+    float getAngle();
+
+    // Descarta o estado; a próxima amostra é emitida diretamente
+    void reset();
+}
@@ -0,0 +1,39 @@
+package com.example.gnss;
+
+import android.hardware.Sensor;
+import android.hardware.SensorEventListener;
+import android.hardware.SensorManager;
+
+// Sensor de rotação como fonte do ciclo de vida. Em segundo plano a taxa cai para a normal
+// (~5 Hz) e os eventos são entregues em lotes, deixando o processador dormir entre eles.
+final class RotationSensorSource implements DataSourceLifecycle.Source {
+
+    private static final int BACKGROUND_MAX_LATENCY_US = 10_000_000;
+
+    private final SensorManager sensorManager;
+    private final Sensor sensor;
+    private final SensorEventListener listener;
+
+    RotationSensorSource(SensorManager sensorManager, SensorEventListener listener) {
+        this.sensorManager = sensorManager;
+        this.sensor = sensorManager.getDefaultSensor(Sensor.TYPE_ROTATION_VECTOR);
+        this.listener = listener;
+    }
+
+    @Override
+    public void start(DataSourceLifecycle.Rate rate) {
+        if (sensor == null) {
+            return; // Aparelho sem sensor de rotação
+        }
+        if (rate == DataSourceLifecycle.Rate.FOREGROUND) {
+            sensorManager.registerListener(listener, sensor, SensorManager.SENSOR_DELAY_UI);
+        } else {
+            sensorManager.registerListener(listener, sensor, SensorManager.SENSOR_DELAY_NORMAL, BACKGROUND_MAX_LATENCY_US);
+        }
+    }
+
+    @Override
+    public void stop() {
+        sensorManager.unregisterListener(listener);
+    }
+}
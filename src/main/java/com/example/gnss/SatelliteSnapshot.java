@@ -0,0 +1,200 @@
+package com.example.gnss;
+
+// Fotografia dos satélites de um GnssStatus guardada em arrays primitivos (struct-of-arrays).
+// Os arrays são alocados uma única vez na construção e reutilizados a cada atualização,
+// evitando o boxing e as alocações do antigo HashMap<Integer, Float> por callback.
+public final class SatelliteSnapshot {
+
+    public static final int DEFAULT_CAPACITY = 256; // Mais do que o GnssStatus costuma reportar
+
+    private final int[] svids;
+    private final int[] constellationTypes;
+    private final float[] cn0DbHz;
+    private final float[] azimuthDegrees;
+    private final float[] elevationDegrees;
+    private final boolean[] usedInFix;
+    // Receptores de dupla frequência reportam uma linha por banda do mesmo satélite
+    private final float[] carrierFrequencyHz; // NaN quando o receptor não informa
+    private final int[] bands;                // SignalKey.bandOf da portadora
+    private int satelliteCount;
+    private long timestampNanos; // Momento em que o snapshot foi preenchido
+    private long sequence;       // Número da atualização que gerou o snapshot
+
+    // Estatísticas derivadas por computeStatistics()
+    private int satellitesWithSignal;
+    private int satellitesUsedInFix;
+    private float meanCn0DbHz;
+    private float maxCn0DbHz;
+
+    public SatelliteSnapshot() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public SatelliteSnapshot(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacidade inválida: " + capacity);
+        }
+        svids = new int[capacity];
+        constellationTypes = new int[capacity];
+        cn0DbHz = new float[capacity];
+        azimuthDegrees = new float[capacity];
+        elevationDegrees = new float[capacity];
+        usedInFix = new boolean[capacity];
+        carrierFrequencyHz = new float[capacity];
+        bands = new int[capacity];
+    }
+
+    // Descarta os satélites atuais sem liberar os arrays
+    public void clear() {
+        satelliteCount = 0;
+        timestampNanos = 0;
+        sequence = 0;
+        satellitesWithSignal = 0;
+        satellitesUsedInFix = 0;
+        meanCn0DbHz = 0;
+        maxCn0DbHz = 0;
+    }
+
+    // Adiciona um satélite sem portadora conhecida; retorna false se a capacidade foi atingida
+    public boolean add(int svid, int constellationType, float cn0, float azimuth, float elevation, boolean used) {
+        return add(svid, constellationType, cn0, azimuth, elevation, used, Float.NaN);
+    }
+
+    // Adiciona o sinal de um satélite numa portadora; retorna false se a capacidade foi atingida
+    public boolean add(int svid, int constellationType, float cn0, float azimuth, float elevation, boolean used,
+                       float carrierFrequency) {
+        int i = satelliteCount;
+        if (i == svids.length) {
+            return false;
+        }
+        svids[i] = svid;
+        constellationTypes[i] = constellationType;
+        cn0DbHz[i] = cn0;
+        azimuthDegrees[i] = azimuth;
+        elevationDegrees[i] = elevation;
+        usedInFix[i] = used;
+        carrierFrequencyHz[i] = carrierFrequency;
+        bands[i] = SignalKey.bandOf(carrierFrequency);
+        satelliteCount = i + 1;
+        return true;
+    }
+
+    // Copia o conteúdo de outro snapshot (a capacidade deste deve comportar os satélites)
+    public void copyFrom(SatelliteSnapshot other) {
+        int count = Math.min(other.satelliteCount, svids.length);
+        System.arraycopy(other.svids, 0, svids, 0, count);
+        System.arraycopy(other.constellationTypes, 0, constellationTypes, 0, count);
+        System.arraycopy(other.cn0DbHz, 0, cn0DbHz, 0, count);
+        System.arraycopy(other.azimuthDegrees, 0, azimuthDegrees, 0, count);
+        System.arraycopy(other.elevationDegrees, 0, elevationDegrees, 0, count);
+        System.arraycopy(other.usedInFix, 0, usedInFix, 0, count);
+        System.arraycopy(other.carrierFrequencyHz, 0, carrierFrequencyHz, 0, count);
+        System.arraycopy(other.bands, 0, bands, 0, count);
+        satelliteCount = count;
+        timestampNanos = other.timestampNanos;
+        sequence = other.sequence;
+        computeStatistics();
+    }
+
+    // Calcula as estatísticas agregadas dos satélites atuais
+    public void computeStatistics() {
+        int withSignal = 0;
+        int used = 0;
+        float sum = 0;
+        float max = 0;
+        for (int i = 0; i < satelliteCount; i++) {
+            float cn0 = cn0DbHz[i];
+            if (cn0 > 0) {
+                withSignal++;
+                sum += cn0;
+                if (cn0 > max) {
+                    max = cn0;
+                }
+            }
+            if (usedInFix[i]) {
+                used++;
+            }
+        }
+        satellitesWithSignal = withSignal;
+        satellitesUsedInFix = used;
+        meanCn0DbHz = withSignal > 0 ? sum / withSignal : 0;
+        maxCn0DbHz = max;
+    }
+
+    public int getCapacity() {
+        return svids.length;
+    }
+
+    public int getSatelliteCount() {
+        return satelliteCount;
+    }
+
+    public int getSvid(int index) {
+        return svids[index];
+    }
+
+    public int getConstellationType(int index) {
+        return constellationTypes[index];
+    }
+
+    public float getCn0DbHz(int index) {
+        return cn0DbHz[index];
+    }
+
+    public float getAzimuthDegrees(int index) {
+        return azimuthDegrees[index];
+    }
+
+    public float getElevationDegrees(int index) {
+        return elevationDegrees[index];
+    }
+
+    public boolean usedInFix(int index) {
+        return usedInFix[index];
+    }
+
+    public float getCarrierFrequencyHz(int index) {
+        return carrierFrequencyHz[index];
+    }
+
+    public int getBand(int index) {
+        return bands[index];
+    }
+
+    // Identidade do sinal (constelação, SVID e banda) entre snapshots
+    public long getSignalKey(int index) {
+        return SignalKey.of(constellationTypes[index], svids[index], bands[index]);
+    }
+
+    public long getTimestampNanos() {
+        return timestampNanos;
+    }
+
+    public void setTimestampNanos(long timestampNanos) {
+        this.timestampNanos = timestampNanos;
+    }
+
+    public long getSequence() {
+        return sequence;
+    }
+
+    public void setSequence(long sequence) {
+        this.sequence = sequence;
+    }
+
+    public int getSatellitesWithSignal() {
+        return satellitesWithSignal;
+    }
+
+    public int getSatellitesUsedInFix() {
+        return satellitesUsedInFix;
+    }
+
+    public float getMeanCn0DbHz() {
+        return meanCn0DbHz;
+    }
+
+    public float getMaxCn0DbHz() {
+        return maxCn0DbHz;
+    }
+}
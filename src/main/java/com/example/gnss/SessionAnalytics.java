@@ -0,0 +1,159 @@
+package com.example.gnss;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+// Análise offline de um diretório de sessões gravadas (SessionWriter): TTFF, satélites visíveis e
+// usados no fix por época, percentis de C/N0 por constelação e lacunas sem fix.
+// Cada sessão é lida pelo SessionReader (arquivo mapeado, snapshot reutilizado) e acumulada direto
+// nos histogramas do SessionSummary, sem guardar as épocas. Na versão paralela as sessões são
+// divididas entre os núcleos (ForkJoin), cada divisão acumula no seu resumo e os resumos são
+// mesclados no fim; como os histogramas têm grade fixa, o resultado é o mesmo da versão sequencial.
+// Definições:
+//   satélite  par (constelação, SVID); as linhas de L1 e L5 do mesmo satélite contam uma vez nos
+//             visíveis e usados, enquanto os percentis de C/N0 continuam por sinal
+//   fix       época com ao menos MIN_USED_FOR_FIX satélites usados no fix
+//   TTFF      do primeiro registro da sessão à primeira época com fix
+//   lacuna    intervalo entre épocas com fix (ou do último fix ao fim da sessão) acima de
+//             GAP_THRESHOLD_NANOS; o tempo antes do primeiro fix conta no TTFF, não como lacuna
+public final class SessionAnalytics {
+
+    public static final int MIN_USED_FOR_FIX = 4;
+    public static final long GAP_THRESHOLD_NANOS = 2_000_000_000L; // Duas épocas de 1 Hz
+
+    private SessionAnalytics() {
+    }
+
+    // Sessões do diretório em ordem de nome (que começa pelo instante da gravação)
+    public static File[] listSessions(File directory) {
+        File[] files = directory.listFiles((dir, name) -> name.endsWith(SessionFormat.FILE_EXTENSION));
+        if (files == null) {
+            return new File[0];
+        }
+        Arrays.sort(files);
+        return files;
+    }
+
+    // Analisa as sessões em paralelo
+    public static SessionSummary analyze(File[] sessions) {
+        return IntStream.range(0, sessions.length).parallel()
+                .collect(SessionSummary::new, (summary, i) -> analyzeSession(sessions[i], summary), SessionSummary::merge);
+    }
+
+    // Mesmo resultado, numa única thread
+    public static SessionSummary analyzeSequential(File[] sessions) {
+        SessionSummary summary = new SessionSummary();
+        for (File session : sessions) {
+            analyzeSession(session, summary);
+        }
+        return summary;
+    }
+
+    // Acumula uma sessão no resumo; arquivos inválidos só são contados
+    public static void analyzeSession(File session, SessionSummary summary) {
+        try (SessionReader reader = SessionReader.open(session)) {
+            analyzeSession(reader, summary);
+        } catch (IOException e) {
+            summary.invalidSessions++;
+        }
+    }
+
+    public static void analyzeSession(SessionReader reader, SessionSummary summary) {
+        SessionScan scan = new SessionScan(summary);
+        reader.rewind();
+        while (reader.hasNext()) {
+            reader.next(scan);
+        }
+        scan.finish();
+    }
+
+    // Estado de uma sessão durante a leitura
+    private static final class SessionScan implements SessionReader.Visitor {
+
+        private final SessionSummary summary;
+        // Satélites (SignalKey.satelliteOf) já contados na época
+        private final LongFloatMap inView = new LongFloatMap(SatelliteSnapshot.DEFAULT_CAPACITY);
+        private final LongFloatMap used = new LongFloatMap(SatelliteSnapshot.DEFAULT_CAPACITY);
+        private long firstNanos = Long.MIN_VALUE;
+        private long lastEpochNanos = Long.MIN_VALUE;
+        private boolean lastEpochFixed;
+        private long lastFixNanos = Long.MIN_VALUE;
+
+        SessionScan(SessionSummary summary) {
+            this.summary = summary;
+        }
+
+        @Override
+        public void onSnapshot(SatelliteSnapshot snapshot) {
+            long timestamp = snapshot.getTimestampNanos();
+            int count = snapshot.getSatelliteCount();
+            inView.clear();
+            used.clear();
+            for (int i = 0; i < count; i++) {
+                long satellite = SignalKey.satelliteOf(snapshot.getSignalKey(i));
+                float cn0 = snapshot.getCn0DbHz(i);
+                if (cn0 > 0) {
+                    inView.put(satellite, 0f);
+                    summary.cn0ByConstellation[ConstellationRegistry.indexOf(snapshot.getConstellationType(i))].add(cn0);
+                }
+                if (snapshot.usedInFix(i)) {
+                    used.put(satellite, 0f);
+                }
+            }
+            int usedCount = used.size();
+            summary.epochs++;
+            summary.satelliteSamples += count;
+            summary.satellitesInView.add(inView.size());
+            summary.satellitesUsed.add(usedCount);
+
+            markStart(timestamp);
+            boolean fixed = usedCount >= MIN_USED_FOR_FIX;
+            if (lastEpochNanos != Long.MIN_VALUE) {
+                long interval = timestamp - lastEpochNanos;
+                if (fixed && lastEpochFixed && interval <= GAP_THRESHOLD_NANOS) {
+                    summary.availableNanos += interval;
+                }
+            }
+            if (fixed) {
+                if (lastFixNanos == Long.MIN_VALUE) {
+                    summary.sessionsWithFix++;
+                    summary.timeToFirstFixSeconds.add((timestamp - firstNanos) / 1e9);
+                } else if (timestamp - lastFixNanos > GAP_THRESHOLD_NANOS) {
+                    summary.gapSeconds.add((timestamp - lastFixNanos) / 1e9);
+                }
+                lastFixNanos = timestamp;
+            }
+            lastEpochNanos = timestamp;
+            lastEpochFixed = fixed;
+        }
+
+        @Override
+        public void onLocation(long timestampNanos, double latitude, double longitude, float accuracyMeters) {
+            markStart(timestampNanos);
+        }
+
+        @Override
+        public void onRotation(long timestampNanos, float azimuth, float pitch, float roll) {
+            markStart(timestampNanos);
+        }
+
+        private void markStart(long timestamp) {
+            if (firstNanos == Long.MIN_VALUE) {
+                firstNanos = timestamp;
+            }
+        }
+
+        void finish() {
+            summary.sessions++;
+            if (lastEpochNanos == Long.MIN_VALUE) {
+                return;
+            }
+            summary.durationNanos += lastEpochNanos - firstNanos;
+            if (lastFixNanos != Long.MIN_VALUE && lastEpochNanos - lastFixNanos > GAP_THRESHOLD_NANOS) {
+                summary.gapSeconds.add((lastEpochNanos - lastFixNanos) / 1e9);
+            }
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.gnss;
+
+// Formato binário das sessões gravadas: sequência de registros de tamanho fixo (32 bytes),
+// little-endian, somente anexados ao fim do arquivo.
+//
+//   offset 0  byte   tipo do registro
+//   offset 1  byte   constelação (SATELLITE)
+//   offset 2  short  SVID (SATELLITE)
+//   offset 4  int    versão (HEADER), satélites na época (EPOCH), flags (SATELLITE)
+//                    ou float precisão em metros (LOCATION)
+//   offset 8  long   timestamp em nanos (elapsedRealtimeNanos); relógio de parede em ms no HEADER
+//   offset 16 16 bytes de carga útil, conforme o tipo:
+//       HEADER    int magic
+//       SATELLITE float C/N0, float azimute, float elevação, float portadora em Hz (0 = desconhecida,
+//                 como nas sessões gravadas antes de o campo existir)
+//       LOCATION  double latitude, double longitude
+//       ROTATION  float azimute, float pitch, float roll (radianos)
+//
+// Uma época é um registro EPOCH seguido de tantos registros SATELLITE quanto indicado nele.
+public final class SessionFormat {
+
+    public static final int RECORD_SIZE = 32;
+    public static final int VERSION = 1;
+    public static final int MAGIC = 0x53534E47; // "GNSS" em little-endian
+    public static final String FILE_EXTENSION = ".gnss";
+
+    public static final byte TYPE_HEADER = 1;
+    public static final byte TYPE_EPOCH = 2;
+    public static final byte TYPE_SATELLITE = 3;
+    public static final byte TYPE_LOCATION = 4;
+    public static final byte TYPE_ROTATION = 5;
+
+    public static final int FLAG_USED_IN_FIX = 1;
+
+    // Offsets dentro de um registro
+    static final int OFFSET_TYPE = 0;
+    static final int OFFSET_CONSTELLATION = 1;
+    static final int OFFSET_SVID = 2;
+    static final int OFFSET_INFO = 4;
+    static final int OFFSET_TIMESTAMP = 8;
+    static final int OFFSET_PAYLOAD = 16;
+
+    private SessionFormat() {
+    }
+}
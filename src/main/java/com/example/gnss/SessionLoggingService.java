@@ -0,0 +1,71 @@
+package com.example.gnss;
+
+import android.app.Notification;
+import android.app.NotificationChannel;
+import android.app.NotificationManager;
+import android.app.Service;
+import android.content.Context;
+import android.content.Intent;
+import android.content.pm.ServiceInfo;
+import android.os.Build;
+import android.os.IBinder;
+
+// Serviço em primeiro plano (tipo location) mantido enquanto a GNSSActivity grava a sessão em
+// segundo plano (DataSourceLifecycle.State.BACKGROUND). Ele não registra nada: as fontes continuam
+// na atividade. O que ele faz é manter o app em primeiro plano para o sistema, sem o que a
+// localização em segundo plano fica limitada a poucas atualizações por hora (Android 8+) e os
+// callbacks de status e medições GNSS param (Android 10+).
+public class SessionLoggingService extends Service {
+
+    private static final String CHANNEL_ID = "gravacao_sessao";
+    private static final int NOTIFICATION_ID = 1;
+
+    // Chamado no onPause, com a atividade ainda visível, quando o início em primeiro plano é permitido
+    public static void start(Context context) {
+        Intent intent = new Intent(context, SessionLoggingService.class);
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.O) {
+            context.startForegroundService(intent);
+        } else {
+            context.startService(intent);
+        }
+    }
+
+    public static void stop(Context context) {
+        context.stopService(new Intent(context, SessionLoggingService.class));
+    }
+
+    @Override
+    public int onStartCommand(Intent intent, int flags, int startId) {
+        Notification notification = buildNotification();
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.Q) {
+            startForeground(NOTIFICATION_ID, notification, ServiceInfo.FOREGROUND_SERVICE_TYPE_LOCATION);
+        } else {
+            startForeground(NOTIFICATION_ID, notification);
+        }
+        // Sem a atividade não há fontes nem gravação: o serviço não deve ser recriado sozinho
+        return START_NOT_STICKY;
+    }
+
+    @Override
+    public IBinder onBind(Intent intent) {
+        return null;
+    }
+
+    @SuppressWarnings("deprecation")
+    private Notification buildNotification() {
+        Notification.Builder builder;
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.O) {
+            NotificationChannel channel = new NotificationChannel(CHANNEL_ID, "Gravação de sessão",
+                    NotificationManager.IMPORTANCE_LOW);
+            getSystemService(NotificationManager.class).createNotificationChannel(channel);
+            builder = new Notification.Builder(this, CHANNEL_ID);
+        } else {
+            builder = new Notification.Builder(this);
+        }
+        return builder.setSmallIcon(android.R.drawable.ic_menu_mylocation)
+                .setContentTitle("Gravando sessão GNSS")
+                .setContentText("Satélites, localização e rotação continuam sendo gravados em segundo plano")
+                .setOngoing(true)
+                .build();
+    }
+}
@@ -0,0 +1,140 @@
+package com.example.gnss;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+
+// Lê uma sessão gravada no formato SessionFormat mapeando o arquivo em memória. Os registros
+// são decodificados direto do buffer mapeado para um único SatelliteSnapshot reutilizado,
+// sem streams nem cópias intermediárias.
+public final class SessionReader implements Closeable {
+
+    // Recebe os registros decodificados; o snapshot só é válido durante a chamada
+    public interface Visitor {
+        void onSnapshot(SatelliteSnapshot snapshot);
+
+        void onLocation(long timestampNanos, double latitude, double longitude, float accuracyMeters);
+
+        void onRotation(long timestampNanos, float azimuth, float pitch, float roll);
+    }
+
+    private final FileChannel channel;
+    private final ByteBuffer data;
+    private final SatelliteSnapshot snapshot;
+    private final long startWallClockMillis;
+    private int position;
+
+    public SessionReader(ByteBuffer data) throws IOException {
+        this(null, data);
+    }
+
+    private SessionReader(FileChannel channel, ByteBuffer data) throws IOException {
+        this.channel = channel;
+        this.data = data.order(ByteOrder.LITTLE_ENDIAN);
+        this.snapshot = new SatelliteSnapshot();
+        if (data.limit() < SessionFormat.RECORD_SIZE
+                || data.get(SessionFormat.OFFSET_TYPE) != SessionFormat.TYPE_HEADER
+                || data.getInt(SessionFormat.OFFSET_PAYLOAD) != SessionFormat.MAGIC) {
+            throw new IOException("Arquivo de sessão inválido");
+        }
+        int version = data.getInt(SessionFormat.OFFSET_INFO);
+        if (version != SessionFormat.VERSION) {
+            throw new IOException("Versão de sessão não suportada: " + version);
+        }
+        startWallClockMillis = data.getLong(SessionFormat.OFFSET_TIMESTAMP);
+        position = SessionFormat.RECORD_SIZE;
+    }
+
+    public static SessionReader open(File file) throws IOException {
+        FileChannel channel = new FileInputStream(file).getChannel();
+        try {
+            // Registros incompletos no fim (gravação interrompida) são ignorados
+            long size = channel.size() - channel.size() % SessionFormat.RECORD_SIZE;
+            return new SessionReader(channel, channel.map(FileChannel.MapMode.READ_ONLY, 0, size));
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    public long getStartWallClockMillis() {
+        return startWallClockMillis;
+    }
+
+    public int getRecordCount() {
+        return data.limit() / SessionFormat.RECORD_SIZE;
+    }
+
+    public boolean hasNext() {
+        return position + SessionFormat.RECORD_SIZE <= data.limit();
+    }
+
+    // Timestamp do próximo registro, sem consumi-lo
+    public long peekTimestampNanos() {
+        return data.getLong(position + SessionFormat.OFFSET_TIMESTAMP);
+    }
+
+    // Volta ao primeiro registro depois do cabeçalho
+    public void rewind() {
+        position = SessionFormat.RECORD_SIZE;
+    }
+
+    // Decodifica o próximo registro lógico (uma época inteira conta como um) e o entrega ao visitor
+    public void next(Visitor visitor) {
+        int start = position;
+        position += SessionFormat.RECORD_SIZE;
+        long timestamp = data.getLong(start + SessionFormat.OFFSET_TIMESTAMP);
+        switch (data.get(start + SessionFormat.OFFSET_TYPE)) {
+            case SessionFormat.TYPE_EPOCH:
+                readEpoch(data.getInt(start + SessionFormat.OFFSET_INFO), timestamp);
+                visitor.onSnapshot(snapshot);
+                break;
+            case SessionFormat.TYPE_LOCATION:
+                visitor.onLocation(timestamp,
+                        data.getDouble(start + SessionFormat.OFFSET_PAYLOAD),
+                        data.getDouble(start + SessionFormat.OFFSET_PAYLOAD + 8),
+                        data.getFloat(start + SessionFormat.OFFSET_INFO));
+                break;
+            case SessionFormat.TYPE_ROTATION:
+                visitor.onRotation(timestamp,
+                        data.getFloat(start + SessionFormat.OFFSET_PAYLOAD),
+                        data.getFloat(start + SessionFormat.OFFSET_PAYLOAD + 4),
+                        data.getFloat(start + SessionFormat.OFFSET_PAYLOAD + 8));
+                break;
+            default:
+                break; // Tipos desconhecidos são pulados, permitindo extensões do formato
+        }
+    }
+
+    private void readEpoch(int count, long timestamp) {
+        snapshot.clear();
+        snapshot.setTimestampNanos(timestamp);
+        for (int i = 0; i < count && hasNext(); i++) {
+            int start = position;
+            if (data.get(start + SessionFormat.OFFSET_TYPE) != SessionFormat.TYPE_SATELLITE) {
+                break;
+            }
+            position += SessionFormat.RECORD_SIZE;
+            float carrier = data.getFloat(start + SessionFormat.OFFSET_PAYLOAD + 12);
+            snapshot.add(data.getShort(start + SessionFormat.OFFSET_SVID),
+                    data.get(start + SessionFormat.OFFSET_CONSTELLATION),
+                    data.getFloat(start + SessionFormat.OFFSET_PAYLOAD),
+                    data.getFloat(start + SessionFormat.OFFSET_PAYLOAD + 4),
+                    data.getFloat(start + SessionFormat.OFFSET_PAYLOAD + 8),
+                    (data.getInt(start + SessionFormat.OFFSET_INFO) & SessionFormat.FLAG_USED_IN_FIX) != 0,
+                    carrier > 0 ? carrier : Float.NaN);
+        }
+        snapshot.computeStatistics();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (channel != null) {
+            channel.close();
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.gnss;
+
+import java.util.concurrent.locks.LockSupport;
+
+// Reproduz uma sessão gravada respeitando o intervalo original entre registros, na velocidade
+// real (1x) ou acelerada; com velocidade zero os registros são entregues sem espera.
+public final class SessionReplayer implements Runnable {
+
+    private final SessionReader reader;
+    private final SessionReader.Visitor visitor;
+    private final double speed;
+    private volatile boolean cancelled;
+
+    public SessionReplayer(SessionReader reader, SessionReader.Visitor visitor, double speed) {
+        if (speed < 0) {
+            throw new IllegalArgumentException("Velocidade inválida: " + speed);
+        }
+        this.reader = reader;
+        this.visitor = visitor;
+        this.speed = speed;
+    }
+
+    public void cancel() {
+        cancelled = true;
+    }
+
+    @Override
+    public void run() {
+        if (!reader.hasNext()) {
+            return;
+        }
+        long firstTimestamp = reader.peekTimestampNanos();
+        long startNanos = System.nanoTime();
+        while (reader.hasNext() && !cancelled) {
+            if (speed > 0) {
+                long due = startNanos + (long) ((reader.peekTimestampNanos() - firstTimestamp) / speed);
+                long wait;
+                while ((wait = due - System.nanoTime()) > 0 && !cancelled) {
+                    LockSupport.parkNanos(wait);
+                }
+            }
+            reader.next(visitor);
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.example.gnss;
+
+// Resumo agregado de um conjunto de sessões gravadas, produzido pelo SessionAnalytics.
+// Todas as distribuições são MergeableHistogram de grade fixa, então o tamanho não depende de
+// quantas horas foram gravadas e dois resumos parciais se somam com merge.
+public final class SessionSummary {
+
+    static final double CN0_MAX_DB_HZ = 70;
+    static final double CN0_BIN_DB_HZ = 0.1;
+
+    public long sessions;          // Sessões lidas
+    public long invalidSessions;   // Arquivos rejeitados pelo SessionReader
+    public long epochs;
+    public long satelliteSamples;  // Registros de satélite em todas as épocas
+    public long durationNanos;     // Soma da duração das sessões (primeira à última época)
+    public long availableNanos;    // Tempo com fix (SessionAnalytics.MIN_USED_FOR_FIX satélites)
+    public long sessionsWithFix;
+
+    public final MergeableHistogram timeToFirstFixSeconds = new MergeableHistogram(0, 900, 1);
+    public final MergeableHistogram satellitesInView = new MergeableHistogram(0, SatelliteSnapshot.DEFAULT_CAPACITY + 1, 1);
+    public final MergeableHistogram satellitesUsed = new MergeableHistogram(0, SatelliteSnapshot.DEFAULT_CAPACITY + 1, 1);
+    public final MergeableHistogram gapSeconds = new MergeableHistogram(0, 3600, 1);
+    // Por índice do ConstellationRegistry, só amostras com sinal (C/N0 > 0)
+    public final MergeableHistogram[] cn0ByConstellation = new MergeableHistogram[ConstellationRegistry.COUNT];
+
+    public SessionSummary() {
+        for (int i = 0; i < cn0ByConstellation.length; i++) {
+            cn0ByConstellation[i] = new MergeableHistogram(0, CN0_MAX_DB_HZ, CN0_BIN_DB_HZ);
+        }
+    }
+
+    public void merge(SessionSummary other) {
+        sessions += other.sessions;
+        invalidSessions += other.invalidSessions;
+        epochs += other.epochs;
+        satelliteSamples += other.satelliteSamples;
+        durationNanos += other.durationNanos;
+        availableNanos += other.availableNanos;
+        sessionsWithFix += other.sessionsWithFix;
+        timeToFirstFixSeconds.merge(other.timeToFirstFixSeconds);
+        satellitesInView.merge(other.satellitesInView);
+        satellitesUsed.merge(other.satellitesUsed);
+        gapSeconds.merge(other.gapSeconds);
+        for (int i = 0; i < cn0ByConstellation.length; i++) {
+            cn0ByConstellation[i].merge(other.cn0ByConstellation[i]);
+        }
+    }
+
+    // Fração do tempo gravado com fix (0 a 1)
+    public double getAvailability() {
+        return durationNanos > 0 ? (double) availableNanos / durationNanos : 0;
+    }
+
+    public long getMemoryBytes() {
+        long bytes = timeToFirstFixSeconds.getMemoryBytes() + satellitesInView.getMemoryBytes()
+                + satellitesUsed.getMemoryBytes() + gapSeconds.getMemoryBytes();
+        for (MergeableHistogram histogram : cn0ByConstellation) {
+            bytes += histogram.getMemoryBytes();
+        }
+        return bytes;
+    }
+
+    // Relatório em texto exibido na tela de resumo
+    public StringBuilder appendTo(StringBuilder out) {
+        out.append("Sessões: ").append(sessions);
+        if (invalidSessions > 0) {
+            out.append(" (").append(invalidSessions).append(" inválidas ignoradas)");
+        }
+        out.append("\nDuração: ");
+        NumberFormatter.appendFixed(out, durationNanos / 3.6e12, 2).append(" h, ").append(epochs).append(" épocas");
+        out.append("\nDisponibilidade do fix: ");
+        NumberFormatter.appendFixed(out, getAvailability() * 100, 1).append('%');
+
+        out.append("\n\nTTFF (").append(sessionsWithFix).append(" de ").append(sessions).append(" sessões): ");
+        appendQuantiles(out, timeToFirstFixSeconds, 1, " s");
+        out.append("\nSatélites visíveis: ");
+        appendQuantiles(out, satellitesInView, 0, "");
+        out.append("\nSatélites usados no fix: ");
+        appendQuantiles(out, satellitesUsed, 0, "");
+        out.append("\nLacunas sem fix: ").append(gapSeconds.getCount());
+        if (gapSeconds.getCount() > 0) {
+            out.append(", total ");
+            NumberFormatter.appendFixed(out, gapSeconds.getSum(), 0).append(" s, maior ");
+            NumberFormatter.appendFixed(out, gapSeconds.getMax(), 0).append(" s");
+        }
+
+        out.append("\n\nC/N0 por constelação (dB-Hz):");
+        for (int i = 0; i < cn0ByConstellation.length; i++) {
+            MergeableHistogram cn0 = cn0ByConstellation[i];
+            if (cn0.getCount() == 0) {
+                continue;
+            }
+            out.append('\n').append(ConstellationRegistry.labelAt(i)).append(": ");
+            appendQuantiles(out, cn0, 1, "");
+            out.append(" (").append(cn0.getCount()).append(" amostras)");
+        }
+        return out;
+    }
+
+    @Override
+    public String toString() {
+        return appendTo(new StringBuilder(1024)).toString();
+    }
+
+    private static void appendQuantiles(StringBuilder out, MergeableHistogram histogram, int decimals, String unit) {
+        if (histogram.getCount() == 0) {
+            out.append("n/d");
+            return;
+        }
+        out.append("p10 ");
+        NumberFormatter.appendFixed(out, histogram.quantile(0.10), decimals).append(" p50 ");
+        NumberFormatter.appendFixed(out, histogram.quantile(0.50), decimals).append(" p90 ");
+        NumberFormatter.appendFixed(out, histogram.quantile(0.90), decimals).append(" máx ");
+        NumberFormatter.appendFixed(out, histogram.getMax(), decimals).append(unit);
+    }
+}
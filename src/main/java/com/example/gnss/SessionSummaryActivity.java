@@ -0,0 +1,54 @@
+package com.example.gnss;
+
+import android.os.Bundle;
+import android.os.SystemClock;
+import android.util.Log;
+import android.widget.TextView;
+import androidx.appcompat.app.AppCompatActivity;
+
+import java.io.File;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// Tela de resumo das sessões gravadas pelo GNSSActivity. A análise roda fora da thread de UI
+// (SessionAnalytics usa os núcleos em paralelo) e o relatório aparece quando termina.
+public class SessionSummaryActivity extends AppCompatActivity {
+
+    private TextView summaryText;
+    private ExecutorService analysisExecutor;
+
+    @Override
+    protected void onCreate(Bundle savedInstanceState) {
+        super.onCreate(savedInstanceState);
+        setContentView(R.layout.activity_session_summary);
+        summaryText = findViewById(R.id.summaryText);
+
+        File directory = GNSSActivity.sessionsDirectory(this);
+        analysisExecutor = Executors.newSingleThreadExecutor(r -> new Thread(r, "gnss-session-analytics"));
+        analysisExecutor.execute(() -> {
+            long start = SystemClock.elapsedRealtime();
+            File[] sessions = SessionAnalytics.listSessions(directory);
+            String report;
+            if (sessions.length == 0) {
+                report = "Nenhuma sessão gravada em " + directory;
+            } else {
+                SessionSummary summary = SessionAnalytics.analyze(sessions);
+                long elapsed = SystemClock.elapsedRealtime() - start;
+                Log.i("SessionSummary", sessions.length + " sessões, " + summary.epochs + " épocas analisadas em " + elapsed + " ms");
+                report = summary.appendTo(new StringBuilder(1024))
+                        .append("\n\nAnalisado em ").append(elapsed).append(" ms").toString();
+            }
+            runOnUiThread(() -> {
+                if (!isDestroyed()) {
+                    summaryText.setText(report);
+                }
+            });
+        });
+    }
+
+    @Override
+    protected void onDestroy() {
+        super.onDestroy();
+        analysisExecutor.shutdownNow();
+    }
+}
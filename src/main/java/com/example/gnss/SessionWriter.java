@@ -0,0 +1,221 @@
+package com.example.gnss;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+// Grava uma sessão no formato SessionFormat. Os registros são acumulados em dois buffers diretos;
+// quando um enche, ele é escrito no FileChannel por uma thread de E/S própria enquanto o outro
+// continua recebendo registros, de modo que quem grava (pipeline GNSS, sensor, localização)
+// nunca espera pelo disco, a não ser que os dois buffers estejam cheios.
+// Uma falha de E/S (disco cheio, cartão removido) não chega a quem grava: ela fica em getFailure() e
+// vai para o FailureListener, o arquivo fica com o que já foi escrito e as gravações seguintes são
+// ignoradas. Classe Java pura, testável na JVM.
+public final class SessionWriter implements GnssPipeline.Stage, Closeable {
+
+    // Avisado uma única vez, na thread que detectou a falha (normalmente a de E/S)
+    public interface FailureListener {
+        void onWriteFailed(IOException failure);
+    }
+
+    private static final int BUFFER_RECORDS = 2048; // 64 KB por buffer
+
+    private final FileChannel channel;
+    private final ExecutorService ioExecutor;
+    private final ByteBuffer[] buffers = new ByteBuffer[2];
+    private int active = 0;
+    private Future<?> pendingWrite;
+    private long recordsWritten;
+    private boolean closed;
+    private volatile boolean failed; // Marcado pela thread de E/S
+    private volatile IOException failure;
+    private volatile FailureListener failureListener;
+
+    public SessionWriter(FileChannel channel, long startWallClockMillis) {
+        this.channel = channel;
+        ioExecutor = Executors.newSingleThreadExecutor(r -> new Thread(r, "gnss-session-writer"));
+        for (int i = 0; i < buffers.length; i++) {
+            buffers[i] = ByteBuffer.allocateDirect(BUFFER_RECORDS * SessionFormat.RECORD_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        }
+        int start = beginRecord(SessionFormat.TYPE_HEADER, startWallClockMillis);
+        ByteBuffer buffer = buffers[active];
+        buffer.putInt(start + SessionFormat.OFFSET_INFO, SessionFormat.VERSION);
+        buffer.putInt(start + SessionFormat.OFFSET_PAYLOAD, SessionFormat.MAGIC);
+    }
+
+    public static SessionWriter create(File file, long startWallClockMillis) throws IOException {
+        RandomAccessFile output = new RandomAccessFile(file, "rw");
+        output.setLength(0);
+        return new SessionWriter(output.getChannel(), startWallClockMillis);
+    }
+
+    // Estágio do pipeline: grava cada snapshot publicado
+    @Override
+    public void process(SatelliteSnapshot snapshot) {
+        writeSnapshot(snapshot);
+    }
+
+    public synchronized void writeSnapshot(SatelliteSnapshot snapshot) {
+        if (closed || failed) {
+            return;
+        }
+        int count = snapshot.getSatelliteCount();
+        long timestamp = snapshot.getTimestampNanos();
+        int start = beginRecord(SessionFormat.TYPE_EPOCH, timestamp);
+        buffers[active].putInt(start + SessionFormat.OFFSET_INFO, count);
+        for (int i = 0; i < count; i++) {
+            start = beginRecord(SessionFormat.TYPE_SATELLITE, timestamp);
+            ByteBuffer buffer = buffers[active];
+            buffer.put(start + SessionFormat.OFFSET_CONSTELLATION, (byte) snapshot.getConstellationType(i));
+            buffer.putShort(start + SessionFormat.OFFSET_SVID, (short) snapshot.getSvid(i));
+            buffer.putInt(start + SessionFormat.OFFSET_INFO, snapshot.usedInFix(i) ? SessionFormat.FLAG_USED_IN_FIX : 0);
+            buffer.putFloat(start + SessionFormat.OFFSET_PAYLOAD, snapshot.getCn0DbHz(i));
+            buffer.putFloat(start + SessionFormat.OFFSET_PAYLOAD + 4, snapshot.getAzimuthDegrees(i));
+            buffer.putFloat(start + SessionFormat.OFFSET_PAYLOAD + 8, snapshot.getElevationDegrees(i));
+            float carrier = snapshot.getCarrierFrequencyHz(i);
+            buffer.putFloat(start + SessionFormat.OFFSET_PAYLOAD + 12, Float.isNaN(carrier) ? 0f : carrier);
+        }
+    }
+
+    public synchronized void writeLocation(long timestampNanos, double latitude, double longitude, float accuracyMeters) {
+        if (closed || failed) {
+            return;
+        }
+        int start = beginRecord(SessionFormat.TYPE_LOCATION, timestampNanos);
+        ByteBuffer buffer = buffers[active];
+        buffer.putFloat(start + SessionFormat.OFFSET_INFO, accuracyMeters);
+        buffer.putDouble(start + SessionFormat.OFFSET_PAYLOAD, latitude);
+        buffer.putDouble(start + SessionFormat.OFFSET_PAYLOAD + 8, longitude);
+    }
+
+    public synchronized void writeRotation(long timestampNanos, float azimuth, float pitch, float roll) {
+        if (closed || failed) {
+            return;
+        }
+        int start = beginRecord(SessionFormat.TYPE_ROTATION, timestampNanos);
+        ByteBuffer buffer = buffers[active];
+        buffer.putFloat(start + SessionFormat.OFFSET_PAYLOAD, azimuth);
+        buffer.putFloat(start + SessionFormat.OFFSET_PAYLOAD + 4, pitch);
+        buffer.putFloat(start + SessionFormat.OFFSET_PAYLOAD + 8, roll);
+    }
+
+    public synchronized long getRecordsWritten() {
+        return recordsWritten;
+    }
+
+    public void setFailureListener(FailureListener listener) {
+        failureListener = listener;
+    }
+
+    // true depois de uma falha de escrita; a sessão termina no último buffer gravado
+    public boolean isFailed() {
+        return failed;
+    }
+
+    // Causa da falha de escrita, ou null enquanto a gravação está em ordem
+    public IOException getFailure() {
+        return failure;
+    }
+
+    // Envia o buffer atual para o disco e espera a escrita terminar
+    public synchronized void flush() throws IOException {
+        if (!failed && buffers[active].position() > 0) {
+            swapBuffers();
+        }
+        awaitPendingWrite();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        try {
+            flush();
+            if (!failed) {
+                channel.force(false);
+            }
+        } finally {
+            closed = true;
+            ioExecutor.shutdown();
+            channel.close();
+        }
+    }
+
+    // Reserva um registro zerado no buffer ativo, preenche tipo e timestamp e devolve o offset
+    // do início do registro; os demais campos são escritos com puts absolutos
+    private int beginRecord(byte type, long timestamp) {
+        ByteBuffer buffer = buffers[active];
+        if (buffer.remaining() < SessionFormat.RECORD_SIZE) {
+            swapBuffers();
+            buffer = buffers[active];
+        }
+        int start = buffer.position();
+        buffer.putLong(0L).putLong(0L).putLong(0L).putLong(0L);
+        buffer.put(start + SessionFormat.OFFSET_TYPE, type);
+        buffer.putLong(start + SessionFormat.OFFSET_TIMESTAMP, timestamp);
+        recordsWritten++;
+        return start;
+    }
+
+    // Entrega o buffer ativo à thread de E/S e passa a usar o outro
+    private void swapBuffers() {
+        awaitPendingWrite();
+        ByteBuffer full = buffers[active];
+        if (failed) {
+            full.clear(); // O arquivo já está truncado: descarta e deixa o registro atual terminar
+            return;
+        }
+        full.flip();
+        pendingWrite = ioExecutor.submit(() -> {
+            try {
+                while (full.hasRemaining()) {
+                    channel.write(full);
+                }
+            } catch (IOException e) {
+                fail(e);
+            } catch (RuntimeException e) {
+                fail(new IOException("Falha ao gravar a sessão", e));
+            } finally {
+                full.clear();
+            }
+        });
+        active ^= 1;
+    }
+
+    private void awaitPendingWrite() {
+        if (pendingWrite == null) {
+            return;
+        }
+        try {
+            pendingWrite.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            // Erro inesperado na thread de E/S: para de gravar como numa falha de escrita
+            fail(new IOException("Falha ao gravar a sessão", e.getCause()));
+        } finally {
+            pendingWrite = null;
+        }
+    }
+
+    private void fail(IOException cause) {
+        if (failed) {
+            return;
+        }
+        failure = cause;
+        failed = true;
+        FailureListener listener = failureListener;
+        if (listener != null) {
+            listener.onWriteFailed(cause);
+        }
+    }
+}
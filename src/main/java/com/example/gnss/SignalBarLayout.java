@@ -0,0 +1,77 @@
+package com.example.gnss;
+
+// Geometria das barras de C/N0 do SignalQualityView, separada do desenho para ser medida na JVM
+// (o SignalQualityChartView ordena e virtualiza as barras com o SignalChartLayout).
+// Cada barra ocupa barWidth a partir de left, seguida de gap, e cresce para cima a partir de
+// baseline até maxHeight quando o C/N0 atinge fullScaleDbHz. O array de saída só cresce,
+// então o layout de um quadro não aloca depois que a maior quantidade de barras foi vista.
+public final class SignalBarLayout {
+
+    private float left;
+    private float barWidth;
+    private float gap;
+    private float baseline;
+    private float maxHeight;
+    private float fullScaleDbHz = 50;
+
+    private float[] rects = new float[0];  // left, top, right, bottom de cada barra
+    private int barCount;
+
+    public void configure(float left, float barWidth, float gap, float baseline, float maxHeight, float fullScaleDbHz) {
+        this.left = left;
+        this.barWidth = barWidth;
+        this.gap = gap;
+        this.baseline = baseline;
+        this.maxHeight = maxHeight;
+        this.fullScaleDbHz = fullScaleDbHz;
+    }
+
+    // Uma barra para cada um dos count primeiros valores, inclusive os sem sinal
+    public int layout(float[] cn0DbHz, int count) {
+        ensureCapacity(count);
+        for (int i = 0; i < count; i++) {
+            place(i, cn0DbHz[i]);
+        }
+        barCount = count;
+        return count;
+    }
+
+    public float barHeight(float cn0DbHz) {
+        return (cn0DbHz / fullScaleDbHz) * maxHeight;
+    }
+
+    public int getBarCount() {
+        return barCount;
+    }
+
+    public float getLeft(int bar) {
+        return rects[bar * 4];
+    }
+
+    public float getTop(int bar) {
+        return rects[bar * 4 + 1];
+    }
+
+    public float getRight(int bar) {
+        return rects[bar * 4 + 2];
+    }
+
+    public float getBottom(int bar) {
+        return rects[bar * 4 + 3];
+    }
+
+    private void place(int bar, float cn0) {
+        float x = left + bar * (barWidth + gap);
+        int o = bar * 4;
+        rects[o] = x;
+        rects[o + 1] = baseline - barHeight(cn0);
+        rects[o + 2] = x + barWidth;
+        rects[o + 3] = baseline;
+    }
+
+    private void ensureCapacity(int bars) {
+        if (rects.length < bars * 4) {
+            rects = new float[bars * 4];
+        }
+    }
+}
@@ -0,0 +1,317 @@
+package com.example.gnss;
+
+import java.util.Arrays;
+
+// Layout virtualizado do SignalQualityChartView: ordena os satélites com sinal, calcula a largura
+// das barras a partir da largura da view e, dado o deslocamento horizontal, o intervalo de barras
+// visíveis, para que o onDraw percorra só o que aparece na tela.
+// Em receptores de dupla frequência os sinais do mesmo satélite (L1, L5...) ficam lado a lado,
+// separados por bandGap, e o satélite é ordenado pelo seu sinal mais forte. Sinais sem banda
+// conhecida são tratados cada um como um satélite.
+// A ordenação usa um array pré-alocado de chaves long (índice da constelação no registro, C/N0
+// decrescente do satélite, primeira barra do satélite, banda e posição empacotados), ordenado com
+// Arrays.sort de primitivos, que não aloca nesse tamanho; a posição no fim da chave desempata e
+// mantém a ordem estável.
+// As posições ficam em coordenadas do conteúdo: x na tela = x - scroll.
+public final class SignalChartLayout {
+
+    private static final long INDEX_MASK = 0xFFFF;
+    private static final int MAX_CN0_CENTI_DB = 0xFFFF;
+
+    private float viewWidth;
+    private float padding = 50;
+    private float minBarWidth = 48;
+    private float maxBarWidth = 100;
+    private float gap = 20;
+    private float bandGap = 4;
+    private float groupGap = 40;
+    private float minFullScaleDbHz = 50;
+
+    private boolean sortByCn0 = true;
+    private boolean groupByConstellation;
+
+    private int[] order = new int[0];        // Índice no snapshot de cada barra
+    private int[] firstBars = new int[0];    // Primeira barra (antes da ordenação) do satélite de cada barra
+    private float[] bestCn0 = new float[0];  // Maior C/N0 do satélite, na posição da sua primeira barra
+    private int[] scratchOrder = new int[0];
+    private int[] scratchFirstBars = new int[0];
+    private long[] sortKeys = new long[0];
+    private float[] barLefts = new float[0];
+    private boolean[] groupStarts = new boolean[0];
+    private boolean[] satelliteStarts = new boolean[0];
+    private int[] satelliteBarCounts = new int[0];
+    // Satélite (SignalKey com banda UNKNOWN) -> primeira barra dele; a posição cabe exata no float
+    private LongFloatMap satellites = new LongFloatMap(1);
+    private boolean multipleBands;
+    private int barCount;
+    private float barWidth;
+    private float contentWidth;
+    private float fullScaleDbHz = 50;
+    private float scroll;
+
+    public void configure(float viewWidth, float padding, float minBarWidth, float maxBarWidth, float gap, float groupGap) {
+        this.viewWidth = viewWidth;
+        this.padding = padding;
+        this.minBarWidth = minBarWidth;
+        this.maxBarWidth = maxBarWidth;
+        this.gap = gap;
+        this.groupGap = groupGap;
+    }
+
+    // Espaço entre as barras de bandas diferentes do mesmo satélite
+    public void setBandGap(float bandGap) {
+        this.bandGap = bandGap;
+    }
+
+    public void setViewWidth(float viewWidth) {
+        this.viewWidth = viewWidth;
+    }
+
+    // Barras do satélite mais forte para o mais fraco; com false, na ordem do snapshot
+    public void setSortByCn0(boolean sortByCn0) {
+        this.sortByCn0 = sortByCn0;
+    }
+
+    public boolean isSortByCn0() {
+        return sortByCn0;
+    }
+
+    // Agrupa as barras por constelação, com um espaço extra entre os grupos
+    public void setGroupByConstellation(boolean groupByConstellation) {
+        this.groupByConstellation = groupByConstellation;
+    }
+
+    public boolean isGroupByConstellation() {
+        return groupByConstellation;
+    }
+
+    // Refaz ordem e posições para o snapshot; retorna o número de barras (satélites com sinal)
+    public int update(SatelliteSnapshot snapshot) {
+        int count = snapshot.getSatelliteCount();
+        ensureCapacity(count);
+
+        int bars = 0;
+        float maxCn0 = 0;
+        multipleBands = false;
+        satellites.clear();
+        for (int i = 0; i < count; i++) {
+            float cn0 = snapshot.getCn0DbHz(i);
+            if (cn0 <= 0) {
+                continue;
+            }
+            order[bars] = i;
+            firstBars[bars] = bars;
+            bestCn0[bars] = cn0;
+            int band = snapshot.getBand(i);
+            if (band != SignalKey.UNKNOWN) {
+                long satellite = SignalKey.of(snapshot.getConstellationType(i), snapshot.getSvid(i), SignalKey.UNKNOWN);
+                float first = satellites.get(satellite, -1f);
+                if (first >= 0) {
+                    int firstBar = (int) first;
+                    firstBars[bars] = firstBar;
+                    bestCn0[firstBar] = Math.max(bestCn0[firstBar], cn0);
+                    multipleBands = true;
+                } else {
+                    satellites.put(satellite, bars);
+                }
+            }
+            maxCn0 = Math.max(maxCn0, cn0);
+            bars++;
+        }
+        if (sortByCn0 || groupByConstellation || multipleBands) {
+            sort(snapshot, bars);
+        }
+
+        // Grupos e satélites primeiro, porque os espaços entre eles entram na largura das barras
+        int groups = 0;
+        int satelliteGaps = 0;
+        for (int bar = 0; bar < bars; bar++) {
+            boolean start = groupByConstellation && bar > 0
+                    && ConstellationRegistry.indexOf(snapshot.getConstellationType(order[bar]))
+                    != ConstellationRegistry.indexOf(snapshot.getConstellationType(order[bar - 1]));
+            groupStarts[bar] = start;
+            if (start) {
+                groups++;
+            }
+            boolean satelliteStart = bar == 0 || firstBars[bar] != firstBars[bar - 1];
+            satelliteStarts[bar] = satelliteStart;
+            if (satelliteStart && bar > 0) {
+                satelliteGaps++;
+            }
+        }
+        int bandGaps = Math.max(0, bars - 1) - satelliteGaps;
+
+        float available = viewWidth - 2 * padding - groups * groupGap - satelliteGaps * gap - bandGaps * bandGap;
+        barWidth = bars > 0 ? Math.max(minBarWidth, Math.min(maxBarWidth, available / bars)) : maxBarWidth;
+
+        float x = padding;
+        int satelliteStart = 0;
+        for (int bar = 0; bar < bars; bar++) {
+            if (bar > 0) {
+                x += barWidth + (satelliteStarts[bar] ? gap : bandGap);
+            }
+            if (groupStarts[bar]) {
+                x += groupGap;
+            }
+            barLefts[bar] = x;
+            if (satelliteStarts[bar]) {
+                satelliteStart = bar;
+                satelliteBarCounts[bar] = 0;
+            }
+            satelliteBarCounts[satelliteStart]++;
+        }
+        contentWidth = bars > 0 ? x + barWidth + padding : 0;
+        barCount = bars;
+
+        // Escala vertical automática em múltiplos de 5 dB-Hz, nunca abaixo de minFullScaleDbHz
+        fullScaleDbHz = Math.max(minFullScaleDbHz, (float) Math.ceil(maxCn0 / 5f) * 5f);
+
+        setScroll(scroll);
+        return bars;
+    }
+
+    public int getBarCount() {
+        return barCount;
+    }
+
+    public float getBarWidth() {
+        return barWidth;
+    }
+
+    public float getContentWidth() {
+        return contentWidth;
+    }
+
+    public float getFullScaleDbHz() {
+        return fullScaleDbHz;
+    }
+
+    public float getMaxScroll() {
+        return Math.max(0, contentWidth - viewWidth);
+    }
+
+    public float getScroll() {
+        return scroll;
+    }
+
+    // Define o deslocamento horizontal, limitado ao conteúdo; retorna o valor aplicado
+    public float setScroll(float scroll) {
+        this.scroll = Math.max(0, Math.min(scroll, getMaxScroll()));
+        return this.scroll;
+    }
+
+    public int getSatelliteIndex(int bar) {
+        return order[bar];
+    }
+
+    // Borda esquerda da barra em coordenadas do conteúdo
+    public float getBarLeft(int bar) {
+        return barLefts[bar];
+    }
+
+    public boolean isGroupStart(int bar) {
+        return groupStarts[bar];
+    }
+
+    // A barra começa um satélite (as seguintes, até getSatelliteBarCount, são outras bandas dele)
+    public boolean isSatelliteStart(int bar) {
+        return satelliteStarts[bar];
+    }
+
+    // Barras do satélite que começa em bar
+    public int getSatelliteBarCount(int bar) {
+        return satelliteBarCounts[bar];
+    }
+
+    // Largura ocupada pelas barras do satélite que começa em bar, com os espaços entre bandas
+    public float getSatelliteWidth(int bar) {
+        int bands = satelliteBarCounts[bar];
+        return bands * barWidth + (bands - 1) * bandGap;
+    }
+
+    // Algum satélite do último update tem sinais em mais de uma banda
+    public boolean hasMultipleBands() {
+        return multipleBands;
+    }
+
+    // Primeira barra que aparece, ainda que parcialmente, na janela atual
+    public int getFirstVisible() {
+        return firstBarEndingAfter(scroll);
+    }
+
+    // Uma posição depois da última barra visível
+    public int getLastVisible() {
+        float right = scroll + viewWidth;
+        int low = getFirstVisible();
+        int high = barCount;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (barLefts[mid] < right) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private int firstBarEndingAfter(float x) {
+        int low = 0;
+        int high = barCount;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (barLefts[mid] + barWidth <= x) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    // Chave: grupo (bits 56-59), C/N0 decrescente do satélite em centésimos de dB-Hz (40-55),
+    // primeira barra do satélite (24-39), banda (16-23) e posição antes da ordenação (0-15)
+    private void sort(SatelliteSnapshot snapshot, int bars) {
+        for (int bar = 0; bar < bars; bar++) {
+            int i = order[bar];
+            int firstBar = firstBars[bar];
+            long key = bar | (long) (snapshot.getBand(i) & 0xFF) << 16 | (long) firstBar << 24;
+            if (sortByCn0) {
+                int centiDb = Math.min(MAX_CN0_CENTI_DB, Math.round(bestCn0[firstBar] * 100));
+                key |= (long) (MAX_CN0_CENTI_DB - centiDb) << 40;
+            }
+            if (groupByConstellation) {
+                key |= (long) ConstellationRegistry.indexOf(snapshot.getConstellationType(i)) << 56;
+            }
+            sortKeys[bar] = key;
+        }
+        Arrays.sort(sortKeys, 0, bars);
+        for (int bar = 0; bar < bars; bar++) {
+            int previous = (int) (sortKeys[bar] & INDEX_MASK);
+            scratchOrder[bar] = order[previous];
+            scratchFirstBars[bar] = firstBars[previous];
+        }
+        int[] swap = order;
+        order = scratchOrder;
+        scratchOrder = swap;
+        swap = firstBars;
+        firstBars = scratchFirstBars;
+        scratchFirstBars = swap;
+    }
+
+    private void ensureCapacity(int bars) {
+        if (order.length < bars) {
+            order = new int[bars];
+            firstBars = new int[bars];
+            bestCn0 = new float[bars];
+            scratchOrder = new int[bars];
+            scratchFirstBars = new int[bars];
+            sortKeys = new long[bars];
+            barLefts = new float[bars];
+            groupStarts = new boolean[bars];
+            satelliteStarts = new boolean[bars];
+            satelliteBarCounts = new int[bars];
+            satellites = new LongFloatMap(bars);
+        }
+    }
+}
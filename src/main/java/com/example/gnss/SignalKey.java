@@ -0,0 +1,93 @@
+package com.example.gnss;
+
+// Identidade de um sinal GNSS: constelação, SVID e banda da portadora empacotados num long.
+// Receptores de dupla frequência reportam o mesmo satélite uma vez por banda (GPS 5 em L1 e em
+// L5), e o SVID se repete entre constelações (GPS 5 e GLONASS 5); só os três juntos identificam
+// uma linha do GnssStatus. Cada campo tem 16 bits, então chaves distintas nunca colidem:
+//   bits 32-47 tipo de constelação, bits 16-31 SVID, bits 0-15 banda.
+public final class SignalKey {
+
+    // Bandas por faixa de portadora; sinais de constelações diferentes na mesma frequência
+    // (L1/E1/B1C, L5/E5a/B2a) dividem a banda. UNKNOWN quando o receptor não informa a portadora.
+    public static final int UNKNOWN = 0;
+    public static final int L1 = 1;  // GPS L1, Galileo E1, BeiDou B1C, QZSS L1, SBAS L1, NavIC L1
+    public static final int G1 = 2;  // GLONASS L1 (FDMA)
+    public static final int B1 = 3;  // BeiDou B1I
+    public static final int L2 = 4;  // GPS/QZSS L2
+    public static final int G2 = 5;  // GLONASS L2 (FDMA)
+    public static final int E5B = 6; // Galileo E5b, BeiDou B2I/B2b
+    public static final int L5 = 7;  // GPS/QZSS/SBAS/NavIC L5, Galileo E5a, BeiDou B2a
+    public static final int E6 = 8;  // Galileo E6, BeiDou B3I, QZSS L6
+    public static final int S = 9;   // NavIC S
+    public static final int BAND_COUNT = 10;
+
+    // Faixas em MHz de cada banda, na ordem das constantes a partir de L1
+    private static final float[] BAND_MIN_MHZ = {1570f, 1592f, 1559f, 1222f, 1237f, 1202f, 1171f, 1263f, 2487f};
+    private static final float[] BAND_MAX_MHZ = {1581f, 1610f, 1564f, 1233f, 1254f, 1212f, 1182f, 1284f, 2497f};
+    private static final String[] BAND_LABELS = {"?", "L1", "G1", "B1", "L2", "G2", "E5b", "L5", "E6", "S"};
+
+    private SignalKey() {
+    }
+
+    public static long of(int constellationType, int svid, int band) {
+        return ((long) (constellationType & 0xFFFF) << 32) | ((long) (svid & 0xFFFF) << 16) | (band & 0xFFFF);
+    }
+
+    public static long of(int constellationType, int svid, float carrierFrequencyHz) {
+        return of(constellationType, svid, bandOf(carrierFrequencyHz));
+    }
+
+    // Mesma chave sem a banda: identifica o satélite, para quem mostra um ponto por satélite
+    public static long satelliteOf(long key) {
+        return key & ~0xFFFFL;
+    }
+
+    public static int constellationOf(long key) {
+        return (int) (key >>> 32) & 0xFFFF;
+    }
+
+    public static int svidOf(long key) {
+        return (int) (key >>> 16) & 0xFFFF;
+    }
+
+    public static int bandOf(long key) {
+        return (int) key & 0xFFFF;
+    }
+
+    // Banda da portadora em Hz; NaN, zero ou fora das faixas conhecidas dá UNKNOWN
+    public static int bandOf(float carrierFrequencyHz) {
+        float mhz = carrierFrequencyHz / 1e6f;
+        for (int b = 0; b < BAND_MIN_MHZ.length; b++) {
+            if (mhz >= BAND_MIN_MHZ[b] && mhz <= BAND_MAX_MHZ[b]) {
+                return b + 1;
+            }
+        }
+        return UNKNOWN; // Comparações com NaN são falsas
+    }
+
+    // Nome da banda como a constelação a chama (L5 do GPS é E5a no Galileo e B2a no BeiDou)
+    public static String labelOf(int constellationType, int band) {
+        if (band == L1 && constellationType == ConstellationRegistry.GALILEO) {
+            return "E1";
+        }
+        if (band == L1 && constellationType == ConstellationRegistry.BEIDOU) {
+            return "B1C";
+        }
+        if (band == L5 && constellationType == ConstellationRegistry.GALILEO) {
+            return "E5a";
+        }
+        if (band == L5 && constellationType == ConstellationRegistry.BEIDOU) {
+            return "B2a";
+        }
+        if (band == E5B && constellationType == ConstellationRegistry.BEIDOU) {
+            return "B2b";
+        }
+        if (band == E6 && constellationType == ConstellationRegistry.BEIDOU) {
+            return "B3";
+        }
+        if (band == E6 && constellationType == ConstellationRegistry.QZSS) {
+            return "L6";
+        }
+        return band >= 0 && band < BAND_LABELS.length ? BAND_LABELS[band] : BAND_LABELS[UNKNOWN];
+    }
+}
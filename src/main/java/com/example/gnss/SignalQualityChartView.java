@@ -5,15 +5,30 @@ import android.graphics.Canvas;
 import android.graphics.Color;
 import android.graphics.Paint;
 import android.util.AttributeSet;
+import android.view.GestureDetector;
+import android.view.MotionEvent;
 import android.view.View;
-
-import java.util.HashMap;
-import java.util.Map;
+import android.widget.OverScroller;
 
 public class SignalQualityChartView extends View {
 
     private Paint paint;
-    private Map<Integer, Float> signalData; // SVID -> SNR
+    private SnapshotSource signalSource; // Fonte dos snapshots com SVID e C/N0 de cada satélite
+    private Cn0HistoryStore history;     // Histórico de C/N0 para as sparklines, opcional
+    private Paint sparklinePaint;
+    private static final int SPARKLINE_POINTS = 50; // Pontos desenhados por sparkline
+    private final float[] sparklineSegments = new float[(SPARKLINE_POINTS - 1) * 4];
+    private Paint barPaint;
+    private Paint labelPaint;
+    private Paint separatorPaint;
+    private Paint bandPaint;
+    // Só as barras dentro da janela visível são desenhadas; o resto é alcançado rolando
+    private final SignalChartLayout chartLayout = new SignalChartLayout();
+    private final SvidLabelCache svidLabels = new SvidLabelCache("");
+    private OverScroller scroller;
+    private final FrameCoalescer frameCoalescer = new FrameCoalescer();
+    private GnssMetrics metrics; // Opcional: duração do desenho e latência dos snapshots
+    private GestureDetector gestureDetector;
 
     public SignalQualityChartView(Context context) {
         super(context);
@@ -35,47 +50,230 @@ public class SignalQualityChartView extends View {
         paint.setColor(Color.BLUE);
         paint.setStyle(Paint.Style.FILL);
         paint.setTextSize(40);
-        signalData = new HashMap<>();
+        barPaint = new Paint();
+        barPaint.setStyle(Paint.Style.FILL);
+        sparklinePaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+        sparklinePaint.setColor(Color.DKGRAY); // Contrasta com as cores das constelações
+        sparklinePaint.setStrokeWidth(3);
+        labelPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+        labelPaint.setColor(Color.BLUE);
+        labelPaint.setTextAlign(Paint.Align.CENTER);
+        separatorPaint = new Paint();
+        separatorPaint.setColor(Color.GRAY);
+        separatorPaint.setStrokeWidth(2);
+        separatorPaint.setTextSize(24);
+        bandPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+        bandPaint.setColor(Color.DKGRAY);
+        bandPaint.setTextAlign(Paint.Align.CENTER);
+
+        // Rolagem horizontal com arrasto e fling; um toque longo liga/desliga o agrupamento
+        scroller = new OverScroller(getContext());
+        gestureDetector = new GestureDetector(getContext(), new GestureDetector.SimpleOnGestureListener() {
+            @Override
+            public boolean onDown(MotionEvent e) {
+                scroller.forceFinished(true);
+                return true;
+            }
+
+            @Override
+            public boolean onScroll(MotionEvent e1, MotionEvent e2, float distanceX, float distanceY) {
+                chartLayout.setScroll(chartLayout.getScroll() + distanceX);
+                postInvalidateOnAnimation();
+                return true;
+            }
+
+            @Override
+            public boolean onFling(MotionEvent e1, MotionEvent e2, float velocityX, float velocityY) {
+                scroller.fling((int) chartLayout.getScroll(), 0, (int) -velocityX, 0, 0, (int) chartLayout.getMaxScroll(), 0, 0);
+                postInvalidateOnAnimation();
+                return true;
+            }
+
+            @Override
+            public void onLongPress(MotionEvent e) {
+                setGroupByConstellation(!chartLayout.isGroupByConstellation());
+            }
+        });
+    }
+
+    // Agrupa as barras por constelação; dentro de cada grupo continuam ordenadas por C/N0
+    public void setGroupByConstellation(boolean group) {
+        chartLayout.setGroupByConstellation(group);
+        invalidate();
+    }
+
+    // Ordena as barras do sinal mais forte para o mais fraco, ou mantém a ordem do GnssStatus
+    public void setSortByCn0(boolean sort) {
+        chartLayout.setSortByCn0(sort);
+        invalidate();
+    }
+
+    @Override
+    public boolean onTouchEvent(MotionEvent event) {
+        return gestureDetector.onTouchEvent(event) || super.onTouchEvent(event);
+    }
+
+    @Override
+    public void computeScroll() {
+        if (scroller.computeScrollOffset()) {
+            chartLayout.setScroll(scroller.getCurrX());
+            postInvalidateOnAnimation();
+        }
+    }
+
+    @Override
+    protected void onSizeChanged(int w, int h, int oldw, int oldh) {
+        super.onSizeChanged(w, h, oldw, oldh);
+        chartLayout.configure(w, 50, 48, 100, 20, 40);
+    }
+
+    // Define o histórico usado para desenhar a sparkline sobre cada barra
+    public void setHistory(Cn0HistoryStore history) {
+        this.history = history;
+        invalidate();
+    }
+
+    // Define de onde o gráfico lê os dados dos satélites
+    public void setSnapshotSource(SnapshotSource source) {
+        this.signalSource = source;
+        invalidate();
+    }
+
+    // Pode ser chamado de qualquer thread quando um snapshot novo é publicado
+    public void notifySnapshotChanged() {
+        // Redesenhar a view com os novos dados, no máximo uma vez por vsync
+        boolean scheduled = frameCoalescer.request();
+        if (scheduled) {
+            postInvalidateOnAnimation();
+        }
+        GnssMetrics target = metrics;
+        if (target != null) {
+            target.onFrameRequested(GnssMetrics.VIEW_CHART, scheduled);
+        }
     }
 
-    // Método para atualizar os dados dos satélites
-    public void updateSignalData(Map<Integer, Float> data) {
-        this.signalData = data;
-        invalidate(); // Redesenhar a view com os novos dados
+    public void setMetrics(GnssMetrics metrics) {
+        this.metrics = metrics;
     }
 
     @Override
     protected void onDraw(Canvas canvas) {
         super.onDraw(canvas);
+        frameCoalescer.onFrameDrawn();
+        long frameStart = metrics != null ? System.nanoTime() : 0;
+        long drawnSequence = drawChart(canvas);
+        if (metrics != null) {
+            metrics.onFrameDrawn(GnssMetrics.VIEW_CHART, drawnSequence, frameStart, System.nanoTime());
+        }
+    }
+
+    // Desenha título e barras; retorna a sequência do snapshot desenhado, ou -1 sem dados
+    private long drawChart(Canvas canvas) {
+        SatelliteSnapshot signalData = signalSource != null ? signalSource.acquireLatest() : null;
+        // Dados da sessão anterior (warm start) ficam esmaecidos e marcados no título
+        boolean stale = signalData != null && signalSource.isStale();
 
         // Desenhar o título
-        canvas.drawText("Gráfico de Qualidade de Sinal", 50, 100, paint);
+        canvas.drawText(stale ? "Gráfico de Qualidade de Sinal (última sessão)" : "Gráfico de Qualidade de Sinal", 50, 100, paint);
+
+        if (signalData == null || signalData.getSatelliteCount() == 0) {
+            return -1; // Nenhum dado disponível, não desenha o gráfico
+        }
 
-        if (signalData == null || signalData.isEmpty()) {
-            return; // Nenhum dado disponível, não desenha o gráfico
+        // Barras entre o título e os rótulos, com altura relativa à escala automática de C/N0
+        float startY = getHeight() - 60;
+        float maxHeight = startY - 130;
+        int bars = chartLayout.update(signalData);
+        if (bars == 0 || maxHeight <= 0) {
+            return signalData.getSequence();
         }
+        float barWidth = chartLayout.getBarWidth();
+        float fullScale = chartLayout.getFullScaleDbHz();
+        float scroll = chartLayout.getScroll();
+        labelPaint.setTextSize(Math.min(40, barWidth * 0.6f));
+        bandPaint.setTextSize(Math.min(24, barWidth * 0.5f));
+        // Com mais de uma banda, o nome da banda fica sob cada barra e o SVID sob o satélite
+        boolean bandLabels = chartLayout.hasMultipleBands();
+        float svidY = bandLabels ? startY + 55 : startY + 45;
 
-        // Desenhar o gráfico de barras para a qualidade de sinal (SNR)
-        float barWidth = 100;
-        float startX = 50;
-        float startY = 200;
-        float maxHeight = 300;
+        int last = chartLayout.getLastVisible();
+        for (int bar = chartLayout.getFirstVisible(); bar < last; bar++) {
+            int i = chartLayout.getSatelliteIndex(bar);
+            int svid = signalData.getSvid(i);
+            float startX = chartLayout.getBarLeft(bar) - scroll;
 
-        for (Map.Entry<Integer, Float> entry : signalData.entrySet()) {
-            int svid = entry.getKey();
-            float snr = entry.getValue();
+            int constellationType = signalData.getConstellationType(i);
 
-            // Normalizar a altura da barra baseado no valor do SNR (por exemplo, assumindo SNR máx de 50)
-            float barHeight = (snr / 50) * maxHeight;
+            // Separar os grupos de constelações e nomear cada um
+            if (chartLayout.isGroupStart(bar)) {
+                float separatorX = startX - 30; // Meio do espaço entre os grupos
+                canvas.drawLine(separatorX, startY - maxHeight, separatorX, startY, separatorPaint);
+            }
+            if (chartLayout.isGroupByConstellation() && (bar == 0 || chartLayout.isGroupStart(bar))) {
+                canvas.drawText(ConstellationRegistry.labelOf(constellationType), startX, startY - maxHeight - 8, separatorPaint);
+            }
 
-            // Desenhar a barra
-            canvas.drawRect(startX, startY - barHeight, startX + barWidth, startY, paint);
+            // Desenhar a barra na cor da constelação; as bandas secundárias do satélite mais claras
+            boolean satelliteStart = chartLayout.isSatelliteStart(bar);
+            float barHeight = (signalData.getCn0DbHz(i) / fullScale) * maxHeight;
+            barPaint.setColor(ConstellationRegistry.colorOf(constellationType));
+            if (stale) {
+                barPaint.setAlpha(satelliteStart ? 90 : 60);
+            } else if (!satelliteStart) {
+                barPaint.setAlpha(150);
+            }
+            canvas.drawRect(startX, startY - barHeight, startX + barWidth, startY, barPaint);
 
-            // Desenhar o SVID abaixo da barra
-            canvas.drawText("SVID " + svid, startX, startY + 50, paint);
+            // Desenhar a evolução recente do C/N0 do sinal sobre a barra, na mesma escala
+            drawSparkline(canvas, signalData.getSignalKey(i), startX, barWidth, startY, maxHeight, fullScale);
 
-            // Avançar para a próxima barra
-            startX += barWidth + 20;
+            if (bandLabels) {
+                canvas.drawText(SignalKey.labelOf(constellationType, signalData.getBand(i)),
+                        startX + barWidth / 2, startY + 24, bandPaint);
+            }
+            // Desenhar o SVID abaixo do satélite (centralizado nas suas bandas), com o rótulo em cache
+            if (satelliteStart) {
+                float center = startX + chartLayout.getSatelliteWidth(bar) / 2;
+                canvas.drawText(svidLabels.get(svid), center, svidY, labelPaint);
+            }
+        }
+        return signalData.getSequence();
+    }
+
+    // Lê as amostras direto do histórico (sem cópia), reduzindo-as a SPARKLINE_POINTS pontos
+    private void drawSparkline(Canvas canvas, long signalKey, float left, float width, float baseY, float maxHeight, float fullScale) {
+        if (history == null) {
+            return;
+        }
+        int segments = 0;
+        synchronized (history) {
+            int slot = history.findSlot(signalKey);
+            if (slot < 0) {
+                return;
+            }
+            int count = history.getSampleCount(slot);
+            int points = Math.min(count, SPARKLINE_POINTS);
+            if (points < 2) {
+                return;
+            }
+            float previousX = 0;
+            float previousY = 0;
+            for (int p = 0; p < points; p++) {
+                float cn0 = history.getSample(slot, (int) ((long) p * (count - 1) / (points - 1)));
+                float x = left + width * p / (points - 1);
+                float y = baseY - (Math.min(cn0, fullScale) / fullScale) * maxHeight;
+                if (p > 0) {
+                    int o = segments * 4;
+                    sparklineSegments[o] = previousX;
+                    sparklineSegments[o + 1] = previousY;
+                    sparklineSegments[o + 2] = x;
+                    sparklineSegments[o + 3] = y;
+                    segments++;
+                }
+                previousX = x;
+                previousY = y;
+            }
         }
+        canvas.drawLines(sparklineSegments, 0, segments * 4, sparklinePaint);
     }
 }
@@ -12,6 +12,9 @@ public class SignalQualityView extends View {
     private Paint paint;
     private float[] signalStrengths;
     private int[] satelliteIds;
+    private int[] constellationTypes; // Constelação de cada barra, para o nome da banda (E1, B1C...)
+    private int[] bands; // Banda de cada barra (SignalKey), ou null quando só há uma frequência
+    private final SignalBarLayout barLayout = new SignalBarLayout();
 
     public SignalQualityView(Context context, @Nullable AttributeSet attrs) {
         super(context, attrs);
@@ -27,28 +30,57 @@ public class SignalQualityView extends View {
             return;
         }
 
-        int barWidth = getWidth() / signalStrengths.length;
-        int maxHeight = getHeight() - 50;
+        int count = Math.min(signalStrengths.length, satelliteIds.length);
+        if (count == 0) {
+            return;
+        }
+        int barWidth = getWidth() / count;
+        barLayout.configure(0, barWidth - 10, 10, getHeight(), getHeight() - 50, 100);
+        barLayout.layout(signalStrengths, count);
 
         paint.setStyle(Paint.Style.FILL);
         paint.setTextSize(24);
-        for (int i = 0; i < signalStrengths.length; i++) {
-            // Desenhar as barras de sinal
-            float snr = signalStrengths[i];
-            float barHeight = (snr / 100) * maxHeight;
-
-            paint.setColor(Color.GREEN);
-            canvas.drawRect(i * barWidth, getHeight() - barHeight, (i + 1) * barWidth - 10, getHeight(), paint);
+        for (int i = 0; i < count; i++) {
+            // Desenhar as barras de sinal, com uma cor por banda quando informada
+            int band = bands != null && i < bands.length ? bands[i] : SignalKey.UNKNOWN;
+            paint.setColor(colorOf(band));
+            canvas.drawRect(barLayout.getLeft(i), barLayout.getTop(i), barLayout.getRight(i), barLayout.getBottom(i), paint);
 
             // Desenhar o ID do satélite abaixo da barra
             paint.setColor(Color.WHITE);
-            canvas.drawText(String.valueOf(satelliteIds[i]), i * barWidth + 10, getHeight() - 10, paint);
+            canvas.drawText(String.valueOf(satelliteIds[i]), barLayout.getLeft(i) + 10, getHeight() - 10, paint);
+            if (band != SignalKey.UNKNOWN) {
+                int constellationType = constellationTypes != null && i < constellationTypes.length
+                        ? constellationTypes[i] : ConstellationRegistry.GPS;
+                canvas.drawText(SignalKey.labelOf(constellationType, band), barLayout.getLeft(i) + 10, getHeight() - 36, paint);
+            }
         }
     }
 
     public void setSignalData(float[] signalStrengths, int[] satelliteIds) {
+        setSignalData(signalStrengths, satelliteIds, null, null);
+    }
+
+    // Um elemento por sinal: o mesmo satélite aparece uma vez por banda
+    public void setSignalData(float[] signalStrengths, int[] satelliteIds, int[] constellationTypes, int[] bands) {
         this.signalStrengths = signalStrengths;
         this.satelliteIds = satelliteIds;
+        this.constellationTypes = constellationTypes;
+        this.bands = bands;
         invalidate(); // Atualiza a view
     }
+
+    private static int colorOf(int band) {
+        switch (band) {
+            case SignalKey.L5:
+                return Color.rgb(255, 152, 0);
+            case SignalKey.L2:
+            case SignalKey.G2:
+            case SignalKey.E5B:
+            case SignalKey.E6:
+                return Color.CYAN;
+            default:
+                return Color.GREEN;
+        }
+    }
 }
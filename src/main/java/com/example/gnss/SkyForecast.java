@@ -0,0 +1,118 @@
+package com.example.gnss;
+
+import java.util.stream.IntStream;
+
+// Previsão do céu: azimute e elevação de todos os satélites de um OrbitElements em passos
+// regulares de tempo a partir de um instante, para um observador fixo. Cada passo propaga
+// todos os satélites de uma vez e os passos são distribuídos entre os núcleos (ForkJoin) em
+// blocos, cada bloco com o seu buffer ECEF e escrevendo só as suas linhas da grade.
+public final class SkyForecast {
+
+    private static final int STEPS_PER_TASK = 16;
+
+    private final int satelliteCount;
+    private final int stepCount;
+    private final double startGpsSeconds;
+    private final double stepSeconds;
+    private final int[] constellationTypes;
+    private final int[] svids;
+    // Linha por passo: valores do satélite i no passo s em [s * satelliteCount + i]
+    private final float[] azimuths;
+    private final float[] elevations;
+
+    private SkyForecast(OrbitElements elements, double startGpsSeconds, double stepSeconds, int stepCount) {
+        this.satelliteCount = elements.getCount();
+        this.stepCount = stepCount;
+        this.startGpsSeconds = startGpsSeconds;
+        this.stepSeconds = stepSeconds;
+        constellationTypes = new int[satelliteCount];
+        svids = new int[satelliteCount];
+        for (int i = 0; i < satelliteCount; i++) {
+            constellationTypes[i] = elements.getConstellationType(i);
+            svids[i] = elements.getSvid(i);
+        }
+        azimuths = new float[satelliteCount * stepCount];
+        elevations = new float[satelliteCount * stepCount];
+    }
+
+    // Calcula os passos em paralelo
+    public static SkyForecast compute(OrbitElements elements, TopocentricFrame observer,
+                                      double startGpsSeconds, double stepSeconds, int stepCount) {
+        SkyForecast forecast = create(elements, startGpsSeconds, stepSeconds, stepCount);
+        int tasks = (stepCount + STEPS_PER_TASK - 1) / STEPS_PER_TASK;
+        IntStream.range(0, tasks).parallel().forEach(task -> forecast.computeSteps(elements, observer,
+                task * STEPS_PER_TASK, Math.min(stepCount, (task + 1) * STEPS_PER_TASK)));
+        return forecast;
+    }
+
+    // Mesmo resultado, numa única thread
+    public static SkyForecast computeSequential(OrbitElements elements, TopocentricFrame observer,
+                                                double startGpsSeconds, double stepSeconds, int stepCount) {
+        SkyForecast forecast = create(elements, startGpsSeconds, stepSeconds, stepCount);
+        forecast.computeSteps(elements, observer, 0, stepCount);
+        return forecast;
+    }
+
+    private static SkyForecast create(OrbitElements elements, double startGpsSeconds, double stepSeconds, int stepCount) {
+        if (stepCount <= 0 || stepSeconds <= 0) {
+            throw new IllegalArgumentException("Janela inválida: " + stepCount + " passos de " + stepSeconds + " s");
+        }
+        return new SkyForecast(elements, startGpsSeconds, stepSeconds, stepCount);
+    }
+
+    private void computeSteps(OrbitElements elements, TopocentricFrame observer, int firstStep, int endStep) {
+        double[] ecef = new double[satelliteCount * 3];
+        for (int step = firstStep; step < endStep; step++) {
+            elements.positionsAt(getStepGpsSeconds(step), ecef);
+            observer.toAzimuthElevation(ecef, satelliteCount, azimuths, elevations, step * satelliteCount);
+        }
+    }
+
+    public int getSatelliteCount() {
+        return satelliteCount;
+    }
+
+    public int getStepCount() {
+        return stepCount;
+    }
+
+    public double getStartGpsSeconds() {
+        return startGpsSeconds;
+    }
+
+    public double getStepSeconds() {
+        return stepSeconds;
+    }
+
+    public double getStepGpsSeconds(int step) {
+        return startGpsSeconds + step * stepSeconds;
+    }
+
+    public int getConstellationType(int satellite) {
+        return constellationTypes[satellite];
+    }
+
+    public int getSvid(int satellite) {
+        return svids[satellite];
+    }
+
+    public float getAzimuthDegrees(int step, int satellite) {
+        return azimuths[step * satelliteCount + satellite];
+    }
+
+    public float getElevationDegrees(int step, int satellite) {
+        return elevations[step * satelliteCount + satellite];
+    }
+
+    // Satélites acima da máscara de elevação no passo
+    public int countVisible(int step, float elevationMaskDegrees) {
+        int visible = 0;
+        int base = step * satelliteCount;
+        for (int i = 0; i < satelliteCount; i++) {
+            if (elevations[base + i] >= elevationMaskDegrees) {
+                visible++;
+            }
+        }
+        return visible;
+    }
+}
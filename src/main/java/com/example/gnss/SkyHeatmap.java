@@ -0,0 +1,191 @@
+package com.example.gnss;
+
+import java.util.Arrays;
+
+// Mapa do céu acumulado ao longo da sessão: C/N0 por célula fixa de azimute x elevação (5° x 5°
+// por padrão). Onde o sinal fica sistematicamente fraco há obstrução (prédios, teto do carro) ou
+// um problema no padrão da antena. Cada célula guarda soma, contagem e mínimo em arrays
+// primitivos; inserir uma amostra é O(1) e não aloca, e a memória não cresce com a sessão.
+// Células alteradas desde a última leitura ficam marcadas, para que quem desenha só refaça essas.
+// Mapas com a mesma grade podem ser somados (merge), por exemplo para juntar sessões.
+// A escrita acontece na thread do pipeline e a leitura na de UI: ambas sincronizam na instância.
+public final class SkyHeatmap implements GnssPipeline.Stage {
+
+    public static final int DEFAULT_CELL_DEGREES = 5;
+
+    private final int cellDegrees;
+    private final int azimuthCells;
+    private final int elevationCells;
+
+    // Célula c = linha de elevação * azimuthCells + coluna de azimute
+    private final double[] sums;
+    private final int[] counts;
+    private final float[] mins;
+    private long totalSamples;
+
+    // Células alteradas ainda não lidas, sem repetição
+    private final boolean[] dirty;
+    private final int[] dirtyCells;
+    private int dirtyCount;
+
+    public SkyHeatmap() {
+        this(DEFAULT_CELL_DEGREES);
+    }
+
+    public SkyHeatmap(int cellDegrees) {
+        if (cellDegrees <= 0 || 90 % cellDegrees != 0) {
+            throw new IllegalArgumentException("Célula inválida: " + cellDegrees + "°");
+        }
+        this.cellDegrees = cellDegrees;
+        azimuthCells = 360 / cellDegrees;
+        elevationCells = 90 / cellDegrees;
+        int cells = azimuthCells * elevationCells;
+        sums = new double[cells];
+        counts = new int[cells];
+        mins = new float[cells];
+        dirty = new boolean[cells];
+        dirtyCells = new int[cells];
+        Arrays.fill(mins, Float.MAX_VALUE);
+    }
+
+    @Override
+    public synchronized void process(SatelliteSnapshot snapshot) {
+        for (int i = 0; i < snapshot.getSatelliteCount(); i++) {
+            add(snapshot.getAzimuthDegrees(i), snapshot.getElevationDegrees(i), snapshot.getCn0DbHz(i));
+        }
+    }
+
+    // Acumula uma amostra; sem sinal ou abaixo do horizonte é ignorada
+    public synchronized void add(float azimuth, float elevation, float cn0) {
+        int cell = cellOf(azimuth, elevation);
+        if (cell < 0 || !(cn0 > 0)) {
+            return;
+        }
+        sums[cell] += cn0;
+        counts[cell]++;
+        mins[cell] = Math.min(mins[cell], cn0);
+        totalSamples++;
+        markDirty(cell);
+    }
+
+    // Soma as amostras de outro mapa com a mesma grade
+    public synchronized void merge(SkyHeatmap other) {
+        if (other == this) {
+            throw new IllegalArgumentException("Um mapa não pode ser somado a si mesmo");
+        }
+        if (other.cellDegrees != cellDegrees) {
+            throw new IllegalArgumentException("Grades diferentes: " + other.cellDegrees + "° e " + cellDegrees + "°");
+        }
+        synchronized (other) {
+            for (int cell = 0; cell < counts.length; cell++) {
+                if (other.counts[cell] > 0) {
+                    sums[cell] += other.sums[cell];
+                    counts[cell] += other.counts[cell];
+                    mins[cell] = Math.min(mins[cell], other.mins[cell]);
+                    markDirty(cell);
+                }
+            }
+            totalSamples += other.totalSamples;
+        }
+    }
+
+    public synchronized void clear() {
+        for (int cell = 0; cell < counts.length; cell++) {
+            if (counts[cell] > 0) {
+                sums[cell] = 0;
+                counts[cell] = 0;
+                mins[cell] = Float.MAX_VALUE;
+                markDirty(cell);
+            }
+        }
+        totalSamples = 0;
+    }
+
+    // Copia para out as células alteradas desde a última chamada e as desmarca; retorna quantas.
+    // Se out for menor que o necessário, as restantes ficam para a próxima chamada
+    public synchronized int drainDirty(int[] out) {
+        int drained = Math.min(dirtyCount, out.length);
+        int remaining = dirtyCount - drained;
+        for (int k = 0; k < drained; k++) {
+            int cell = dirtyCells[remaining + k];
+            out[k] = cell;
+            dirty[cell] = false;
+        }
+        dirtyCount = remaining;
+        return drained;
+    }
+
+    public synchronized int getDirtyCount() {
+        return dirtyCount;
+    }
+
+    // Célula de uma direção, ou -1 abaixo do horizonte ou sem direção; o zênite entra na última linha
+    public int cellOf(float azimuth, float elevation) {
+        if (!(elevation >= 0 && elevation <= 90) || Float.isNaN(azimuth) || Float.isInfinite(azimuth)) {
+            return -1;
+        }
+        float normalized = azimuth % 360f;
+        if (normalized < 0) {
+            normalized += 360f;
+        }
+        int column = Math.min((int) (normalized / cellDegrees), azimuthCells - 1);
+        int row = Math.min((int) (elevation / cellDegrees), elevationCells - 1);
+        return row * azimuthCells + column;
+    }
+
+    // Limites da célula em graus: azimute inicial e elevação inferior
+    public float getCellAzimuth(int cell) {
+        return (cell % azimuthCells) * cellDegrees;
+    }
+
+    public float getCellElevation(int cell) {
+        return (cell / azimuthCells) * cellDegrees;
+    }
+
+    public int getCellDegrees() {
+        return cellDegrees;
+    }
+
+    public int getCellCount() {
+        return counts.length;
+    }
+
+    public int getAzimuthCells() {
+        return azimuthCells;
+    }
+
+    public int getElevationCells() {
+        return elevationCells;
+    }
+
+    public synchronized int getCount(int cell) {
+        return counts[cell];
+    }
+
+    // Média de C/N0 da célula, ou NaN sem amostras
+    public synchronized float getMean(int cell) {
+        return counts[cell] > 0 ? (float) (sums[cell] / counts[cell]) : Float.NaN;
+    }
+
+    // Menor C/N0 da célula, ou NaN sem amostras
+    public synchronized float getMin(int cell) {
+        return counts[cell] > 0 ? mins[cell] : Float.NaN;
+    }
+
+    public synchronized long getTotalSamples() {
+        return totalSamples;
+    }
+
+    // Bytes ocupados pelos arrays; não depende de quantas amostras já entraram
+    public long getMemoryBytes() {
+        long cells = counts.length;
+        return cells * (8L + 4L + 4L + 1L + 4L);
+    }
+
+    private void markDirty(int cell) {
+        if (!dirty[cell]) {
+            dirty[cell] = true;
+            dirtyCells[dirtyCount++] = cell;
+        }
+    }
+}
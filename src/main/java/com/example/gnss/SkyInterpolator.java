@@ -0,0 +1,159 @@
+package com.example.gnss;
+
+// Anima os satélites da Esfera Celeste entre épocas do GNSS (tipicamente 1 Hz): a cada snapshot
+// novo, cada satélite parte da posição em que está na tela e segue em linha reta até a posição
+// projetada do snapshot, ao longo do intervalo medido entre as épocas. Os quadros intermediários
+// só calculam posições, sem consultar o pipeline nem reprojetar.
+// Também acumula a região da tela afetada pela mudança (posições de partida e chegada dos
+// satélites que se movem, adicionados e removidos). Não aloca depois da construção.
+public final class SkyInterpolator {
+
+    private static final long DEFAULT_DURATION_NANOS = 1_000_000_000L;
+    private static final long MIN_DURATION_NANOS = 100_000_000L;
+    private static final long MAX_DURATION_NANOS = 2_000_000_000L;
+
+    private final float[] startPositions;
+    private final float[] targetPositions;
+    private final float[] scratch;
+    private int count;
+
+    private long animationStartNanos;
+    private long durationNanos = DEFAULT_DURATION_NANOS;
+    private long lastSnapshotTimestamp;
+    private boolean animating;
+
+    // Retângulo afetado pelo último update, em coordenadas da esfera (centro em 0,0)
+    private float dirtyLeft;
+    private float dirtyTop;
+    private float dirtyRight;
+    private float dirtyBottom;
+    private boolean dirty;
+
+    public SkyInterpolator() {
+        this(SatelliteSnapshot.DEFAULT_CAPACITY);
+    }
+
+    public SkyInterpolator(int capacity) {
+        startPositions = new float[capacity * 2];
+        targetPositions = new float[capacity * 2];
+        scratch = new float[capacity * 2];
+    }
+
+    // Novo snapshot: usa o diff para continuar o movimento de quem já estava na tela
+    public void update(SatelliteSnapshot current, SnapshotDiff diff, SkyProjection projection, long nowNanos) {
+        // Posições na tela neste instante, indexadas pelo snapshot anterior
+        positionsAt(nowNanos, scratch);
+
+        long timestamp = current.getTimestampNanos();
+        if (lastSnapshotTimestamp != 0 && timestamp > lastSnapshotTimestamp) {
+            durationNanos = Math.max(MIN_DURATION_NANOS, Math.min(MAX_DURATION_NANOS, timestamp - lastSnapshotTimestamp));
+        }
+        lastSnapshotTimestamp = timestamp;
+
+        int newCount = Math.min(current.getSatelliteCount(), targetPositions.length / 2);
+        dirty = false;
+        boolean moving = false;
+        for (int i = 0; i < newCount; i++) {
+            int o = i * 2;
+            projection.project(current.getAzimuthDegrees(i), current.getElevationDegrees(i), targetPositions, o);
+            int previous = diff.getPreviousIndex(i);
+            if (previous >= 0 && previous < count) {
+                startPositions[o] = scratch[previous * 2];
+                startPositions[o + 1] = scratch[previous * 2 + 1];
+            } else {
+                startPositions[o] = targetPositions[o];
+                startPositions[o + 1] = targetPositions[o + 1];
+            }
+            if (previous < 0 || startPositions[o] != targetPositions[o] || startPositions[o + 1] != targetPositions[o + 1]) {
+                includeDirty(startPositions[o], startPositions[o + 1]);
+                includeDirty(targetPositions[o], targetPositions[o + 1]);
+                moving |= previous >= 0;
+            }
+        }
+        for (int n = 0; n < diff.getRemovedCount(); n++) {
+            int previous = diff.getRemoved(n);
+            if (previous < count) {
+                includeDirty(scratch[previous * 2], scratch[previous * 2 + 1]);
+            }
+        }
+        // Mudanças só de C/N0 ou uso no fix também pedem redesenho do ponto
+        for (int n = 0; n < diff.getChangedCount(); n++) {
+            int i = diff.getChanged(n);
+            includeDirty(targetPositions[i * 2], targetPositions[i * 2 + 1]);
+        }
+
+        count = newCount;
+        animationStartNanos = nowNanos;
+        animating = moving;
+    }
+
+    // Reposiciona tudo sem animação, por exemplo depois de a view mudar de tamanho
+    public void snapTo(SatelliteSnapshot current, SkyProjection projection) {
+        count = projection.projectAll(current, targetPositions);
+        System.arraycopy(targetPositions, 0, startPositions, 0, count * 2);
+        animating = false;
+        dirty = false;
+    }
+
+    // Grava em out as posições (x, y) no instante dado; retorna true enquanto a animação continua
+    public boolean positionsAt(long nowNanos, float[] out) {
+        float t = animating ? Math.min(1f, (float) (nowNanos - animationStartNanos) / durationNanos) : 1f;
+        if (t < 0) {
+            t = 0;
+        }
+        if (t >= 1f) {
+            animating = false;
+            System.arraycopy(targetPositions, 0, out, 0, count * 2);
+            return false;
+        }
+        for (int o = 0; o < count * 2; o++) {
+            out[o] = startPositions[o] + (targetPositions[o] - startPositions[o]) * t;
+        }
+        return true;
+    }
+
+    public boolean isAnimating() {
+        return animating;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public long getDurationNanos() {
+        return durationNanos;
+    }
+
+    public boolean hasDirtyRegion() {
+        return dirty;
+    }
+
+    public float getDirtyLeft() {
+        return dirtyLeft;
+    }
+
+    public float getDirtyTop() {
+        return dirtyTop;
+    }
+
+    public float getDirtyRight() {
+        return dirtyRight;
+    }
+
+    public float getDirtyBottom() {
+        return dirtyBottom;
+    }
+
+    private void includeDirty(float x, float y) {
+        if (!dirty) {
+            dirtyLeft = dirtyRight = x;
+            dirtyTop = dirtyBottom = y;
+            dirty = true;
+            return;
+        }
+        dirtyLeft = Math.min(dirtyLeft, x);
+        dirtyRight = Math.max(dirtyRight, x);
+        dirtyTop = Math.min(dirtyTop, y);
+        dirtyBottom = Math.max(dirtyBottom, y);
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.gnss;
+
+// Projeção polar do céu (azimute/elevação) para coordenadas cartesianas da Esfera Celeste.
+// Usa tabelas de seno/cosseno pré-calculadas com interpolação linear no lugar de
+// Math.sin/Math.toRadians por satélite. Classe Java pura, testável na JVM.
+public final class SkyProjection {
+
+    private static final int STEPS_PER_DEGREE = 10; // Resolução da tabela: 0,1°
+    private static final int TABLE_SIZE = 360 * STEPS_PER_DEGREE;
+    private static final float[] SIN_TABLE = new float[TABLE_SIZE + 1];
+    private static final float[] COS_TABLE = new float[TABLE_SIZE + 1];
+
+    static {
+        for (int i = 0; i <= TABLE_SIZE; i++) {
+            double radians = Math.toRadians((double) i / STEPS_PER_DEGREE);
+            SIN_TABLE[i] = (float) Math.sin(radians);
+            COS_TABLE[i] = (float) Math.cos(radians);
+        }
+    }
+
+    private float radius;
+
+    public SkyProjection() {
+    }
+
+    public SkyProjection(float radius) {
+        this.radius = radius;
+    }
+
+    public void setRadius(float radius) {
+        this.radius = radius;
+    }
+
+    public float getRadius() {
+        return radius;
+    }
+
+    // Seno de um ângulo em graus, consultando a tabela
+    public static float sinDegrees(float degrees) {
+        return lookup(SIN_TABLE, degrees);
+    }
+
+    // Cosseno de um ângulo em graus, consultando a tabela
+    public static float cosDegrees(float degrees) {
+        return lookup(COS_TABLE, degrees);
+    }
+
+    private static float lookup(float[] table, float degrees) {
+        float position = degrees * STEPS_PER_DEGREE;
+        position %= TABLE_SIZE;
+        if (position < 0) {
+            position += TABLE_SIZE;
+            if (position >= TABLE_SIZE) {
+                position -= TABLE_SIZE; // Ângulo negativo minúsculo: a soma arredonda para TABLE_SIZE
+            }
+        }
+        int index = (int) position;
+        float fraction = position - index;
+        return table[index] + (table[index + 1] - table[index]) * fraction;
+    }
+
+    // Distância ao centro para uma elevação: zênite no centro, horizonte na borda
+    public float radiusForElevation(float elevation) {
+        return radius * (90f - elevation) / 90f;
+    }
+
+    // Grava em out[offset] e out[offset + 1] a posição (x, y) do satélite, com o y já invertido
+    // para o sistema de coordenadas do canvas (norte para cima, leste à direita)
+    public void project(float azimuth, float elevation, float[] out, int offset) {
+        float distance = radiusForElevation(elevation);
+        out[offset] = distance * sinDegrees(azimuth);
+        out[offset + 1] = -distance * cosDegrees(azimuth);
+    }
+
+    // Projeta todos os satélites do snapshot em out (pares x, y); retorna a quantidade projetada
+    public int projectAll(SatelliteSnapshot snapshot, float[] out) {
+        int count = Math.min(snapshot.getSatelliteCount(), out.length / 2);
+        for (int i = 0; i < count; i++) {
+            project(snapshot.getAzimuthDegrees(i), snapshot.getElevationDegrees(i), out, i * 2);
+        }
+        return count;
+    }
+}
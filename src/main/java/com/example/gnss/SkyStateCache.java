@@ -0,0 +1,203 @@
+package com.example.gnss;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.zip.CRC32;
+
+// Último estado do céu salvo ao sair do GNSSActivity, para a próxima abertura desenhar algo no
+// primeiro quadro em vez de esperar o GnssStatus: snapshot dos satélites, última localização,
+// filtro de constelações e formato das coordenadas.
+// Arquivo binário little-endian de alguns KB, com CRC32 no fim; um arquivo truncado ou corrompido
+// é rejeitado inteiro. A gravação vai para um arquivo temporário renomeado no fim, então uma
+// gravação interrompida nunca deixa o cache pela metade.
+//   0  int    magic 'GNSW'
+//   4  short  versão
+//   6  long   instante da gravação (ms desde a época Unix)
+//   14 int    filtro de constelações (bits do ConstellationRegistry)
+//   18 byte   formato das coordenadas (ordinal de CoordinateFormat)
+//   19 byte   flags (FLAG_HAS_LOCATION)
+//   20 double latitude, 28 double longitude
+//   36 long   timestamp do snapshot (ns), 44 short quantidade de satélites
+//   46 satélites de SATELLITE_SIZE bytes: byte constelação, short SVID, byte usado no fix,
+//      float C/N0, float azimute, float elevação, float portadora em Hz (0 = desconhecida)
+//   fim: int CRC32 de todos os bytes anteriores
+public final class SkyStateCache {
+
+    public static final String FILE_NAME = "sky-state.bin";
+    static final int MAGIC = 0x57534E47; // "GNSW" em little-endian
+    static final short VERSION = 1;
+    static final int HEADER_SIZE = 46;
+    static final int SATELLITE_SIZE = 20;
+    private static final int FLAG_HAS_LOCATION = 1;
+
+    public final SatelliteSnapshot snapshot;
+    public long savedAtMillis;
+    public int constellationFilter = ConstellationRegistry.ALL;
+    public CoordinateFormat coordinateFormat = CoordinateFormat.DEGREES;
+    public boolean hasLocation;
+    public double latitude;
+    public double longitude;
+
+    public SkyStateCache() {
+        this(SatelliteSnapshot.DEFAULT_CAPACITY);
+    }
+
+    public SkyStateCache(int capacity) {
+        snapshot = new SatelliteSnapshot(capacity);
+    }
+
+    public void setLocation(double latitude, double longitude) {
+        this.latitude = latitude;
+        this.longitude = longitude;
+        hasLocation = true;
+    }
+
+    public int encodedSize() {
+        return HEADER_SIZE + snapshot.getSatelliteCount() * SATELLITE_SIZE + 4;
+    }
+
+    // Grava o estado no buffer, a partir da posição atual; retorna o buffer
+    public ByteBuffer encode(ByteBuffer out) {
+        out.order(ByteOrder.LITTLE_ENDIAN);
+        int start = out.position();
+        int count = snapshot.getSatelliteCount();
+        out.putInt(MAGIC);
+        out.putShort(VERSION);
+        out.putLong(savedAtMillis);
+        out.putInt(constellationFilter);
+        out.put((byte) coordinateFormat.ordinal());
+        out.put((byte) (hasLocation ? FLAG_HAS_LOCATION : 0));
+        out.putDouble(latitude);
+        out.putDouble(longitude);
+        out.putLong(snapshot.getTimestampNanos());
+        out.putShort((short) count);
+        for (int i = 0; i < count; i++) {
+            out.put((byte) snapshot.getConstellationType(i));
+            out.putShort((short) snapshot.getSvid(i));
+            out.put((byte) (snapshot.usedInFix(i) ? 1 : 0));
+            out.putFloat(snapshot.getCn0DbHz(i));
+            out.putFloat(snapshot.getAzimuthDegrees(i));
+            out.putFloat(snapshot.getElevationDegrees(i));
+            float carrier = snapshot.getCarrierFrequencyHz(i);
+            out.putFloat(Float.isNaN(carrier) ? 0f : carrier);
+        }
+        out.putInt(crcOf(out, start, out.position()));
+        return out;
+    }
+
+    // Lê o estado do buffer, da posição atual; o snapshot restaurado tem sequência 0, antes de
+    // qualquer uma publicada pelo pipeline
+    public void decode(ByteBuffer in) throws IOException {
+        in.order(ByteOrder.LITTLE_ENDIAN);
+        int start = in.position();
+        try {
+            if (in.getInt() != MAGIC) {
+                throw new IOException("Cache do céu com assinatura desconhecida");
+            }
+            short version = in.getShort();
+            if (version != VERSION) {
+                throw new IOException("Versão do cache do céu não suportada: " + version);
+            }
+            long saved = in.getLong();
+            int filter = in.getInt();
+            int format = in.get();
+            int flags = in.get();
+            double lat = in.getDouble();
+            double lon = in.getDouble();
+            long timestamp = in.getLong();
+            int count = in.getShort() & 0xFFFF;
+            int end = in.position() + count * SATELLITE_SIZE;
+            if (end + 4 > in.limit()) {
+                throw new IOException("Cache do céu truncado");
+            }
+            if (in.getInt(end) != crcOf(in, start, end)) {
+                throw new IOException("Cache do céu corrompido (CRC)");
+            }
+            if (format < 0 || format >= CoordinateFormat.values().length) {
+                throw new IOException("Formato de coordenadas inválido no cache: " + format);
+            }
+
+            snapshot.clear();
+            for (int i = 0; i < count; i++) {
+                int constellation = in.get();
+                int svid = in.getShort() & 0xFFFF;
+                boolean used = in.get() != 0;
+                float cn0 = in.getFloat();
+                float azimuth = in.getFloat();
+                float elevation = in.getFloat();
+                float carrier = in.getFloat();
+                snapshot.add(svid, constellation, cn0, azimuth, elevation, used, carrier > 0 ? carrier : Float.NaN);
+            }
+            in.position(end + 4);
+            snapshot.setTimestampNanos(timestamp);
+            snapshot.setSequence(0);
+            snapshot.computeStatistics();
+            savedAtMillis = saved;
+            constellationFilter = filter;
+            coordinateFormat = CoordinateFormat.values()[format];
+            hasLocation = (flags & FLAG_HAS_LOCATION) != 0;
+            latitude = lat;
+            longitude = lon;
+        } catch (BufferUnderflowException e) {
+            throw new IOException("Cache do céu truncado", e);
+        }
+    }
+
+    // Grava no arquivo, passando por um temporário ao lado dele
+    public void writeTo(File file) throws IOException {
+        ByteBuffer buffer = encode(ByteBuffer.allocate(encodedSize()));
+        File temporary = new File(file.getPath() + ".tmp");
+        try (FileOutputStream output = new FileOutputStream(temporary)) {
+            output.write(buffer.array(), 0, buffer.position());
+            output.getFD().sync();
+        }
+        if (!temporary.renameTo(file)) {
+            temporary.delete();
+            throw new IOException("Não foi possível substituir " + file);
+        }
+    }
+
+    // Estado salvo no arquivo, ou null se ainda não existe
+    public static SkyStateCache readFrom(File file) throws IOException {
+        if (!file.isFile()) {
+            return null;
+        }
+        long length = file.length();
+        if (length > HEADER_SIZE + 4 + 0xFFFFL * SATELLITE_SIZE) {
+            throw new IOException("Cache do céu grande demais: " + length + " bytes");
+        }
+        byte[] bytes = new byte[(int) length];
+        try (FileInputStream input = new FileInputStream(file)) {
+            int read = 0;
+            while (read < bytes.length) {
+                int n = input.read(bytes, read, bytes.length - read);
+                if (n < 0) {
+                    break;
+                }
+                read += n;
+            }
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        int count = bytes.length >= HEADER_SIZE ? buffer.order(ByteOrder.LITTLE_ENDIAN).getShort(HEADER_SIZE - 2) & 0xFFFF : 0;
+        SkyStateCache cache = new SkyStateCache(Math.max(count, SatelliteSnapshot.DEFAULT_CAPACITY));
+        cache.decode(buffer);
+        return cache;
+    }
+
+    private static int crcOf(ByteBuffer buffer, int from, int to) {
+        CRC32 crc = new CRC32();
+        if (buffer.hasArray()) {
+            crc.update(buffer.array(), buffer.arrayOffset() + from, to - from);
+        } else {
+            for (int i = from; i < to; i++) {
+                crc.update(buffer.get(i));
+            }
+        }
+        return (int) crc.getValue();
+    }
+}
@@ -0,0 +1,186 @@
+package com.example.gnss;
+
+import java.util.Arrays;
+
+// Compara snapshots consecutivos por sinal (constelação, SVID e banda, SignalKey) e separa os sinais em
+// adicionados, removidos e alterados (posição, C/N0 ou uso no fix), além de ligar cada satélite
+// atual ao seu índice no snapshot anterior.
+// Guarda sua própria cópia do estado anterior, pois o snapshot publicado é reaproveitado pelo
+// pipeline. Todos os arrays são alocados na construção: update não aloca.
+public final class SnapshotDiff {
+
+    private static final int EMPTY = -1;
+    private static final long EMPTY_KEY = -1L; // Chaves do SignalKey nunca são negativas
+
+    private final int capacity;
+
+    // Estado do snapshot anterior
+    private final float[] previousAzimuths;
+    private final float[] previousElevations;
+    private final float[] previousCn0;
+    private final boolean[] previousUsed;
+    private final boolean[] previousMatched;
+    private int previousCount;
+
+    // Tabela de endereçamento aberto: chave -> índice no estado anterior
+    private final long[] tableKeys;
+    private final int[] tableIndices;
+    private final int tableMask;
+
+    // Resultado do último update
+    private final int[] previousIndexOf; // Por índice atual, o índice anterior ou -1
+    private final int[] added;
+    private final int[] changed;
+    private final int[] removed;         // Índices no estado anterior
+    private final float[] removedAzimuths;
+    private final float[] removedElevations;
+    private int addedCount;
+    private int changedCount;
+    private int removedCount;
+
+    public SnapshotDiff() {
+        this(SatelliteSnapshot.DEFAULT_CAPACITY);
+    }
+
+    public SnapshotDiff(int capacity) {
+        this.capacity = capacity;
+        previousAzimuths = new float[capacity];
+        previousElevations = new float[capacity];
+        previousCn0 = new float[capacity];
+        previousUsed = new boolean[capacity];
+        previousMatched = new boolean[capacity];
+        int tableSize = Integer.highestOneBit(capacity * 2 - 1) << 1;
+        tableKeys = new long[tableSize];
+        tableIndices = new int[tableSize];
+        tableMask = tableSize - 1;
+        Arrays.fill(tableKeys, EMPTY_KEY);
+        previousIndexOf = new int[capacity];
+        added = new int[capacity];
+        changed = new int[capacity];
+        removed = new int[capacity];
+        removedAzimuths = new float[capacity];
+        removedElevations = new float[capacity];
+    }
+
+    // Compara o snapshot com o anterior e passa a usá-lo como referência para o próximo
+    public void update(SatelliteSnapshot current) {
+        int count = Math.min(current.getSatelliteCount(), capacity);
+        addedCount = 0;
+        changedCount = 0;
+        removedCount = 0;
+        Arrays.fill(previousMatched, 0, previousCount, false);
+
+        for (int i = 0; i < count; i++) {
+            int previous = lookup(current.getSignalKey(i));
+            if (previous != EMPTY && previousMatched[previous]) {
+                previous = EMPTY; // Sinal repetido no mesmo snapshot: trata como novo
+            }
+            previousIndexOf[i] = previous;
+            if (previous == EMPTY) {
+                added[addedCount++] = i;
+                continue;
+            }
+            previousMatched[previous] = true;
+            if (current.getAzimuthDegrees(i) != previousAzimuths[previous]
+                    || current.getElevationDegrees(i) != previousElevations[previous]
+                    || current.getCn0DbHz(i) != previousCn0[previous]
+                    || current.usedInFix(i) != previousUsed[previous]) {
+                changed[changedCount++] = i;
+            }
+        }
+        for (int p = 0; p < previousCount; p++) {
+            if (!previousMatched[p]) {
+                removedAzimuths[removedCount] = previousAzimuths[p];
+                removedElevations[removedCount] = previousElevations[p];
+                removed[removedCount++] = p;
+            }
+        }
+
+        // O snapshot atual vira a referência
+        Arrays.fill(tableKeys, EMPTY_KEY);
+        for (int i = 0; i < count; i++) {
+            long key = current.getSignalKey(i);
+            previousAzimuths[i] = current.getAzimuthDegrees(i);
+            previousElevations[i] = current.getElevationDegrees(i);
+            previousCn0[i] = current.getCn0DbHz(i);
+            previousUsed[i] = current.usedInFix(i);
+            insert(key, i);
+        }
+        previousCount = count;
+    }
+
+    // Esquece o estado anterior: o próximo update trata todos os satélites como adicionados
+    public void reset() {
+        previousCount = 0;
+        addedCount = 0;
+        changedCount = 0;
+        removedCount = 0;
+        Arrays.fill(tableKeys, EMPTY_KEY);
+    }
+
+    public boolean isEmpty() {
+        return addedCount == 0 && changedCount == 0 && removedCount == 0;
+    }
+
+    // Índice do satélite atual no snapshot anterior, ou -1 se ele acabou de aparecer
+    public int getPreviousIndex(int currentIndex) {
+        return previousIndexOf[currentIndex];
+    }
+
+    public int getAddedCount() {
+        return addedCount;
+    }
+
+    // Índice, no snapshot atual, do n-ésimo satélite adicionado
+    public int getAdded(int n) {
+        return added[n];
+    }
+
+    public int getChangedCount() {
+        return changedCount;
+    }
+
+    public int getChanged(int n) {
+        return changed[n];
+    }
+
+    public int getRemovedCount() {
+        return removedCount;
+    }
+
+    // Índice, no snapshot anterior, do n-ésimo satélite removido
+    public int getRemoved(int n) {
+        return removed[n];
+    }
+
+    public float getRemovedAzimuth(int n) {
+        return removedAzimuths[n];
+    }
+
+    public float getRemovedElevation(int n) {
+        return removedElevations[n];
+    }
+
+    private int lookup(long key) {
+        int i = LongFloatMap.hash(key) & tableMask;
+        while (tableKeys[i] != EMPTY_KEY) {
+            if (tableKeys[i] == key) {
+                return tableIndices[i];
+            }
+            i = (i + 1) & tableMask;
+        }
+        return EMPTY;
+    }
+
+    private void insert(long key, int index) {
+        int i = LongFloatMap.hash(key) & tableMask;
+        while (tableKeys[i] != EMPTY_KEY) {
+            if (tableKeys[i] == key) {
+                return; // Mantém a primeira ocorrência de um sinal repetido
+            }
+            i = (i + 1) & tableMask;
+        }
+        tableKeys[i] = key;
+        tableIndices[i] = index;
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.gnss;
+
+// Fonte do snapshot mais recente para as views, consultada na thread de UI a cada quadro.
+// O snapshot devolvido não deve ser guardado entre quadros.
+public interface SnapshotSource {
+
+    SatelliteSnapshot acquireLatest();
+
+    // O último snapshot devolvido é de uma sessão anterior e deve ser desenhado como desatualizado
+    default boolean isStale() {
+        return false;
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.gnss;
+
+// Rótulos de SVID criados uma única vez e reaproveitados a cada quadro, em vez de montar
+// uma String nova por barra ou ponto desenhado.
+public final class SvidLabelCache {
+
+    private static final int MAX_CACHED_SVID = 255; // Cobre os SVIDs de todas as constelações
+
+    private final String prefix;
+    private final String[] labels = new String[MAX_CACHED_SVID + 1];
+
+    public SvidLabelCache(String prefix) {
+        this.prefix = prefix;
+    }
+
+    public String get(int svid) {
+        if (svid < 0 || svid > MAX_CACHED_SVID) {
+            return prefix + svid; // Fora da faixa esperada, não vale guardar
+        }
+        String label = labels[svid];
+        if (label == null) {
+            label = prefix + svid;
+            labels[svid] = label;
+        }
+        return label;
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.gnss;
+
+// Referencial local (leste, norte, cima) de um observador sobre o elipsoide WGS-84. Converte
+// posições ECEF de satélites em azimute (graus a partir do norte, sentido horário) e elevação.
+// A rotação da Terra durante o trajeto do sinal (~0,07 s) é ignorada: o erro fica abaixo de
+// 0,01°, irrelevante para planejar janelas de observação.
+public final class TopocentricFrame {
+
+    private static final double WGS84_A = 6_378_137.0;
+    private static final double WGS84_E2 = 6.69437999014e-3;
+
+    private final double x, y, z;
+    private final double sinLat, cosLat, sinLon, cosLon;
+
+    public TopocentricFrame(double latitudeDegrees, double longitudeDegrees, double altitudeMeters) {
+        double lat = Math.toRadians(latitudeDegrees);
+        double lon = Math.toRadians(longitudeDegrees);
+        sinLat = Math.sin(lat);
+        cosLat = Math.cos(lat);
+        sinLon = Math.sin(lon);
+        cosLon = Math.cos(lon);
+        double normal = WGS84_A / Math.sqrt(1 - WGS84_E2 * sinLat * sinLat);
+        x = (normal + altitudeMeters) * cosLat * cosLon;
+        y = (normal + altitudeMeters) * cosLat * sinLon;
+        z = (normal * (1 - WGS84_E2) + altitudeMeters) * sinLat;
+    }
+
+    // Converte count posições ECEF (x, y, z consecutivos) em azimute e elevação, em graus,
+    // escritos a partir de offset nos arrays de saída
+    public void toAzimuthElevation(double[] ecef, int count, float[] azimuths, float[] elevations, int offset) {
+        for (int i = 0; i < count; i++) {
+            double dx = ecef[3 * i] - x;
+            double dy = ecef[3 * i + 1] - y;
+            double dz = ecef[3 * i + 2] - z;
+            double east = -sinLon * dx + cosLon * dy;
+            double north = -sinLat * cosLon * dx - sinLat * sinLon * dy + cosLat * dz;
+            double up = cosLat * cosLon * dx + cosLat * sinLon * dy + sinLat * dz;
+
+            double azimuth = Math.toDegrees(Math.atan2(east, north));
+            azimuths[offset + i] = (float) (azimuth < 0 ? azimuth + 360 : azimuth);
+            elevations[offset + i] = (float) Math.toDegrees(Math.atan2(up, Math.sqrt(east * east + north * north)));
+        }
+    }
+}
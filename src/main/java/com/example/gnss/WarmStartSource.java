@@ -0,0 +1,38 @@
+package com.example.gnss;
+
+// Fonte das views na abertura da atividade: até o pipeline publicar o primeiro snapshot ao vivo,
+// devolve o snapshot restaurado do SkyStateCache, marcado como desatualizado. O cache pode chegar
+// de outra thread (leitura em segundo plano); a consulta continua sendo só da thread de UI.
+public final class WarmStartSource implements SnapshotSource {
+
+    private final SnapshotSource live;
+    private volatile SatelliteSnapshot cached;
+    private boolean stale;
+
+    public WarmStartSource(SnapshotSource live) {
+        this.live = live;
+    }
+
+    // Snapshot da sessão anterior, ignorado se o pipeline já publicou algum
+    public void setCached(SatelliteSnapshot snapshot) {
+        cached = snapshot;
+    }
+
+    @Override
+    public SatelliteSnapshot acquireLatest() {
+        SatelliteSnapshot snapshot = live.acquireLatest();
+        if (snapshot != null) {
+            cached = null; // Dali em diante só dados ao vivo
+            stale = false;
+            return snapshot;
+        }
+        snapshot = cached;
+        stale = snapshot != null;
+        return snapshot;
+    }
+
+    @Override
+    public boolean isStale() {
+        return stale;
+    }
+}
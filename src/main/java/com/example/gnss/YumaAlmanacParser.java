@@ -0,0 +1,86 @@
+package com.example.gnss;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Locale;
+
+// Leitor de almanaque GPS no formato YUMA (o publicado pela Guarda Costeira americana), um bloco
+// por satélite com linhas "Campo: valor". A semana do YUMA vem truncada em 1024 e é resolvida
+// para a mais próxima da semana de referência (normalmente a atual). Satélites com saúde
+// diferente de zero são ignorados, como faria o receptor.
+public final class YumaAlmanacParser {
+
+    private static final int WEEK_MODULUS = 1024;
+    private static final int MAX_SATELLITES = 64;
+
+    private YumaAlmanacParser() {
+    }
+
+    public static OrbitElements parse(Reader input, int referenceWeek) throws IOException {
+        OrbitElements elements = new OrbitElements(MAX_SATELLITES);
+        BufferedReader reader = new BufferedReader(input);
+        Block block = new Block();
+        String line;
+        int lineNumber = 0;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            int colon = line.indexOf(':');
+            if (colon < 0) {
+                continue; // Cabeçalho "******** Week ... ********" ou linha em branco
+            }
+            String field = line.substring(0, colon).trim().toLowerCase(Locale.ROOT); // "ID" não pode virar "ıd" em turco
+            String value = line.substring(colon + 1).trim();
+            try {
+                if (field.equals("id")) {
+                    block = new Block();
+                    block.svid = Integer.parseInt(value);
+                } else if (field.equals("health")) {
+                    block.health = Integer.parseInt(value);
+                } else if (field.equals("eccentricity")) {
+                    block.eccentricity = Double.parseDouble(value);
+                } else if (field.startsWith("time of applicability")) {
+                    block.toa = Double.parseDouble(value);
+                } else if (field.startsWith("orbital inclination")) {
+                    block.inclination = Double.parseDouble(value);
+                } else if (field.startsWith("rate of right ascen")) {
+                    block.ascendingNodeRate = Double.parseDouble(value);
+                } else if (field.startsWith("sqrt(a)")) {
+                    block.sqrtA = Double.parseDouble(value);
+                } else if (field.startsWith("right ascen at week")) {
+                    block.ascendingNode = Double.parseDouble(value);
+                } else if (field.startsWith("argument of perigee")) {
+                    block.argumentOfPerigee = Double.parseDouble(value);
+                } else if (field.startsWith("mean anom")) {
+                    block.meanAnomaly = Double.parseDouble(value);
+                } else if (field.equals("week")) {
+                    // Última linha do bloco
+                    int week = GpsTime.resolveWeek(Integer.parseInt(value), WEEK_MODULUS, referenceWeek);
+                    if (block.svid > 0 && block.health == 0 && block.sqrtA > 0) {
+                        elements.add(ConstellationRegistry.GPS, block.svid, week, block.toa, block.sqrtA,
+                                block.eccentricity, block.inclination, block.ascendingNode, block.ascendingNodeRate,
+                                block.argumentOfPerigee, block.meanAnomaly);
+                    }
+                    block = new Block();
+                }
+            } catch (NumberFormatException e) {
+                throw new IOException("Almanaque inválido na linha " + lineNumber + ": " + line, e);
+            }
+        }
+        return elements;
+    }
+
+    // Campos de um bloco ainda incompleto
+    private static final class Block {
+        int svid;
+        int health;
+        double eccentricity;
+        double toa;
+        double inclination;
+        double ascendingNodeRate;
+        double sqrtA;
+        double ascendingNode;
+        double argumentOfPerigee;
+        double meanAnomaly;
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.gnss;
+
+import java.lang.management.ManagementFactory;
+
+// Mede os bytes alocados pela thread atual (HotSpot), usado nos testes de "zero alocação"
+final class Allocations {
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private Allocations() {
+    }
+
+    static long currentThreadAllocatedBytes() {
+        return THREADS.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+}
@@ -0,0 +1,126 @@
+package com.example.gnss;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class Cn0HistoryStoreTest {
+
+    @Test
+    public void sameSvidInDifferentConstellations_getSeparateSlots() {
+        Cn0HistoryStore store = new Cn0HistoryStore(4, 8);
+        store.append(1, 5, 40f); // GPS 5
+        store.append(3, 5, 20f); // GLONASS 5
+
+        int gps = store.findSlot(1, 5);
+        int glonass = store.findSlot(3, 5);
+        assertNotEquals(gps, glonass);
+        assertEquals(40f, store.getMean(gps), 0f);
+        assertEquals(20f, store.getMean(glonass), 0f);
+        assertEquals(-1, store.findSlot(6, 5));
+    }
+
+    @Test
+    public void sameSvidOnL1AndL5_getSeparateHistories() {
+        Cn0HistoryStore store = new Cn0HistoryStore(4, 8);
+        SatelliteSnapshot snapshot = new SatelliteSnapshot(4);
+        snapshot.add(5, 1, 42f, 0f, 30f, true, 1575.42e6f);
+        snapshot.add(5, 1, 36f, 0f, 30f, true, 1176.45e6f);
+        store.process(snapshot);
+
+        int l1 = store.findSlot(snapshot.getSignalKey(0));
+        int l5 = store.findSlot(snapshot.getSignalKey(1));
+        assertNotEquals(l1, l5);
+        assertEquals(42f, store.getMean(l1), 0f);
+        assertEquals(36f, store.getMean(l5), 0f);
+        assertEquals(-1, store.findSlot(1, 5)); // Sem portadora é outro sinal
+    }
+
+    @Test
+    public void rollingStatistics_matchBruteForceOverWindow() {
+        int window = 37;
+        Cn0HistoryStore store = new Cn0HistoryStore(2, window);
+        Random random = new Random(3);
+        float[] all = new float[1000];
+        for (int n = 0; n < all.length; n++) {
+            all[n] = 15f + random.nextInt(300) / 10f;
+            store.append(1, 9, all[n]);
+
+            int slot = store.findSlot(1, 9);
+            int from = Math.max(0, n + 1 - window);
+            float min = Float.MAX_VALUE;
+            float max = -Float.MAX_VALUE;
+            double sum = 0;
+            for (int k = from; k <= n; k++) {
+                min = Math.min(min, all[k]);
+                max = Math.max(max, all[k]);
+                sum += all[k];
+            }
+            int count = n + 1 - from;
+            double mean = sum / count;
+            double variance = 0;
+            for (int k = from; k <= n; k++) {
+                variance += (all[k] - mean) * (all[k] - mean);
+            }
+
+            assertEquals(count, store.getSampleCount(slot));
+            assertEquals(all[from], store.getSample(slot, 0), 0f);
+            assertEquals(all[n], store.getSample(slot, count - 1), 0f);
+            assertEquals(min, store.getMin(slot), 0f);
+            assertEquals(max, store.getMax(slot), 0f);
+            assertEquals(mean, store.getMean(slot), 1e-3);
+            assertEquals(Math.sqrt(variance / count), store.getStdDev(slot), 1e-3);
+        }
+    }
+
+    @Test
+    public void fullStore_evictsLeastRecentlyUpdatedSatellite() {
+        Cn0HistoryStore store = new Cn0HistoryStore(3, 4);
+        store.append(1, 1, 30f);
+        store.append(1, 2, 30f);
+        store.append(1, 3, 30f);
+        store.append(1, 1, 31f); // O SVID 2 passa a ser o mais antigo
+
+        store.append(1, 4, 35f);
+
+        assertEquals(-1, store.findSlot(1, 2));
+        assertTrue(store.findSlot(1, 1) >= 0);
+        assertTrue(store.findSlot(1, 3) >= 0);
+        int slot = store.findSlot(1, 4);
+        assertEquals(1, store.getSampleCount(slot));
+        assertEquals(35f, store.getMin(slot), 0f);
+        assertEquals(3, store.getSatelliteCount());
+    }
+
+    @Test
+    public void oneHourAt10Hz_with160Svids_staysWithinFixedMemory() {
+        int satellites = 160;
+        Cn0HistoryStore store = Cn0HistoryStore.forDuration(satellites, 2 * 60, 10);
+        long budget = store.getMemoryBytes();
+
+        // Um pouco de aquecimento antes de medir alocações
+        feed(store, satellites + 40, 0, 2_000);
+
+        long before = Allocations.currentThreadAllocatedBytes();
+        feed(store, satellites + 40, 2_000, 36_000); // 1 h a 10 Hz, com rotatividade de satélites
+        long allocated = Allocations.currentThreadAllocatedBytes() - before;
+
+        assertEquals(budget, store.getMemoryBytes());
+        assertEquals("Bytes alocados durante 1 h de dados", 0, allocated);
+        assertEquals(satellites, store.getSatelliteCount());
+        assertTrue("Orçamento: " + budget, budget < 8L * 1024 * 1024);
+    }
+
+    // Simula épocas em que um subconjunto rotativo de SVIDs de várias constelações é reportado
+    private static void feed(Cn0HistoryStore store, int distinctSvids, int fromEpoch, int toEpoch) {
+        for (int epoch = fromEpoch; epoch < toEpoch; epoch++) {
+            int firstVisible = (epoch / 600) % distinctSvids;
+            for (int k = 0; k < 150; k++) {
+                int id = (firstVisible + k) % distinctSvids;
+                store.append(1 + id % 7, 1 + id / 7, 20f + ((epoch + id) % 25));
+            }
+        }
+    }
+}
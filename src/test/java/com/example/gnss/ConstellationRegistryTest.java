@@ -0,0 +1,83 @@
+package com.example.gnss;
+
+import android.location.GnssStatus;
+
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+public class ConstellationRegistryTest {
+
+    private static final int[] GNSS_STATUS_TYPES = {
+            GnssStatus.CONSTELLATION_UNKNOWN,
+            GnssStatus.CONSTELLATION_GPS,
+            GnssStatus.CONSTELLATION_SBAS,
+            GnssStatus.CONSTELLATION_GLONASS,
+            GnssStatus.CONSTELLATION_QZSS,
+            GnssStatus.CONSTELLATION_BEIDOU,
+            GnssStatus.CONSTELLATION_GALILEO,
+            GnssStatus.CONSTELLATION_IRNSS
+    };
+
+    @Test
+    public void typeConstants_matchGnssStatus() {
+        assertEquals(GnssStatus.CONSTELLATION_UNKNOWN, ConstellationRegistry.UNKNOWN);
+        assertEquals(GnssStatus.CONSTELLATION_GPS, ConstellationRegistry.GPS);
+        assertEquals(GnssStatus.CONSTELLATION_SBAS, ConstellationRegistry.SBAS);
+        assertEquals(GnssStatus.CONSTELLATION_GLONASS, ConstellationRegistry.GLONASS);
+        assertEquals(GnssStatus.CONSTELLATION_QZSS, ConstellationRegistry.QZSS);
+        assertEquals(GnssStatus.CONSTELLATION_BEIDOU, ConstellationRegistry.BEIDOU);
+        assertEquals(GnssStatus.CONSTELLATION_GALILEO, ConstellationRegistry.GALILEO);
+        assertEquals(GnssStatus.CONSTELLATION_IRNSS, ConstellationRegistry.IRNSS);
+    }
+
+    @Test
+    public void everyGnssStatusType_hasItsOwnEntry() {
+        Set<Integer> indices = new HashSet<>();
+        Set<Integer> bits = new HashSet<>();
+        for (int type : GNSS_STATUS_TYPES) {
+            int index = ConstellationRegistry.indexOf(type);
+            assertEquals(type, ConstellationRegistry.typeAt(index));
+            assertTrue(indices.add(index));
+            assertTrue(bits.add(ConstellationRegistry.bitOf(type)));
+            assertEquals(ConstellationRegistry.colorAt(index), ConstellationRegistry.colorOf(type));
+            assertEquals(ConstellationRegistry.labelAt(index), ConstellationRegistry.labelOf(type));
+        }
+        assertEquals(ConstellationRegistry.COUNT, indices.size());
+    }
+
+    @Test
+    public void originalColors_arePreserved() {
+        assertEquals(0xFF00FF00, ConstellationRegistry.colorOf(GnssStatus.CONSTELLATION_GPS));
+        assertEquals(0xFFFF0000, ConstellationRegistry.colorOf(GnssStatus.CONSTELLATION_GLONASS));
+        assertEquals(0xFF0000FF, ConstellationRegistry.colorOf(GnssStatus.CONSTELLATION_GALILEO));
+        assertEquals(0xFFFFFF00, ConstellationRegistry.colorOf(GnssStatus.CONSTELLATION_BEIDOU));
+        assertEquals(0xFF888888, ConstellationRegistry.colorOf(GnssStatus.CONSTELLATION_UNKNOWN));
+    }
+
+    @Test
+    public void unexpectedTypes_fallBackToUnknown() {
+        int unknown = ConstellationRegistry.indexOf(GnssStatus.CONSTELLATION_UNKNOWN);
+        assertEquals(unknown, ConstellationRegistry.indexOf(-1));
+        assertEquals(unknown, ConstellationRegistry.indexOf(8));
+        assertEquals(unknown, ConstellationRegistry.indexOf(Integer.MAX_VALUE));
+        assertEquals("Desconhecida", ConstellationRegistry.labelOf(42));
+    }
+
+    @Test
+    public void filterMask_controlsVisibility() {
+        int mask = ConstellationRegistry.ALL & ~ConstellationRegistry.bitOf(GnssStatus.CONSTELLATION_SBAS);
+        for (int type : GNSS_STATUS_TYPES) {
+            assertEquals(type != GnssStatus.CONSTELLATION_SBAS, ConstellationRegistry.isVisible(mask, type));
+        }
+        assertFalse(ConstellationRegistry.isVisible(0, GnssStatus.CONSTELLATION_GPS));
+
+        boolean[] checked = ConstellationRegistry.toChecked(mask);
+        assertEquals(ConstellationRegistry.COUNT, checked.length);
+        assertFalse(checked[ConstellationRegistry.indexOf(GnssStatus.CONSTELLATION_SBAS)]);
+        assertTrue(checked[ConstellationRegistry.indexOf(GnssStatus.CONSTELLATION_QZSS)]);
+    }
+}
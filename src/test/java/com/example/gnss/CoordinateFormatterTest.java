@@ -0,0 +1,87 @@
+package com.example.gnss;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class CoordinateFormatterTest {
+
+    private static String format(double coordinate, CoordinateFormat format) {
+        return CoordinateFormatter.append(new StringBuilder(), coordinate, format).toString();
+    }
+
+    @Test
+    public void degrees_roundsToFiveDecimals() {
+        assertEquals("23.55052", format(23.5505199, CoordinateFormat.DEGREES));
+        assertEquals("-46.63331", format(-46.6333094, CoordinateFormat.DEGREES));
+        assertEquals("0.00010", format(0.0001, CoordinateFormat.DEGREES));
+    }
+
+    @Test
+    public void degreesMinutes_keepsSignOnlyOnDegrees() {
+        assertEquals("23:33.03119", format(23.5505199, CoordinateFormat.DEGREES_MINUTES));
+        assertEquals("-23:33.03119", format(-23.5505199, CoordinateFormat.DEGREES_MINUTES));
+        assertEquals("-0:30.00000", format(-0.5, CoordinateFormat.DEGREES_MINUTES));
+    }
+
+    @Test
+    public void degreesMinutesSeconds_keepsSignOnlyOnDegrees() {
+        assertEquals("23:33:01.87164", format(23.5505199, CoordinateFormat.DEGREES_MINUTES_SECONDS));
+        assertEquals("-23:33:01.87164", format(-23.5505199, CoordinateFormat.DEGREES_MINUTES_SECONDS));
+        assertEquals("-46:38:00.00000", format(-46.6333333333, CoordinateFormat.DEGREES_MINUTES_SECONDS));
+    }
+
+    @Test
+    public void rounding_carriesIntoNextUnit() {
+        // 59,999999" arredonda para o minuto seguinte, nunca para "60.00000"
+        assertEquals("10:01:00.00000", format(10 + 59.9999999 / 3600, CoordinateFormat.DEGREES_MINUTES_SECONDS));
+        assertEquals("11:00.00000", format(10.9999999999, CoordinateFormat.DEGREES_MINUTES));
+        assertEquals("-180.00000", format(-179.999999999, CoordinateFormat.DEGREES));
+    }
+
+    @Test
+    public void valuesRoundingToZero_haveNoSign() {
+        assertEquals("0.00000", format(-0.000001, CoordinateFormat.DEGREES));
+        assertEquals("0:00:00.00000", format(-1e-12, CoordinateFormat.DEGREES_MINUTES_SECONDS));
+    }
+
+    @Test
+    public void appendLatLon_matchesActivityText() {
+        StringBuilder text = new StringBuilder();
+        CoordinateFormatter.appendLatLon(text, -23.5, 46.25, CoordinateFormat.DEGREES_MINUTES);
+        assertEquals("Lat: -23:30.00000, Lon: 46:15.00000", text.toString());
+    }
+
+    @Test
+    public void labels_followEnumOrder() {
+        String[] labels = CoordinateFormat.labels();
+        assertEquals(CoordinateFormat.values().length, labels.length);
+        assertEquals("Graus [+/-DDD.DDDDD]", labels[0]);
+        assertEquals(CoordinateFormat.DEGREES_MINUTES_SECONDS.getLabel(), labels[2]);
+    }
+
+    @Test
+    public void reusedBuilder_doesNotAllocate() {
+        StringBuilder text = new StringBuilder(64);
+        CoordinateFormat[] formats = CoordinateFormat.values();
+        long checksum = 0;
+        for (int i = 0; i < 50_000; i++) {
+            checksum += render(text, i, formats);
+        }
+
+        long before = Allocations.currentThreadAllocatedBytes();
+        for (int i = 0; i < 10_000; i++) {
+            checksum += render(text, i, formats);
+        }
+        long allocated = Allocations.currentThreadAllocatedBytes() - before;
+
+        assertTrue(checksum > 0);
+        assertEquals("Bytes alocados formatando coordenadas", 0, allocated);
+    }
+
+    private static int render(StringBuilder text, int i, CoordinateFormat[] formats) {
+        text.setLength(0);
+        CoordinateFormatter.appendLatLon(text, -90 + (i % 18000) * 0.01, 180 - (i % 36000) * 0.01, formats[i % formats.length]);
+        return text.length();
+    }
+}
@@ -0,0 +1,214 @@
+package com.example.gnss;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static com.example.gnss.DataSourceLifecycle.Rate.BACKGROUND;
+import static com.example.gnss.DataSourceLifecycle.Rate.FOREGROUND;
+import static com.example.gnss.DataSourceLifecycle.State;
+import static org.junit.Assert.*;
+
+public class DataSourceLifecycleTest {
+
+    private DataSourceLifecycle lifecycle;
+    private final List<String> events = new ArrayList<>();
+    private final List<State> states = new ArrayList<>();
+
+    @Before
+    public void setUp() {
+        lifecycle = new DataSourceLifecycle();
+        lifecycle.addSource(new RecordingSource("sensor"));
+        lifecycle.addSource(new RecordingSource("gnss"));
+        lifecycle.setListener(states::add);
+    }
+
+    @Test
+    public void startsCreatedWithSourcesStopped() {
+        lifecycle.setPermissionGranted(true);
+        assertEquals(State.CREATED, lifecycle.getState());
+        assertNull(lifecycle.getActiveRate());
+        assertTrue(events.isEmpty());
+    }
+
+    @Test
+    public void resumeWithPermission_startsSourcesInOrder() {
+        lifecycle.setPermissionGranted(true);
+        lifecycle.onResume();
+        assertEquals(State.RUNNING, lifecycle.getState());
+        assertEquals(FOREGROUND, lifecycle.getActiveRate());
+        assertEquals(Arrays.asList("sensor:start:FOREGROUND", "gnss:start:FOREGROUND"), events);
+    }
+
+    @Test
+    public void resumeWithoutPermission_waitsForIt() {
+        lifecycle.onResume();
+        assertEquals(State.AWAITING_PERMISSION, lifecycle.getState());
+        assertTrue(events.isEmpty());
+
+        lifecycle.setPermissionGranted(true);
+        assertEquals(State.RUNNING, lifecycle.getState());
+        assertEquals(Arrays.asList("sensor:start:FOREGROUND", "gnss:start:FOREGROUND"), events);
+    }
+
+    @Test
+    public void permissionGrantedWhilePausedByDialog_startsOnNextResume() {
+        // O diálogo de permissão pausa a atividade e o resultado chega antes do onResume
+        lifecycle.onResume();
+        lifecycle.onPause();
+        assertEquals(State.PAUSED, lifecycle.getState());
+        lifecycle.setPermissionGranted(true);
+        assertEquals(State.PAUSED, lifecycle.getState());
+        assertTrue(events.isEmpty());
+
+        lifecycle.onResume();
+        assertEquals(State.RUNNING, lifecycle.getState());
+        assertEquals(Arrays.asList("sensor:start:FOREGROUND", "gnss:start:FOREGROUND"), events);
+    }
+
+    @Test
+    public void pause_stopsSourcesInReverseOrder() {
+        running();
+        lifecycle.onPause();
+        assertEquals(State.PAUSED, lifecycle.getState());
+        assertNull(lifecycle.getActiveRate());
+        assertEquals(Arrays.asList("gnss:stop", "sensor:stop"), events);
+
+        events.clear();
+        lifecycle.onResume();
+        assertEquals(State.RUNNING, lifecycle.getState());
+        assertEquals(Arrays.asList("sensor:start:FOREGROUND", "gnss:start:FOREGROUND"), events);
+    }
+
+    @Test
+    public void pauseWithBackgroundLogging_restartsAtReducedRate() {
+        lifecycle.setBackgroundLogging(true);
+        running();
+        lifecycle.onPause();
+        assertEquals(State.BACKGROUND, lifecycle.getState());
+        assertEquals(BACKGROUND, lifecycle.getActiveRate());
+        assertEquals(Arrays.asList("gnss:stop", "sensor:stop", "sensor:start:BACKGROUND", "gnss:start:BACKGROUND"), events);
+
+        events.clear();
+        lifecycle.onResume();
+        assertEquals(State.RUNNING, lifecycle.getState());
+        assertEquals(Arrays.asList("gnss:stop", "sensor:stop", "sensor:start:FOREGROUND", "gnss:start:FOREGROUND"), events);
+    }
+
+    @Test
+    public void togglingBackgroundLoggingWhilePaused_startsAndStopsSources() {
+        running();
+        lifecycle.onPause();
+        events.clear();
+
+        lifecycle.setBackgroundLogging(true);
+        assertEquals(State.BACKGROUND, lifecycle.getState());
+        assertEquals(Arrays.asList("sensor:start:BACKGROUND", "gnss:start:BACKGROUND"), events);
+
+        events.clear();
+        lifecycle.setBackgroundLogging(false);
+        assertEquals(State.PAUSED, lifecycle.getState());
+        assertEquals(Arrays.asList("gnss:stop", "sensor:stop"), events);
+    }
+
+    @Test
+    public void backgroundLoggingWhileRunning_changesNothingUntilPause() {
+        running();
+        lifecycle.setBackgroundLogging(true);
+        lifecycle.setBackgroundLogging(false);
+        assertEquals(State.RUNNING, lifecycle.getState());
+        assertTrue(events.isEmpty());
+    }
+
+    @Test
+    public void backgroundLoggingWithoutPermission_staysPaused() {
+        lifecycle.setBackgroundLogging(true);
+        lifecycle.onResume();
+        lifecycle.onPause();
+        assertEquals(State.PAUSED, lifecycle.getState());
+        assertTrue(events.isEmpty());
+    }
+
+    @Test
+    public void permissionRevoked_stopsSources() {
+        running();
+        lifecycle.setPermissionGranted(false);
+        assertEquals(State.AWAITING_PERMISSION, lifecycle.getState());
+        assertEquals(Arrays.asList("gnss:stop", "sensor:stop"), events);
+    }
+
+    @Test
+    public void destroy_stopsSourcesAndIgnoresLaterEvents() {
+        lifecycle.setBackgroundLogging(true);
+        running();
+        lifecycle.onPause();
+        events.clear();
+
+        lifecycle.onDestroy();
+        assertEquals(State.DESTROYED, lifecycle.getState());
+        assertNull(lifecycle.getActiveRate());
+        assertEquals(Arrays.asList("gnss:stop", "sensor:stop"), events);
+
+        events.clear();
+        lifecycle.onResume();
+        lifecycle.setPermissionGranted(true);
+        assertEquals(State.DESTROYED, lifecycle.getState());
+        assertTrue(events.isEmpty());
+    }
+
+    @Test
+    public void destroyBeforeStart_doesNotTouchSources() {
+        lifecycle.onDestroy();
+        assertEquals(State.DESTROYED, lifecycle.getState());
+        assertTrue(events.isEmpty());
+    }
+
+    @Test
+    public void sourceAddedWhileRunning_startsAtCurrentRate() {
+        running();
+        lifecycle.addSource(new RecordingSource("location"));
+        assertEquals(Arrays.asList("location:start:FOREGROUND"), events);
+    }
+
+    @Test
+    public void listener_seesEachStateOnce() {
+        lifecycle.setBackgroundLogging(true);
+        lifecycle.onResume();
+        lifecycle.setPermissionGranted(true);
+        lifecycle.setPermissionGranted(true);
+        lifecycle.onPause();
+        lifecycle.onResume();
+        lifecycle.onPause();
+        lifecycle.setBackgroundLogging(false);
+        lifecycle.onDestroy();
+        assertEquals(Arrays.asList(State.AWAITING_PERMISSION, State.RUNNING, State.BACKGROUND, State.RUNNING,
+                State.BACKGROUND, State.PAUSED, State.DESTROYED), states);
+    }
+
+    private void running() {
+        lifecycle.setPermissionGranted(true);
+        lifecycle.onResume();
+        events.clear();
+    }
+
+    private final class RecordingSource implements DataSourceLifecycle.Source {
+        private final String name;
+
+        RecordingSource(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public void start(DataSourceLifecycle.Rate rate) {
+            events.add(name + ":start:" + rate);
+        }
+
+        @Override
+        public void stop() {
+            events.add(name + ":stop");
+        }
+    }
+}
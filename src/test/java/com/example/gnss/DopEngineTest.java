@@ -0,0 +1,262 @@
+package com.example.gnss;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class DopEngineTest {
+
+    private static final int GPS = ConstellationRegistry.GPS;
+    private static final int GALILEO = ConstellationRegistry.GALILEO;
+    private static final float L1_HZ = 1575.42e6f;
+    private static final float L5_HZ = 1176.45e6f;
+
+    @Test
+    public void zenithPlusThreeOnHorizon_matchesClosedForm() {
+        SatelliteSnapshot snapshot = new SatelliteSnapshot(8);
+        snapshot.add(1, GPS, 40f, 0f, 90f, true);
+        snapshot.add(2, GPS, 40f, 0f, 0f, true);
+        snapshot.add(3, GPS, 40f, 120f, 0f, true);
+        snapshot.add(4, GPS, 40f, 240f, 0f, true);
+        snapshot.add(5, GPS, 40f, 60f, 30f, false); // Fora do fix, não entra
+
+        DopResult result = process(new DopEngine(8), snapshot);
+
+        int gps = ConstellationRegistry.indexOf(GPS);
+        assertEquals(4, result.satellites[gps]);
+        // N = diag(1.5, 1.5) ⊕ [[1, 1], [1, 4]]: Q = diag(2/3, 2/3) ⊕ [[4/3, -1/3], [-1/3, 1/3]]
+        assertEquals(Math.sqrt(4.0 / 3), result.hdop[gps], 1e-6);
+        assertEquals(Math.sqrt(4.0 / 3), result.vdop[gps], 1e-6);
+        assertEquals(Math.sqrt(8.0 / 3), result.pdop[gps], 1e-6);
+        assertEquals(Math.sqrt(1.0 / 3), result.tdop[gps], 1e-6);
+        assertEquals(Math.sqrt(3.0), result.gdop[gps], 1e-6);
+        assertEquals(result.gdop[gps], result.gdop[DopResult.COMBINED], 0);
+        assertFalse(result.isValid(ConstellationRegistry.indexOf(GALILEO)));
+    }
+
+    @Test
+    public void randomGeometries_matchGaussJordanReference() {
+        Random random = new Random(3);
+        for (int trial = 0; trial < 200; trial++) {
+            SatelliteSnapshot snapshot = new SatelliteSnapshot(32);
+            int count = 4 + random.nextInt(20);
+            for (int i = 0; i < count; i++) {
+                snapshot.add(i + 1, random.nextBoolean() ? GPS : GALILEO, 35f,
+                        random.nextFloat() * 360f, 5f + random.nextFloat() * 85f, random.nextInt(5) != 0);
+            }
+            DopResult result = process(new DopEngine(32), snapshot);
+
+            assertMatchesReference(snapshot, 0, result, DopResult.COMBINED);
+            assertMatchesReference(snapshot, GPS, result, ConstellationRegistry.indexOf(GPS));
+            assertMatchesReference(snapshot, GALILEO, result, ConstellationRegistry.indexOf(GALILEO));
+        }
+    }
+
+    @Test
+    public void degenerateGeometry_isNotAvailable() {
+        SatelliteSnapshot snapshot = new SatelliteSnapshot(8);
+        snapshot.add(1, GPS, 40f, 0f, 45f, true);
+        snapshot.add(2, GPS, 40f, 90f, 45f, true);
+        snapshot.add(3, GPS, 40f, 180f, 45f, true);
+        DopResult result = process(new DopEngine(8), snapshot);
+        assertFalse(result.isValid(DopResult.COMBINED)); // Só três satélites
+        assertEquals("DOP: n/d (3 sat. no fix)", result.appendTo(new StringBuilder()).toString());
+
+        // Quatro satélites na mesma elevação: vertical e relógio indistinguíveis
+        snapshot.add(4, GPS, 40f, 270f, 45f, true);
+        result = process(new DopEngine(8), snapshot);
+        assertFalse(result.isValid(DopResult.COMBINED));
+    }
+
+    @Test
+    public void incrementalUpdates_matchFullRecomputation() {
+        Random random = new Random(5);
+        DopEngine incremental = new DopEngine(64);
+        float[] azimuths = new float[48];
+        float[] elevations = new float[48];
+        boolean[] present = new boolean[48];
+        boolean[] used = new boolean[48];
+        for (int i = 0; i < 48; i++) {
+            azimuths[i] = random.nextFloat() * 360f;
+            elevations[i] = 5f + random.nextFloat() * 80f;
+            present[i] = random.nextBoolean();
+            used[i] = random.nextInt(4) != 0;
+        }
+
+        for (int epoch = 0; epoch < 2_000; epoch++) {
+            // Poucos satélites mudam por época: movem-se, entram, saem ou mudam o uso no fix
+            for (int change = 0; change < 3; change++) {
+                int i = random.nextInt(48);
+                switch (random.nextInt(4)) {
+                    case 0: azimuths[i] = (azimuths[i] + 0.5f) % 360f; elevations[i] = Math.min(89f, elevations[i] + 0.1f); break;
+                    case 1: present[i] = !present[i]; break;
+                    case 2: used[i] = !used[i]; break;
+                    default: break; // Só o C/N0 muda
+                }
+            }
+            SatelliteSnapshot snapshot = new SatelliteSnapshot(64);
+            int start = random.nextInt(48); // A ordem no GnssStatus também varia
+            for (int k = 0; k < 48; k++) {
+                int i = (start + k) % 48;
+                if (present[i]) {
+                    snapshot.add(i % 30 + 1, i < 30 ? GPS : GALILEO, 30f + random.nextFloat(), azimuths[i], elevations[i], used[i]);
+                }
+            }
+            snapshot.setSequence(epoch + 1);
+
+            DopResult actual = process(incremental, snapshot);
+            DopResult expected = process(new DopEngine(64), snapshot);
+            assertEquals(epoch + 1, actual.sequence);
+            for (int index = 0; index < DopResult.SIZE; index++) {
+                assertEquals(expected.satellites[index], actual.satellites[index]);
+                assertEquals(expected.gdop[index], actual.gdop[index], 1e-6);
+                assertEquals(expected.hdop[index], actual.hdop[index], 1e-6);
+                assertEquals(expected.vdop[index], actual.vdop[index], 1e-6);
+            }
+        }
+    }
+
+    @Test
+    public void dualFrequencyRows_countOncePerSatellite() {
+        float[] azimuths = {10f, 95f, 180f, 250f, 320f, 40f};
+        float[] elevations = {80f, 35f, 20f, 55f, 15f, 45f};
+        SatelliteSnapshot single = new SatelliteSnapshot(16);
+        SatelliteSnapshot dual = new SatelliteSnapshot(16);
+        for (int i = 0; i < azimuths.length; i++) {
+            int constellation = i < 4 ? GPS : GALILEO;
+            single.add(i + 1, constellation, 40f, azimuths[i], elevations[i], true, L1_HZ);
+            dual.add(i + 1, constellation, 40f, azimuths[i], elevations[i], true, L1_HZ);
+            if (i % 2 == 0) {
+                dual.add(i + 1, constellation, 42f, azimuths[i], elevations[i], true, L5_HZ);
+            }
+        }
+        DopResult expected = process(new DopEngine(16), single);
+        DopResult actual = process(new DopEngine(16), dual);
+        assertEquals(6, actual.satellites[DopResult.COMBINED]);
+        assertSameDop(expected, actual);
+
+        // Sem a linha L1, a L5 do mesmo satélite passa a contar, também na atualização incremental
+        DopEngine incremental = new DopEngine(16);
+        process(incremental, dual);
+        SatelliteSnapshot withoutL1 = new SatelliteSnapshot(16);
+        for (int i = 0; i < dual.getSatelliteCount(); i++) {
+            if (!(dual.getSvid(i) == 1 && SignalKey.bandOf(dual.getSignalKey(i)) == SignalKey.L1)) {
+                withoutL1.add(dual.getSvid(i), dual.getConstellationType(i), dual.getCn0DbHz(i), dual.getAzimuthDegrees(i),
+                        dual.getElevationDegrees(i), true, dual.getCarrierFrequencyHz(i));
+            }
+        }
+        assertSameDop(expected, process(incremental, withoutL1));
+        process(incremental, dual);
+        assertSameDop(expected, process(incremental, dual));
+    }
+
+    @Test
+    public void steadyStateUpdates_doNotAllocate() {
+        DopEngine engine = new DopEngine();
+        DopResult result = new DopResult();
+        SatelliteSnapshot[] snapshots = {new SatelliteSnapshot(), new SatelliteSnapshot()};
+        double checksum = 0;
+        for (int epoch = 0; epoch < 20_000; epoch++) {
+            checksum += step(engine, snapshots[epoch & 1], result, epoch);
+        }
+
+        long before = Allocations.currentThreadAllocatedBytes();
+        for (int epoch = 0; epoch < 10_000; epoch++) {
+            checksum += step(engine, snapshots[epoch & 1], result, epoch);
+        }
+        long allocated = Allocations.currentThreadAllocatedBytes() - before;
+
+        assertTrue(checksum > 0);
+        assertEquals("Bytes alocados em regime permanente", 0, allocated);
+    }
+
+    private static double step(DopEngine engine, SatelliteSnapshot snapshot, DopResult result, int epoch) {
+        snapshot.clear();
+        for (int i = 0; i < 40; i++) {
+            float azimuth = (i * 37f + (i < 4 ? epoch * 0.01f : 0)) % 360f;
+            snapshot.add(i + 1, 1 + i % 6, 35f, azimuth, 5f + (i * 13) % 85, true);
+        }
+        engine.process(snapshot);
+        return engine.readResult(result).gdop[DopResult.COMBINED];
+    }
+
+    private static DopResult process(DopEngine engine, SatelliteSnapshot snapshot) {
+        engine.process(snapshot);
+        return engine.readResult(new DopResult());
+    }
+
+    // Monta a matriz normal completa dos satélites usados (constellationType 0 = todos) e inverte
+    // por Gauss-Jordan com pivotamento parcial
+    private static void assertMatchesReference(SatelliteSnapshot snapshot, int constellationType, DopResult result, int index) {
+        double[][] normal = new double[4][8];
+        int used = 0;
+        for (int i = 0; i < snapshot.getSatelliteCount(); i++) {
+            if (!snapshot.usedInFix(i) || (constellationType != 0 && snapshot.getConstellationType(i) != constellationType)) {
+                continue;
+            }
+            double az = Math.toRadians(snapshot.getAzimuthDegrees(i));
+            double el = Math.toRadians(snapshot.getElevationDegrees(i));
+            double[] h = {-Math.cos(el) * Math.sin(az), -Math.cos(el) * Math.cos(az), -Math.sin(el), 1};
+            for (int r = 0; r < 4; r++) {
+                for (int c = 0; c < 4; c++) {
+                    normal[r][c] += h[r] * h[c];
+                }
+            }
+            used++;
+        }
+        assertEquals(used, result.satellites[index]);
+        if (used < 4) {
+            assertFalse(result.isValid(index));
+            return;
+        }
+        for (int r = 0; r < 4; r++) {
+            normal[r][4 + r] = 1;
+        }
+        for (int col = 0; col < 4; col++) {
+            int pivot = col;
+            for (int r = col + 1; r < 4; r++) {
+                if (Math.abs(normal[r][col]) > Math.abs(normal[pivot][col])) {
+                    pivot = r;
+                }
+            }
+            double[] swap = normal[col];
+            normal[col] = normal[pivot];
+            normal[pivot] = swap;
+            double divisor = normal[col][col];
+            for (int c = 0; c < 8; c++) {
+                normal[col][c] /= divisor;
+            }
+            for (int r = 0; r < 4; r++) {
+                if (r != col) {
+                    double factor = normal[r][col];
+                    for (int c = 0; c < 8; c++) {
+                        normal[r][c] -= factor * normal[col][c];
+                    }
+                }
+            }
+        }
+        double qe = normal[0][4], qn = normal[1][5], qu = normal[2][6], qt = normal[3][7];
+        assertClose(Math.sqrt(qe + qn + qu + qt), result.gdop[index]);
+        assertClose(Math.sqrt(qe + qn + qu), result.pdop[index]);
+        assertClose(Math.sqrt(qe + qn), result.hdop[index]);
+        assertClose(Math.sqrt(qu), result.vdop[index]);
+        assertClose(Math.sqrt(qt), result.tdop[index]);
+    }
+
+    // Mesma quantidade de satélites e mesmos DOPs em todos os índices, a menos do arredondamento
+    private static void assertSameDop(DopResult expected, DopResult actual) {
+        for (int index = 0; index < DopResult.SIZE; index++) {
+            assertEquals(expected.satellites[index], actual.satellites[index]);
+            assertEquals(expected.gdop[index], actual.gdop[index], 1e-9);
+            assertEquals(expected.hdop[index], actual.hdop[index], 1e-9);
+            assertEquals(expected.vdop[index], actual.vdop[index], 1e-9);
+        }
+    }
+
+    // Erro relativo: geometrias ruins de poucos satélites chegam a DOPs de centenas
+    private static void assertClose(double expected, double actual) {
+        assertEquals(expected, actual, 1e-6 * Math.max(1, expected));
+    }
+}
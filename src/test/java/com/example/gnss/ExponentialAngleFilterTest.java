@@ -0,0 +1,114 @@
+package com.example.gnss;
+
+import org.junit.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class ExponentialAngleFilterTest {
+
+    private static final float DEAD_BAND = (float) Math.toRadians(0.5);
+
+    @Test
+    public void wrap_keepsAnglesInHalfOpenRange() {
+        assertEquals(0f, ExponentialAngleFilter.wrap((float) (2 * Math.PI)), 1e-5f);
+        assertEquals((float) -Math.PI, ExponentialAngleFilter.wrap((float) Math.PI), 1e-5f);
+        assertEquals((float) Math.toRadians(-170), ExponentialAngleFilter.wrap((float) Math.toRadians(190)), 1e-5f);
+    }
+
+    @Test
+    public void firstSample_isEmittedDirectly() {
+        ExponentialAngleFilter filter = new ExponentialAngleFilter(0.15f, DEAD_BAND);
+        assertTrue(filter.update(1.2f, 0));
+        assertEquals(1.2f, filter.getAngle(), 0f);
+    }
+
+    @Test
+    public void averagingAcrossSouth_doesNotPassThroughNorth() {
+        ExponentialAngleFilter filter = new ExponentialAngleFilter(0.1f, 0f);
+        filter.update((float) Math.toRadians(179), 0);
+        filter.update((float) Math.toRadians(-179), 100_000_000L);
+
+        // A média entre 179° e -179° está em 180°, nunca perto de 0°
+        assertTrue(Math.abs(filter.getAngle()) > Math.toRadians(178));
+    }
+
+    @Test
+    public void stationaryTrace_isMostlySuppressedByDeadBand() throws IOException {
+        List<double[]> trace = load("stationary_jitter.csv");
+        ExponentialAngleFilter filter = new ExponentialAngleFilter(0.15f, DEAD_BAND);
+        FrameCoalescer frames = new FrameCoalescer();
+
+        for (double[] sample : trace) {
+            if (filter.update((float) sample[1], (long) sample[0]) && frames.request()) {
+                frames.onFrameDrawn();
+            }
+        }
+
+        assertEquals(trace.size(), filter.getSamplesReceived());
+        assertTrue("Redesenhos: " + frames.getFramesDrawn(), frames.getFramesDrawn() < trace.size() / 10);
+        assertEquals(Math.toRadians(37), filter.getAngle(), Math.toRadians(1));
+    }
+
+    @Test
+    public void turnThroughSouth_tracksInputWithoutJumps() throws IOException {
+        List<double[]> trace = load("turn_through_south.csv");
+        ExponentialAngleFilter filter = new ExponentialAngleFilter(0.15f, DEAD_BAND);
+
+        float previous = Float.NaN;
+        for (double[] sample : trace) {
+            if (filter.update((float) sample[1], (long) sample[0])) {
+                float angle = filter.getAngle();
+                assertTrue(angle >= -Math.PI && angle < Math.PI);
+                if (!Float.isNaN(previous)) {
+                    // Passos pequenos mesmo ao cruzar +/-PI
+                    assertTrue(Math.abs(ExponentialAngleFilter.wrap(angle - previous)) < Math.toRadians(5));
+                }
+                previous = angle;
+            }
+        }
+
+        // O traço termina parado em 230° (-130°)
+        assertEquals(Math.toRadians(-130), filter.getAngle(), Math.toRadians(1));
+        assertTrue(filter.getChangesEmitted() < filter.getSamplesReceived());
+    }
+
+    @Test
+    public void coalescer_schedulesOneFramePerVsync() {
+        FrameCoalescer frames = new FrameCoalescer();
+        assertTrue(frames.request());
+        assertFalse(frames.request());
+        assertFalse(frames.request());
+        frames.onFrameDrawn();
+        assertTrue(frames.request());
+
+        assertEquals(4, frames.getRequests());
+        assertEquals(1, frames.getFramesDrawn());
+        assertEquals(3, frames.getCoalescedRequests());
+    }
+
+    // Lê um traço "timestamp_ns,azimuth_rad" gravado na taxa do SENSOR_DELAY_UI
+    private static List<double[]> load(String name) throws IOException {
+        List<double[]> samples = new ArrayList<>();
+        try (InputStream in = ExponentialAngleFilterTest.class.getResourceAsStream("/rotation_traces/" + name);
+             BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.startsWith("#") || line.isEmpty()) {
+                    continue;
+                }
+                int comma = line.indexOf(',');
+                samples.add(new double[]{
+                        Long.parseLong(line.substring(0, comma)), Double.parseDouble(line.substring(comma + 1))});
+            }
+        }
+        return samples;
+    }
+}
@@ -0,0 +1,166 @@
+package com.example.gnss;
+
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class GnssMetricsTest {
+
+    @Test
+    public void histogramBuckets_areContiguousAndBoundRelativeError() {
+        for (int i = 1; i < FixedBucketHistogram.BUCKET_COUNT; i++) {
+            assertEquals(FixedBucketHistogram.bucketUpperBound(i - 1) + 1, FixedBucketHistogram.bucketLowerBound(i));
+        }
+        long[] values = {0, 1, 3, 4, 7, 8, 1000, 16_666_667, Long.MAX_VALUE};
+        for (long value : values) {
+            int index = FixedBucketHistogram.bucketIndex(value);
+            assertTrue(FixedBucketHistogram.bucketLowerBound(index) <= value);
+            assertTrue(FixedBucketHistogram.bucketUpperBound(index) >= value);
+            assertTrue(FixedBucketHistogram.bucketUpperBound(index) - value <= value / 4 + 1);
+        }
+    }
+
+    @Test
+    public void histogramPercentiles_followRecordedValues() {
+        FixedBucketHistogram histogram = new FixedBucketHistogram();
+        for (int value = 1; value <= 1000; value++) {
+            histogram.record(value * 1000L);
+        }
+        FixedBucketHistogram.Stats stats = histogram.readStats(new FixedBucketHistogram.Stats());
+
+        assertEquals(1000, stats.count);
+        assertEquals(500_500, stats.mean, 1e-6);
+        assertEquals(1_000_000, stats.max);
+        assertEquals(500_000, stats.p50, 500_000 / 4);
+        assertEquals(990_000, stats.p99, 990_000 / 4);
+        assertTrue(stats.p50 >= 500_000 && stats.p90 >= 900_000 && stats.p99 <= stats.max);
+    }
+
+    @Test
+    public void concurrentRecording_losesNothing() throws Exception {
+        GnssMetrics metrics = new GnssMetrics();
+        int threads = 8;
+        int perThread = 100_000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        for (int t = 0; t < threads; t++) {
+            int id = t;
+            executor.execute(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < perThread; i++) {
+                    int view = (id + i) % GnssMetrics.VIEW_COUNT;
+                    metrics.onFrameRequested(view, (i & 3) == 0);
+                    metrics.getDrawDuration(view).record(i);
+                    metrics.onUpdatePublished(id * (long) perThread + i + 1, i, 1000 + i, 0, (i & 1) == 0);
+                }
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+
+        MetricsSnapshot snapshot = metrics.snapshot(new MetricsSnapshot(), 1);
+        long total = (long) threads * perThread;
+        assertEquals(total, snapshot.updates);
+        assertEquals(total / 2, snapshot.updatesDropped);
+        assertEquals(total, snapshot.updateDurationNanos.count);
+        assertEquals(1000 + perThread - 1, snapshot.updateDurationNanos.max);
+        assertEquals(total, snapshot.frameRequests[0] + snapshot.frameRequests[1]);
+        assertEquals(total * 3 / 4, snapshot.framesCoalesced[0] + snapshot.framesCoalesced[1]);
+        assertEquals(total, snapshot.drawDurationNanos[0].count + snapshot.drawDurationNanos[1].count);
+    }
+
+    @Test
+    public void frameLatency_isMeasuredOncePerSnapshot() {
+        GnssMetrics metrics = new GnssMetrics();
+        metrics.onUpdatePublished(1, 1_000_000, 10, -1, false);
+
+        metrics.onFrameDrawn(GnssMetrics.VIEW_SKY, 1, 4_000_000, 5_000_000);
+        metrics.onFrameDrawn(GnssMetrics.VIEW_SKY, 1, 20_000_000, 21_000_000); // Só rotação
+        metrics.onFrameDrawn(GnssMetrics.VIEW_CHART, -1, 0, 100);               // Sem dados
+
+        FixedBucketHistogram.Stats latency = metrics.getFrameLatency(GnssMetrics.VIEW_SKY).readStats(new FixedBucketHistogram.Stats());
+        assertEquals(1, latency.count);
+        assertEquals(4_000_000, latency.max);
+        assertEquals(2, metrics.getFramesDrawn(GnssMetrics.VIEW_SKY));
+        assertEquals(0, metrics.getFrameLatency(GnssMetrics.VIEW_CHART).getCount());
+        assertEquals(0, metrics.getUpdateAllocations().getCount()); // Sem probe
+    }
+
+    @Test
+    public void frameLatency_ignoresSnapshotsOlderThanHistory() {
+        GnssMetrics metrics = new GnssMetrics();
+        for (long sequence = 1; sequence <= 200; sequence++) {
+            metrics.onUpdatePublished(sequence, sequence * 1000, 1, -1, true);
+        }
+        metrics.onFrameDrawn(GnssMetrics.VIEW_SKY, 100, 0, 500_000); // Posição já reutilizada pelo 164
+        metrics.onFrameDrawn(GnssMetrics.VIEW_SKY, 200, 0, 500_000);
+
+        FixedBucketHistogram.Stats latency = metrics.getFrameLatency(GnssMetrics.VIEW_SKY).readStats(new FixedBucketHistogram.Stats());
+        assertEquals(1, latency.count);
+        assertEquals(300_000, latency.max);
+    }
+
+    @Test
+    public void pipelineUpdates_reportDurationAndAllocations() {
+        GnssMetrics metrics = new GnssMetrics();
+        metrics.setAllocationProbe(Allocations::currentThreadAllocatedBytes);
+        GnssPipeline pipeline = new GnssPipeline(64);
+        pipeline.setMetrics(metrics);
+
+        for (int epoch = 0; epoch < 20_000; epoch++) {
+            publish(pipeline, epoch);
+        }
+        // A própria sonda passa por compilações tardias do JIT que alocam uma única vez;
+        // vale a melhor de algumas rodadas, já que uma alocação por atualização apareceria em todas
+        long allocated = Long.MAX_VALUE;
+        for (int round = 0; round < 3 && allocated > 0; round++) {
+            long before = Allocations.currentThreadAllocatedBytes();
+            for (int epoch = 0; epoch < 10_000; epoch++) {
+                publish(pipeline, epoch);
+            }
+            allocated = Math.min(allocated, Allocations.currentThreadAllocatedBytes() - before);
+        }
+
+        assertEquals("Métricas não devem alocar no caminho quente", 0, allocated);
+        MetricsSnapshot snapshot = metrics.snapshot(new MetricsSnapshot(), System.nanoTime());
+        long published = snapshot.updates;
+        assertTrue(published >= 30_000 && published % 10_000 == 0);
+        assertEquals(published - 1, snapshot.updatesDropped); // Ninguém lê neste teste
+        assertEquals(0, snapshot.updateAllocatedBytes.p99);
+        assertTrue(snapshot.updateDurationNanos.max > 0);
+    }
+
+    @Test
+    public void snapshotText_listsEveryMetric() {
+        GnssMetrics metrics = new GnssMetrics();
+        metrics.snapshot(new MetricsSnapshot(), 1_000_000_000L);
+        for (int i = 1; i <= 5; i++) {
+            metrics.onUpdatePublished(i, i, 2_500, 64, false);
+        }
+        String text = metrics.snapshot(new MetricsSnapshot(), 2_000_000_000L).toString();
+
+        assertTrue(text, text.startsWith("callbacks: 5 (5.0 Hz), descartados 0\n"));
+        assertTrue(text, text.contains("atualizacao_us: p50 2.5"));
+        assertTrue(text, text.contains("alocacao_bytes: p50 64"));
+        assertTrue(text, text.contains("esfera.quadros: 0 de 0 pedidos"));
+        assertTrue(text, text.contains("grafico.latencia_us: n/d"));
+    }
+
+    private static void publish(GnssPipeline pipeline, int epoch) {
+        SatelliteSnapshot snapshot = pipeline.beginUpdate();
+        for (int i = 0; i < 32; i++) {
+            snapshot.add(i + 1, 1, 20f + (epoch + i) % 30, i * 11f, i * 2.5f, true);
+        }
+        pipeline.commitUpdate();
+    }
+}
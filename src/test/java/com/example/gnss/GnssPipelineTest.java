@@ -0,0 +1,114 @@
+package com.example.gnss;
+
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.*;
+
+public class GnssPipelineTest {
+
+    @Test
+    public void acquireLatest_isNullBeforeFirstPublish() {
+        assertNull(new GnssPipeline(8).acquireLatest());
+    }
+
+    @Test
+    public void slowReader_seesOnlyTheLatestValue() {
+        GnssPipeline pipeline = new GnssPipeline(8);
+        for (int epoch = 1; epoch <= 5; epoch++) {
+            publish(pipeline, epoch, 3);
+        }
+
+        SatelliteSnapshot latest = pipeline.acquireLatest();
+        assertEquals(5, latest.getSequence());
+        assertEquals(5, latest.getSvid(0));
+        assertEquals(5, pipeline.getUpdatesProcessed());
+        assertEquals(4, pipeline.getUpdatesOverwritten()); // Nada fica enfileirado
+        assertSame(latest, pipeline.acquireLatest());
+    }
+
+    @Test
+    public void stagesRunBeforePublication() {
+        GnssPipeline pipeline = new GnssPipeline(8);
+        AtomicInteger processed = new AtomicInteger();
+        pipeline.addStage(snapshot -> processed.addAndGet(snapshot.getSatellitesWithSignal()));
+        AtomicInteger notified = new AtomicInteger();
+        pipeline.setListener(notified::incrementAndGet);
+
+        publish(pipeline, 1, 4);
+
+        assertEquals(4, processed.get());
+        assertEquals(1, notified.get());
+    }
+
+    @Test
+    public void burstsFromProcessingThread_neverTearSnapshots() throws Exception {
+        GnssPipeline pipeline = new GnssPipeline(64);
+        ExecutorService processing = Executors.newSingleThreadExecutor();
+        int bursts = 200;
+        int updatesPerBurst = 500;
+        AtomicReference<String> failure = new AtomicReference<>();
+        CountDownLatch done = new CountDownLatch(1);
+
+        // Leitor simulando a thread de UI: cada snapshot lido deve ser consistente e mais novo
+        Thread reader = new Thread(() -> {
+            long lastSequence = 0;
+            while (done.getCount() > 0 || pipeline.getUpdatesProcessed() > lastSequence) {
+                SatelliteSnapshot snapshot = pipeline.acquireLatest();
+                if (snapshot == null) {
+                    continue;
+                }
+                long sequence = snapshot.getSequence();
+                if (sequence < lastSequence) {
+                    failure.set("Sequência regrediu: " + sequence + " < " + lastSequence);
+                    return;
+                }
+                int expectedCount = (int) (sequence % 60) + 1;
+                if (snapshot.getSatelliteCount() != expectedCount) {
+                    failure.set("Contagem inconsistente na sequência " + sequence);
+                    return;
+                }
+                for (int i = 0; i < snapshot.getSatelliteCount(); i++) {
+                    if (snapshot.getSvid(i) != (int) sequence || snapshot.getCn0DbHz(i) != sequence % 50) {
+                        failure.set("Snapshot rasgado na sequência " + sequence);
+                        return;
+                    }
+                }
+                lastSequence = sequence;
+            }
+        });
+        reader.start();
+
+        for (int burst = 0; burst < bursts; burst++) {
+            processing.execute(() -> {
+                for (int i = 0; i < updatesPerBurst; i++) {
+                    long next = pipeline.getUpdatesProcessed() + 1;
+                    publish(pipeline, next, (int) (next % 60) + 1);
+                }
+            });
+        }
+        processing.shutdown();
+        assertTrue(processing.awaitTermination(30, TimeUnit.SECONDS));
+        done.countDown();
+        reader.join(10_000);
+
+        assertNull(failure.get(), failure.get());
+        assertEquals(bursts * updatesPerBurst, pipeline.getUpdatesProcessed());
+        assertEquals(bursts * updatesPerBurst, pipeline.acquireLatest().getSequence());
+    }
+
+    // Publica um snapshot em que todos os campos derivam da sequência, para detectar mistura
+    private static void publish(GnssPipeline pipeline, long sequence, int satellites) {
+        SatelliteSnapshot snapshot = pipeline.beginUpdate();
+        for (int i = 0; i < satellites; i++) {
+            snapshot.add((int) sequence, 1, sequence % 50, i, 45f, true);
+        }
+        pipeline.commitUpdate();
+    }
+}
@@ -0,0 +1,196 @@
+package com.example.gnss;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class JammingDetectorTest {
+
+    private static final int SIGNALS = 24;
+    private static final int[] CONSTELLATIONS = {1, 1, 3, 6, 5, 1}; // GPS em metade dos sinais
+
+    // Trecho sintético: 24 sinais estáveis com ruído de 1 dB, com uma queda em [from, to) nos
+    // sinais escolhidos; quedas maiores que o sinal viram perda de rastreio (C/N0 0)
+    private static final class Trace {
+        final float[] baseline = new float[SIGNALS];
+        final Random random;
+        int from = Integer.MAX_VALUE;
+        int to = Integer.MAX_VALUE;
+        float dropDb;
+        boolean[] affected = new boolean[SIGNALS];
+
+        Trace(long seed) {
+            random = new Random(seed);
+            for (int s = 0; s < SIGNALS; s++) {
+                baseline[s] = 22 + random.nextInt(24);
+            }
+        }
+
+        Trace jam(int from, int to, float dropDb) {
+            this.from = from;
+            this.to = to;
+            this.dropDb = dropDb;
+            Arrays.fill(affected, true);
+            return this;
+        }
+
+        void fill(SatelliteSnapshot snapshot, int epoch) {
+            snapshot.clear();
+            for (int s = 0; s < SIGNALS; s++) {
+                float cn0 = baseline[s] + (float) random.nextGaussian();
+                if (epoch >= from && epoch < to && affected[s]) {
+                    cn0 -= dropDb;
+                }
+                snapshot.add(1 + s, CONSTELLATIONS[s % CONSTELLATIONS.length], Math.max(0f, cn0), s * 15f, 30f, true);
+            }
+            snapshot.setSequence(epoch);
+        }
+    }
+
+    @Test
+    public void robustStatistics_matchBruteForceOverWindow() {
+        JammingDetector detector = new JammingDetector(8, 21);
+        SatelliteSnapshot snapshot = new SatelliteSnapshot(1);
+        Random random = new Random(6);
+        float[] all = new float[500];
+        long key = SignalKey.of(1, 7, SignalKey.UNKNOWN);
+        for (int n = 0; n < all.length; n++) {
+            all[n] = 30 + random.nextInt(40) / 4f; // Valores repetidos de propósito
+            snapshot.clear();
+            snapshot.add(7, 1, all[n], 0f, 45f, true);
+            detector.process(snapshot);
+
+            float[] window = Arrays.copyOfRange(all, Math.max(0, n + 1 - 21), n + 1);
+            float median = median(window);
+            float[] deviations = new float[window.length];
+            for (int k = 0; k < window.length; k++) {
+                deviations[k] = Math.abs(window[k] - median);
+            }
+            assertEquals("mediana na amostra " + n, median, detector.medianOf(key), 1e-5f);
+            assertEquals("MAD na amostra " + n, median(deviations), detector.madOf(key), 1e-5f);
+        }
+    }
+
+    @Test
+    public void injectedJamming_raisesAlertOnFirstEpochAndClearsAfter() {
+        JammingDetector detector = new JammingDetector();
+        Trace trace = new Trace(1).jam(100, 125, 12);
+        SatelliteSnapshot snapshot = new SatelliteSnapshot(SIGNALS);
+        JammingResult result = new JammingResult();
+        int[] changes = new int[1];
+        detector.setListener(active -> changes[0]++);
+
+        int clearedAt = -1;
+        for (int epoch = 0; epoch < 200; epoch++) {
+            trace.fill(snapshot, epoch);
+            detector.process(snapshot);
+            detector.readResult(result);
+            assertEquals(epoch, result.sequence);
+            if (epoch < 100) {
+                assertFalse("alarme falso na época " + epoch, result.active);
+            } else if (epoch < 125) {
+                assertTrue("sem alerta na época " + epoch, result.active);
+                assertTrue(result.score > 0.9f);
+                assertEquals(4, result.constellations);
+                assertTrue(result.meanDropDb > 8);
+            } else if (!result.active && clearedAt < 0) {
+                clearedAt = epoch;
+            }
+        }
+        assertTrue(clearedAt >= 125 && clearedAt <= 127);
+        assertEquals(1, result.alerts);
+        assertEquals(2, changes[0]);
+    }
+
+    @Test
+    public void lossOfLock_countsAsDrop() {
+        JammingDetector detector = new JammingDetector();
+        Trace trace = new Trace(2);
+        SatelliteSnapshot snapshot = new SatelliteSnapshot(SIGNALS);
+        JammingResult result = new JammingResult();
+        for (int epoch = 0; epoch < 60; epoch++) {
+            trace.fill(snapshot, epoch);
+            detector.process(snapshot);
+        }
+
+        // Receptor perde 16 dos 24 sinais de uma vez: somem do GnssStatus
+        snapshot.clear();
+        for (int s = 0; s < 8; s++) {
+            snapshot.add(1 + s, CONSTELLATIONS[s % CONSTELLATIONS.length], trace.baseline[s], s * 15f, 30f, true);
+        }
+        detector.process(snapshot);
+        detector.readResult(result);
+        assertTrue(result.active);
+        assertEquals(SIGNALS, result.eligible);
+        assertEquals(16, result.dropped);
+    }
+
+    @Test
+    public void fewObstructedSatellites_doNotAlert() {
+        JammingDetector detector = new JammingDetector();
+        Trace trace = new Trace(3).jam(50, 80, 20);
+        Arrays.fill(trace.affected, false);
+        for (int s = 0; s < 5; s++) {
+            trace.affected[s * 4] = true; // Um prédio encobre cinco satélites
+        }
+        assertNeverAlerts(detector, trace, 150);
+    }
+
+    @Test
+    public void dropConfinedToOneConstellation_doesNotAlert() {
+        JammingDetector detector = new JammingDetector();
+        Trace trace = new Trace(4).jam(50, 80, 15);
+        for (int s = 0; s < SIGNALS; s++) {
+            trace.affected[s] = CONSTELLATIONS[s % CONSTELLATIONS.length] == 1; // Só GPS, metade dos sinais
+        }
+        assertNeverAlerts(detector, trace, 150);
+    }
+
+    @Test
+    public void steadyStateUpdates_doNotAllocate() {
+        JammingDetector detector = new JammingDetector();
+        SatelliteSnapshot[] epochs = new SatelliteSnapshot[64];
+        Trace trace = new Trace(5).jam(40, 52, 12);
+        for (int epoch = 0; epoch < epochs.length; epoch++) {
+            epochs[epoch] = new SatelliteSnapshot(SIGNALS);
+            trace.fill(epochs[epoch], epoch);
+        }
+        JammingResult result = new JammingResult();
+        long alerts = 0;
+        for (int n = 0; n < 20_000; n++) {
+            detector.process(epochs[n & 63]);
+            alerts += detector.readResult(result).active ? 1 : 0;
+        }
+
+        long before = Allocations.currentThreadAllocatedBytes();
+        for (int n = 0; n < 20_000; n++) {
+            detector.process(epochs[n & 63]);
+            alerts += detector.readResult(result).active ? 1 : 0;
+        }
+        long allocated = Allocations.currentThreadAllocatedBytes() - before;
+
+        assertTrue(alerts > 0);
+        assertEquals("Bytes alocados em regime permanente", 0, allocated);
+    }
+
+    private static void assertNeverAlerts(JammingDetector detector, Trace trace, int epochs) {
+        SatelliteSnapshot snapshot = new SatelliteSnapshot(SIGNALS);
+        JammingResult result = new JammingResult();
+        for (int epoch = 0; epoch < epochs; epoch++) {
+            trace.fill(snapshot, epoch);
+            detector.process(snapshot);
+            assertFalse("alarme falso na época " + epoch, detector.readResult(result).active);
+        }
+        assertEquals(0, result.alerts);
+    }
+
+    private static float median(float[] values) {
+        float[] copy = values.clone();
+        Arrays.sort(copy);
+        int half = copy.length / 2;
+        return copy.length % 2 == 1 ? copy[half] : (copy[half - 1] + copy[half]) / 2;
+    }
+}
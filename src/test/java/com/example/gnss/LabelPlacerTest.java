@@ -0,0 +1,232 @@
+package com.example.gnss;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class LabelPlacerTest {
+
+    private static final float DOT = 10;
+    private static final float GAP = 2;
+    private static final float HEIGHT = 28;
+
+    @Test
+    public void sparseSatellites_allPlacedToTheRight() {
+        LabelPlacer placer = new LabelPlacer(8, DOT, GAP, 2);
+        placer.begin(HEIGHT);
+        placer.add(1, 0, 0, 30, 40);
+        placer.add(2, 200, 0, 30, 30);
+        placer.add(3, 0, 200, 30, 20);
+        assertEquals(3, placer.layout());
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, placer.getCandidate(i));
+        }
+        assertEquals(DOT + GAP, placer.getLabelLeft(0), 1e-4);
+        assertEquals(-HEIGHT / 2, placer.getLabelTop(0), 1e-4);
+    }
+
+    @Test
+    public void neighbourOnTheRight_pushesLabelToTheLeft() {
+        LabelPlacer placer = new LabelPlacer(8, DOT, GAP, 2);
+        placer.begin(HEIGHT);
+        placer.add(1, 0, 0, 30, 40);
+        placer.add(2, 30, 0, 30, 20); // Ocupa o lado direito do primeiro
+        placer.layout();
+        assertEquals(1, placer.getCandidate(0));
+        assertEquals(-DOT - GAP - 30, placer.getLabelLeft(0), 1e-4);
+    }
+
+    @Test
+    public void coincidentSatellites_keepHighestCn0() {
+        LabelPlacer placer = new LabelPlacer(16, DOT, GAP, 2);
+        placer.begin(HEIGHT);
+        // Doze satélites no mesmo ponto: as oito posições em volta comportam no máximo oito rótulos
+        for (int i = 0; i < 12; i++) {
+            placer.add(i, 0, 0, 30, 20 + i);
+        }
+        int placed = placer.layout();
+        assertTrue(placed > 0 && placed <= 8);
+        for (int i = 0; i < 12; i++) {
+            for (int j = 0; j < 12; j++) {
+                // Nenhum rótulo descartado tem C/N0 maior que um posicionado
+                if (!placer.isPlaced(i) && placer.isPlaced(j)) {
+                    assertTrue(i < j);
+                }
+            }
+        }
+        assertTrue(placer.isPlaced(11));
+    }
+
+    @Test
+    public void denseSky_matchesBruteForceGreedy() {
+        Random random = new Random(11);
+        LabelPlacer placer = new LabelPlacer(256, DOT, GAP, 2);
+        int dropped = 0;
+        for (int trial = 0; trial < 50; trial++) {
+            int count = 20 + random.nextInt(200);
+            float[] x = new float[count];
+            float[] y = new float[count];
+            float[] widths = new float[count];
+            float[] cn0 = new float[count];
+            placer.begin(HEIGHT);
+            for (int i = 0; i < count; i++) {
+                x[i] = (random.nextFloat() - 0.5f) * 700;
+                y[i] = (random.nextFloat() - 0.5f) * 700;
+                widths[i] = 14 + random.nextInt(3) * 14;
+                cn0[i] = random.nextInt(40) + 10; // Empates resolvidos pelo índice
+                placer.add(i, x[i], y[i], widths[i], cn0[i]);
+            }
+            int placed = placer.layout();
+
+            int[] expected = bruteForce(x, y, widths, cn0, count);
+            int expectedPlaced = 0;
+            for (int i = 0; i < count; i++) {
+                assertEquals("satélite " + i + " na tentativa " + trial, expected[i], placer.getCandidate(i));
+                if (expected[i] != LabelPlacer.NOT_PLACED) {
+                    expectedPlaced++;
+                }
+            }
+            assertEquals(expectedPlaced, placed);
+            dropped += count - placed;
+        }
+        assertTrue(dropped > 0); // Céu denso o bastante para descartar alguns
+    }
+
+    @Test
+    public void smallMovement_reusesLayoutAndFollowsDots() {
+        LabelPlacer placer = new LabelPlacer(8, DOT, GAP, 2);
+        placer.begin(HEIGHT);
+        placer.add(1, 0, 0, 30, 40);
+        placer.add(2, 30, 0, 30, 20);
+        placer.layout();
+        assertEquals(1, placer.getLayoutsComputed());
+
+        // Dentro do limiar: mesmas escolhas, rótulos acompanham os pontos
+        placer.begin(HEIGHT);
+        placer.add(1, 1.5f, -1f, 30, 40);
+        placer.add(2, 31, 0, 30, 20);
+        placer.layout();
+        assertEquals(1, placer.getLayoutsComputed());
+        assertEquals(1, placer.getCandidate(0));
+        assertEquals(1.5f - DOT - GAP - 30, placer.getLabelLeft(0), 1e-4);
+
+        // O limiar é medido desde o último layout completo, não desde o quadro anterior
+        placer.begin(HEIGHT);
+        placer.add(1, 3f, 0, 30, 40);
+        placer.add(2, 31, 0, 30, 20);
+        placer.layout();
+        assertEquals(2, placer.getLayoutsComputed());
+    }
+
+    @Test
+    public void changedSatelliteSet_recomputesLayout() {
+        LabelPlacer placer = new LabelPlacer(8, DOT, GAP, 2);
+        placer.begin(HEIGHT);
+        placer.add(1, 0, 0, 30, 40);
+        placer.layout();
+        placer.begin(HEIGHT);
+        placer.add(2, 0, 0, 30, 40); // Mesmo ponto, outro satélite
+        placer.layout();
+        placer.begin(HEIGHT);
+        placer.add(2, 0, 0, 44, 40); // Rótulo mais largo
+        placer.layout();
+        assertEquals(3, placer.getLayoutsComputed());
+    }
+
+    @Test
+    public void beyondCapacity_isIgnored() {
+        LabelPlacer placer = new LabelPlacer(2, DOT, GAP, 2);
+        placer.begin(HEIGHT);
+        assertEquals(0, placer.add(1, 0, 0, 30, 40));
+        assertEquals(1, placer.add(2, 300, 0, 30, 40));
+        assertEquals(-1, placer.add(3, 600, 0, 30, 40));
+        assertEquals(2, placer.layout());
+    }
+
+    @Test
+    public void heapSort_matchesArraysSort() {
+        Random random = new Random(4);
+        for (int n = 0; n < 300; n += 7) {
+            long[] values = new long[n];
+            for (int i = 0; i < n; i++) {
+                values[i] = random.nextInt(5) == 0 ? random.nextInt(3) : random.nextLong();
+            }
+            long[] expected = values.clone();
+            java.util.Arrays.sort(expected);
+            LabelPlacer.heapSort(values, n);
+            assertArrayEquals(expected, values);
+        }
+    }
+
+    @Test
+    public void steadyStateLayout_doesNotAllocate() {
+        LabelPlacer placer = new LabelPlacer(256, DOT, GAP, 2);
+        Random random = new Random(2);
+        float[] positions = new float[400];
+        for (int i = 0; i < positions.length; i++) {
+            positions[i] = (random.nextFloat() - 0.5f) * 700;
+        }
+        long checksum = 0;
+        for (int frame = 0; frame < 20_000; frame++) {
+            checksum += frame(placer, positions, frame);
+        }
+
+        long before = Allocations.currentThreadAllocatedBytes();
+        for (int frame = 0; frame < 5_000; frame++) {
+            checksum += frame(placer, positions, frame);
+        }
+        long allocated = Allocations.currentThreadAllocatedBytes() - before;
+
+        assertTrue(checksum > 0);
+        assertEquals("Bytes alocados em regime permanente", 0, allocated);
+    }
+
+    // Metade dos quadros move os pontos além do limiar e refaz o layout
+    private static int frame(LabelPlacer placer, float[] positions, int frame) {
+        float shift = (frame & 2) * 3;
+        placer.begin(HEIGHT);
+        for (int i = 0; i < 200; i++) {
+            placer.add(i, positions[i * 2] + shift, positions[i * 2 + 1], 28, i % 45);
+        }
+        return placer.layout();
+    }
+
+    // Mesmo algoritmo guloso comparando cada candidato com todas as caixas: O(n²)
+    private static int[] bruteForce(float[] x, float[] y, float[] widths, float[] cn0, int count) {
+        float[][] boxes = new float[count * 2][];
+        int boxCount = 0;
+        for (int i = 0; i < count; i++) {
+            boxes[boxCount++] = new float[]{x[i] - DOT, y[i] - DOT, x[i] + DOT, y[i] + DOT};
+        }
+        Integer[] order = new Integer[count];
+        for (int i = 0; i < count; i++) {
+            order[i] = i;
+        }
+        java.util.Arrays.sort(order, (a, b) -> cn0[a] != cn0[b] ? Float.compare(cn0[b], cn0[a]) : Integer.compare(a, b));
+
+        float[] dx = {1, -1, 0, 0, 1, 1, -1, -1};
+        float[] dy = {0, 0, -1, 1, -1, 1, -1, 1};
+        int[] result = new int[count];
+        java.util.Arrays.fill(result, LabelPlacer.NOT_PLACED);
+        for (int i : order) {
+            for (int c = 0; c < 8; c++) {
+                float left = x[i] + dx[c] * (DOT + GAP + widths[i] / 2) - widths[i] / 2;
+                float top = y[i] + dy[c] * (DOT + GAP + HEIGHT / 2) - HEIGHT / 2;
+                float[] candidate = {left, top, left + widths[i], top + HEIGHT};
+                boolean free = true;
+                for (int b = 0; b < boxCount && free; b++) {
+                    float[] box = boxes[b];
+                    free = !(candidate[0] < box[2] && box[0] < candidate[2] && candidate[1] < box[3] && box[1] < candidate[3]);
+                }
+                if (free) {
+                    boxes[boxCount++] = candidate;
+                    result[i] = c;
+                    break;
+                }
+            }
+        }
+        return result;
+    }
+}
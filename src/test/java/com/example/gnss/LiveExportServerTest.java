@@ -0,0 +1,258 @@
+package com.example.gnss;
+
+import org.junit.Test;
+
+import java.io.BufferedReader;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.Assert.*;
+
+public class LiveExportServerTest {
+
+    private static final InetSocketAddress LOOPBACK = new InetSocketAddress(InetAddress.getLoopbackAddress(), 0);
+
+    @Test
+    public void manyClients_receiveEveryFrameAsSessionStream() throws Exception {
+        int clients = 16;
+        int epochs = 40;
+        int satellites = 20;
+        ExecutorService readers = Executors.newFixedThreadPool(clients);
+        try (LiveExportServer server = LiveExportServer.open(LOOPBACK, LiveExportServer.Format.BINARY, 64, 64, 32)) {
+            List<Socket> sockets = new ArrayList<>();
+            for (int c = 0; c < clients; c++) {
+                sockets.add(connect(server));
+            }
+            waitFor(() -> server.getClientCount() == clients);
+
+            int streamBytes = SessionFormat.RECORD_SIZE * (1 + epochs * (1 + satellites));
+            List<Future<byte[]>> received = new ArrayList<>();
+            for (Socket socket : sockets) {
+                received.add(readers.submit(() -> {
+                    byte[] bytes = new byte[streamBytes];
+                    new DataInputStream(socket.getInputStream()).readFully(bytes);
+                    return bytes;
+                }));
+            }
+            SatelliteSnapshot snapshot = new SatelliteSnapshot(satellites);
+            for (int epoch = 0; epoch < epochs; epoch++) {
+                fill(snapshot, satellites, epoch);
+                server.process(snapshot);
+            }
+
+            for (Future<byte[]> future : received) {
+                List<Long> timestamps = new ArrayList<>();
+                try (SessionReader reader = new SessionReader(ByteBuffer.wrap(future.get()))) {
+                    while (reader.hasNext()) {
+                        reader.next(new SnapshotVisitor() {
+                            @Override
+                            public void onSnapshot(SatelliteSnapshot read) {
+                                assertEquals(satellites, read.getSatelliteCount());
+                                assertEquals(satellites, read.getSvid(satellites - 1));
+                                timestamps.add(read.getTimestampNanos());
+                            }
+                        });
+                    }
+                }
+                assertEquals(epochs, timestamps.size());
+                assertEquals(epochs - 1, (long) timestamps.get(epochs - 1));
+            }
+            waitFor(() -> server.getFramesSent() == clients * (epochs + 1L));
+            assertEquals(0, server.getFramesDropped());
+            for (Socket socket : sockets) {
+                socket.close();
+            }
+        } finally {
+            readers.shutdownNow();
+        }
+    }
+
+    @Test
+    public void nmeaClient_receivesValidGsvAndGgaSentences() throws Exception {
+        try (LiveExportServer server = LiveExportServer.open(0, LiveExportServer.Format.NMEA);
+             Socket socket = connect(server)) {
+            waitFor(() -> server.getClientCount() == 1);
+            SatelliteSnapshot snapshot = new SatelliteSnapshot(8);
+            fill(snapshot, 6, 0);
+            server.process(snapshot);
+            server.publishLocation(0, 0, -23.5, -46.25, 760, 5f, 1.2);
+
+            BufferedReader reader = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+            List<String> lines = new ArrayList<>();
+            String line;
+            while ((line = reader.readLine()) != null) {
+                assertEquals(NmeaEncoderTest.sentence(line.substring(1, line.indexOf('*'))), line + "\r\n");
+                lines.add(line);
+                if (line.startsWith("$GNGGA")) {
+                    break;
+                }
+            }
+            assertTrue(lines.get(0).startsWith("$GPGSV,"));
+            assertTrue(lines.get(lines.size() - 1).startsWith("$GNGGA,000000.00,2330.00000,S,04615.00000,W,1,04,1.2,760.0,"));
+        }
+    }
+
+    @Test
+    public void slowConsumer_dropsOldestFramesWithoutBlockingPublisher() throws Exception {
+        int epochs = 3000;
+        int satellites = 200;
+        try (LiveExportServer server = LiveExportServer.open(LOOPBACK, LiveExportServer.Format.BINARY, 256, 4, 8)) {
+            Socket slow = new Socket();
+            slow.setReceiveBufferSize(4096);
+            slow.connect(new InetSocketAddress(InetAddress.getLoopbackAddress(), server.getLocalPort()));
+            slow.setSoTimeout(10_000);
+            Socket fast = connect(server);
+            waitFor(() -> server.getClientCount() == 2);
+            ExecutorService reader = Executors.newSingleThreadExecutor();
+            Future<Long> fastReceived = reader.submit(() -> readUntil(fast, epochs - 1));
+
+            // Ninguém lê o cliente lento enquanto o pipeline publica mais do que os buffers do socket
+            SatelliteSnapshot snapshot = new SatelliteSnapshot(satellites);
+            long start = System.nanoTime();
+            for (int epoch = 0; epoch < epochs; epoch++) {
+                fill(snapshot, satellites, epoch);
+                server.process(snapshot);
+            }
+            double millis = (System.nanoTime() - start) / 1e6;
+            assertTrue("Publicação levou " + millis + " ms", millis < 5_000);
+            assertTrue(fastReceived.get() > 0); // O cliente rápido chega ao último quadro sem esperar o lento
+            assertTrue(server.getFramesDropped() > 0);
+
+            // O cliente lento recebe quadros inteiros, em ordem, até o mais recente
+            long received = readUntil(slow, epochs - 1);
+            assertTrue(received < epochs);
+            reader.shutdownNow();
+            slow.close();
+            fast.close();
+        }
+    }
+
+    @Test
+    public void clientLimitAndDisconnects_areHandled() throws Exception {
+        try (LiveExportServer server = LiveExportServer.open(LOOPBACK, LiveExportServer.Format.NMEA, 16, 4, 2)) {
+            Socket first = connect(server);
+            Socket second = connect(server);
+            waitFor(() -> server.getClientCount() == 2);
+            try (Socket rejected = connect(server)) {
+                assertEquals(-1, rejected.getInputStream().read());
+            }
+            assertEquals(2, server.getClientCount());
+            first.close();
+            waitFor(() -> server.getClientCount() == 1);
+
+            // Publicar com um cliente a menos continua funcionando
+            SatelliteSnapshot snapshot = new SatelliteSnapshot(4);
+            fill(snapshot, 4, 0);
+            server.process(snapshot);
+            assertTrue(new BufferedReader(new InputStreamReader(second.getInputStream(), StandardCharsets.US_ASCII))
+                    .readLine().startsWith("$GPGSV"));
+            second.close();
+            waitFor(() -> server.getClientCount() == 0);
+        }
+    }
+
+    @Test
+    public void publishing_doesNotAllocate() throws Exception {
+        try (LiveExportServer server = LiveExportServer.open(LOOPBACK, LiveExportServer.Format.NMEA, 64, 8, 4);
+             Socket socket = connect(server)) {
+            waitFor(() -> server.getClientCount() == 1);
+            Thread drain = new Thread(() -> {
+                byte[] buffer = new byte[65536];
+                try {
+                    while (socket.getInputStream().read(buffer) >= 0) {
+                        // Descarta
+                    }
+                } catch (IOException ignored) {
+                    // Socket fechado no fim do teste
+                }
+            });
+            drain.start();
+            SatelliteSnapshot snapshot = new SatelliteSnapshot(40);
+            fill(snapshot, 40, 0);
+            for (int n = 0; n < 20_000; n++) {
+                server.process(snapshot);
+                server.publishLocation(n, n, -23.5, -46.25, 760, 5f, 1.2);
+            }
+
+            long before = Allocations.currentThreadAllocatedBytes();
+            for (int n = 0; n < 20_000; n++) {
+                server.process(snapshot);
+                server.publishLocation(n, n, -23.5, -46.25, 760, 5f, 1.2);
+            }
+            long allocated = Allocations.currentThreadAllocatedBytes() - before;
+            assertEquals("Bytes alocados ao publicar", 0, allocated);
+            assertTrue(server.getFramesSent() > 0);
+        }
+    }
+
+    private static void fill(SatelliteSnapshot snapshot, int satellites, int epoch) {
+        snapshot.clear();
+        for (int i = 0; i < satellites; i++) {
+            snapshot.add(i + 1, 1 + i % 6, 20f + i % 30, i * 7f % 360, i % 90, i % 3 != 0);
+        }
+        snapshot.setTimestampNanos(epoch);
+    }
+
+    // Lê registros do fluxo binário até a época com o timestamp pedido, verificando que cada época
+    // chega inteira e em ordem; retorna quantas épocas chegaram
+    private static long readUntil(Socket socket, long lastTimestamp) throws IOException {
+        DataInputStream input = new DataInputStream(socket.getInputStream());
+        ByteBuffer record = ByteBuffer.allocate(SessionFormat.RECORD_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        input.readFully(record.array());
+        assertEquals(SessionFormat.TYPE_HEADER, record.get(SessionFormat.OFFSET_TYPE));
+        long previous = -1;
+        long epochs = 0;
+        while (previous != lastTimestamp) {
+            input.readFully(record.array());
+            assertEquals(SessionFormat.TYPE_EPOCH, record.get(SessionFormat.OFFSET_TYPE));
+            long timestamp = record.getLong(SessionFormat.OFFSET_TIMESTAMP);
+            assertTrue(timestamp > previous);
+            int count = record.getInt(SessionFormat.OFFSET_INFO);
+            for (int i = 0; i < count; i++) {
+                input.readFully(record.array());
+                assertEquals(SessionFormat.TYPE_SATELLITE, record.get(SessionFormat.OFFSET_TYPE));
+                assertEquals(timestamp, record.getLong(SessionFormat.OFFSET_TIMESTAMP));
+            }
+            previous = timestamp;
+            epochs++;
+        }
+        return epochs;
+    }
+
+    private static Socket connect(LiveExportServer server) throws IOException {
+        Socket socket = new Socket(InetAddress.getLoopbackAddress(), server.getLocalPort());
+        socket.setSoTimeout(10_000);
+        return socket;
+    }
+
+    private static void waitFor(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + 10_000_000_000L;
+        while (!condition.getAsBoolean()) {
+            assertTrue("Tempo esgotado", System.nanoTime() < deadline);
+            Thread.sleep(5);
+        }
+    }
+
+    private abstract static class SnapshotVisitor implements SessionReader.Visitor {
+        @Override
+        public void onLocation(long timestampNanos, double latitude, double longitude, float accuracyMeters) {
+        }
+
+        @Override
+        public void onRotation(long timestampNanos, float azimuth, float pitch, float roll) {
+        }
+    }
+}
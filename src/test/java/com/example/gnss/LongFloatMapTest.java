@@ -0,0 +1,96 @@
+package com.example.gnss;
+
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class LongFloatMapTest {
+
+    @Test
+    public void randomOperations_matchHashMap() {
+        LongFloatMap map = new LongFloatMap(64);
+        Map<Long, Float> expected = new HashMap<>();
+        Random random = new Random(5);
+        for (int n = 0; n < 50_000; n++) {
+            // Poucas chaves e bandas vizinhas, para forçar colisões e remoções no meio das sequências
+            long key = SignalKey.of(1 + random.nextInt(3), random.nextInt(40), random.nextInt(SignalKey.BAND_COUNT));
+            int op = random.nextInt(3);
+            if (op == 0 && expected.size() < 64) {
+                float value = random.nextFloat();
+                assertTrue(map.put(key, value));
+                expected.put(key, value);
+            } else if (op == 1) {
+                assertEquals(expected.remove(key) != null, map.remove(key));
+            } else {
+                Float value = expected.get(key);
+                assertEquals(value != null ? value : -1f, map.get(key, -1f), 0f);
+                assertEquals(value != null, map.containsKey(key));
+            }
+            assertEquals(expected.size(), map.size());
+        }
+
+        int visited = 0;
+        for (int slot = 0; slot < map.getTableSize(); slot++) {
+            if (map.isOccupied(slot)) {
+                assertEquals(expected.get(map.keyAt(slot)), map.valueAt(slot), 0f);
+                visited++;
+            }
+        }
+        assertEquals(expected.size(), visited);
+    }
+
+    @Test
+    public void fullMap_rejectsNewKeysButUpdatesExisting() {
+        LongFloatMap map = new LongFloatMap(2);
+        assertTrue(map.put(SignalKey.of(1, 5, SignalKey.L1), 40f));
+        assertTrue(map.put(SignalKey.of(1, 5, SignalKey.L5), 35f));
+        assertFalse(map.put(SignalKey.of(1, 6, SignalKey.L1), 30f));
+        assertTrue(map.put(SignalKey.of(1, 5, SignalKey.L5), 36f));
+        assertEquals(36f, map.get(SignalKey.of(1, 5, SignalKey.L5), 0f), 0f);
+        assertEquals(40f, map.get(SignalKey.of(1, 5, SignalKey.L1), 0f), 0f);
+
+        map.clear();
+        assertEquals(0, map.size());
+        assertTrue(map.put(SignalKey.of(1, 6, SignalKey.L1), 30f));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void reservedKey_isRejected() {
+        new LongFloatMap(4).put(Long.MIN_VALUE, 1f);
+    }
+
+    @Test
+    public void steadyStateUpdates_doNotAllocate() {
+        LongFloatMap map = new LongFloatMap(256);
+        float checksum = 0;
+        for (int n = 0; n < 20_000; n++) {
+            checksum += epoch(map, n);
+        }
+
+        long before = Allocations.currentThreadAllocatedBytes();
+        for (int n = 0; n < 5_000; n++) {
+            checksum += epoch(map, n);
+        }
+        long allocated = Allocations.currentThreadAllocatedBytes() - before;
+
+        assertTrue(checksum > 0);
+        assertEquals("Bytes alocados em regime permanente", 0, allocated);
+    }
+
+    // Uma época de 200 sinais em L1 e L5: limpa, grava e lê de volta
+    private static float epoch(LongFloatMap map, int n) {
+        map.clear();
+        for (int i = 0; i < 200; i++) {
+            map.put(SignalKey.of(1 + i % 6, 1 + i / 2, i % 2 == 0 ? SignalKey.L1 : SignalKey.L5), 20 + (i + n) % 30);
+        }
+        float sum = 0;
+        for (int i = 0; i < 200; i++) {
+            sum += map.get(SignalKey.of(1 + i % 6, 1 + i / 2, i % 2 == 0 ? SignalKey.L1 : SignalKey.L5), 0f);
+        }
+        return sum;
+    }
+}
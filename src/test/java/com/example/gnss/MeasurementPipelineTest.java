@@ -0,0 +1,199 @@
+package com.example.gnss;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class MeasurementPipelineTest {
+
+    private static final long SECOND = 1_000_000_000L;
+    private static final float L1 = 1_575.42e6f;
+    private static final float L5 = 1_176.45e6f;
+    private static final int VALID = MeasurementStore.ADR_STATE_VALID;
+
+    private final MeasurementPipeline pipeline = new MeasurementPipeline(64);
+
+    private static void add(MeasurementStore store, int svid, float cn0, float prr, double adr, int state, float carrier) {
+        store.add(svid, 1, cn0, prr, 0.05f, adr, state, MeasurementStore.MULTIPATH_NOT_DETECTED, 2.5f, carrier);
+    }
+
+    @Test
+    public void cn0Delta_comparesWithLatestStatus() {
+        SatelliteSnapshot status = new SatelliteSnapshot(4);
+        status.add(5, 1, 40f, 0f, 45f, true);
+        pipeline.process(status);
+
+        MeasurementStore store = pipeline.beginEpoch();
+        add(store, 5, 42.5f, 0f, 0, 0, L1);
+        add(store, 6, 30f, 0f, 0, 0, L1); // Fora do status
+        pipeline.commitEpoch();
+
+        MeasurementStore latest = pipeline.acquireLatest();
+        assertSame(store, latest);
+        assertEquals(1, latest.getSequence());
+        assertEquals(2.5f, latest.getCn0DeltaDbHz(0), 1e-4f);
+        assertTrue(Float.isNaN(latest.getCn0DeltaDbHz(1)));
+        assertEquals(2.5f, latest.getAgcDb(0), 0f);
+    }
+
+    @Test
+    public void dopplerResidual_isPseudorangeRateMinusPhaseRate() {
+        epoch(0, 5, -120f, 1_000.0, VALID, L1);
+        MeasurementStore first = pipeline.acquireLatest();
+        assertTrue(Float.isNaN(first.getDopplerResidualMps(0))); // Sem época anterior
+        assertFalse(first.hasCycleSlip(0));
+
+        epoch(SECOND, 5, -120f, 880.1, VALID, L1); // Fase andou -119,9 m em 1 s
+        MeasurementStore second = pipeline.acquireLatest();
+        assertEquals(-0.1f, second.getDopplerResidualMps(0), 1e-3f);
+        assertFalse(second.hasCycleSlip(0));
+    }
+
+    @Test
+    public void phaseJump_largerThanWavelength_isCycleSlip() {
+        epoch(0, 5, 10f, 0.0, VALID, L1);
+        epoch(SECOND, 5, 10f, 10.5, VALID, L1); // 0,5 m fora, mais de um ciclo de L1 (0,19 m)
+
+        MeasurementStore store = pipeline.acquireLatest();
+        assertEquals(-0.5f, store.getDopplerResidualMps(0), 1e-3f);
+        assertTrue(store.hasCycleSlip(0));
+    }
+
+    @Test
+    public void receiverReportedSlip_skipsResidual() {
+        epoch(0, 5, 10f, 0.0, VALID, L1);
+        epoch(SECOND, 5, 10f, 10.0, VALID | MeasurementStore.ADR_STATE_CYCLE_SLIP, L1);
+
+        MeasurementStore store = pipeline.acquireLatest();
+        assertTrue(store.hasCycleSlip(0));
+        assertTrue(Float.isNaN(store.getDopplerResidualMps(0)));
+
+        // Fase inválida na época anterior: sem resíduo, mas também sem slip
+        epoch(2 * SECOND, 5, 10f, 20.0, 0, L1);
+        epoch(3 * SECOND, 5, 10f, 30.0, VALID, L1);
+        store = pipeline.acquireLatest();
+        assertTrue(Float.isNaN(store.getDopplerResidualMps(0)));
+        assertFalse(store.hasCycleSlip(0));
+    }
+
+    @Test
+    public void signalsOfSameSatellite_areTrackedPerCarrier() {
+        MeasurementStore store = pipeline.beginEpoch();
+        store.setClockNanos(0);
+        add(store, 5, 40f, 10f, 0.0, VALID, L1);
+        add(store, 5, 38f, 10f, 500.0, VALID, L5);
+        pipeline.commitEpoch();
+
+        store = pipeline.beginEpoch();
+        store.setClockNanos(SECOND);
+        add(store, 5, 38f, 10f, 510.0, VALID, L5); // Ordem trocada entre as épocas
+        add(store, 5, 40f, 10f, 10.0, VALID, L1);
+        pipeline.commitEpoch();
+
+        MeasurementStore latest = pipeline.acquireLatest();
+        assertEquals(0f, latest.getDopplerResidualMps(0), 1e-3f);
+        assertEquals(0f, latest.getDopplerResidualMps(1), 1e-3f);
+    }
+
+    @Test
+    public void reset_forgetsPreviousEpoch() {
+        epoch(0, 5, 10f, 0.0, VALID, L1);
+        pipeline.reset();
+        epoch(SECOND, 5, 10f, 99.0, VALID, L1);
+
+        MeasurementStore store = pipeline.acquireLatest();
+        assertTrue(Float.isNaN(store.getDopplerResidualMps(0)));
+        assertFalse(store.hasCycleSlip(0));
+    }
+
+    @Test
+    public void derivedMetrics_reachGnssMetrics() {
+        GnssMetrics metrics = new GnssMetrics();
+        pipeline.setMetrics(metrics);
+        SatelliteSnapshot status = new SatelliteSnapshot(4);
+        status.add(5, 1, 38f, 0f, 45f, true);
+        pipeline.process(status);
+
+        epoch(0, 5, 10f, 0.0, VALID, L1);
+        epoch(SECOND, 5, 10f, 10.5, VALID, L1); // Resíduo de -0,5 m/s e slip
+
+        MetricsSnapshot snapshot = metrics.snapshot(new MetricsSnapshot(), SECOND);
+        assertEquals(2, snapshot.measurementEpochs);
+        assertEquals(2, snapshot.measurements);
+        assertEquals(1, snapshot.cycleSlips);
+        assertEquals(1, snapshot.dopplerResidualMmps.count);
+        assertEquals(500, snapshot.dopplerResidualMmps.max);
+        assertEquals(2, snapshot.cn0DeltaCentiDbHz.count);
+        assertEquals(200, snapshot.cn0DeltaCentiDbHz.max);
+        String text = snapshot.toString();
+        assertTrue(text, text.contains("medicoes: 2 epocas, 2 sinais, cycle slips 1\n"));
+        assertTrue(text, text.contains("doppler_residuo_mps: p50 "));
+    }
+
+    @Test
+    public void memoryPerEpoch_isFixedAndSmall() {
+        MeasurementStore store = new MeasurementStore();
+        // 256 medições cabem em menos de 16 KiB por época, alocados uma única vez
+        assertTrue(store.getMemoryBytes() < 16 * 1024);
+        assertEquals(53, store.getMemoryBytes() / store.getCapacity());
+    }
+
+    @Test
+    public void syntheticEpochs_areProcessedQuicklyWithoutAllocating() {
+        MeasurementPipeline full = new MeasurementPipeline();
+        full.setMetrics(new GnssMetrics()); // O registro das métricas também não pode alocar
+        SatelliteSnapshot status = new SatelliteSnapshot();
+        for (int i = 0; i < 64; i++) {
+            status.add(i + 1, 1 + i % 6, 35f, i * 5f, i, true);
+        }
+        full.process(status);
+
+        // Aquece o JIT antes de medir
+        double checksum = 0;
+        for (int epoch = 0; epoch < 20_000; epoch++) {
+            checksum += syntheticEpoch(full, epoch);
+        }
+
+        long before = Allocations.currentThreadAllocatedBytes();
+        long start = System.nanoTime();
+        int epochs = 20_000;
+        for (int epoch = 0; epoch < epochs; epoch++) {
+            checksum += syntheticEpoch(full, epoch);
+        }
+        long elapsed = System.nanoTime() - start;
+        long allocated = Allocations.currentThreadAllocatedBytes() - before;
+
+        assertFalse(Double.isNaN(checksum));
+        assertEquals("Bytes alocados em regime permanente", 0, allocated);
+        // Limite folgado: na prática são centenas de milhares de épocas de 128 sinais por segundo
+        double epochsPerSecond = epochs / (elapsed / 1e9);
+        assertTrue("Épocas por segundo: " + epochsPerSecond, epochsPerSecond > 5_000);
+    }
+
+    // 64 satélites em L1 e L5 com fase coerente com o Doppler, como num receptor de dupla frequência
+    private static double syntheticEpoch(MeasurementPipeline pipeline, int epoch) {
+        MeasurementStore store = pipeline.beginEpoch();
+        store.setClockNanos(epoch * SECOND);
+        for (int i = 0; i < 64; i++) {
+            float prr = -400f + i * 12.5f;
+            double adr = (double) prr * epoch;
+            store.add(i + 1, 1 + i % 6, 30f + i % 15, prr, 0.05f, adr, VALID, MeasurementStore.MULTIPATH_UNKNOWN, Float.NaN, L1);
+            store.add(i + 1, 1 + i % 6, 28f + i % 15, prr, 0.05f, adr, VALID, MeasurementStore.MULTIPATH_UNKNOWN, Float.NaN, L5);
+        }
+        pipeline.commitEpoch();
+
+        MeasurementStore latest = pipeline.acquireLatest();
+        double sum = 0;
+        for (int i = 0; i < latest.getMeasurementCount(); i++) {
+            sum += latest.getCn0DeltaDbHz(i) + (latest.hasCycleSlip(i) ? 1 : 0);
+        }
+        return sum;
+    }
+
+    private void epoch(long clockNanos, int svid, float prr, double adr, int state, float carrier) {
+        MeasurementStore store = pipeline.beginEpoch();
+        store.setClockNanos(clockNanos);
+        add(store, svid, 40f, prr, adr, state, carrier);
+        pipeline.commitEpoch();
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.gnss;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class MergeableHistogramTest {
+
+    @Test
+    public void quantiles_stayWithinOneBinOfExact() {
+        MergeableHistogram histogram = new MergeableHistogram(0, 70, 0.1);
+        Random random = new Random(4);
+        double[] values = new double[50_000];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = Math.max(0, Math.min(69.9, 35 + random.nextGaussian() * 8));
+            histogram.add(values[i]);
+        }
+        Arrays.sort(values);
+        for (double q : new double[]{0.01, 0.1, 0.5, 0.9, 0.99}) {
+            double exact = values[(int) Math.ceil(q * values.length) - 1];
+            assertEquals("p" + q, exact, histogram.quantile(q), 0.1);
+        }
+        assertEquals(values[0], histogram.quantile(0), 0);
+        assertEquals(values[values.length - 1], histogram.quantile(1), 0);
+        assertEquals(values.length, histogram.getCount());
+    }
+
+    @Test
+    public void merge_equalsAddingEverythingToOne() {
+        MergeableHistogram first = new MergeableHistogram(0, 100, 1);
+        MergeableHistogram second = new MergeableHistogram(0, 100, 1);
+        MergeableHistogram both = new MergeableHistogram(0, 100, 1);
+        Random random = new Random(9);
+        for (int i = 0; i < 10_000; i++) {
+            double value = random.nextDouble() * 120 - 10; // Parte fora da faixa
+            (i % 4 == 0 ? first : second).add(value);
+            both.add(value);
+        }
+        first.merge(second);
+        for (int bin = 0; bin < both.getBinCount(); bin++) {
+            assertEquals(both.getBin(bin), first.getBin(bin));
+        }
+        assertEquals(both.getMin(), first.getMin(), 0);
+        assertEquals(both.getMax(), first.getMax(), 0);
+        assertEquals(both.getMean(), first.getMean(), 1e-9);
+        assertEquals(both.quantile(0.5), first.quantile(0.5), 0);
+    }
+
+    @Test
+    public void outOfRangeValues_areClampedToEdgeBins() {
+        MergeableHistogram histogram = new MergeableHistogram(0, 10, 1);
+        histogram.add(-5);
+        histogram.add(25, 3);
+        histogram.add(Double.NaN);
+        assertEquals(4, histogram.getCount());
+        assertEquals(1, histogram.getBin(0));
+        assertEquals(3, histogram.getBin(9));
+        assertEquals(-5, histogram.getMin(), 0);
+        assertEquals(25, histogram.getMax(), 0);
+        assertTrue(Double.isNaN(new MergeableHistogram(0, 10, 1).quantile(0.5)));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void merge_rejectsDifferentGrid() {
+        new MergeableHistogram(0, 10, 1).merge(new MergeableHistogram(0, 10, 0.5));
+    }
+}
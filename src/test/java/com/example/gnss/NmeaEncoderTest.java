@@ -0,0 +1,90 @@
+package com.example.gnss;
+
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.*;
+
+public class NmeaEncoderTest {
+
+    @Test
+    public void checksum_matchesReferenceSentence() {
+        // Exemplo clássico da especificação NMEA 0183
+        assertEquals("$GPGGA,123519,4807.038,N,01131.000,E,1,08,0.9,545.4,M,46.9,M,,*47\r\n",
+                sentence("GPGGA,123519,4807.038,N,01131.000,E,1,08,0.9,545.4,M,46.9,M,,"));
+    }
+
+    @Test
+    public void gsv_groupsByTalkerWithFourSatellitesPerSentence() {
+        SatelliteSnapshot snapshot = new SatelliteSnapshot(16);
+        snapshot.add(3, ConstellationRegistry.GPS, 41.6f, 123.6f, 45.4f, true);
+        snapshot.add(5, ConstellationRegistry.GPS, 38f, 200f, 30f, true, 1575.42e6f);
+        snapshot.add(5, ConstellationRegistry.GPS, 40f, 200f, 30f, true, 1176.45e6f); // Mesma posição em L5, mais forte
+        snapshot.add(131, ConstellationRegistry.SBAS, 33f, 5f, 10f, false);
+        snapshot.add(9, ConstellationRegistry.GPS, 0f, 350f, -3f, false);
+        snapshot.add(12, ConstellationRegistry.GPS, 25f, 359.6f, 88.7f, true);
+        snapshot.add(7, ConstellationRegistry.GLONASS, 30f, 90f, 20f, true);
+        snapshot.add(11, ConstellationRegistry.GALILEO, 45f, 270f, 60f, true);
+        snapshot.add(1, ConstellationRegistry.UNKNOWN, 30f, 10f, 10f, false);
+
+        String expected = sentence("GPGSV,2,1,05,03,45,124,42,05,30,200,40,44,10,005,33,09,00,350,")
+                + sentence("GPGSV,2,2,05,12,89,000,25")
+                + sentence("GLGSV,1,1,01,71,20,090,30")
+                + sentence("GAGSV,1,1,01,11,60,270,45");
+        NmeaEncoder encoder = new NmeaEncoder(16);
+        assertEquals(expected, gsv(encoder, snapshot));
+        assertEquals(5, encoder.countUsedSatellites(snapshot)); // GPS 5 conta uma vez
+    }
+
+    @Test
+    public void gsv_fullSkyFitsDeclaredBound() {
+        SatelliteSnapshot snapshot = new SatelliteSnapshot(SatelliteSnapshot.DEFAULT_CAPACITY);
+        int[] constellations = {1, 3, 6, 5};
+        for (int i = 0; i < SatelliteSnapshot.DEFAULT_CAPACITY; i++) {
+            snapshot.add(100 + i, constellations[i % 4], 99.9f, 359.9f, 90f, true);
+        }
+        NmeaEncoder encoder = new NmeaEncoder();
+        byte[] out = new byte[NmeaEncoder.maxGsvBytes(SatelliteSnapshot.DEFAULT_CAPACITY)];
+        int length = encoder.appendGsv(snapshot, out, 0);
+        String[] lines = new String(out, 0, length, StandardCharsets.US_ASCII).split("\r\n");
+        assertEquals(SatelliteSnapshot.DEFAULT_CAPACITY / 4, lines.length);
+        for (String line : lines) {
+            assertTrue(line, line.length() + 2 <= NmeaEncoder.MAX_SENTENCE);
+        }
+    }
+
+    @Test
+    public void gga_formatsPositionTimeAndOptionalFields() {
+        NmeaEncoder encoder = new NmeaEncoder(4);
+        byte[] out = new byte[NmeaEncoder.MAX_SENTENCE];
+        long utc = 1_704_067_200_000L + 45_319_500L; // 2024-01-01 12:35:19.50 UTC
+
+        int length = encoder.appendGga(utc, 48.1173, 11.0 + 31.0 / 60, 545.4, 8, 0.9, out, 0);
+        assertEquals(sentence("GNGGA,123519.50,4807.03800,N,01131.00000,E,1,08,0.9,545.4,M,,M,,"),
+                new String(out, 0, length, StandardCharsets.US_ASCII));
+
+        length = encoder.appendGga(utc, -23.5, -46.25, Double.NaN, 12, Double.NaN, out, 0);
+        assertEquals(sentence("GNGGA,123519.50,2330.00000,S,04615.00000,W,1,12,,,M,,M,,"),
+                new String(out, 0, length, StandardCharsets.US_ASCII));
+
+        // Minutos que arredondam para 60 passam para o grau seguinte
+        length = encoder.appendGga(0, 10.9999999999, 0, -12.25, 4, 1.25, out, 0);
+        assertEquals(sentence("GNGGA,000000.00,1100.00000,N,00000.00000,E,1,04,1.3,-12.3,M,,M,,"),
+                new String(out, 0, length, StandardCharsets.US_ASCII));
+    }
+
+    static String sentence(String body) {
+        int checksum = 0;
+        for (int i = 0; i < body.length(); i++) {
+            checksum ^= body.charAt(i);
+        }
+        return "$" + body + "*" + String.format("%02X", checksum) + "\r\n";
+    }
+
+    private static String gsv(NmeaEncoder encoder, SatelliteSnapshot snapshot) {
+        byte[] out = new byte[4096];
+        int length = encoder.appendGsv(snapshot, out, 0);
+        return new String(out, 0, length, StandardCharsets.US_ASCII);
+    }
+}
@@ -0,0 +1,158 @@
+package com.example.gnss;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class OrbitElementsTest {
+
+    private static final double GPS_SQRT_A = 5153.6;
+
+    @Test
+    public void circularEquatorialOrbit_matchesClosedForm() {
+        OrbitElements elements = new OrbitElements(1);
+        elements.add(ConstellationRegistry.GPS, 1, 2300, 0, GPS_SQRT_A, 0, 0, 0, 0, 0, 0);
+        double a = GPS_SQRT_A * GPS_SQRT_A;
+        double period = 2 * Math.PI * Math.sqrt(a * a * a / OrbitElements.GPS_MU);
+        double[] ecef = new double[3];
+
+        elements.positionsAt(GpsTime.fromWeek(2300, 0), ecef);
+        assertEquals(a, ecef[0], 1e-6);
+        assertEquals(0, ecef[1], 1e-6);
+
+        // Um quarto de órbita depois o satélite avançou 90°, e a Terra girou por baixo dele
+        elements.positionsAt(GpsTime.fromWeek(2300, period / 4), ecef);
+        double angle = Math.PI / 2 - OrbitElements.EARTH_ROTATION_RATE * period / 4;
+        assertEquals(a * Math.cos(angle), ecef[0], 1e-4);
+        assertEquals(a * Math.sin(angle), ecef[1], 1e-4);
+        assertEquals(0, ecef[2], 1e-6);
+    }
+
+    @Test
+    public void almanacPositions_matchReferenceImplementation() throws IOException {
+        OrbitElements elements;
+        try (Reader reader = new InputStreamReader(
+                getClass().getResourceAsStream("/almanac/yuma_sample.alm"), StandardCharsets.US_ASCII)) {
+            elements = YumaAlmanacParser.parse(reader, 2360);
+        }
+        double[][] raw = {
+                // e, toa, i0, OmegaDot, sqrtA, Omega0, omega, M0
+                {0.1234245300E-001, 405504, 0.9889813662, -0.7600316583E-008, 5153.620605, -0.1171434021E+001, 0.924138069, -0.2474389911E+001},
+                {0.1819992065E-001, 405504, 0.9643635750, -0.7908900936E-008, 5153.600098, -0.1233457923E+001, -1.288374305, 0.1839021206E+001},
+                {0.5904197693E-002, 405504, 0.9667291641, -0.7886042436E-008, 5153.665039, 0.1973512769E+001, 1.160913467, 0.2980937004E+001},
+        };
+        double[] ecef = new double[9];
+        for (double offset = -86_400; offset <= 86_400; offset += 3_600) {
+            double t = GpsTime.fromWeek(2361, 405504) + offset;
+            elements.positionsAt(t, ecef);
+            for (int i = 0; i < raw.length; i++) {
+                double[] expected = ReferenceOrbit.position(raw[i], 0, 0, new double[6], 2361, t);
+                assertEquals(expected[0], ecef[3 * i], 1e-3);
+                assertEquals(expected[1], ecef[3 * i + 1], 1e-3);
+                assertEquals(expected[2], ecef[3 * i + 2], 1e-3);
+                double radius = Math.sqrt(ecef[3 * i] * ecef[3 * i] + ecef[3 * i + 1] * ecef[3 * i + 1] + ecef[3 * i + 2] * ecef[3 * i + 2]);
+                assertTrue(radius > 25_900_000 && radius < 27_200_000); // Órbita média GPS
+            }
+        }
+    }
+
+    @Test
+    public void ephemerisCorrections_matchReferenceImplementation() {
+        Random random = new Random(11);
+        OrbitElements elements = new OrbitElements(32);
+        double[][] raw = new double[32][];
+        double[][] harmonics = new double[32][];
+        double[] deltaN = new double[32];
+        double[] iDot = new double[32];
+        for (int i = 0; i < 32; i++) {
+            raw[i] = new double[]{random.nextDouble() * 0.02, 7200 * random.nextInt(84), 0.95 + random.nextDouble() * 0.05,
+                    -8e-9, 5153.5 + random.nextDouble(), random.nextDouble() * 6 - 3, random.nextDouble() * 6 - 3, random.nextDouble() * 6 - 3};
+            harmonics[i] = new double[]{1e-6, 8e-6, 250, -40, 1e-7, -5e-8};
+            deltaN[i] = 4.5e-9;
+            iDot[i] = -2e-10;
+            int index = elements.add(ConstellationRegistry.GALILEO, i + 1, 2361, raw[i][1], raw[i][4], raw[i][0], raw[i][2],
+                    raw[i][5], raw[i][3], raw[i][6], raw[i][7]);
+            double[] h = harmonics[i];
+            elements.setCorrections(index, deltaN[i], iDot[i], h[0], h[1], h[2], h[3], h[4], h[5]);
+        }
+        double[] ecef = new double[3 * 32];
+        double t = GpsTime.fromWeek(2361, 300_000);
+        elements.positionsAt(t, ecef);
+        for (int i = 0; i < 32; i++) {
+            double[] expected = ReferenceOrbit.position(raw[i], deltaN[i], iDot[i], harmonics[i], 2361, t, OrbitElements.GALILEO_MU);
+            assertEquals(expected[0], ecef[3 * i], 1e-3);
+            assertEquals(expected[1], ecef[3 * i + 1], 1e-3);
+            assertEquals(expected[2], ecef[3 * i + 2], 1e-3);
+        }
+    }
+
+    @Test
+    public void topocentricFrame_pointsAtSatellites() {
+        float[] azimuths = new float[2];
+        float[] elevations = new float[2];
+        double a = GPS_SQRT_A * GPS_SQRT_A;
+
+        // Satélite sobre o equador no meridiano de Greenwich
+        double[] ecef = {a, 0, 0, 0, a, 0};
+        new TopocentricFrame(0, 0, 0).toAzimuthElevation(ecef, 2, azimuths, elevations, 0);
+        assertEquals(90f, elevations[0], 1e-4f);
+        assertTrue(elevations[1] < 0); // 90° de longitude a leste: abaixo do horizonte
+
+        // Do hemisfério norte, o mesmo satélite fica ao sul
+        new TopocentricFrame(45, 0, 0).toAzimuthElevation(ecef, 1, azimuths, elevations, 0);
+        assertEquals(180f, azimuths[0], 1e-3f);
+        assertTrue(elevations[0] > 30 && elevations[0] < 45);
+
+        // E de um observador a oeste, a leste
+        new TopocentricFrame(0, -30, 0).toAzimuthElevation(ecef, 1, azimuths, elevations, 0);
+        assertEquals(90f, azimuths[0], 1e-3f);
+    }
+
+    // Implementação direta da tabela 20-IV do IS-GPS-200, sem nada memorizado, usada como referência
+    static final class ReferenceOrbit {
+
+        static double[] position(double[] raw, double deltaN, double iDot, double[] harmonics, int week, double t) {
+            return position(raw, deltaN, iDot, harmonics, week, t, 3.986005e14);
+        }
+
+        static double[] position(double[] raw, double deltaN, double iDot, double[] harmonics, int week, double t, double mu) {
+            double e = raw[0], toe = raw[1], i0 = raw[2], omegaDot = raw[3], sqrtA = raw[4];
+            double omega0 = raw[5], omega = raw[6], m0 = raw[7];
+            double cuc = harmonics[0], cus = harmonics[1], crc = harmonics[2], crs = harmonics[3];
+            double cic = harmonics[4], cis = harmonics[5];
+            double omegaE = 7.2921151467e-5;
+
+            double a = Math.pow(sqrtA, 2);
+            double n = Math.sqrt(mu / Math.pow(a, 3)) + deltaN;
+            double tk = t - (week * 604800.0 + toe);
+            double mk = m0 + n * tk;
+            double ek = mk;
+            for (int k = 0; k < 100; k++) {
+                double next = mk + e * Math.sin(ek);
+                if (Math.abs(next - ek) < 1e-15) {
+                    break;
+                }
+                ek = next;
+            }
+            double vk = Math.atan2(Math.sqrt(1 - e * e) * Math.sin(ek), Math.cos(ek) - e);
+            double phik = vk + omega;
+            double uk = phik + cus * Math.sin(2 * phik) + cuc * Math.cos(2 * phik);
+            double rk = a * (1 - e * Math.cos(ek)) + crs * Math.sin(2 * phik) + crc * Math.cos(2 * phik);
+            double ik = i0 + cis * Math.sin(2 * phik) + cic * Math.cos(2 * phik) + iDot * tk;
+            double xk1 = rk * Math.cos(uk);
+            double yk1 = rk * Math.sin(uk);
+            double omegak = omega0 + (omegaDot - omegaE) * tk - omegaE * toe;
+            return new double[]{
+                    xk1 * Math.cos(omegak) - yk1 * Math.cos(ik) * Math.sin(omegak),
+                    xk1 * Math.sin(omegak) + yk1 * Math.cos(ik) * Math.cos(omegak),
+                    yk1 * Math.sin(ik)
+            };
+        }
+    }
+}
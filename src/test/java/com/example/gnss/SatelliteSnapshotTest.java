@@ -0,0 +1,86 @@
+package com.example.gnss;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class SatelliteSnapshotTest {
+
+    private static final int SATELLITES = 48;
+
+    @Test
+    public void add_storesAllFields() {
+        SatelliteSnapshot snapshot = new SatelliteSnapshot(4);
+        assertTrue(snapshot.add(12, 1, 38.5f, 270f, 45f, true));
+
+        assertEquals(1, snapshot.getSatelliteCount());
+        assertEquals(12, snapshot.getSvid(0));
+        assertEquals(1, snapshot.getConstellationType(0));
+        assertEquals(38.5f, snapshot.getCn0DbHz(0), 0f);
+        assertEquals(270f, snapshot.getAzimuthDegrees(0), 0f);
+        assertEquals(45f, snapshot.getElevationDegrees(0), 0f);
+        assertTrue(snapshot.usedInFix(0));
+    }
+
+    @Test
+    public void add_rejectsWhenFull() {
+        SatelliteSnapshot snapshot = new SatelliteSnapshot(2);
+        assertTrue(snapshot.add(1, 1, 30f, 0f, 10f, false));
+        assertTrue(snapshot.add(2, 1, 30f, 0f, 10f, false));
+        assertFalse(snapshot.add(3, 1, 30f, 0f, 10f, false));
+        assertEquals(2, snapshot.getSatelliteCount());
+    }
+
+    @Test
+    public void computeStatistics_ignoresSatellitesWithoutSignal() {
+        SatelliteSnapshot snapshot = new SatelliteSnapshot(4);
+        snapshot.add(1, 1, 30f, 0f, 10f, true);
+        snapshot.add(2, 1, 40f, 0f, 10f, true);
+        snapshot.add(3, 3, 0f, 0f, 10f, false);
+        snapshot.computeStatistics();
+
+        assertEquals(2, snapshot.getSatellitesWithSignal());
+        assertEquals(2, snapshot.getSatellitesUsedInFix());
+        assertEquals(35f, snapshot.getMeanCn0DbHz(), 1e-4f);
+        assertEquals(40f, snapshot.getMaxCn0DbHz(), 0f);
+    }
+
+    @Test
+    public void steadyStateUpdates_doNotAllocate() {
+        GnssPipeline pipeline = new GnssPipeline();
+
+        // Aquece o JIT antes de medir
+        float checksum = 0;
+        for (int epoch = 0; epoch < 20_000; epoch++) {
+            checksum += simulateCallback(pipeline, epoch);
+        }
+
+        long before = Allocations.currentThreadAllocatedBytes();
+        for (int epoch = 0; epoch < 10_000; epoch++) {
+            checksum += simulateCallback(pipeline, epoch);
+        }
+        long allocated = Allocations.currentThreadAllocatedBytes() - before;
+
+        assertTrue(checksum > 0);
+        assertEquals("Bytes alocados em regime permanente", 0, allocated);
+    }
+
+    // Reproduz o caminho do callback: preenche, publica e percorre o snapshot como as views
+    private static float simulateCallback(GnssPipeline pipeline, int epoch) {
+        SatelliteSnapshot back = pipeline.beginUpdate();
+        for (int i = 0; i < SATELLITES; i++) {
+            back.add(i + 1, 1 + (i % 6), 20f + ((epoch + i) % 30), (i * 7.5f) % 360f, (i * 3f) % 90f, (i & 1) == 0);
+        }
+        back.setTimestampNanos(epoch);
+
+        pipeline.commitUpdate();
+        SatelliteSnapshot front = pipeline.acquireLatest();
+        float sum = 0;
+        for (int i = 0; i < front.getSatelliteCount(); i++) {
+            if (front.getCn0DbHz(i) > 0) {
+                sum += front.getCn0DbHz(i) + front.getSvid(i);
+            }
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,173 @@
+package com.example.gnss;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class SessionAnalyticsTest {
+
+    private static final long SECOND = 1_000_000_000L;
+    private static final float L1_HZ = 1575.42e6f;
+    private static final float L5_HZ = 1176.45e6f;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void knownSession_producesExpectedMetrics() throws IOException {
+        File file = folder.newFile("sessao-1" + SessionFormat.FILE_EXTENSION);
+        SatelliteSnapshot snapshot = new SatelliteSnapshot(8);
+        try (SessionWriter writer = SessionWriter.create(file, 0)) {
+            writer.writeLocation(0, 0, 0, 10f); // Início da sessão
+            for (int second = 1; second <= 100; second++) {
+                if (second >= 60 && second < 70) {
+                    continue; // Dez segundos sem GnssStatus
+                }
+                // Sem fix nos primeiros 12 s e entre 40 s e 50 s (só 3 usados)
+                int used = second < 12 || (second >= 40 && second < 50) ? 3 : 6;
+                snapshot.clear();
+                for (int i = 0; i < 7; i++) {
+                    int constellation = i < 4 ? ConstellationRegistry.GPS : ConstellationRegistry.GALILEO;
+                    snapshot.add(i + 1, constellation, i == 6 ? 0f : 30f + i, i * 40f, 30f, i < used);
+                }
+                snapshot.setTimestampNanos(second * SECOND);
+                writer.writeSnapshot(snapshot);
+            }
+        }
+
+        SessionSummary summary = SessionAnalytics.analyzeSequential(new File[]{file});
+        assertEquals(1, summary.sessions);
+        assertEquals(90, summary.epochs);
+        assertEquals(90 * 7, summary.satelliteSamples);
+        assertEquals(100 * SECOND, summary.durationNanos);
+        assertEquals(1, summary.sessionsWithFix);
+        assertEquals(12, summary.timeToFirstFixSeconds.getMax(), 0);
+
+        // Lacunas: 39 → 50 s (fix perdido) e 59 → 70 s (sem épocas)
+        assertEquals(2, summary.gapSeconds.getCount());
+        assertEquals(11, summary.gapSeconds.getMin(), 0);
+        assertEquals(11, summary.gapSeconds.getMax(), 0);
+        // Com fix de 12 a 39, de 50 a 59 e de 70 a 100 s
+        assertEquals((27 + 9 + 30) * SECOND, summary.availableNanos);
+
+        assertEquals(6, summary.satellitesInView.quantile(0.5), 0);
+        assertEquals(3, summary.satellitesUsed.getMin(), 0);
+        assertEquals(6, summary.satellitesUsed.getMax(), 0);
+        MergeableHistogram gps = summary.cn0ByConstellation[ConstellationRegistry.indexOf(ConstellationRegistry.GPS)];
+        MergeableHistogram galileo = summary.cn0ByConstellation[ConstellationRegistry.indexOf(ConstellationRegistry.GALILEO)];
+        assertEquals(90 * 4, gps.getCount());
+        assertEquals(31.5, gps.getMean(), 1e-9);
+        assertEquals(90 * 2, galileo.getCount()); // O satélite sem sinal não entra
+        assertEquals(34.5, galileo.getMean(), 1e-9);
+        assertTrue(summary.toString().contains("Galileo"));
+    }
+
+    @Test
+    public void dualFrequencyRows_countOncePerSatellite() throws IOException {
+        File file = folder.newFile("sessao-l5" + SessionFormat.FILE_EXTENSION);
+        SatelliteSnapshot snapshot = new SatelliteSnapshot(8);
+        try (SessionWriter writer = SessionWriter.create(file, 0)) {
+            for (int second = 1; second <= 10; second++) {
+                snapshot.clear();
+                // Três satélites em L1 e L5: seis linhas, três satélites, sem fix
+                for (int i = 0; i < 3; i++) {
+                    snapshot.add(i + 1, ConstellationRegistry.GPS, 40f, i * 120f, 30f, true, L1_HZ);
+                    snapshot.add(i + 1, ConstellationRegistry.GPS, 37f, i * 120f, 30f, true, L5_HZ);
+                }
+                snapshot.setTimestampNanos(second * SECOND);
+                writer.writeSnapshot(snapshot);
+            }
+        }
+
+        SessionSummary summary = SessionAnalytics.analyzeSequential(new File[]{file});
+        assertEquals(10 * 6, summary.satelliteSamples);
+        assertEquals(3, summary.satellitesInView.getMax(), 0);
+        assertEquals(3, summary.satellitesUsed.getMax(), 0);
+        assertEquals(0, summary.sessionsWithFix);
+        // C/N0 continua por sinal
+        assertEquals(10 * 6, summary.cn0ByConstellation[ConstellationRegistry.indexOf(ConstellationRegistry.GPS)].getCount());
+    }
+
+    @Test
+    public void parallelAnalysis_matchesSequential() throws IOException {
+        Random random = new Random(12);
+        for (int session = 0; session < 24; session++) {
+            writeRandomSession(new File(folder.getRoot(), "sessao-" + session + SessionFormat.FILE_EXTENSION), random);
+        }
+        Files.write(new File(folder.getRoot(), "sessao-lixo" + SessionFormat.FILE_EXTENSION).toPath(), new byte[100]);
+        folder.newFile("notas.txt");
+
+        File[] sessions = SessionAnalytics.listSessions(folder.getRoot());
+        assertEquals(25, sessions.length);
+        SessionSummary sequential = SessionAnalytics.analyzeSequential(sessions);
+        SessionSummary parallel = SessionAnalytics.analyze(sessions);
+
+        assertEquals(24, sequential.sessions);
+        assertEquals(1, sequential.invalidSessions);
+        assertEquals(sequential.sessions, parallel.sessions);
+        assertEquals(sequential.invalidSessions, parallel.invalidSessions);
+        assertEquals(sequential.epochs, parallel.epochs);
+        assertEquals(sequential.satelliteSamples, parallel.satelliteSamples);
+        assertEquals(sequential.durationNanos, parallel.durationNanos);
+        assertEquals(sequential.availableNanos, parallel.availableNanos);
+        assertEquals(sequential.sessionsWithFix, parallel.sessionsWithFix);
+        assertSameDistribution(sequential.timeToFirstFixSeconds, parallel.timeToFirstFixSeconds);
+        assertSameDistribution(sequential.satellitesInView, parallel.satellitesInView);
+        assertSameDistribution(sequential.satellitesUsed, parallel.satellitesUsed);
+        assertSameDistribution(sequential.gapSeconds, parallel.gapSeconds);
+        for (int i = 0; i < ConstellationRegistry.COUNT; i++) {
+            assertSameDistribution(sequential.cn0ByConstellation[i], parallel.cn0ByConstellation[i]);
+        }
+        assertTrue(sequential.gapSeconds.getCount() > 0);
+        assertEquals(sequential.getMemoryBytes(), new SessionSummary().getMemoryBytes());
+    }
+
+    @Test
+    public void missingDirectory_hasNoSessions() {
+        File[] sessions = SessionAnalytics.listSessions(new File(folder.getRoot(), "nada"));
+        assertEquals(0, sessions.length);
+        assertEquals(0, SessionAnalytics.analyze(sessions).sessions);
+    }
+
+    // Sessão de alguns minutos com satélites entrando e saindo do fix e épocas faltando
+    private static void writeRandomSession(File file, Random random) throws IOException {
+        SatelliteSnapshot snapshot = new SatelliteSnapshot(64);
+        int epochs = 200 + random.nextInt(400);
+        long timestamp = random.nextInt(1000) * SECOND;
+        try (SessionWriter writer = SessionWriter.create(file, 0)) {
+            for (int epoch = 0; epoch < epochs; epoch++) {
+                timestamp += random.nextInt(50) == 0 ? (3 + random.nextInt(20)) * SECOND : SECOND;
+                int count = 10 + random.nextInt(30);
+                boolean outage = epoch < 5 + random.nextInt(30) || random.nextInt(40) == 0;
+                snapshot.clear();
+                for (int i = 0; i < count; i++) {
+                    float cn0 = random.nextInt(10) == 0 ? 0f : 15 + random.nextFloat() * 35;
+                    snapshot.add(i + 1, 1 + random.nextInt(7), cn0, random.nextFloat() * 360, random.nextFloat() * 90,
+                            !outage && cn0 > 25);
+                }
+                snapshot.setTimestampNanos(timestamp);
+                writer.writeSnapshot(snapshot);
+            }
+        }
+    }
+
+    private static void assertSameDistribution(MergeableHistogram expected, MergeableHistogram actual) {
+        assertEquals(expected.getCount(), actual.getCount());
+        for (int bin = 0; bin < expected.getBinCount(); bin++) {
+            assertEquals(expected.getBin(bin), actual.getBin(bin));
+        }
+        assertEquals(expected.getMin(), actual.getMin(), 0);
+        assertEquals(expected.getMax(), actual.getMax(), 0);
+        assertEquals(expected.getMean(), actual.getMean(), 1e-9);
+        for (double q : new double[]{0.1, 0.5, 0.9}) {
+            assertEquals(expected.quantile(q), actual.quantile(q), 0);
+        }
+    }
+}
@@ -0,0 +1,247 @@
+package com.example.gnss;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class SessionRecordingTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void roundTrip_preservesAllRecordTypes() throws IOException {
+        File file = folder.newFile("roundtrip.gnss");
+        SatelliteSnapshot written = new SatelliteSnapshot(4);
+        written.add(12, 1, 41.5f, 271.25f, 33.5f, true);
+        written.add(5, 3, 0f, 10f, -2f, false);
+        written.setTimestampNanos(1_000_000_000L);
+
+        try (SessionWriter writer = SessionWriter.create(file, 1_700_000_000_000L)) {
+            writer.writeSnapshot(written);
+            writer.writeLocation(1_500_000_000L, -23.5505199, -46.6333094, 4.5f);
+            writer.writeRotation(1_600_000_000L, 1.25f, -0.5f, 0.125f);
+            assertEquals(1 + 1 + 2 + 1 + 1, writer.getRecordsWritten());
+        }
+        assertEquals(6 * SessionFormat.RECORD_SIZE, file.length());
+
+        RecordingVisitor visitor = new RecordingVisitor();
+        try (SessionReader reader = SessionReader.open(file)) {
+            assertEquals(1_700_000_000_000L, reader.getStartWallClockMillis());
+            while (reader.hasNext()) {
+                reader.next(visitor);
+            }
+        }
+
+        assertEquals(Arrays.asList("snapshot", "location", "rotation"), visitor.events);
+        SatelliteSnapshot read = visitor.lastSnapshot;
+        assertEquals(2, read.getSatelliteCount());
+        assertEquals(1_000_000_000L, read.getTimestampNanos());
+        assertEquals(12, read.getSvid(0));
+        assertEquals(1, read.getConstellationType(0));
+        assertEquals(41.5f, read.getCn0DbHz(0), 0f);
+        assertEquals(271.25f, read.getAzimuthDegrees(0), 0f);
+        assertEquals(33.5f, read.getElevationDegrees(0), 0f);
+        assertTrue(read.usedInFix(0));
+        assertEquals(3, read.getConstellationType(1));
+        assertFalse(read.usedInFix(1));
+        assertEquals(-23.5505199, visitor.latitude, 0);
+        assertEquals(-46.6333094, visitor.longitude, 0);
+        assertEquals(4.5f, visitor.accuracy, 0f);
+        assertEquals(1.25f, visitor.azimuth, 0f);
+    }
+
+    @Test
+    public void roundTrip_preservesCarrierFrequency() throws IOException {
+        File file = folder.newFile("carrier.gnss");
+        SatelliteSnapshot written = new SatelliteSnapshot(4);
+        written.add(5, 1, 42f, 0f, 30f, true, 1575.42e6f);
+        written.add(5, 1, 36f, 0f, 30f, true, 1176.45e6f);
+        written.add(7, 1, 30f, 0f, 30f, true); // Receptor sem portadora
+        try (SessionWriter writer = SessionWriter.create(file, 0)) {
+            writer.writeSnapshot(written);
+        }
+
+        RecordingVisitor visitor = new RecordingVisitor();
+        try (SessionReader reader = SessionReader.open(file)) {
+            while (reader.hasNext()) {
+                reader.next(visitor);
+            }
+        }
+        SatelliteSnapshot read = visitor.lastSnapshot;
+        assertEquals(1575.42e6f, read.getCarrierFrequencyHz(0), 0f);
+        assertEquals(SignalKey.L5, read.getBand(1));
+        assertTrue(Float.isNaN(read.getCarrierFrequencyHz(2)));
+        assertEquals(SignalKey.UNKNOWN, read.getBand(2));
+        assertEquals(written.getSignalKey(1), read.getSignalKey(1));
+    }
+
+    @Test
+    public void truncatedTail_isIgnored() throws IOException {
+        File file = folder.newFile("truncated.gnss");
+        try (SessionWriter writer = SessionWriter.create(file, 0)) {
+            writer.writeRotation(1, 0.5f, 0f, 0f);
+            writer.writeRotation(2, 0.6f, 0f, 0f);
+        }
+        try (RandomAccessFile raw = new RandomAccessFile(file, "rw")) {
+            raw.setLength(raw.length() - 7); // Gravação interrompida no meio de um registro
+        }
+
+        RecordingVisitor visitor = new RecordingVisitor();
+        try (SessionReader reader = SessionReader.open(file)) {
+            while (reader.hasNext()) {
+                reader.next(visitor);
+            }
+        }
+        assertEquals(1, visitor.events.size());
+    }
+
+    @Test
+    public void failingChannel_stopsRecordingWithoutThrowing() throws IOException {
+        RandomAccessFile output = new RandomAccessFile(folder.newFile("falha.gnss"), "rw");
+        FileChannel channel = output.getChannel();
+        channel.close(); // Toda escrita falha com ClosedChannelException
+        SatelliteSnapshot snapshot = new SatelliteSnapshot(32);
+        for (int i = 0; i < 32; i++) {
+            snapshot.add(i + 1, 1, 30f, i * 10f, 20f, true);
+        }
+
+        SessionWriter writer = new SessionWriter(channel, 0);
+        List<IOException> failures = new ArrayList<>();
+        writer.setFailureListener(failures::add);
+        // Registros para encher os dois buffers mais de uma vez
+        for (int epoch = 0; epoch < 400 && !writer.isFailed(); epoch++) {
+            snapshot.setTimestampNanos(epoch);
+            writer.writeSnapshot(snapshot);
+        }
+        writer.flush();
+        assertTrue(writer.isFailed());
+        assertEquals(1, failures.size());
+        assertSame(failures.get(0), writer.getFailure());
+
+        long records = writer.getRecordsWritten();
+        writer.writeSnapshot(snapshot);
+        writer.writeLocation(1, 0, 0, 1f);
+        writer.writeRotation(1, 0f, 0f, 0f);
+        assertEquals(records, writer.getRecordsWritten());
+        writer.close();
+    }
+
+    @Test(expected = IOException.class)
+    public void foreignFile_isRejected() throws IOException {
+        File file = folder.newFile("foreign.gnss");
+        try (RandomAccessFile raw = new RandomAccessFile(file, "rw")) {
+            raw.write(new byte[64]);
+        }
+        SessionReader.open(file).close();
+    }
+
+    @Test
+    public void acceleratedReplay_respectsScaledTimestamps() throws IOException {
+        File file = folder.newFile("paced.gnss");
+        try (SessionWriter writer = SessionWriter.create(file, 0)) {
+            for (int i = 0; i <= 10; i++) {
+                writer.writeRotation(i * 100_000_000L, i, 0f, 0f); // 1 s de sessão
+            }
+        }
+
+        RecordingVisitor visitor = new RecordingVisitor();
+        try (SessionReader reader = SessionReader.open(file)) {
+            long start = System.nanoTime();
+            new SessionReplayer(reader, visitor, 20.0).run();
+            long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+            assertTrue("Reprodução durou " + elapsedMillis + " ms", elapsedMillis >= 45);
+        }
+        assertEquals(11, visitor.events.size());
+    }
+
+    @Test
+    public void replay_exceedsOneMillionRecordsPerSecond() throws IOException {
+        File file = folder.newFile("throughput.gnss");
+        SatelliteSnapshot snapshot = new SatelliteSnapshot(40);
+        int epochs = 30_000;
+        try (SessionWriter writer = SessionWriter.create(file, 0)) {
+            for (int epoch = 0; epoch < epochs; epoch++) {
+                snapshot.clear();
+                for (int i = 0; i < 40; i++) {
+                    snapshot.add(i + 1, 1 + i % 6, 20f + i % 25, i * 9f, i * 2f, i % 3 == 0);
+                }
+                snapshot.setTimestampNanos(epoch * 100_000_000L);
+                writer.writeSnapshot(snapshot);
+            }
+        }
+
+        CountingVisitor counter = new CountingVisitor();
+        try (SessionReader reader = SessionReader.open(file)) {
+            long records = reader.getRecordCount();
+            assertEquals(1 + epochs * 41L, records);
+
+            double best = 0;
+            for (int run = 0; run < 5; run++) {
+                reader.rewind();
+                long start = System.nanoTime();
+                new SessionReplayer(reader, counter, 0).run();
+                double seconds = (System.nanoTime() - start) / 1e9;
+                best = Math.max(best, records / seconds);
+            }
+            assertEquals(5L * epochs * 40, counter.satellites);
+            assertTrue("Registros/s: " + (long) best, best > 1_000_000);
+        }
+    }
+
+    private static final class RecordingVisitor implements SessionReader.Visitor {
+        final List<String> events = new ArrayList<>();
+        final SatelliteSnapshot lastSnapshot = new SatelliteSnapshot();
+        double latitude;
+        double longitude;
+        float accuracy;
+        float azimuth;
+
+        @Override
+        public void onSnapshot(SatelliteSnapshot snapshot) {
+            events.add("snapshot");
+            lastSnapshot.copyFrom(snapshot);
+        }
+
+        @Override
+        public void onLocation(long timestampNanos, double latitude, double longitude, float accuracyMeters) {
+            events.add("location");
+            this.latitude = latitude;
+            this.longitude = longitude;
+            this.accuracy = accuracyMeters;
+        }
+
+        @Override
+        public void onRotation(long timestampNanos, float azimuth, float pitch, float roll) {
+            events.add("rotation");
+            this.azimuth = azimuth;
+        }
+    }
+
+    private static final class CountingVisitor implements SessionReader.Visitor {
+        long satellites;
+
+        @Override
+        public void onSnapshot(SatelliteSnapshot snapshot) {
+            satellites += snapshot.getSatelliteCount();
+        }
+
+        @Override
+        public void onLocation(long timestampNanos, double latitude, double longitude, float accuracyMeters) {
+        }
+
+        @Override
+        public void onRotation(long timestampNanos, float azimuth, float pitch, float roll) {
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.gnss;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+public class SignalBarLayoutTest {
+
+    @Test
+    public void barGeometry_matchesOriginalDraw() {
+        SignalBarLayout layout = new SignalBarLayout();
+        layout.configure(50, 100, 20, 200, 300, 50);
+
+        assertEquals(2, layout.layout(new float[]{25f, 50f}, 2));
+        // Mesmas contas do onDraw original: barras de 100 px separadas por 20 px
+        assertEquals(50f, layout.getLeft(0), 0f);
+        assertEquals(50f, layout.getTop(0), 1e-4f);
+        assertEquals(150f, layout.getRight(0), 0f);
+        assertEquals(200f, layout.getBottom(0), 0f);
+        assertEquals(170f, layout.getLeft(1), 0f);
+        assertEquals(-100f, layout.getTop(1), 1e-4f);
+    }
+
+    @Test
+    public void arrayLayout_keepsEveryBar() {
+        SignalBarLayout layout = new SignalBarLayout();
+        layout.configure(0, 90, 10, 600, 550, 100);
+
+        assertEquals(3, layout.layout(new float[]{40f, 0f, 100f, 99f}, 3));
+        assertEquals(600f, layout.getTop(1), 0f);
+        assertEquals(50f, layout.getTop(2), 1e-4f);
+        assertEquals(200f, layout.getLeft(2), 0f);
+        assertEquals(290f, layout.getRight(2), 0f);
+    }
+
+    @Test
+    public void relayout_reusesArrays() {
+        SignalBarLayout layout = new SignalBarLayout();
+        layout.configure(0, 10, 2, 100, 100, 50);
+        float[] cn0 = new float[200];
+        Arrays.fill(cn0, 30f);
+        layout.layout(cn0, 200);
+
+        long before = Allocations.currentThreadAllocatedBytes();
+        int bars = 0;
+        for (int i = 0; i < 1000; i++) {
+            bars += layout.layout(cn0, 10 + i % 190);
+        }
+        long allocated = Allocations.currentThreadAllocatedBytes() - before;
+
+        assertTrue(bars > 0);
+        assertEquals(0, allocated);
+    }
+}
@@ -0,0 +1,193 @@
+package com.example.gnss;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class SignalChartLayoutTest {
+
+    private static final int SATELLITES = 200;
+    private static final int[] CONSTELLATIONS = {1, 3, 6, 5, 4, 2};
+
+    // 200 satélites, com um em cada dez sem sinal
+    private static SatelliteSnapshot largeSky() {
+        SatelliteSnapshot snapshot = new SatelliteSnapshot(SATELLITES);
+        for (int i = 0; i < SATELLITES; i++) {
+            float cn0 = i % 10 == 0 ? 0f : 15f + (i * 37 % 35);
+            snapshot.add(1 + i % 63, CONSTELLATIONS[i % CONSTELLATIONS.length], cn0, i * 1.8f, (i * 7) % 90, cn0 > 25);
+        }
+        return snapshot;
+    }
+
+    private static SignalChartLayout layout(float width) {
+        SignalChartLayout layout = new SignalChartLayout();
+        layout.configure(width, 50, 48, 100, 20, 40);
+        return layout;
+    }
+
+    @Test
+    public void fewSatellites_fitTheViewWithoutScrolling() {
+        SatelliteSnapshot snapshot = new SatelliteSnapshot(4);
+        snapshot.add(1, 1, 30f, 0f, 10f, true);
+        snapshot.add(2, 1, 45f, 0f, 10f, true);
+        SignalChartLayout layout = layout(1080);
+
+        assertEquals(2, layout.update(snapshot));
+        assertEquals(100f, layout.getBarWidth(), 0f);
+        assertEquals(0f, layout.getMaxScroll(), 0f);
+        assertEquals(0, layout.getFirstVisible());
+        assertEquals(2, layout.getLastVisible());
+        // Mais forte primeiro
+        assertEquals(1, layout.getSatelliteIndex(0));
+        assertEquals(50f, layout.getFullScaleDbHz(), 0f);
+    }
+
+    @Test
+    public void largeConstellation_onlyVisibleBarsAreInRange() {
+        SignalChartLayout layout = layout(1080);
+        int bars = layout.update(largeSky());
+
+        assertEquals(180, bars);
+        assertEquals(48f, layout.getBarWidth(), 0f);
+        assertTrue(layout.getContentWidth() > 1080);
+
+        for (float scroll : new float[]{0, 333, 5000, 1e9f}) {
+            layout.setScroll(scroll);
+            float left = layout.getScroll();
+            float right = left + 1080;
+            int first = layout.getFirstVisible();
+            int last = layout.getLastVisible();
+            assertTrue(last - first <= 1080 / (48 + 20) + 2);
+            for (int bar = 0; bar < bars; bar++) {
+                float barLeft = layout.getBarLeft(bar);
+                boolean visible = barLeft + layout.getBarWidth() > left && barLeft < right;
+                assertEquals("barra " + bar + " com scroll " + left, visible, bar >= first && bar < last);
+            }
+        }
+        assertEquals(layout.getMaxScroll(), layout.getScroll(), 0f);
+        assertEquals(bars, layout.getLastVisible());
+    }
+
+    @Test
+    public void sortByCn0_ordersStrongestFirst() {
+        SatelliteSnapshot snapshot = largeSky();
+        SignalChartLayout layout = layout(1080);
+        int bars = layout.update(snapshot);
+
+        for (int bar = 1; bar < bars; bar++) {
+            assertTrue(snapshot.getCn0DbHz(layout.getSatelliteIndex(bar - 1)) >= snapshot.getCn0DbHz(layout.getSatelliteIndex(bar)));
+        }
+    }
+
+    @Test
+    public void grouping_keepsConstellationsContiguous() {
+        SatelliteSnapshot snapshot = largeSky();
+        SignalChartLayout layout = layout(1080);
+        layout.setGroupByConstellation(true);
+        int bars = layout.update(snapshot);
+
+        int groups = 1;
+        for (int bar = 1; bar < bars; bar++) {
+            int previous = layout.getSatelliteIndex(bar - 1);
+            int current = layout.getSatelliteIndex(bar);
+            boolean newGroup = snapshot.getConstellationType(previous) != snapshot.getConstellationType(current);
+            assertEquals(newGroup, layout.isGroupStart(bar));
+            if (newGroup) {
+                groups++;
+                assertTrue(ConstellationRegistry.indexOf(snapshot.getConstellationType(previous))
+                        < ConstellationRegistry.indexOf(snapshot.getConstellationType(current)));
+                assertEquals(layout.getBarLeft(bar - 1) + layout.getBarWidth() + 20 + 40, layout.getBarLeft(bar), 1e-3f);
+            } else {
+                assertTrue(snapshot.getCn0DbHz(previous) >= snapshot.getCn0DbHz(current));
+            }
+        }
+        assertEquals(CONSTELLATIONS.length, groups);
+    }
+
+    @Test
+    public void unsorted_keepsSnapshotOrder() {
+        SignalChartLayout layout = layout(1080);
+        layout.setSortByCn0(false);
+        int bars = layout.update(largeSky());
+
+        for (int bar = 1; bar < bars; bar++) {
+            assertTrue(layout.getSatelliteIndex(bar - 1) < layout.getSatelliteIndex(bar));
+        }
+    }
+
+    @Test
+    public void dualFrequency_keepsBandsOfASatelliteTogether() {
+        SatelliteSnapshot snapshot = new SatelliteSnapshot(8);
+        snapshot.add(5, 1, 30f, 0f, 10f, true, 1176.45e6f); // L5 do GPS 5
+        snapshot.add(9, 1, 40f, 0f, 10f, true, 1575.42e6f);
+        snapshot.add(5, 1, 45f, 0f, 10f, true, 1575.42e6f); // L1 do GPS 5, o mais forte
+        snapshot.add(7, 1, 35f, 0f, 10f, true);             // Sem portadora
+        SignalChartLayout layout = layout(1080);
+        layout.setBandGap(4);
+
+        assertEquals(4, layout.update(snapshot));
+        assertTrue(layout.hasMultipleBands());
+        // GPS 5 primeiro pelo seu sinal mais forte, com L1 antes de L5
+        assertEquals(2, layout.getSatelliteIndex(0));
+        assertEquals(0, layout.getSatelliteIndex(1));
+        assertEquals(1, layout.getSatelliteIndex(2));
+        assertEquals(3, layout.getSatelliteIndex(3));
+        assertTrue(layout.isSatelliteStart(0));
+        assertFalse(layout.isSatelliteStart(1));
+        assertTrue(layout.isSatelliteStart(2));
+        assertEquals(2, layout.getSatelliteBarCount(0));
+        assertEquals(1, layout.getSatelliteBarCount(2));
+
+        float width = layout.getBarWidth();
+        assertEquals(layout.getBarLeft(0) + width + 4, layout.getBarLeft(1), 1e-3f);
+        assertEquals(layout.getBarLeft(1) + width + 20, layout.getBarLeft(2), 1e-3f);
+        assertEquals(2 * width + 4, layout.getSatelliteWidth(0), 1e-3f);
+
+        // Sem ordenação os satélites seguem a ordem do GnssStatus, mas as bandas continuam juntas
+        layout.setSortByCn0(false);
+        layout.update(snapshot);
+        assertEquals(2, layout.getSatelliteIndex(0)); // L1 antes de L5
+        assertEquals(0, layout.getSatelliteIndex(1));
+        assertEquals(1, layout.getSatelliteIndex(2));
+    }
+
+    @Test
+    public void fullScale_growsWithStrongSignals() {
+        SatelliteSnapshot snapshot = new SatelliteSnapshot(2);
+        snapshot.add(1, 1, 57.2f, 0f, 10f, true);
+        SignalChartLayout layout = layout(1080);
+        layout.update(snapshot);
+
+        assertEquals(60f, layout.getFullScaleDbHz(), 0f);
+    }
+
+    @Test
+    public void update_doesNotAllocateAfterFirstFrame() {
+        SatelliteSnapshot snapshot = largeSky();
+        SignalChartLayout layout = layout(1080);
+        layout.setGroupByConstellation(true);
+        for (int i = 0; i < 20_000; i++) {
+            layout.update(snapshot);
+        }
+
+        long before = Allocations.currentThreadAllocatedBytes();
+        int visible = 0;
+        for (int i = 0; i < 1000; i++) {
+            layout.update(snapshot);
+            layout.setScroll(i * 10);
+            visible += layout.getLastVisible() - layout.getFirstVisible();
+        }
+        long allocated = Allocations.currentThreadAllocatedBytes() - before;
+
+        assertTrue(visible > 0);
+        assertEquals(0, allocated);
+    }
+
+    @Test
+    public void svidLabels_areCached() {
+        SvidLabelCache labels = new SvidLabelCache("SVID ");
+        assertEquals("SVID 12", labels.get(12));
+        assertSame(labels.get(12), labels.get(12));
+        assertEquals("SVID 1000", labels.get(1000));
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.gnss;
+
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+public class SignalKeyTest {
+
+    private static final float L1_HZ = 1575.42e6f;
+    private static final float L5_HZ = 1176.45e6f;
+
+    @Test
+    public void everyCombination_hasDistinctKeyAndDecodesBack() {
+        Set<Long> keys = new HashSet<>();
+        for (int constellation = 0; constellation <= 7; constellation++) {
+            for (int svid = 0; svid <= 255; svid++) {
+                for (int band = 0; band < SignalKey.BAND_COUNT; band++) {
+                    long key = SignalKey.of(constellation, svid, band);
+                    assertTrue(keys.add(key));
+                    assertTrue(key >= 0);
+                    assertEquals(constellation, SignalKey.constellationOf(key));
+                    assertEquals(svid, SignalKey.svidOf(key));
+                    assertEquals(band, SignalKey.bandOf(key));
+                    assertEquals(SignalKey.of(constellation, svid, SignalKey.UNKNOWN), SignalKey.satelliteOf(key));
+                }
+            }
+        }
+        assertEquals(8 * 256 * SignalKey.BAND_COUNT, keys.size());
+    }
+
+    @Test
+    public void carrierFrequencies_mapToBands() {
+        assertEquals(SignalKey.L1, SignalKey.bandOf(L1_HZ));
+        assertEquals(SignalKey.L5, SignalKey.bandOf(L5_HZ));
+        assertEquals(SignalKey.G1, SignalKey.bandOf(1602.5625e6f)); // GLONASS canal 1
+        assertEquals(SignalKey.B1, SignalKey.bandOf(1561.098e6f));
+        assertEquals(SignalKey.L2, SignalKey.bandOf(1227.60e6f));
+        assertEquals(SignalKey.E5B, SignalKey.bandOf(1207.14e6f));
+        assertEquals(SignalKey.E6, SignalKey.bandOf(1278.75e6f));
+        assertEquals(SignalKey.S, SignalKey.bandOf(2492.028e6f));
+        assertEquals(SignalKey.UNKNOWN, SignalKey.bandOf(Float.NaN));
+        assertEquals(SignalKey.UNKNOWN, SignalKey.bandOf(0f));
+        assertEquals(SignalKey.UNKNOWN, SignalKey.bandOf(1.0e9f));
+        assertEquals(SignalKey.of(1, 5, SignalKey.L5), SignalKey.of(1, 5, L5_HZ));
+        assertNotEquals(SignalKey.of(1, 5, L1_HZ), SignalKey.of(1, 5, L5_HZ));
+    }
+
+    @Test
+    public void labels_followEachConstellationsNames() {
+        assertEquals("L5", SignalKey.labelOf(ConstellationRegistry.GPS, SignalKey.L5));
+        assertEquals("E5a", SignalKey.labelOf(ConstellationRegistry.GALILEO, SignalKey.L5));
+        assertEquals("B2a", SignalKey.labelOf(ConstellationRegistry.BEIDOU, SignalKey.L5));
+        assertEquals("E1", SignalKey.labelOf(ConstellationRegistry.GALILEO, SignalKey.L1));
+        assertEquals("?", SignalKey.labelOf(ConstellationRegistry.GPS, SignalKey.UNKNOWN));
+        assertEquals("?", SignalKey.labelOf(ConstellationRegistry.GPS, 99));
+    }
+}
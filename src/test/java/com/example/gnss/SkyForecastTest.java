@@ -0,0 +1,70 @@
+package com.example.gnss;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.*;
+
+public class SkyForecastTest {
+
+    private static OrbitElements sampleAlmanac() throws IOException {
+        try (Reader reader = new InputStreamReader(
+                SkyForecastTest.class.getResourceAsStream("/almanac/yuma_sample.alm"), StandardCharsets.US_ASCII)) {
+            return YumaAlmanacParser.parse(reader, 2361);
+        }
+    }
+
+    @Test
+    public void parallelSteps_matchSequentialComputation() throws IOException {
+        OrbitElements elements = sampleAlmanac();
+        TopocentricFrame observer = new TopocentricFrame(-22.9, -43.2, 10);
+        double start = GpsTime.fromWeek(2361, 400_000);
+
+        SkyForecast parallel = SkyForecast.compute(elements, observer, start, 300, 288);
+        SkyForecast sequential = SkyForecast.computeSequential(elements, observer, start, 300, 288);
+
+        assertEquals(288, parallel.getStepCount());
+        assertEquals(3, parallel.getSatelliteCount());
+        assertEquals(5, parallel.getSvid(2));
+        for (int step = 0; step < 288; step++) {
+            for (int i = 0; i < 3; i++) {
+                assertEquals(sequential.getAzimuthDegrees(step, i), parallel.getAzimuthDegrees(step, i), 0f);
+                assertEquals(sequential.getElevationDegrees(step, i), parallel.getElevationDegrees(step, i), 0f);
+            }
+        }
+    }
+
+    @Test
+    public void forecast_followsPropagatedPositions() throws IOException {
+        OrbitElements elements = sampleAlmanac();
+        TopocentricFrame observer = new TopocentricFrame(-22.9, -43.2, 10);
+        double start = GpsTime.fromWeek(2361, 400_000);
+        SkyForecast forecast = SkyForecast.compute(elements, observer, start, 600, 144);
+
+        double[] ecef = new double[9];
+        float[] azimuths = new float[3];
+        float[] elevations = new float[3];
+        int visibleSteps = 0;
+        for (int step = 0; step < forecast.getStepCount(); step++) {
+            elements.positionsAt(start + step * 600.0, ecef);
+            observer.toAzimuthElevation(ecef, 3, azimuths, elevations, 0);
+            for (int i = 0; i < 3; i++) {
+                assertEquals(azimuths[i], forecast.getAzimuthDegrees(step, i), 0f);
+                assertEquals(elevations[i], forecast.getElevationDegrees(step, i), 0f);
+                assertTrue(azimuths[i] >= 0 && azimuths[i] < 360);
+            }
+            visibleSteps += forecast.countVisible(step, 0f);
+        }
+        // Em 24 h cada satélite GPS passa algumas horas acima do horizonte, nunca o dia todo
+        assertTrue(visibleSteps > 0 && visibleSteps < 3 * 144);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void emptyWindow_isRejected() throws IOException {
+        SkyForecast.compute(sampleAlmanac(), new TopocentricFrame(0, 0, 0), 0, 60, 0);
+    }
+}
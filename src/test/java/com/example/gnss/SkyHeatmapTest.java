@@ -0,0 +1,154 @@
+package com.example.gnss;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class SkyHeatmapTest {
+
+    @Test
+    public void directions_mapToFiveDegreeCells() {
+        SkyHeatmap heatmap = new SkyHeatmap();
+        assertEquals(72 * 18, heatmap.getCellCount());
+        assertEquals(0, heatmap.cellOf(0f, 0f));
+        assertEquals(71, heatmap.cellOf(359.9f, 4.9f));
+        assertEquals(0, heatmap.cellOf(360f, 0f));
+        assertEquals(71, heatmap.cellOf(-0.1f, 0f));
+        assertEquals(72 * 17 + 1, heatmap.cellOf(5f, 90f)); // Zênite na última linha
+        assertEquals(72 + 9, heatmap.cellOf(47f, 7f));
+        assertEquals(-1, heatmap.cellOf(10f, -0.5f));
+        assertEquals(-1, heatmap.cellOf(Float.NaN, 30f));
+
+        int cell = heatmap.cellOf(47f, 7f);
+        assertEquals(45f, heatmap.getCellAzimuth(cell), 0f);
+        assertEquals(5f, heatmap.getCellElevation(cell), 0f);
+    }
+
+    @Test
+    public void statistics_matchBruteForce() {
+        SkyHeatmap heatmap = new SkyHeatmap(10);
+        Random random = new Random(8);
+        int cells = heatmap.getCellCount();
+        double[] sums = new double[cells];
+        int[] counts = new int[cells];
+        float[] mins = new float[cells];
+        java.util.Arrays.fill(mins, Float.MAX_VALUE);
+        for (int n = 0; n < 20_000; n++) {
+            float azimuth = random.nextFloat() * 360;
+            float elevation = random.nextFloat() * 100 - 5;
+            float cn0 = random.nextInt(5) == 0 ? 0f : 10 + random.nextFloat() * 40;
+            heatmap.add(azimuth, elevation, cn0);
+            int cell = heatmap.cellOf(azimuth, elevation);
+            if (cell >= 0 && cn0 > 0) {
+                sums[cell] += cn0;
+                counts[cell]++;
+                mins[cell] = Math.min(mins[cell], cn0);
+            }
+        }
+        long total = 0;
+        for (int cell = 0; cell < cells; cell++) {
+            assertEquals(counts[cell], heatmap.getCount(cell));
+            if (counts[cell] > 0) {
+                assertEquals(sums[cell] / counts[cell], heatmap.getMean(cell), 1e-3);
+                assertEquals(mins[cell], heatmap.getMin(cell), 0f);
+            } else {
+                assertTrue(Float.isNaN(heatmap.getMean(cell)));
+            }
+            total += counts[cell];
+        }
+        assertEquals(total, heatmap.getTotalSamples());
+    }
+
+    @Test
+    public void dirtyCells_areReportedOnceUntilDrained() {
+        SkyHeatmap heatmap = new SkyHeatmap();
+        int north = heatmap.cellOf(1f, 30f);
+        int east = heatmap.cellOf(91f, 30f);
+        heatmap.add(1f, 30f, 40f);
+        heatmap.add(2f, 31f, 38f); // Mesma célula
+        heatmap.add(91f, 30f, 20f);
+        heatmap.add(91f, -10f, 20f); // Abaixo do horizonte
+
+        int[] out = new int[1];
+        assertEquals(2, heatmap.getDirtyCount());
+        assertEquals(1, heatmap.drainDirty(out));
+        int first = out[0];
+        assertEquals(1, heatmap.drainDirty(out));
+        assertEquals(north + east, first + out[0]);
+        assertEquals(0, heatmap.drainDirty(out));
+
+        heatmap.add(1f, 30f, 41f);
+        assertEquals(1, heatmap.drainDirty(out));
+        assertEquals(north, out[0]);
+
+        heatmap.clear();
+        assertEquals(2, heatmap.getDirtyCount());
+        assertEquals(0, heatmap.getCount(north));
+    }
+
+    @Test
+    public void merge_equalsFeedingBothSessionsIntoOne() {
+        SkyHeatmap first = new SkyHeatmap();
+        SkyHeatmap second = new SkyHeatmap();
+        SkyHeatmap both = new SkyHeatmap();
+        Random random = new Random(21);
+        for (int n = 0; n < 5_000; n++) {
+            float azimuth = random.nextFloat() * 360;
+            float elevation = random.nextFloat() * 90;
+            float cn0 = 10 + random.nextFloat() * 40;
+            (n % 3 == 0 ? first : second).add(azimuth, elevation, cn0);
+            both.add(azimuth, elevation, cn0);
+        }
+
+        first.merge(second);
+        assertEquals(both.getTotalSamples(), first.getTotalSamples());
+        for (int cell = 0; cell < both.getCellCount(); cell++) {
+            assertEquals(both.getCount(cell), first.getCount(cell));
+            assertEquals(both.getMin(cell), first.getMin(cell), 0f);
+            if (both.getCount(cell) > 0) {
+                assertEquals(both.getMean(cell), first.getMean(cell), 1e-3f);
+            }
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void merge_rejectsDifferentGrid() {
+        new SkyHeatmap(5).merge(new SkyHeatmap(10));
+    }
+
+    @Test
+    public void longSession_keepsFixedMemoryAndDoesNotAllocate() {
+        SkyHeatmap heatmap = new SkyHeatmap();
+        long memory = heatmap.getMemoryBytes();
+        SatelliteSnapshot snapshot = new SatelliteSnapshot(64);
+        int[] dirty = new int[heatmap.getCellCount()];
+        long drained = 0;
+        for (int epoch = 0; epoch < 20_000; epoch++) {
+            drained += epoch(heatmap, snapshot, dirty, epoch);
+        }
+
+        // Uma hora a 10 Hz com 64 satélites
+        long before = Allocations.currentThreadAllocatedBytes();
+        for (int epoch = 0; epoch < 36_000; epoch++) {
+            drained += epoch(heatmap, snapshot, dirty, epoch);
+        }
+        long allocated = Allocations.currentThreadAllocatedBytes() - before;
+
+        assertTrue(drained > 0);
+        assertEquals(56_000L * 64, heatmap.getTotalSamples());
+        assertEquals(memory, heatmap.getMemoryBytes());
+        assertEquals("Bytes alocados em regime permanente", 0, allocated);
+    }
+
+    // Satélites girando devagar pelo céu, com o desenho lendo as células alteradas a cada época
+    private static int epoch(SkyHeatmap heatmap, SatelliteSnapshot snapshot, int[] dirty, int epoch) {
+        snapshot.clear();
+        for (int i = 0; i < 64; i++) {
+            snapshot.add(i + 1, 1 + i % 6, 20f + i % 25, (i * 5.6f + epoch * 0.01f) % 360f, i * 1.4f, true);
+        }
+        heatmap.process(snapshot);
+        return heatmap.drainDirty(dirty);
+    }
+}
@@ -0,0 +1,116 @@
+package com.example.gnss;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class SkyInterpolatorTest {
+
+    private static final long SECOND = 1_000_000_000L;
+
+    private final SkyProjection projection = new SkyProjection(90f);
+    private final SnapshotDiff diff = new SnapshotDiff(8);
+    private final SkyInterpolator interpolator = new SkyInterpolator(8);
+    private final float[] positions = new float[16];
+
+    private void publish(long timestampNanos, long nowNanos, float azimuth, float elevation) {
+        SatelliteSnapshot snapshot = new SatelliteSnapshot(8);
+        snapshot.add(7, 1, 30f, azimuth, elevation, true);
+        snapshot.setTimestampNanos(timestampNanos);
+        diff.update(snapshot);
+        interpolator.update(snapshot, diff, projection, nowNanos);
+    }
+
+    @Test
+    public void newSatellite_appearsAtItsTarget() {
+        publish(SECOND, 0, 90f, 0f);
+
+        assertFalse(interpolator.positionsAt(0, positions));
+        assertEquals(90f, positions[0], 1e-3f);
+        assertEquals(0f, positions[1], 1e-3f);
+        assertTrue(interpolator.hasDirtyRegion());
+    }
+
+    @Test
+    public void movingSatellite_interpolatesOverEpochInterval() {
+        publish(SECOND, 0, 90f, 0f);           // (90, 0)
+        publish(2 * SECOND, 10 * SECOND, 0f, 0f); // (0, -90)
+
+        assertEquals(SECOND, interpolator.getDurationNanos());
+        assertTrue(interpolator.positionsAt(10 * SECOND + SECOND / 2, positions));
+        assertEquals(45f, positions[0], 1e-3f);
+        assertEquals(-45f, positions[1], 1e-3f);
+
+        assertFalse(interpolator.positionsAt(11 * SECOND, positions));
+        assertEquals(0f, positions[0], 1e-3f);
+        assertEquals(-90f, positions[1], 1e-3f);
+
+        assertEquals(0f, interpolator.getDirtyLeft(), 1e-3f);
+        assertEquals(90f, interpolator.getDirtyRight(), 1e-3f);
+        assertEquals(-90f, interpolator.getDirtyTop(), 1e-3f);
+        assertEquals(0f, interpolator.getDirtyBottom(), 1e-3f);
+    }
+
+    @Test
+    public void newEpochMidAnimation_continuesFromCurrentPosition() {
+        publish(SECOND, 0, 90f, 0f);
+        publish(1_500_000_000L, SECOND, 0f, 0f);   // Meio segundo entre épocas
+        publish(2 * SECOND, SECOND + SECOND / 4, 0f, 0f); // Chega na metade do caminho
+
+        assertTrue(interpolator.positionsAt(SECOND + SECOND / 4, positions));
+        assertEquals(45f, positions[0], 1e-3f);
+        assertEquals(-45f, positions[1], 1e-3f);
+    }
+
+    @Test
+    public void unchangedSnapshot_doesNotAnimateOrDirty() {
+        publish(SECOND, 0, 45f, 30f);
+        publish(2 * SECOND, SECOND, 45f, 30f);
+
+        assertFalse(interpolator.isAnimating());
+        assertFalse(interpolator.hasDirtyRegion());
+    }
+
+    @Test
+    public void epochDuration_isClamped() {
+        publish(SECOND, 0, 10f, 10f);
+        publish(SECOND + 1000, 1, 20f, 10f);
+        assertEquals(100_000_000L, interpolator.getDurationNanos());
+        publish(60 * SECOND, 2, 30f, 10f);
+        assertEquals(2 * SECOND, interpolator.getDurationNanos());
+    }
+
+    @Test
+    public void animationFrames_doNotAllocate() {
+        SatelliteSnapshot[] snapshots = {new SatelliteSnapshot(8), new SatelliteSnapshot(8)};
+        float checksum = 0;
+        for (int epoch = 0; epoch < 30_000; epoch++) {
+            if (epoch == 20_000) {
+                long before = Allocations.currentThreadAllocatedBytes();
+                for (int frame = 0; frame < 10_000; frame++) {
+                    checksum += frame(snapshots, frame);
+                }
+                assertEquals(0, Allocations.currentThreadAllocatedBytes() - before);
+            }
+            checksum += frame(snapshots, epoch);
+        }
+        assertTrue(checksum != 0);
+    }
+
+    // Uma época a cada 60 quadros de 16 ms
+    private float frame(SatelliteSnapshot[] snapshots, int frame) {
+        long now = frame * 16_000_000L;
+        if (frame % 60 == 0) {
+            SatelliteSnapshot snapshot = snapshots[(frame / 60) & 1];
+            snapshot.clear();
+            for (int i = 0; i < 8; i++) {
+                snapshot.add(i + 1, 1, 30f, (frame * 0.01f + i * 45) % 360f, 10f + i, true);
+            }
+            snapshot.setTimestampNanos(now + 1);
+            diff.update(snapshot);
+            interpolator.update(snapshot, diff, projection, now);
+        }
+        interpolator.positionsAt(now, positions);
+        return positions[0] + positions[15];
+    }
+}
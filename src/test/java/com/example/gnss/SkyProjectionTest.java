@@ -0,0 +1,83 @@
+package com.example.gnss;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class SkyProjectionTest {
+
+    private static final float RADIUS = 500f;
+
+    @Test
+    public void lookupTables_matchMathWithinTolerance() {
+        for (float degrees = -720f; degrees <= 720f; degrees += 0.37f) {
+            double radians = Math.toRadians(degrees);
+            assertEquals(Math.sin(radians), SkyProjection.sinDegrees(degrees), 1e-5);
+            assertEquals(Math.cos(radians), SkyProjection.cosDegrees(degrees), 1e-5);
+        }
+    }
+
+    @Test
+    public void lookupTables_wrapAtTableBoundary() {
+        // -1e-6 * 10 + 3600 arredonda para 3600 em float: índice fora da tabela sem o ajuste
+        float[] angles = {-1e-6f, -0f, 0f, 360f, 359.99999f, -360f, -Float.MIN_VALUE};
+        for (float degrees : angles) {
+            double radians = Math.toRadians(degrees);
+            assertEquals(Math.sin(radians), SkyProjection.sinDegrees(degrees), 1e-5);
+            assertEquals(Math.cos(radians), SkyProjection.cosDegrees(degrees), 1e-5);
+        }
+    }
+
+    @Test
+    public void zenith_isAtCenter() {
+        float[] out = new float[2];
+        new SkyProjection(RADIUS).project(123f, 90f, out, 0);
+        assertEquals(0f, out[0], 1e-3f);
+        assertEquals(0f, out[1], 1e-3f);
+    }
+
+    @Test
+    public void horizon_cardinalDirections() {
+        SkyProjection projection = new SkyProjection(RADIUS);
+        float[] out = new float[8];
+        projection.project(0f, 0f, out, 0);   // Norte: para cima
+        projection.project(90f, 0f, out, 2);  // Leste: à direita
+        projection.project(180f, 0f, out, 4); // Sul: para baixo
+        projection.project(270f, 0f, out, 6); // Oeste: à esquerda
+
+        assertArrayEquals(new float[]{0f, -RADIUS, RADIUS, 0f, 0f, RADIUS, -RADIUS, 0f}, out, 1e-2f);
+    }
+
+    @Test
+    public void matchesLegacyProjection() {
+        SkyProjection projection = new SkyProjection(RADIUS);
+        float[] out = new float[2];
+        for (float azimuth = 0f; azimuth < 360f; azimuth += 7.3f) {
+            for (float elevation = 0f; elevation <= 90f; elevation += 4.1f) {
+                projection.project(azimuth, elevation, out, 0);
+
+                // Cálculo original do EsferaCelesteView.onDraw
+                float adjustedRadius = (float) (RADIUS * (90.0 - elevation) / 90.0);
+                float x = (float) (adjustedRadius * Math.sin(Math.toRadians(azimuth)));
+                float y = (float) (adjustedRadius * Math.cos(Math.toRadians(azimuth)));
+
+                assertEquals(x, out[0], 0.01f);
+                assertEquals(-y, out[1], 0.01f);
+            }
+        }
+    }
+
+    @Test
+    public void projectAll_fillsPairsForEachSatellite() {
+        SatelliteSnapshot snapshot = new SatelliteSnapshot(3);
+        snapshot.add(1, 1, 30f, 90f, 45f, true);
+        snapshot.add(2, 1, 30f, 180f, 0f, true);
+        float[] out = new float[6];
+
+        int count = new SkyProjection(RADIUS).projectAll(snapshot, out);
+
+        assertEquals(2, count);
+        assertEquals(RADIUS / 2, out[0], 1e-2f);
+        assertEquals(RADIUS, out[3], 1e-2f);
+    }
+}
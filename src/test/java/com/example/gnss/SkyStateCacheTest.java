@@ -0,0 +1,155 @@
+package com.example.gnss;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+
+import static org.junit.Assert.*;
+
+public class SkyStateCacheTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private static SkyStateCache sampleState(int satellites) {
+        SkyStateCache state = new SkyStateCache();
+        for (int i = 0; i < satellites; i++) {
+            float carrier = i % 3 == 0 ? Float.NaN : (i % 3 == 1 ? 1575.42e6f : 1176.45e6f);
+            state.snapshot.add(1 + i % 63, 1 + i % 6, 20f + i % 30, i * 1.4f, i % 90, i % 2 == 0, carrier);
+        }
+        state.snapshot.setTimestampNanos(123_456_789L);
+        state.savedAtMillis = 1_700_000_000_000L;
+        state.constellationFilter = 0b101;
+        state.coordinateFormat = CoordinateFormat.DEGREES_MINUTES_SECONDS;
+        state.setLocation(-23.5505199, -46.6333094);
+        return state;
+    }
+
+    @Test
+    public void roundTrip_restoresSnapshotLocationAndSettings() throws IOException {
+        File file = new File(folder.getRoot(), SkyStateCache.FILE_NAME);
+        SkyStateCache written = sampleState(40);
+        written.writeTo(file);
+        assertEquals(written.encodedSize(), file.length());
+        assertFalse(new File(file.getPath() + ".tmp").exists());
+
+        SkyStateCache read = SkyStateCache.readFrom(file);
+        assertEquals(1_700_000_000_000L, read.savedAtMillis);
+        assertEquals(0b101, read.constellationFilter);
+        assertEquals(CoordinateFormat.DEGREES_MINUTES_SECONDS, read.coordinateFormat);
+        assertTrue(read.hasLocation);
+        assertEquals(-23.5505199, read.latitude, 0);
+        assertEquals(-46.6333094, read.longitude, 0);
+
+        SatelliteSnapshot expected = written.snapshot;
+        SatelliteSnapshot actual = read.snapshot;
+        assertEquals(40, actual.getSatelliteCount());
+        assertEquals(123_456_789L, actual.getTimestampNanos());
+        assertEquals(0, actual.getSequence());
+        for (int i = 0; i < 40; i++) {
+            assertEquals(expected.getSvid(i), actual.getSvid(i));
+            assertEquals(expected.getConstellationType(i), actual.getConstellationType(i));
+            assertEquals(expected.getCn0DbHz(i), actual.getCn0DbHz(i), 0f);
+            assertEquals(expected.getAzimuthDegrees(i), actual.getAzimuthDegrees(i), 0f);
+            assertEquals(expected.getElevationDegrees(i), actual.getElevationDegrees(i), 0f);
+            assertEquals(expected.usedInFix(i), actual.usedInFix(i));
+            assertEquals(expected.getSignalKey(i), actual.getSignalKey(i));
+        }
+        assertTrue(Float.isNaN(actual.getCarrierFrequencyHz(0)));
+    }
+
+    @Test
+    public void missingFile_isNotAnError() throws IOException {
+        assertNull(SkyStateCache.readFrom(new File(folder.getRoot(), "nada.bin")));
+    }
+
+    @Test
+    public void emptySky_withoutLocation_roundTrips() throws IOException {
+        File file = folder.newFile("vazio.bin");
+        new SkyStateCache().writeTo(file);
+        SkyStateCache read = SkyStateCache.readFrom(file);
+        assertEquals(0, read.snapshot.getSatelliteCount());
+        assertFalse(read.hasLocation);
+        assertEquals(ConstellationRegistry.ALL, read.constellationFilter);
+        assertEquals(CoordinateFormat.DEGREES, read.coordinateFormat);
+    }
+
+    @Test
+    public void corruptedByte_isRejected() throws IOException {
+        File file = folder.newFile("corrompido.bin");
+        sampleState(10).writeTo(file);
+        try (RandomAccessFile raw = new RandomAccessFile(file, "rw")) {
+            raw.seek(SkyStateCache.HEADER_SIZE + 5);
+            int value = raw.read();
+            raw.seek(SkyStateCache.HEADER_SIZE + 5);
+            raw.write(value ^ 0x40);
+        }
+        assertRejected(file);
+    }
+
+    @Test
+    public void truncatedFile_isRejected() throws IOException {
+        File file = folder.newFile("truncado.bin");
+        sampleState(10).writeTo(file);
+        for (long length : new long[]{file.length() - 1, SkyStateCache.HEADER_SIZE + 3, 10}) {
+            try (RandomAccessFile raw = new RandomAccessFile(file, "rw")) {
+                raw.setLength(length);
+            }
+            assertRejected(file);
+        }
+    }
+
+    @Test
+    public void rewrite_replacesPreviousState() throws IOException {
+        File file = new File(folder.getRoot(), SkyStateCache.FILE_NAME);
+        sampleState(200).writeTo(file);
+        sampleState(3).writeTo(file);
+        assertEquals(3, SkyStateCache.readFrom(file).snapshot.getSatelliteCount());
+    }
+
+    @Test
+    public void decode_readsFromBufferPosition() throws IOException {
+        SkyStateCache written = sampleState(5);
+        ByteBuffer buffer = ByteBuffer.allocate(7 + written.encodedSize());
+        buffer.position(7);
+        written.encode(buffer);
+        assertFalse(buffer.hasRemaining());
+
+        buffer.position(7);
+        SkyStateCache read = new SkyStateCache();
+        read.decode(buffer);
+        assertEquals(5, read.snapshot.getSatelliteCount());
+        assertFalse(buffer.hasRemaining());
+    }
+
+    // Medida do início a frio: ler e decodificar um céu cheio cabe com folga antes do primeiro quadro
+    @Test
+    public void fullSkyRead_isWellUnderOneFrame() throws IOException {
+        File file = new File(folder.getRoot(), SkyStateCache.FILE_NAME);
+        sampleState(SatelliteSnapshot.DEFAULT_CAPACITY).writeTo(file);
+        for (int i = 0; i < 200; i++) {
+            SkyStateCache.readFrom(file);
+        }
+        int runs = 200;
+        long start = System.nanoTime();
+        for (int i = 0; i < runs; i++) {
+            assertEquals(SatelliteSnapshot.DEFAULT_CAPACITY, SkyStateCache.readFrom(file).snapshot.getSatelliteCount());
+        }
+        double millis = (System.nanoTime() - start) / 1e6 / runs;
+        assertTrue("Leitura do cache levou " + millis + " ms", millis < 16);
+    }
+
+    private static void assertRejected(File file) {
+        try {
+            SkyStateCache.readFrom(file);
+            fail("Cache inválido aceito");
+        } catch (IOException expected) {
+            // Esperado
+        }
+    }
+}
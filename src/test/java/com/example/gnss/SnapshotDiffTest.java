@@ -0,0 +1,124 @@
+package com.example.gnss;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class SnapshotDiffTest {
+
+    @Test
+    public void firstUpdate_addsEverySatellite() {
+        SnapshotDiff diff = new SnapshotDiff(8);
+        SatelliteSnapshot snapshot = new SatelliteSnapshot(8);
+        snapshot.add(5, 1, 30f, 10f, 20f, true);
+        snapshot.add(5, 3, 31f, 11f, 21f, false); // Mesmo SVID, outra constelação
+
+        diff.update(snapshot);
+
+        assertEquals(2, diff.getAddedCount());
+        assertEquals(0, diff.getChangedCount());
+        assertEquals(0, diff.getRemovedCount());
+        assertEquals(-1, diff.getPreviousIndex(0));
+        assertEquals(-1, diff.getPreviousIndex(1));
+    }
+
+    @Test
+    public void consecutiveSnapshots_areMatchedByConstellationAndSvid() {
+        SnapshotDiff diff = new SnapshotDiff(8);
+        SatelliteSnapshot first = new SatelliteSnapshot(8);
+        first.add(1, 1, 30f, 10f, 20f, true);   // Continua igual
+        first.add(2, 1, 30f, 10f, 20f, true);   // Muda de posição
+        first.add(3, 6, 30f, 10f, 20f, true);   // Some
+        first.add(4, 5, 30f, 10f, 20f, false);  // Passa a ser usado no fix
+        diff.update(first);
+
+        SatelliteSnapshot second = new SatelliteSnapshot(8);
+        second.add(4, 5, 30f, 10f, 20f, true);
+        second.add(9, 3, 25f, 90f, 5f, false);  // Novo
+        second.add(2, 1, 30f, 10.2f, 20f, true);
+        second.add(1, 1, 30f, 10f, 20f, true);
+        diff.update(second);
+
+        assertFalse(diff.isEmpty());
+        assertEquals(1, diff.getAddedCount());
+        assertEquals(1, diff.getAdded(0));
+        assertEquals(1, diff.getRemovedCount());
+        assertEquals(2, diff.getRemoved(0));
+        assertEquals(10f, diff.getRemovedAzimuth(0), 0f);
+        assertEquals(2, diff.getChangedCount());
+        assertEquals(0, diff.getChanged(0));
+        assertEquals(2, diff.getChanged(1));
+
+        assertEquals(3, diff.getPreviousIndex(0));
+        assertEquals(-1, diff.getPreviousIndex(1));
+        assertEquals(1, diff.getPreviousIndex(2));
+        assertEquals(0, diff.getPreviousIndex(3));
+    }
+
+    @Test
+    public void dualFrequencySatellite_isMatchedPerBand() {
+        SnapshotDiff diff = new SnapshotDiff(8);
+        SatelliteSnapshot first = new SatelliteSnapshot(8);
+        first.add(5, 1, 40f, 10f, 20f, true, 1575.42e6f);
+        first.add(5, 1, 35f, 10f, 20f, true, 1176.45e6f);
+        diff.update(first);
+
+        // L5 perde o sinal e some; L1 continua igual, mesmo mudando de posição
+        SatelliteSnapshot second = new SatelliteSnapshot(8);
+        second.add(7, 1, 30f, 50f, 20f, true, 1575.42e6f);
+        second.add(5, 1, 40f, 10f, 20f, true, 1575.42e6f);
+        diff.update(second);
+
+        assertEquals(1, diff.getAddedCount());
+        assertEquals(0, diff.getChangedCount());
+        assertEquals(1, diff.getRemovedCount());
+        assertEquals(1, diff.getRemoved(0));
+        assertEquals(0, diff.getPreviousIndex(1));
+    }
+
+    @Test
+    public void identicalSnapshot_producesEmptyDiff() {
+        SnapshotDiff diff = new SnapshotDiff(8);
+        SatelliteSnapshot snapshot = new SatelliteSnapshot(8);
+        snapshot.add(1, 1, 30f, 10f, 20f, true);
+        diff.update(snapshot);
+        diff.update(snapshot);
+
+        assertTrue(diff.isEmpty());
+        assertEquals(0, diff.getPreviousIndex(0));
+
+        diff.reset();
+        diff.update(snapshot);
+        assertEquals(1, diff.getAddedCount());
+    }
+
+    @Test
+    public void steadyStateDiffing_doesNotAllocate() {
+        SnapshotDiff diff = new SnapshotDiff(256);
+        SatelliteSnapshot[] snapshots = {new SatelliteSnapshot(256), new SatelliteSnapshot(256)};
+        long checksum = 0;
+        for (int epoch = 0; epoch < 20_000; epoch++) {
+            checksum += step(diff, snapshots[epoch & 1], epoch);
+        }
+
+        long before = Allocations.currentThreadAllocatedBytes();
+        for (int epoch = 0; epoch < 10_000; epoch++) {
+            checksum += step(diff, snapshots[epoch & 1], epoch);
+        }
+        long allocated = Allocations.currentThreadAllocatedBytes() - before;
+
+        assertTrue(checksum > 0);
+        assertEquals(0, allocated);
+    }
+
+    // 150 satélites, com um grupo de SVIDs que entra e sai a cada época
+    private static int step(SnapshotDiff diff, SatelliteSnapshot snapshot, int epoch) {
+        snapshot.clear();
+        for (int i = 0; i < 150; i++) {
+            int svid = i < 140 ? i + 1 : 1000 + (epoch % 7) * 10 + i;
+            snapshot.add(svid, 1 + i % 7, 30f, (epoch * 0.01f + i) % 360f, i % 90, true);
+        }
+        diff.update(snapshot);
+        return diff.getAddedCount() + diff.getChangedCount() + diff.getRemovedCount();
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.gnss;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class WarmStartSourceTest {
+
+    @Test
+    public void cachedSnapshot_isServedAsStaleUntilFirstLiveUpdate() {
+        GnssPipeline pipeline = new GnssPipeline(8);
+        WarmStartSource source = new WarmStartSource(pipeline);
+        assertNull(source.acquireLatest());
+        assertFalse(source.isStale());
+
+        SatelliteSnapshot cached = new SatelliteSnapshot(8);
+        cached.add(5, 1, 30f, 10f, 20f, true);
+        source.setCached(cached);
+        assertSame(cached, source.acquireLatest());
+        assertTrue(source.isStale());
+
+        pipeline.beginUpdate().add(7, 1, 40f, 10f, 20f, true);
+        pipeline.commitUpdate();
+        SatelliteSnapshot live = source.acquireLatest();
+        assertEquals(7, live.getSvid(0));
+        assertFalse(source.isStale());
+
+        // Um cache que chega atrasado não volta a aparecer
+        source.setCached(cached);
+        assertEquals(7, source.acquireLatest().getSvid(0));
+        assertFalse(source.isStale());
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.gnss;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+
+import static org.junit.Assert.*;
+
+public class YumaAlmanacParserTest {
+
+    private static OrbitElements parseSample(int referenceWeek) throws IOException {
+        try (Reader reader = new InputStreamReader(
+                YumaAlmanacParserTest.class.getResourceAsStream("/almanac/yuma_sample.alm"), StandardCharsets.US_ASCII)) {
+            return YumaAlmanacParser.parse(reader, referenceWeek);
+        }
+    }
+
+    @Test
+    public void parse_readsHealthySatellites() throws IOException {
+        OrbitElements elements = parseSample(2360);
+
+        assertEquals(3, elements.getCount()); // PRN 03 está com saúde 63
+        assertEquals(1, elements.getSvid(0));
+        assertEquals(2, elements.getSvid(1));
+        assertEquals(5, elements.getSvid(2));
+        assertEquals(ConstellationRegistry.GPS, elements.getConstellationType(0));
+        assertEquals(5153.620605 * 5153.620605, elements.getSemiMajorAxis(0), 1e-3);
+        assertEquals(0.01234245300, elements.getEccentricity(0), 1e-12);
+        // Semana 313 do YUMA, no terceiro ciclo de 1024: 2 * 1024 + 313 = 2361
+        assertEquals(GpsTime.fromWeek(2361, 405504), elements.getReferenceSeconds(0), 0);
+    }
+
+    @Test
+    public void turkishLocale_stillMatchesFieldNames() throws IOException {
+        Locale previous = Locale.getDefault();
+        Locale.setDefault(new Locale("tr", "TR"));
+        try {
+            assertEquals(3, parseSample(2360).getCount());
+        } finally {
+            Locale.setDefault(previous);
+        }
+    }
+
+    @Test
+    public void truncatedWeek_resolvesToClosestCycle() {
+        assertEquals(2361, GpsTime.resolveWeek(313, 1024, 2360));
+        assertEquals(2361, GpsTime.resolveWeek(313, 1024, 2700));
+        assertEquals(1337, GpsTime.resolveWeek(313, 1024, 1800));
+        assertEquals(2047, GpsTime.resolveWeek(1023, 1024, 2050)); // Almanaque da semana anterior ao ciclo
+    }
+
+    @Test(expected = IOException.class)
+    public void malformedValue_isReported() throws IOException {
+        YumaAlmanacParser.parse(new StringReader("ID: 01\nEccentricity: abc\n"), 2360);
+    }
+}